@@ -12,5 +12,24 @@
 
 ALTER TABLE regprc.abis_response_det DROP COLUMN score;
 
+ALTER TABLE regprc.registration ADD COLUMN upd_version integer NOT NULL DEFAULT 0;
+
+CREATE TABLE regprc.individual_demographic_dedup_key(
+	blocking_key character varying(256) NOT NULL,
+	reg_id character varying(39) NOT NULL,
+	lang_code character varying(3) NOT NULL,
+	cr_by character varying(256) NOT NULL,
+	cr_dtimes timestamp NOT NULL,
+	CONSTRAINT pk_idemogdk_id PRIMARY KEY (blocking_key,reg_id,lang_code)
+);
+
+create index idx_idemogdk_regid on regprc.individual_demographic_dedup_key (reg_id);
+
+create index idx_rmnlver_status_trntyp_crdt on regprc.reg_manual_verification (status_code, trntyp_code, cr_dtimes);
+
+create index idx_rmnlver_status_crdt on regprc.reg_manual_verification (status_code, cr_dtimes);
+
+create index idx_reglist_regid on regprc.registration_list (reg_id);
+
 INSERT INTO regprc.transaction_type(code, descr, lang_code, is_active, cr_by, cr_dtimes) VALUES ('SECUREZONE_NOTIFICATION', 'transaction notification', 'eng', TRUE, 'MOSIP_SYSTEM', now());
 ----------------------------------------------------------------------------------------------------
\ No newline at end of file
@@ -12,4 +12,14 @@
 
 ALTER TABLE regprc.abis_response_det ADD COLUMN score numeric(6,3) NOT NULL;
 
+ALTER TABLE regprc.registration DROP COLUMN upd_version;
+
+DROP TABLE IF EXISTS regprc.individual_demographic_dedup_key;
+
+DROP INDEX IF EXISTS regprc.idx_rmnlver_status_trntyp_crdt;
+
+DROP INDEX IF EXISTS regprc.idx_rmnlver_status_crdt;
+
+DROP INDEX IF EXISTS regprc.idx_reglist_regid;
+
 ----------------------------------------------------------------------------------------------------
\ No newline at end of file
@@ -0,0 +1,41 @@
+-- -------------------------------------------------------------------------------------------------
+-- Database Name: mosip_regprc
+-- Table Name 	: regprc.individual_demographic_dedup_key
+-- Purpose    	: Individual Demographic Dedupe Key: Blocking keys of the individual demographic dedupe records, used to find dedupe candidates without comparing every record.
+--           
+-- Create By   	: Registration Processor
+-- Created Date	: 18-Oct-2026
+-- 
+-- Modified Date        Modified By         Comments / Remarks
+-- ------------------------------------------------------------------------------------------
+-- 
+-- ------------------------------------------------------------------------------------------
+
+-- object: regprc.individual_demographic_dedup_key | type: TABLE --
+-- DROP TABLE IF EXISTS regprc.individual_demographic_dedup_key CASCADE;
+CREATE TABLE regprc.individual_demographic_dedup_key(
+	blocking_key character varying(256) NOT NULL,
+	reg_id character varying(39) NOT NULL,
+	lang_code character varying(3) NOT NULL,
+	cr_by character varying(256) NOT NULL,
+	cr_dtimes timestamp NOT NULL,
+	CONSTRAINT pk_idemogdk_id PRIMARY KEY (blocking_key,reg_id,lang_code)
+
+);
+
+-- indexes section -------------------------------------------------
+create index idx_idemogdk_regid on regprc.individual_demographic_dedup_key (reg_id);
+
+-- ddl-end --
+COMMENT ON TABLE regprc.individual_demographic_dedup_key IS 'Individual Demographic Dedupe Key: Blocking keys of the individual demographic dedupe records, used to find dedupe candidates without comparing every record.';
+-- ddl-end --
+COMMENT ON COLUMN regprc.individual_demographic_dedup_key.blocking_key IS 'Blocking Key : Language code, phonetic code of a name token, gender and year and month of birth of an individual';
+-- ddl-end --
+COMMENT ON COLUMN regprc.individual_demographic_dedup_key.reg_id IS 'Registration id of applicant';
+-- ddl-end --
+COMMENT ON COLUMN regprc.individual_demographic_dedup_key.lang_code IS 'Language Code : Language of the individual demographic dedupe record the key is generated from.';
+-- ddl-end --
+COMMENT ON COLUMN regprc.individual_demographic_dedup_key.cr_by IS 'Created By : ID or name of the user who create / insert record.';
+-- ddl-end --
+COMMENT ON COLUMN regprc.individual_demographic_dedup_key.cr_dtimes IS 'Created DateTimestamp : Date and Timestamp when the record is created/inserted';
+-- ddl-end --
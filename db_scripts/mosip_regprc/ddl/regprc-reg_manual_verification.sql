@@ -34,6 +34,11 @@ CREATE TABLE regprc.reg_manual_verification(
 	CONSTRAINT pk_rmnlver_id PRIMARY KEY (reg_id,matched_ref_id,matched_ref_type)
 
 );
+
+-- indexes section -------------------------------------------------
+create index idx_rmnlver_status_trntyp_crdt on regprc.reg_manual_verification (status_code, trntyp_code, cr_dtimes);
+create index idx_rmnlver_status_crdt on regprc.reg_manual_verification (status_code, cr_dtimes);
+
 -- ddl-end --
 COMMENT ON TABLE regprc.reg_manual_verification IS 'Manual Verification: Stores all the registration request which goes through manual verification process, registration can be assinged to single/multiple manual verifier as part of the verification process';
 -- ddl-end --
@@ -36,6 +36,7 @@ CREATE TABLE regprc.registration(
 	upd_dtimes timestamp,
 	is_deleted boolean,
 	del_dtimes timestamp,
+	upd_version integer NOT NULL DEFAULT 0,
 	CONSTRAINT pk_reg_id PRIMARY KEY (id)
 
 );
@@ -86,4 +87,6 @@ COMMENT ON COLUMN regprc.registration.is_deleted IS 'IS_Deleted : Flag to mark w
 -- ddl-end --
 COMMENT ON COLUMN regprc.registration.del_dtimes IS 'Deleted DateTimestamp : Date and Timestamp when the record is soft deleted with is_deleted=TRUE';
 -- ddl-end --
+COMMENT ON COLUMN regprc.registration.upd_version IS 'Update Version : Incremented on every update of the record, status updates only apply if the record still has the version they were read with.';
+-- ddl-end --
 
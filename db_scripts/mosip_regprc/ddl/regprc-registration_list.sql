@@ -34,6 +34,10 @@ CREATE TABLE regprc.registration_list(
 	CONSTRAINT pk_reglist_id PRIMARY KEY (id)
 
 );
+
+-- indexes section -------------------------------------------------
+create index idx_reglist_regid on regprc.registration_list (reg_id);
+
 -- ddl-end --
 COMMENT ON TABLE regprc.registration_list IS 'Registration Lists: List of Registration packets details received (to be received) from registration client applications. These details are used to validate the actuall packets received for processing.';
 -- ddl-end --
@@ -0,0 +1,361 @@
+package io.mosip.registartion.processor.abis.middleware.dispatcher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.code.AbisStatusCode;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.core.packet.dto.Identity;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisRequestDto;
+import io.mosip.registration.processor.core.queue.factory.MosipQueue;
+import io.mosip.registration.processor.core.spi.packetmanager.PacketInfoManager;
+import io.mosip.registration.processor.core.spi.queue.MosipQueueManager;
+import io.mosip.registration.processor.packet.storage.dto.ApplicantInfoDto;
+
+/**
+ * Sends ABIS requests and correlates the responses to them.
+ *
+ * The requests for one ABIS are sent together, in one transacted batch when
+ * there are several. Each ABIS has a bounded number of requests in flight: a
+ * sender waits for free slots up to the send timeout and the request is
+ * failed if none frees up. Requests in flight are indexed by request id until
+ * their response comes back, which gives the listener the request, its batch
+ * and its registration without looking them up.
+ *
+ * The responses come from a queue shared by all the instances, so the response
+ * to a request may be taken by another instance. The index is therefore only a
+ * shortcut: the request status in the database stays the record of what was
+ * processed. Every reconcile interval, and when an ABIS runs out of free slots,
+ * the requests in flight are checked against the database and those whose
+ * response was processed elsewhere free their slot. Requests left without a
+ * response for the response timeout are dropped from the index.
+ *
+ * <pre>
+ * registration.processor.abis.max-in-flight          requests in flight per ABIS (200)
+ * registration.processor.abis.send-timeout-ms        wait for a free slot (30000)
+ * registration.processor.abis.response-timeout-ms    wait for a response (3600000)
+ * registration.processor.abis.reconcile-interval-ms  check the database for responses
+ *                                                    taken by other instances (60000)
+ * </pre>
+ *
+ * @since 1.0.9
+ */
+public class AbisRequestDispatcher {
+
+	/** The reg proc logger. */
+	private static Logger regProcLogger = RegProcessorLogger.getLogger(AbisRequestDispatcher.class);
+
+	private static final String METRIC_PREFIX = "regproc.abis.";
+
+	/** The least time between two checks forced by an ABIS without free slots. */
+	private static final long FORCED_RECONCILE_GAP_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+	/** The mosip queue manager. */
+	@Autowired
+	private MosipQueueManager<MosipQueue, byte[]> mosipQueueManager;
+
+	/** The packet info manager. */
+	@Autowired
+	private PacketInfoManager<Identity, ApplicantInfoDto> packetInfoManager;
+
+	/** The meter registry. */
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	@Value("${registration.processor.abis.max-in-flight:200}")
+	private int maxInFlight;
+
+	@Value("${registration.processor.abis.send-timeout-ms:30000}")
+	private long sendTimeoutMillis;
+
+	@Value("${registration.processor.abis.response-timeout-ms:3600000}")
+	private long responseTimeoutMillis;
+
+	@Value("${registration.processor.abis.reconcile-interval-ms:60000}")
+	private long reconcileIntervalMillis;
+
+	private final Map<String, InFlightRequest> inFlightRequests = new ConcurrentHashMap<>();
+
+	private final Map<String, AbisState> abisStates = new ConcurrentHashMap<>();
+
+	/** When the index was last checked against the database. */
+	private final AtomicLong lastReconcileNanos = new AtomicLong(System.nanoTime());
+
+	/**
+	 * Sends the requests to the inbound queue of the ABIS.
+	 *
+	 * @param abisName
+	 *            the ABIS name
+	 * @param queue
+	 *            the queue of the ABIS
+	 * @param address
+	 *            the inbound queue address of the ABIS
+	 * @param requests
+	 *            the requests, in the order to send them
+	 * @param registrationId
+	 *            the registration the requests are for
+	 * @return whether the requests were sent
+	 */
+	public boolean dispatch(String abisName, MosipQueue queue, String address, List<AbisRequestDto> requests,
+			String registrationId) {
+		if (requests.isEmpty()) {
+			return true;
+		}
+		AbisState abisState = getAbisState(abisName);
+		List<AbisRequestDto> indexedRequests = requests.stream().filter(request -> request.getId() != null)
+				.collect(Collectors.toList());
+		reconcileRequests(abisState.slots.availablePermits() < indexedRequests.size());
+		if (!abisState.acquire(indexedRequests.size(), sendTimeoutMillis)) {
+			abisState.rejectedCount.addAndGet(requests.size());
+			regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					registrationId, "AbisRequestDispatcher::dispatch()::no free slot for ABIS " + abisName
+							+ " within " + sendTimeoutMillis + " ms");
+			return false;
+		}
+		// indexed before sending, the response may come back before send returns
+		long sentNanos = System.nanoTime();
+		for (AbisRequestDto request : indexedRequests) {
+			InFlightRequest previous = inFlightRequests.put(request.getId(),
+					new InFlightRequest(request, registrationId, abisState, sentNanos));
+			if (previous != null) {
+				previous.abisState.release();
+			}
+		}
+		List<byte[]> messages = requests.stream().map(AbisRequestDto::getReqText).collect(Collectors.toList());
+		boolean sent = false;
+		try {
+			Boolean isSent = messages.size() == 1 ? mosipQueueManager.send(queue, messages.get(0), address)
+					: mosipQueueManager.sendBatch(queue, messages, address);
+			sent = Boolean.TRUE.equals(isSent);
+		} finally {
+			if (!sent) {
+				indexedRequests.forEach(request -> release(request.getId()));
+			}
+		}
+		return sent;
+	}
+
+	/**
+	 * Takes the request of a response out of the index.
+	 *
+	 * @param requestId
+	 *            the request id of the response
+	 * @return the request, null if it was not sent by this instance or expired
+	 */
+	public InFlightRequest complete(String requestId) {
+		InFlightRequest inFlightRequest = release(requestId);
+		if (inFlightRequest != null) {
+			inFlightRequest.abisState.recordLatency(inFlightRequest.request.getRequestType(),
+					System.nanoTime() - inFlightRequest.sentNanos);
+		}
+		return inFlightRequest;
+	}
+
+	/**
+	 * Whether the request was sent and its response has not come back.
+	 *
+	 * @param requestId
+	 *            the request id
+	 * @return true if in flight
+	 */
+	public boolean isInFlight(String requestId) {
+		return requestId != null && inFlightRequests.containsKey(requestId);
+	}
+
+	/**
+	 * Gets the requests in flight to an ABIS.
+	 *
+	 * @param abisName
+	 *            the ABIS name
+	 * @return the count
+	 */
+	public int getInFlight(String abisName) {
+		AbisState abisState = abisStates.get(abisName);
+		return abisState == null ? 0 : abisState.inFlight.get();
+	}
+
+	private InFlightRequest release(String requestId) {
+		InFlightRequest inFlightRequest = requestId == null ? null : inFlightRequests.remove(requestId);
+		if (inFlightRequest != null) {
+			inFlightRequest.abisState.release();
+		}
+		return inFlightRequest;
+	}
+
+	/**
+	 * Frees the slots of the requests whose response was processed by another
+	 * instance, or that had no response for the response timeout.
+	 *
+	 * @param noFreeSlot
+	 *            whether the sender waits for a slot, which checks the database
+	 *            before the reconcile interval is over
+	 */
+	private void reconcileRequests(boolean noFreeSlot) {
+		long now = System.nanoTime();
+		long last = lastReconcileNanos.get();
+		long gapNanos = noFreeSlot ? FORCED_RECONCILE_GAP_NANOS
+				: TimeUnit.MILLISECONDS.toNanos(reconcileIntervalMillis);
+		if (now - last < gapNanos || !lastReconcileNanos.compareAndSet(last, now)) {
+			return;
+		}
+		long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(responseTimeoutMillis);
+		for (InFlightRequest inFlightRequest : inFlightRequests.values()) {
+			if (now - inFlightRequest.sentNanos > timeoutNanos) {
+				if (inFlightRequests.remove(inFlightRequest.request.getId(), inFlightRequest)) {
+					inFlightRequest.abisState.release();
+					inFlightRequest.abisState.expiredCount.incrementAndGet();
+					regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(),
+							LoggerFileConstant.REGISTRATIONID.toString(), inFlightRequest.registrationId,
+							"AbisRequestDispatcher::no response from ABIS " + inFlightRequest.abisState.name
+									+ " for request " + inFlightRequest.request.getId());
+				}
+			} else if (isProcessed(inFlightRequest.request.getId())
+					&& inFlightRequests.remove(inFlightRequest.request.getId(), inFlightRequest)) {
+				inFlightRequest.abisState.release();
+				inFlightRequest.abisState.releasedCount.incrementAndGet();
+			}
+		}
+	}
+
+	private boolean isProcessed(String requestId) {
+		try {
+			AbisRequestDto abisRequestDto = packetInfoManager.getAbisRequestByRequestId(requestId);
+			return abisRequestDto != null
+					&& (AbisStatusCode.PROCESSED.toString().equals(abisRequestDto.getStatusCode())
+							|| AbisStatusCode.FAILED.toString().equals(abisRequestDto.getStatusCode()));
+		} catch (RuntimeException e) {
+			regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					"", "AbisRequestDispatcher::status of request " + requestId + " not read: " + e.getMessage());
+			return false;
+		}
+	}
+
+	private AbisState getAbisState(String abisName) {
+		return abisStates.computeIfAbsent(abisName, name -> {
+			AbisState abisState = new AbisState(name, maxInFlight, meterRegistry);
+			if (meterRegistry != null) {
+				abisState.bindTo(meterRegistry);
+			}
+			return abisState;
+		});
+	}
+
+	/**
+	 * A request waiting for its response.
+	 */
+	public static final class InFlightRequest {
+
+		private final AbisRequestDto request;
+
+		private final String registrationId;
+
+		private final AbisState abisState;
+
+		private final long sentNanos;
+
+		InFlightRequest(AbisRequestDto request, String registrationId, AbisState abisState, long sentNanos) {
+			this.request = request;
+			this.registrationId = registrationId;
+			this.abisState = abisState;
+			this.sentNanos = sentNanos;
+		}
+
+		public AbisRequestDto getRequest() {
+			return request;
+		}
+
+		public String getRegistrationId() {
+			return registrationId;
+		}
+	}
+
+	/**
+	 * The slots and meters of one ABIS.
+	 */
+	private static final class AbisState {
+
+		private final String name;
+
+		private final Semaphore slots;
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private final AtomicLong rejectedCount = new AtomicLong();
+
+		private final AtomicLong expiredCount = new AtomicLong();
+
+		private final AtomicLong releasedCount = new AtomicLong();
+
+		private final Map<String, Timer> latencyTimers = new ConcurrentHashMap<>();
+
+		private final MeterRegistry registry;
+
+		AbisState(String name, int maxInFlight, MeterRegistry registry) {
+			this.name = name;
+			this.slots = new Semaphore(Math.max(1, maxInFlight), true);
+			this.registry = registry;
+		}
+
+		boolean acquire(int count, long timeoutMillis) {
+			if (count == 0) {
+				return true;
+			}
+			try {
+				if (!slots.tryAcquire(count, timeoutMillis, TimeUnit.MILLISECONDS)) {
+					return false;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+			inFlight.addAndGet(count);
+			return true;
+		}
+
+		void release() {
+			inFlight.decrementAndGet();
+			slots.release();
+		}
+
+		void recordLatency(String requestType, long nanos) {
+			if (registry == null) {
+				return;
+			}
+			latencyTimers.computeIfAbsent(String.valueOf(requestType),
+					type -> Timer.builder(METRIC_PREFIX + "response.latency").tag("abis", name).tag("type", type)
+							.description("Time from sending an ABIS request to its response")
+							.publishPercentileHistogram().register(registry))
+					.record(nanos, TimeUnit.NANOSECONDS);
+		}
+
+		void bindTo(MeterRegistry registry) {
+			Gauge.builder(METRIC_PREFIX + "in.flight", inFlight, AtomicInteger::get).tag("abis", name)
+					.description("ABIS requests sent and waiting for their response").register(registry);
+			Gauge.builder(METRIC_PREFIX + "backlog", slots, Semaphore::getQueueLength).tag("abis", name)
+					.description("Senders waiting for a free ABIS request slot").register(registry);
+			FunctionCounter.builder(METRIC_PREFIX + "rejected", rejectedCount, AtomicLong::doubleValue)
+					.tag("abis", name).description("ABIS requests failed for want of a free slot")
+					.register(registry);
+			FunctionCounter.builder(METRIC_PREFIX + "expired", expiredCount, AtomicLong::doubleValue)
+					.tag("abis", name).description("ABIS requests left without response").register(registry);
+			FunctionCounter.builder(METRIC_PREFIX + "released", releasedCount, AtomicLong::doubleValue)
+					.tag("abis", name).description("ABIS requests whose response another instance processed")
+					.register(registry);
+		}
+	}
+}
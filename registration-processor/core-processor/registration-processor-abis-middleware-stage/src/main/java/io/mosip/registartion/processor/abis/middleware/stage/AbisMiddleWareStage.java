@@ -5,7 +5,9 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -20,6 +22,8 @@ import org.springframework.beans.factory.annotation.Value;
 
 import io.mosip.kernel.core.exception.ExceptionUtils;
 import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registartion.processor.abis.middleware.dispatcher.AbisRequestDispatcher;
+import io.mosip.registartion.processor.abis.middleware.dispatcher.AbisRequestDispatcher.InFlightRequest;
 import io.mosip.registration.processor.abis.queue.dto.AbisQueueDetails;
 import io.mosip.registration.processor.core.abstractverticle.MessageBusAddress;
 import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
@@ -113,6 +117,14 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 	@Autowired
 	private PacketInfoDao packetInfoDao;
 
+	/** Sends the requests and correlates the responses. */
+	@Autowired
+	private AbisRequestDispatcher abisRequestDispatcher;
+
+	/** Whether identify requests are sent right behind their insert request. */
+	@Value("${registration.processor.abis.pipeline-identify:false}")
+	private boolean pipelineIdentify;
+
 	@Value("${vertx.cluster.configuration}")
 	private String clusterManagerUrl;
 
@@ -286,53 +298,63 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 			List<AbisRequestDto> abisIdentifyRequestList, List<AbisRequestDto> abisInprogressInsertRequestList,
 			InternalRegistrationStatusDto internalRegDto, List<AbisRequestDto> abisAlreadyprocessedInsertRequestList)
 			throws RegistrationProcessorCheckedException {
+		// requests grouped per abis, each group is sent together
+		Map<String, List<AbisRequestDto>> abisRequests = new LinkedHashMap<>();
 		// If all insert request are null then send all identify requests.
 		if (abisInsertRequestList.isEmpty()) {
 			for (AbisRequestDto abisIdentifyRequest : abisIdentifyRequestList) {
-				List<AbisQueueDetails> abisQueue = abisQueueDetails.stream()
-						.filter(dto -> dto.getName().equals(abisIdentifyRequest.getAbisAppCode()))
-						.collect(Collectors.toList());
-				validateNullCheck(abisQueue, ABIS_QUEUE_NOT_FOUND);
-				byte[] reqBytearray = abisIdentifyRequest.getReqText();
-
-				boolean isAddedToQueue = sendToQueue(abisQueue.get(0).getMosipQueue(), new String(reqBytearray),
-						abisQueue.get(0).getInboundQueueName());
-
-				updateAbisRequest(isAddedToQueue, abisIdentifyRequest, internalRegDto);
+				addAbisRequest(abisRequests, abisIdentifyRequest);
 			}
-
 		}
-		// send in progress insert requests to queue
+		// send in progress insert requests to queue, with their identify request
+		// when pipelined
 		for (AbisRequestDto abisInprogressRequest : abisInprogressInsertRequestList) {
-			List<AbisQueueDetails> abisQueue = abisQueueDetails.stream()
-					.filter(dto -> dto.getName().equals(abisInprogressRequest.getAbisAppCode()))
-					.collect(Collectors.toList());
-			validateNullCheck(abisQueue, ABIS_QUEUE_NOT_FOUND);
-
-			byte[] reqBytearray = abisInprogressRequest.getReqText();
-
-			boolean isAddedToQueue = sendToQueue(abisQueue.get(0).getMosipQueue(), new String(reqBytearray),
-					abisQueue.get(0).getInboundQueueName());
-
-			updateAbisRequest(isAddedToQueue, abisInprogressRequest, internalRegDto);
+			addAbisRequest(abisRequests, abisInprogressRequest);
+			if (pipelineIdentify) {
+				abisIdentifyRequestList.stream()
+						.filter(dto -> dto.getAbisAppCode().equals(abisInprogressRequest.getAbisAppCode()))
+						.findFirst().ifPresent(dto -> addAbisRequest(abisRequests, dto));
+			}
 		}
 		// send all identify requests for already processed insert requests
 		for (AbisRequestDto abisAlreadyProcessedInsertRequest : abisAlreadyprocessedInsertRequestList) {
-			List<AbisQueueDetails> abisQueue = abisQueueDetails.stream()
-					.filter(dto -> dto.getName().equals(abisAlreadyProcessedInsertRequest.getAbisAppCode()))
-					.collect(Collectors.toList());
-			validateNullCheck(abisQueue, ABIS_QUEUE_NOT_FOUND);
 			List<AbisRequestDto> identifyRequest = abisIdentifyRequestList.stream()
 					.filter(dto -> dto.getAbisAppCode().equals(abisAlreadyProcessedInsertRequest.getAbisAppCode()))
 					.collect(Collectors.toList());
-			byte[] reqBytearray = identifyRequest.get(0).getReqText();
-			boolean isAddedToQueue = sendToQueue(abisQueue.get(0).getMosipQueue(), new String(reqBytearray),
-					abisQueue.get(0).getInboundQueueName());
-			updateAbisRequest(isAddedToQueue, identifyRequest.get(0), internalRegDto);
+			addAbisRequest(abisRequests, identifyRequest.get(0));
+		}
 
+		List<AbisRequestEntity> abisRequestEntities = new ArrayList<>();
+		try {
+			for (Map.Entry<String, List<AbisRequestDto>> entry : abisRequests.entrySet()) {
+				AbisQueueDetails abisQueue = getAbisQueue(entry.getKey());
+				boolean isAddedToQueue = sendToQueue(abisQueue.getName(), abisQueue.getMosipQueue(),
+						abisQueue.getInboundQueueName(), entry.getValue(), internalRegDto.getRegistrationId());
+				for (AbisRequestDto abisRequestDto : entry.getValue()) {
+					abisRequestEntities.add(getSentAbisRequestEntity(isAddedToQueue, abisRequestDto, internalRegDto));
+				}
+			}
+		} finally {
+			// requests already sent are saved even if a later abis failed
+			if (!abisRequestEntities.isEmpty()) {
+				abisRequestRepositary.saveAll(abisRequestEntities);
+			}
 		}
 	}
 
+	private void addAbisRequest(Map<String, List<AbisRequestDto>> abisRequests, AbisRequestDto abisRequestDto) {
+		getAbisQueue(abisRequestDto.getAbisAppCode());
+		abisRequests.computeIfAbsent(abisRequestDto.getAbisAppCode(), abisAppCode -> new ArrayList<>())
+				.add(abisRequestDto);
+	}
+
+	private AbisQueueDetails getAbisQueue(String abisAppCode) {
+		List<AbisQueueDetails> abisQueue = abisQueueDetails.stream().filter(dto -> dto.getName().equals(abisAppCode))
+				.collect(Collectors.toList());
+		validateNullCheck(abisQueue, ABIS_QUEUE_NOT_FOUND);
+		return abisQueue.get(0);
+	}
+
 	public void consumerListener(Message message, String abisInBoundAddress, MosipQueue queue, MosipEventBus eventBus)
 			throws RegistrationProcessorCheckedException {
 		TrimExceptionMessage trimExceptionMessage = new TrimExceptionMessage();
@@ -348,17 +370,31 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 		try {
 			JSONObject inserOrIdentifyResponse = JsonUtil.objectMapperReadValue(response, JSONObject.class);
 			String requestId = JsonUtil.getJSONValue(inserOrIdentifyResponse, REQUESTID);
-			String batchId = packetInfoManager.getBatchIdByRequestId(requestId);
-			validateNullCheck(batchId, "ABIS_BATCH_ID_NOT_FOUND");
-			List<String> bioRefId = packetInfoManager.getReferenceIdByBatchId(batchId);
-			validateNullCheck(bioRefId, "ABIS_REFERENCE_ID_NOT_FOUND");
-			List<String> registrationIds = packetInfoDao.getAbisRefRegIdsByMatchedRefIds(bioRefId);
+			// requests sent by this instance are known, others are looked up
+			InFlightRequest inFlightRequest = abisRequestDispatcher.complete(requestId);
+			boolean isKnownRequest = inFlightRequest != null && inFlightRequest.getRequest().getReqBatchId() != null
+					&& inFlightRequest.getRequest().getBioRefId() != null;
+			String batchId;
+			List<String> bioRefId;
+			List<String> registrationIds;
+			if (isKnownRequest) {
+				batchId = inFlightRequest.getRequest().getReqBatchId();
+				bioRefId = Collections.singletonList(inFlightRequest.getRequest().getBioRefId());
+				registrationIds = Collections.singletonList(inFlightRequest.getRegistrationId());
+			} else {
+				batchId = packetInfoManager.getBatchIdByRequestId(requestId);
+				validateNullCheck(batchId, "ABIS_BATCH_ID_NOT_FOUND");
+				bioRefId = packetInfoManager.getReferenceIdByBatchId(batchId);
+				validateNullCheck(bioRefId, "ABIS_REFERENCE_ID_NOT_FOUND");
+				registrationIds = packetInfoDao.getAbisRefRegIdsByMatchedRefIds(bioRefId);
+			}
 			internalRegStatusDto = registrationStatusService.getRegistrationStatus(registrationIds.get(0));
 			registrationId = internalRegStatusDto.getRegistrationId();
 			regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 					"AbisMiddlewareStage::consumerListener()::response from abis for requestId ::" + requestId);
 
-			AbisRequestDto abisCommonRequestDto = packetInfoManager.getAbisRequestByRequestId(requestId);
+			AbisRequestDto abisCommonRequestDto = isKnownRequest ? inFlightRequest.getRequest()
+					: packetInfoManager.getAbisRequestByRequestId(requestId);
 			// check for insert response,if success send corresponding identify request to
 			// queue
 			if (abisCommonRequestDto.getRequestType().equals(AbisStatusCode.INSERT.toString())) {
@@ -380,9 +416,14 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 							.collect(Collectors.toList());
 					validateNullCheck(abisIdentifyRequest, "IDENTIFY_REQUESTS_NOT_FOUND");
 					AbisRequestDto abisIdentifyRequestDto = abisIdentifyRequest.get(0);
-					boolean isAddedToQueue = sendToQueue(queue, new String(abisIdentifyRequestDto.getReqText()),
-							abisInBoundAddress);
-					updateAbisRequest(isAddedToQueue, abisIdentifyRequestDto, internalRegStatusDto);
+					// a pipelined identify request went out with its insert request
+					if (!pipelineIdentify || !isIdentifySent(abisIdentifyRequestDto)) {
+						boolean isAddedToQueue = sendToQueue(abisCommonRequestDto.getAbisAppCode(), queue,
+								abisInBoundAddress, Collections.singletonList(abisIdentifyRequestDto),
+								registrationIds.get(0));
+						abisRequestRepositary.save(getSentAbisRequestEntity(isAddedToQueue, abisIdentifyRequestDto,
+								internalRegStatusDto));
+					}
 				} else {
 					internalRegStatusDto
 							.setLatestTransactionStatusCode(RegistrationTransactionStatusCode.REPROCESS.toString());
@@ -481,15 +522,17 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 
 	}
 
-	private boolean sendToQueue(MosipQueue queue, String abisReqTextString, String abisQueueAddress)
-			throws RegistrationProcessorCheckedException {
+	private boolean sendToQueue(String abisName, MosipQueue queue, String abisQueueAddress,
+			List<AbisRequestDto> abisRequests, String registrationId) throws RegistrationProcessorCheckedException {
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"AbisMiddlewareStage::sendToQueue()::Entry");
 		boolean isAddedToQueue;
 		try {
-			isAddedToQueue = mosipQueueManager.send(queue, abisReqTextString.getBytes(), abisQueueAddress);
-			regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
-					"AbisMiddlewareStage:: sent to abis queue ::" + abisReqTextString);
+			isAddedToQueue = abisRequestDispatcher.dispatch(abisName, queue, abisQueueAddress, abisRequests,
+					registrationId);
+			regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
+					registrationId, "AbisMiddlewareStage:: sent to abis queue " + abisQueueAddress + " ::"
+							+ abisRequests.size() + " requests");
 
 		} catch (Exception e) {
 			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
@@ -502,7 +545,13 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 		return isAddedToQueue;
 	}
 
-	private void updateAbisRequest(boolean isAddedToQueue, AbisRequestDto abisRequestDto,
+	private boolean isIdentifySent(AbisRequestDto abisIdentifyRequestDto) {
+		return abisRequestDispatcher.isInFlight(abisIdentifyRequestDto.getId())
+				|| AbisStatusCode.SENT.toString().equals(abisIdentifyRequestDto.getStatusCode())
+				|| AbisStatusCode.PROCESSED.toString().equals(abisIdentifyRequestDto.getStatusCode());
+	}
+
+	private AbisRequestEntity getSentAbisRequestEntity(boolean isAddedToQueue, AbisRequestDto abisRequestDto,
 			InternalRegistrationStatusDto internalRegDto) {
 		AbisRequestEntity abisReqEntity = convertAbisRequestDtoToAbisRequestEntity(abisRequestDto);
 
@@ -520,7 +569,7 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 					StatusUtil.INSERT_IDENTIFY_REQUEST_FAILED.getMessage() + abisRequestDto.getAbisAppCode());
 			internalRegDto.setSubStatusCode(StatusUtil.SYSTEM_EXCEPTION_OCCURED.getCode());
 		}
-		abisRequestRepositary.save(abisReqEntity);
+		return abisReqEntity;
 
 	}
 
@@ -3,6 +3,7 @@ package io.mosip.registration.processor.stages.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import io.mosip.registartion.processor.abis.middleware.dispatcher.AbisRequestDispatcher;
 import io.mosip.registartion.processor.abis.middleware.stage.AbisMiddleWareStage;
 
 
@@ -14,4 +15,9 @@ public class AbisMiddleWareConfig {
 		return new AbisMiddleWareStage();
 	}
 
+	@Bean
+	public AbisRequestDispatcher getAbisRequestDispatcher() {
+		return new AbisRequestDispatcher();
+	}
+
 }
@@ -0,0 +1,205 @@
+package io.mosip.registartion.processor.abis.middleware.dispatcher;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.registartion.processor.abis.middleware.dispatcher.AbisRequestDispatcher.InFlightRequest;
+import io.mosip.registration.processor.core.packet.dto.Identity;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisRequestDto;
+import io.mosip.registration.processor.core.queue.factory.MosipQueue;
+import io.mosip.registration.processor.core.spi.packetmanager.PacketInfoManager;
+import io.mosip.registration.processor.core.spi.queue.MosipQueueManager;
+import io.mosip.registration.processor.packet.storage.dto.ApplicantInfoDto;
+
+/**
+ * AbisRequestDispatcher test
+ *
+ * @since 1.0.9
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AbisRequestDispatcherTest {
+
+	private static final String ABIS = "Abis1";
+
+	private static final String ADDRESS = "abis1-inbound-Queue";
+
+	@Mock
+	private MosipQueueManager<MosipQueue, byte[]> mosipQueueManager;
+
+	@Mock
+	private MosipQueue queue;
+
+	@Mock
+	private PacketInfoManager<Identity, ApplicantInfoDto> packetInfoManager;
+
+	private MeterRegistry meterRegistry;
+
+	private AbisRequestDispatcher dispatcher;
+
+	@Before
+	public void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		dispatcher = new AbisRequestDispatcher();
+		ReflectionTestUtils.setField(dispatcher, "mosipQueueManager", mosipQueueManager);
+		ReflectionTestUtils.setField(dispatcher, "packetInfoManager", packetInfoManager);
+		ReflectionTestUtils.setField(dispatcher, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(dispatcher, "maxInFlight", 2);
+		ReflectionTestUtils.setField(dispatcher, "sendTimeoutMillis", 50L);
+		ReflectionTestUtils.setField(dispatcher, "responseTimeoutMillis", 3600000L);
+		ReflectionTestUtils.setField(dispatcher, "reconcileIntervalMillis", 60000L);
+		Mockito.when(mosipQueueManager.send(Mockito.any(), Mockito.any(), Mockito.anyString())).thenReturn(true);
+		Mockito.when(mosipQueueManager.sendBatch(Mockito.any(), Mockito.any(), Mockito.anyString())).thenReturn(true);
+	}
+
+	@Test
+	public void testRequestsOfAbisSentInOneBatch() {
+		AbisRequestDto insert = request("1", "INSERT", "batch1");
+		AbisRequestDto identify = request("2", "IDENTIFY", "batch1");
+
+		assertTrue(dispatcher.dispatch(ABIS, queue, ADDRESS, Arrays.asList(insert, identify), "10001"));
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<byte[]>> messages = ArgumentCaptor.forClass((Class<List<byte[]>>) (Class<?>) List.class);
+		Mockito.verify(mosipQueueManager).sendBatch(Mockito.eq(queue), messages.capture(), Mockito.eq(ADDRESS));
+		Mockito.verify(mosipQueueManager, Mockito.never()).send(Mockito.any(), Mockito.any(), Mockito.anyString());
+		assertArrayEquals(insert.getReqText(), messages.getValue().get(0));
+		assertArrayEquals(identify.getReqText(), messages.getValue().get(1));
+		assertEquals(2, dispatcher.getInFlight(ABIS));
+		assertTrue(dispatcher.isInFlight("2"));
+	}
+
+	@Test
+	public void testResponseCompletesRequest() {
+		AbisRequestDto identify = request("2", "IDENTIFY", "batch1");
+		dispatcher.dispatch(ABIS, queue, ADDRESS, Collections.singletonList(identify), "10001");
+
+		InFlightRequest inFlightRequest = dispatcher.complete("2");
+
+		assertSame(identify, inFlightRequest.getRequest());
+		assertEquals("10001", inFlightRequest.getRegistrationId());
+		assertNull(dispatcher.complete("2"));
+		assertFalse(dispatcher.isInFlight("2"));
+		assertEquals(0, dispatcher.getInFlight(ABIS));
+		assertEquals(1, meterRegistry.get("regproc.abis.response.latency").tag("abis", ABIS).tag("type", "IDENTIFY")
+				.timer().count());
+	}
+
+	@Test
+	public void testInFlightBoundedPerAbis() {
+		assertTrue(dispatcher.dispatch(ABIS, queue, ADDRESS,
+				Arrays.asList(request("1", "INSERT", "batch1"), request("2", "IDENTIFY", "batch1")), "10001"));
+
+		assertFalse(dispatcher.dispatch(ABIS, queue, ADDRESS,
+				Collections.singletonList(request("3", "INSERT", "batch2")), "10002"));
+		assertTrue(dispatcher.dispatch("Abis2", queue, ADDRESS,
+				Collections.singletonList(request("4", "INSERT", "batch3")), "10003"));
+		assertEquals(1.0, meterRegistry.get("regproc.abis.rejected").tag("abis", ABIS).functionCounter().count(),
+				0.0);
+		assertEquals(2.0, meterRegistry.get("regproc.abis.in.flight").tag("abis", ABIS).gauge().value(), 0.0);
+
+		dispatcher.complete("1");
+		assertTrue(dispatcher.dispatch(ABIS, queue, ADDRESS,
+				Collections.singletonList(request("3", "INSERT", "batch2")), "10002"));
+	}
+
+	@Test
+	public void testFailedSendFreesSlots() {
+		Mockito.when(mosipQueueManager.send(Mockito.any(), Mockito.any(), Mockito.anyString())).thenReturn(false);
+		assertFalse(dispatcher.dispatch(ABIS, queue, ADDRESS,
+				Collections.singletonList(request("1", "INSERT", "batch1")), "10001"));
+		assertEquals(0, dispatcher.getInFlight(ABIS));
+
+		Mockito.when(mosipQueueManager.sendBatch(Mockito.any(), Mockito.any(), Mockito.anyString()))
+				.thenThrow(new IllegalStateException("broker down"));
+		try {
+			dispatcher.dispatch(ABIS, queue, ADDRESS,
+					Arrays.asList(request("1", "INSERT", "batch1"), request("2", "IDENTIFY", "batch1")), "10001");
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals(0, dispatcher.getInFlight(ABIS));
+			assertFalse(dispatcher.isInFlight("1"));
+		}
+	}
+
+	@Test
+	public void testRequestsWithoutResponseExpire() {
+		ReflectionTestUtils.setField(dispatcher, "responseTimeoutMillis", 0L);
+		dispatcher.dispatch(ABIS, queue, ADDRESS,
+				Arrays.asList(request("1", "INSERT", "batch1"), request("2", "IDENTIFY", "batch1")), "10001");
+		expireReconcileInterval();
+
+		assertTrue(dispatcher.dispatch(ABIS, queue, ADDRESS,
+				Collections.singletonList(request("3", "INSERT", "batch2")), "10002"));
+
+		assertFalse(dispatcher.isInFlight("1"));
+		assertEquals(1, dispatcher.getInFlight(ABIS));
+		assertEquals(2.0, meterRegistry.get("regproc.abis.expired").tag("abis", ABIS).functionCounter().count(),
+				0.0);
+	}
+
+	@Test
+	public void testSlotsOfResponsesTakenElsewhereFreed() {
+		assertTrue(dispatcher.dispatch(ABIS, queue, ADDRESS,
+				Arrays.asList(request("1", "INSERT", "batch1"), request("2", "IDENTIFY", "batch1")), "10001"));
+		// another instance took the response of the insert request
+		Mockito.when(packetInfoManager.getAbisRequestByRequestId("1")).thenReturn(status("1", "PROCESSED"));
+		Mockito.when(packetInfoManager.getAbisRequestByRequestId("2")).thenReturn(status("2", "SENT"));
+
+		assertFalse(dispatcher.dispatch(ABIS, queue, ADDRESS,
+				Collections.singletonList(request("3", "INSERT", "batch2")), "10002"));
+		Mockito.verify(packetInfoManager, Mockito.never()).getAbisRequestByRequestId(Mockito.anyString());
+
+		expireReconcileInterval();
+		assertTrue(dispatcher.dispatch(ABIS, queue, ADDRESS,
+				Collections.singletonList(request("3", "INSERT", "batch2")), "10002"));
+
+		assertFalse(dispatcher.isInFlight("1"));
+		assertTrue(dispatcher.isInFlight("2"));
+		assertEquals(2, dispatcher.getInFlight(ABIS));
+		assertEquals(1.0, meterRegistry.get("regproc.abis.released").tag("abis", ABIS).functionCounter().count(),
+				0.0);
+	}
+
+	private void expireReconcileInterval() {
+		((AtomicLong) ReflectionTestUtils.getField(dispatcher, "lastReconcileNanos"))
+				.set(System.nanoTime() - TimeUnit.HOURS.toNanos(2));
+	}
+
+	private static AbisRequestDto status(String id, String statusCode) {
+		AbisRequestDto abisRequestDto = request(id, "INSERT", "batch1");
+		abisRequestDto.setStatusCode(statusCode);
+		return abisRequestDto;
+	}
+
+	private static AbisRequestDto request(String id, String requestType, String batchId) {
+		AbisRequestDto abisRequestDto = new AbisRequestDto();
+		abisRequestDto.setId(id);
+		abisRequestDto.setAbisAppCode(ABIS);
+		abisRequestDto.setRequestType(requestType);
+		abisRequestDto.setReqBatchId(batchId);
+		abisRequestDto.setReqText(("{\"requestId\":\"" + id + "\"}").getBytes());
+		return abisRequestDto;
+	}
+}
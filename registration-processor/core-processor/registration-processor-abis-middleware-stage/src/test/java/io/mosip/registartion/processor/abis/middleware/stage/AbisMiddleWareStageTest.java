@@ -1,5 +1,6 @@
 package io.mosip.registartion.processor.abis.middleware.stage;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -11,12 +12,14 @@ import org.apache.activemq.util.ByteSequence;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import io.mosip.registartion.processor.abis.middleware.dispatcher.AbisRequestDispatcher;
 import io.mosip.registration.processor.abis.queue.dto.AbisQueueDetails;
 import io.mosip.registration.processor.core.abstractverticle.MessageBusAddress;
 import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
@@ -80,6 +83,7 @@ public class AbisMiddleWareStageTest {
 	private List<String> abisRefList;
 	private List<AbisRequestDto> abisInsertIdentifyList;
 	private List<MosipQueue> mosipQueueList;
+	private AbisRequestDispatcher abisRequestDispatcher;
 
 	@InjectMocks
 	AbisMiddleWareStage stage = new AbisMiddleWareStage() {
@@ -108,6 +112,12 @@ public class AbisMiddleWareStageTest {
 	public void setUp() throws RegistrationProcessorCheckedException {
 		ReflectionTestUtils.setField(stage, "workerPoolSize", 10);
 		ReflectionTestUtils.setField(stage, "clusterManagerUrl", "/dummyPath");
+		abisRequestDispatcher = new AbisRequestDispatcher();
+		ReflectionTestUtils.setField(abisRequestDispatcher, "mosipQueueManager", mosipQueueManager);
+		ReflectionTestUtils.setField(abisRequestDispatcher, "packetInfoManager", packetInfoManager);
+		ReflectionTestUtils.setField(abisRequestDispatcher, "maxInFlight", 10);
+		ReflectionTestUtils.setField(abisRequestDispatcher, "reconcileIntervalMillis", 60000L);
+		ReflectionTestUtils.setField(stage, "abisRequestDispatcher", abisRequestDispatcher);
 		InternalRegistrationStatusDto internalRegStatusDto = new InternalRegistrationStatusDto();
 		internalRegStatusDto.setRegistrationId("");
 		internalRegStatusDto.setLatestTransactionStatusCode("Demodedupe");
@@ -324,6 +334,65 @@ public class AbisMiddleWareStageTest {
 
 	}
 
+	@Test
+	public void testPipelinedIdentifySentWithInsert() throws RegistrationProcessorCheckedException {
+		ReflectionTestUtils.setField(stage, "pipelineIdentify", true);
+		Mockito.when(packetInfoManager.getInsertOrIdentifyRequest(Mockito.anyString(), Mockito.anyString()))
+				.thenReturn(abisInsertIdentifyList);
+		Mockito.when(mosipQueueManager.send(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(true);
+		Mockito.when(mosipQueueManager.sendBatch(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(true);
+		MessageDTO dto = new MessageDTO();
+		dto.setRid("10003100030001520190422074511");
+
+		stage.deployVerticle();
+		stage.process(dto);
+
+		assertTrue(dto.getIsValid());
+		Mockito.verify(mosipQueueManager).sendBatch(Mockito.any(), Mockito.any(), Mockito.eq("abis1-inbound-Queue"));
+		Mockito.verify(mosipQueueManager).send(Mockito.any(), Mockito.any(), Mockito.eq("abis2-inbound-Queue"));
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<AbisRequestEntity>> entities = ArgumentCaptor
+				.forClass((Class<List<AbisRequestEntity>>) (Class<?>) List.class);
+		Mockito.verify(abisRequestRepositary).saveAll(entities.capture());
+		assertEquals(3, entities.getValue().size());
+		assertTrue(entities.getValue().stream().allMatch(entity -> "SENT".equals(entity.getStatusCode())));
+	}
+
+	@Test
+	public void testResponseOfSentRequestNotLookedUp() throws RegistrationProcessorCheckedException {
+		List<AbisRequestDto> abisIdentifyList = new ArrayList<>();
+		AbisRequestDto identifyAbisReq = new AbisRequestDto();
+		identifyAbisReq.setId("8a3effd4-5fba-44e0-8cbb-3083ba098209");
+		identifyAbisReq.setAbisAppCode("Abis1");
+		identifyAbisReq.setBioRefId("d1070375-0960-4e90-b12c-72ab6186444d");
+		identifyAbisReq.setReqBatchId("69098823-eba8-4aa9-bb64-9e0d36bd64a9");
+		identifyAbisReq.setRequestType("IDENTIFY");
+		identifyAbisReq.setReqText("mosip".getBytes());
+		abisIdentifyList.add(identifyAbisReq);
+		Mockito.when(packetInfoManager.getInsertOrIdentifyRequest(Mockito.anyString(), Mockito.anyString()))
+				.thenReturn(abisIdentifyList);
+		Mockito.when(mosipQueueManager.send(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(true);
+		MessageDTO dto = new MessageDTO();
+		dto.setRid("10003100030001520190422074511");
+		stage.deployVerticle();
+		stage.process(dto);
+		assertEquals(1, abisRequestDispatcher.getInFlight("Abis1"));
+
+		String identifySucessfulResponse = "{\"id\":\"mosip.abis.identify\",\"requestId\":\"8a3effd4-5fba-44e0-8cbb-3083ba098209\",\"responsetime\":"
+				+ null + ",\"returnValue\":1,\"failureReason\":null,\"candidateList\":null}";
+		ActiveMQBytesMessage amq = new ActiveMQBytesMessage();
+		ByteSequence byteSeq = new ByteSequence();
+		byteSeq.setData(identifySucessfulResponse.getBytes());
+		amq.setContent(byteSeq);
+		stage.consumerListener(amq, "abis1-inbound-Queue", Mockito.mock(MosipQueue.class),
+				new MosipEventBus(Mockito.mock(Vertx.class)));
+
+		assertEquals(0, abisRequestDispatcher.getInFlight("Abis1"));
+		Mockito.verify(packetInfoManager, Mockito.never()).getBatchIdByRequestId(Mockito.anyString());
+		Mockito.verify(packetInfoManager, Mockito.never()).getAbisRequestByRequestId(Mockito.anyString());
+		Mockito.verify(packetInfoManager).getBatchStatusbyBatchId("69098823-eba8-4aa9-bb64-9e0d36bd64a9");
+	}
+
 	// test for unknown exception occured
 	@Test
 	public void testException() {
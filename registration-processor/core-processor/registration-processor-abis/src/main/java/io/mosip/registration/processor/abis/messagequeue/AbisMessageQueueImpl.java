@@ -9,6 +9,7 @@ import javax.jms.Message;
 import org.apache.activemq.command.ActiveMQBytesMessage;
 import org.json.simple.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -68,6 +69,10 @@ public class AbisMessageQueueImpl {
 	/** The is connection. */
 	boolean isConnection = false;
 
+	/** The number of consumers of each inbound queue. */
+	@Value("${registration.processor.abis.consumers:1}")
+	private int consumers = 1;
+
 	/**
 	 * Run abis queue.
 	 *
@@ -88,8 +93,10 @@ public class AbisMessageQueueImpl {
 						consumeLogic(message, outBoundAddress, queue);
 					}
 				};
-				mosipQueueManager.consume(abisQueueDetails.get(i).getMosipQueue(),
-						abisQueueDetails.get(i).getInboundQueueName(), listener);
+				for (int j = 0; j < Math.max(1, consumers); j++) {
+					mosipQueueManager.consume(abisQueueDetails.get(i).getMosipQueue(),
+							abisQueueDetails.get(i).getInboundQueueName(), listener);
+				}
 			}
 
 			isConnection = true;
@@ -129,6 +136,9 @@ public class AbisMessageQueueImpl {
 			if (id.matches(ABIS_INSERT)) {
 				AbisInsertRequestDto abisInsertRequestDto = JsonUtil.objectMapperReadValue(request, AbisInsertRequestDto.class);
 				AbisInsertResponseDto abisInsertResponseDto = abisService.insert(abisInsertRequestDto);
+				if (abisInsertResponseDto == null) {
+					return false;
+				}
 				response = obj.writeValueAsString(abisInsertResponseDto);
 				regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(),
 						LoggerFileConstant.REGISTRATIONID.toString(), "",
@@ -138,6 +148,9 @@ public class AbisMessageQueueImpl {
 			else if (id.matches(ABIS_IDENTIFY)) {
 				AbisIdentifyRequestDto identifyRequestDto = JsonUtil.objectMapperReadValue(request, AbisIdentifyRequestDto.class);
 				AbisIdentifyResponseDto identifyResponseDto = abisService.identify(identifyRequestDto);
+				if (identifyResponseDto == null) {
+					return false;
+				}
 				response = obj.writeValueAsString(identifyResponseDto);
 				regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(),
 						LoggerFileConstant.REGISTRATIONID.toString(), "",
@@ -15,6 +15,7 @@ import javax.xml.parsers.ParserConfigurationException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.w3c.dom.Document;
 import org.w3c.dom.NodeList;
@@ -49,6 +50,7 @@ import io.mosip.registration.processor.packet.storage.dto.ApplicantInfoDto;
  * @author M1048860 Kiran Raj
  */
 @Service
+@ConditionalOnProperty(name = "registration.processor.abis.simulator.enabled", havingValue = "false", matchIfMissing = true)
 public class AbisServiceImpl implements AbisService {
 
 	/** The packet info manager. */
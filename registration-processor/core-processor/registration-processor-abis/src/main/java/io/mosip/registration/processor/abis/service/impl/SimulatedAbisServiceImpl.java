@@ -0,0 +1,337 @@
+package io.mosip.registration.processor.abis.service.impl;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.kernel.core.exception.ExceptionUtils;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.abis.service.AbisService;
+import io.mosip.registration.processor.abis.simulator.HammingTemplateMatcher;
+import io.mosip.registration.processor.abis.simulator.TemplateGallery;
+import io.mosip.registration.processor.abis.simulator.TemplateGallery.Match;
+import io.mosip.registration.processor.abis.simulator.TemplateMatcher;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisCommonResponseDto;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisIdentifyRequestDto;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisIdentifyResponseDto;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisInsertRequestDto;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisInsertResponseDto;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisPingRequestDto;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisPingResponseDto;
+import io.mosip.registration.processor.core.packet.dto.abis.Analytics;
+import io.mosip.registration.processor.core.packet.dto.abis.CandidateListDto;
+import io.mosip.registration.processor.core.packet.dto.abis.CandidatesDto;
+import io.mosip.registration.processor.core.packet.dto.abis.ReferenceIdDto;
+
+/**
+ * An ABIS for load tests, matching synthetic templates one to many in a
+ * {@link TemplateGallery}.
+ *
+ * Inserts enroll a new template, or with the duplicate rate another capture of
+ * a person already enrolled, and identifies search the gallery with the
+ * template of the reference. The gallery can be preloaded at start to size the
+ * stages against large galleries. Latency and failures are injected as
+ * configured: a failure answers with an internal error, a lost request is not
+ * answered at all.
+ *
+ * @since 1.0.9
+ */
+@Service
+@ConditionalOnProperty(name = "registration.processor.abis.simulator.enabled", havingValue = "true")
+public class SimulatedAbisServiceImpl implements AbisService {
+
+	/** The reg proc logger. */
+	private static Logger regProcLogger = RegProcessorLogger.getLogger(SimulatedAbisServiceImpl.class);
+
+	private static final String METRIC_PREFIX = "regproc.abis.simulator.";
+
+	/** The Constant INSERT. */
+	private static final String ABIS_INSERT = "mosip.abis.insert";
+
+	/** The Constant IDENTIFY. */
+	private static final String ABIS_IDENTIFY = "mosip.abis.identify";
+
+	private static final int SUCCESS = 1;
+
+	private static final int FAILURE = 2;
+
+	private static final int UNEXPECTED_ERROR = 3;
+
+	private static final int INVALID_REQUEST = 5;
+
+	private static final int REFERENCE_NOT_FOUND = 7;
+
+	/** The meter registry. */
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	/** The number of gallery partitions, 0 for one per processor. */
+	@Value("${registration.processor.abis.simulator.partitions:0}")
+	private int partitions = 0;
+
+	@Value("${registration.processor.abis.simulator.segment-size:1048576}")
+	private int segmentSize = 1048576;
+
+	/** The directory of the memory mapped gallery, empty for direct memory. */
+	@Value("${registration.processor.abis.simulator.gallery-directory:}")
+	private String galleryDirectory = "";
+
+	@Value("${registration.processor.abis.simulator.preload-size:0}")
+	private int preloadSize = 0;
+
+	/** The number of longs of a template. */
+	@Value("${registration.processor.abis.simulator.template-length:4}")
+	private int templateLength = 4;
+
+	/** The probability of a bit to differ between two captures of a person. */
+	@Value("${registration.processor.abis.simulator.genuine-noise:0.1}")
+	private double genuineNoise = 0.1;
+
+	@Value("${registration.processor.abis.simulator.match-threshold:70}")
+	private double matchThreshold = 70;
+
+	/** The most candidates returned when the request does not say. */
+	@Value("${registration.processor.abis.simulator.max-results:5}")
+	private int maxResults = 5;
+
+	/** The share of inserts enrolling a person already enrolled. */
+	@Value("${registration.processor.abis.simulator.duplicate-rate:0}")
+	private double duplicateRate = 0;
+
+	@Value("${registration.processor.abis.simulator.insert-latency-ms:0}")
+	private long insertLatencyMillis = 0;
+
+	@Value("${registration.processor.abis.simulator.identify-latency-ms:0}")
+	private long identifyLatencyMillis = 0;
+
+	/** The most added at random to the latencies. */
+	@Value("${registration.processor.abis.simulator.latency-jitter-ms:0}")
+	private long latencyJitterMillis = 0;
+
+	@Value("${registration.processor.abis.simulator.failure-rate:0}")
+	private double failureRate = 0;
+
+	/** The share of requests never answered. */
+	@Value("${registration.processor.abis.simulator.no-response-rate:0}")
+	private double noResponseRate = 0;
+
+	private TemplateMatcher matcher;
+
+	private TemplateGallery gallery;
+
+	private Timer identifyTimer;
+
+	/**
+	 * Creates the gallery and preloads it.
+	 *
+	 * @throws IOException
+	 *             if the gallery files can not be created
+	 */
+	@PostConstruct
+	public void init() throws IOException {
+		matcher = new HammingTemplateMatcher(templateLength, genuineNoise);
+		gallery = new TemplateGallery(matcher, partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors(),
+				segmentSize, galleryDirectory.isEmpty() ? null : Paths.get(galleryDirectory));
+		if (preloadSize > 0) {
+			long start = System.nanoTime();
+			IntStream.range(0, preloadSize).parallel().forEach(this::preload);
+			regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+					"SimulatedAbisServiceImpl::init()::preloaded " + gallery.size() + " templates in "
+							+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+		}
+		if (meterRegistry != null) {
+			Gauge.builder(METRIC_PREFIX + "gallery.size", gallery, TemplateGallery::size)
+					.description("Templates enrolled in the simulated ABIS").register(meterRegistry);
+			identifyTimer = Timer.builder(METRIC_PREFIX + "identify")
+					.description("Time to search the gallery of the simulated ABIS").publishPercentileHistogram()
+					.register(meterRegistry);
+		}
+	}
+
+	/**
+	 * Closes the gallery.
+	 *
+	 * @throws IOException
+	 *             if a gallery file can not be closed
+	 */
+	@PreDestroy
+	public void close() throws IOException {
+		if (gallery != null) {
+			gallery.close();
+		}
+	}
+
+	@Override
+	public AbisInsertResponseDto insert(AbisInsertRequestDto abisInsertRequestDto) {
+		String referenceId = abisInsertRequestDto.getReferenceId();
+		if (isLost(referenceId)) {
+			return null;
+		}
+		AbisInsertResponseDto response = new AbisInsertResponseDto();
+		response.setId(ABIS_INSERT);
+		response.setRequestId(abisInsertRequestDto.getRequestId());
+		response.setResponsetime(abisInsertRequestDto.getRequesttime());
+		delay(insertLatencyMillis);
+		if (referenceId == null) {
+			fail(response, INVALID_REQUEST);
+		} else if (isFailed(referenceId)) {
+			fail(response, UNEXPECTED_ERROR);
+		} else {
+			try {
+				gallery.insert(referenceId, createTemplate(ThreadLocalRandom.current()));
+				response.setReturnValue(SUCCESS);
+			} catch (IOException e) {
+				fail(response, UNEXPECTED_ERROR);
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REFFERENCEID.toString(),
+						referenceId, "Unable to enroll the template" + ExceptionUtils.getStackTrace(e));
+			}
+		}
+		return response;
+	}
+
+	@Override
+	public AbisIdentifyResponseDto identify(AbisIdentifyRequestDto identifyRequest) {
+		String referenceId = identifyRequest.getReferenceId();
+		if (isLost(referenceId)) {
+			return null;
+		}
+		AbisIdentifyResponseDto response = new AbisIdentifyResponseDto();
+		response.setId(ABIS_IDENTIFY);
+		response.setRequestId(identifyRequest.getRequestId());
+		response.setResponsetime(identifyRequest.getRequesttime());
+		delay(identifyLatencyMillis);
+		long[] probe = referenceId == null ? null : gallery.getTemplate(referenceId);
+		if (referenceId == null) {
+			fail(response, INVALID_REQUEST);
+		} else if (isFailed(referenceId)) {
+			fail(response, UNEXPECTED_ERROR);
+		} else if (probe == null) {
+			fail(response, REFERENCE_NOT_FOUND);
+		} else {
+			long start = System.nanoTime();
+			List<Match> matches = gallery.identify(probe, referenceId, getGalleryReferenceIds(identifyRequest),
+					matchThreshold, getMaxResults(identifyRequest));
+			if (identifyTimer != null) {
+				identifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			}
+			response.setReturnValue(SUCCESS);
+			if (!matches.isEmpty()) {
+				response.setCandidateList(getCandidateList(matches));
+			}
+		}
+		return response;
+	}
+
+	@Override
+	public void delete() {
+		// Delete should be implemented in future
+	}
+
+	@Override
+	public AbisPingResponseDto ping(AbisPingRequestDto abisPingRequestDto) {
+		// Ping should be implemented in future
+		return null;
+	}
+
+	private void preload(int index) {
+		try {
+			gallery.insert("preload-" + index, createTemplate(ThreadLocalRandom.current()));
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to preload the gallery", e);
+		}
+	}
+
+	private long[] createTemplate(Random random) {
+		if (duplicateRate > 0 && random.nextDouble() < duplicateRate) {
+			long[] enrolled = gallery.getRandomTemplate(random);
+			if (enrolled != null) {
+				return matcher.createGenuineTemplate(enrolled, random);
+			}
+		}
+		return matcher.createTemplate(random);
+	}
+
+	private List<String> getGalleryReferenceIds(AbisIdentifyRequestDto identifyRequest) {
+		if (identifyRequest.getGallery() == null || identifyRequest.getGallery().getReferenceIds() == null) {
+			return null;
+		}
+		return identifyRequest.getGallery().getReferenceIds().stream().map(ReferenceIdDto::getReferenceId)
+				.collect(Collectors.toList());
+	}
+
+	private int getMaxResults(AbisIdentifyRequestDto identifyRequest) {
+		if (identifyRequest.getFlags() != null && identifyRequest.getFlags().getMaxResults() != null) {
+			return identifyRequest.getFlags().getMaxResults();
+		}
+		return maxResults;
+	}
+
+	private CandidateListDto getCandidateList(List<Match> matches) {
+		CandidatesDto[] candidates = new CandidatesDto[matches.size()];
+		for (int i = 0; i < candidates.length; i++) {
+			Analytics analytics = new Analytics();
+			analytics.setInternalScore(String.valueOf(Math.round(matches.get(i).getScore())));
+			candidates[i] = new CandidatesDto();
+			candidates[i].setReferenceId(matches.get(i).getReferenceId());
+			candidates[i].setAnalytics(analytics);
+		}
+		CandidateListDto candidateList = new CandidateListDto();
+		candidateList.setCount(String.valueOf(candidates.length));
+		candidateList.setCandidates(candidates);
+		return candidateList;
+	}
+
+	private boolean isLost(String referenceId) {
+		if (noResponseRate > 0 && ThreadLocalRandom.current().nextDouble() < noResponseRate) {
+			regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REFFERENCEID.toString(),
+					referenceId, "SimulatedAbisServiceImpl::request dropped without response");
+			return true;
+		}
+		return false;
+	}
+
+	private boolean isFailed(String referenceId) {
+		if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+			regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REFFERENCEID.toString(),
+					referenceId, "SimulatedAbisServiceImpl::request failed on purpose");
+			return true;
+		}
+		return false;
+	}
+
+	private static void fail(AbisCommonResponseDto response, int failureReason) {
+		response.setReturnValue(FAILURE);
+		response.setFailureReason(failureReason);
+	}
+
+	private void delay(long latencyMillis) {
+		long millis = latencyMillis
+				+ (latencyJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMillis + 1) : 0);
+		if (millis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package io.mosip.registration.processor.abis.simulator;
+
+import java.nio.LongBuffer;
+import java.util.Random;
+
+/**
+ * Matches binary templates, in the manner of iris codes, by their Hamming
+ * distance.
+ *
+ * The templates of two people differ in about half of their bits, so impostor
+ * scores centre on 50 and spread less the longer the template. Another capture
+ * of a person has each bit flipped with the genuine noise probability, which
+ * centres genuine scores on 100 times one minus the noise.
+ *
+ * @since 1.0.9
+ */
+public class HammingTemplateMatcher implements TemplateMatcher {
+
+	private final int templateLength;
+
+	private final double genuineNoise;
+
+	private final double scorePerBit;
+
+	/**
+	 * Instantiates a new Hamming template matcher.
+	 *
+	 * @param templateLength
+	 *            the number of longs of a template
+	 * @param genuineNoise
+	 *            the probability of a bit to differ between two captures of a
+	 *            person
+	 */
+	public HammingTemplateMatcher(int templateLength, double genuineNoise) {
+		if (templateLength < 1) {
+			throw new IllegalArgumentException("template length must be positive : " + templateLength);
+		}
+		if (genuineNoise < 0 || genuineNoise > 0.5) {
+			throw new IllegalArgumentException("genuine noise must be between 0 and 0.5 : " + genuineNoise);
+		}
+		this.templateLength = templateLength;
+		this.genuineNoise = genuineNoise;
+		this.scorePerBit = 100.0 / (templateLength * Long.SIZE);
+	}
+
+	@Override
+	public int getTemplateLength() {
+		return templateLength;
+	}
+
+	@Override
+	public long[] createTemplate(Random random) {
+		long[] template = new long[templateLength];
+		for (int i = 0; i < templateLength; i++) {
+			template[i] = random.nextLong();
+		}
+		return template;
+	}
+
+	@Override
+	public long[] createGenuineTemplate(long[] template, Random random) {
+		long[] genuineTemplate = template.clone();
+		for (int i = 0; i < templateLength; i++) {
+			long flips = 0;
+			for (int bit = 0; bit < Long.SIZE; bit++) {
+				if (random.nextDouble() < genuineNoise) {
+					flips |= 1L << bit;
+				}
+			}
+			genuineTemplate[i] ^= flips;
+		}
+		return genuineTemplate;
+	}
+
+	@Override
+	public double score(long[] probe, LongBuffer gallery, int offset) {
+		int distance = 0;
+		for (int i = 0; i < templateLength; i++) {
+			distance += Long.bitCount(probe[i] ^ gallery.get(offset + i));
+		}
+		return 100.0 - distance * scorePerBit;
+	}
+}
@@ -0,0 +1,369 @@
+package io.mosip.registration.processor.abis.simulator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The enrolled templates of the simulated ABIS, searched one to many.
+ *
+ * References are spread over partitions by the hash of their id and an
+ * identify scans every partition on its own thread. A partition stores its
+ * templates back to back outside the heap, in segments allocated as it grows:
+ * direct buffers, or regions of a file per partition when a directory is given
+ * so the gallery can outgrow the memory and be paged by the system. The files
+ * are rewritten on start, the gallery is not reloaded from them.
+ *
+ * @since 1.0.9
+ */
+public class TemplateGallery implements Closeable {
+
+	private static final Comparator<Match> BY_SCORE = Comparator.comparingDouble(Match::getScore);
+
+	private final TemplateMatcher matcher;
+
+	private final int segmentSize;
+
+	private final Partition[] partitions;
+
+	private final ExecutorService searchExecutor;
+
+	/**
+	 * Instantiates a new template gallery.
+	 *
+	 * @param matcher
+	 *            the template matcher
+	 * @param partitionCount
+	 *            the number of partitions, one search thread each
+	 * @param segmentSize
+	 *            the number of templates of a storage segment
+	 * @param directory
+	 *            the directory of the partition files, null to store the
+	 *            templates in direct memory
+	 * @throws IOException
+	 *             if a partition file can not be created
+	 */
+	public TemplateGallery(TemplateMatcher matcher, int partitionCount, int segmentSize, Path directory)
+			throws IOException {
+		if (partitionCount < 1 || segmentSize < 1) {
+			throw new IllegalArgumentException(
+					"partitions and segment size must be positive : " + partitionCount + ", " + segmentSize);
+		}
+		if ((long) segmentSize * matcher.getTemplateLength() * Long.BYTES > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("segment of " + segmentSize + " templates exceeds 2 GB");
+		}
+		this.matcher = matcher;
+		this.segmentSize = segmentSize;
+		this.partitions = new Partition[partitionCount];
+		if (directory != null) {
+			Files.createDirectories(directory);
+		}
+		for (int i = 0; i < partitionCount; i++) {
+			FileChannel channel = directory == null ? null
+					: FileChannel.open(directory.resolve("partition-" + i + ".bin"), StandardOpenOption.CREATE,
+							StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+			partitions[i] = new Partition(channel);
+		}
+		AtomicInteger threadCount = new AtomicInteger();
+		this.searchExecutor = Executors.newFixedThreadPool(partitionCount, runnable -> {
+			Thread thread = new Thread(runnable, "abis-gallery-search-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Enrolls a template.
+	 *
+	 * @param referenceId
+	 *            the reference id
+	 * @param template
+	 *            the template
+	 * @return false if the reference was already enrolled, its template is kept
+	 * @throws IOException
+	 *             if the partition file can not be extended
+	 */
+	public boolean insert(String referenceId, long[] template) throws IOException {
+		return partitionOf(referenceId).insert(referenceId, template);
+	}
+
+	/**
+	 * Gets the template of a reference.
+	 *
+	 * @param referenceId
+	 *            the reference id
+	 * @return the template, null if the reference is not enrolled
+	 */
+	public long[] getTemplate(String referenceId) {
+		return partitionOf(referenceId).getTemplate(referenceId);
+	}
+
+	/**
+	 * Gets the template of a reference picked at random.
+	 *
+	 * @param random
+	 *            the random source
+	 * @return the template, null if the picked partition is empty
+	 */
+	public long[] getRandomTemplate(Random random) {
+		return partitions[random.nextInt(partitions.length)].getRandomTemplate(random);
+	}
+
+	/**
+	 * Finds the references whose template matches the probe.
+	 *
+	 * @param probe
+	 *            the probe template
+	 * @param excludedReferenceId
+	 *            the reference of the probe itself, never returned
+	 * @param referenceIds
+	 *            the references to compare with, null or empty for the whole
+	 *            gallery
+	 * @param threshold
+	 *            the lowest score of a match
+	 * @param maxResults
+	 *            the most matches to return
+	 * @return the matches, best score first
+	 */
+	public List<Match> identify(long[] probe, String excludedReferenceId, Collection<String> referenceIds,
+			double threshold, int maxResults) {
+		PriorityQueue<Match> best = new PriorityQueue<>(BY_SCORE);
+		if (referenceIds != null && !referenceIds.isEmpty()) {
+			for (String referenceId : referenceIds) {
+				if (referenceId != null && !referenceId.equals(excludedReferenceId)) {
+					partitionOf(referenceId).compare(probe, referenceId, threshold, maxResults, best);
+				}
+			}
+		} else {
+			List<Future<PriorityQueue<Match>>> searches = new ArrayList<>(partitions.length);
+			for (Partition partition : partitions) {
+				searches.add(searchExecutor
+						.submit(() -> partition.search(probe, excludedReferenceId, threshold, maxResults)));
+			}
+			for (Future<PriorityQueue<Match>> search : searches) {
+				for (Match match : getResult(search)) {
+					offer(best, match, maxResults);
+				}
+			}
+		}
+		List<Match> matches = new ArrayList<>(best);
+		matches.sort(BY_SCORE.reversed());
+		return matches;
+	}
+
+	/**
+	 * Gets the number of enrolled references.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		int size = 0;
+		for (Partition partition : partitions) {
+			size += partition.count;
+		}
+		return size;
+	}
+
+	@Override
+	public void close() throws IOException {
+		searchExecutor.shutdownNow();
+		for (Partition partition : partitions) {
+			if (partition.channel != null) {
+				partition.channel.close();
+			}
+		}
+	}
+
+	private Partition partitionOf(String referenceId) {
+		return partitions[Math.floorMod(referenceId.hashCode(), partitions.length)];
+	}
+
+	private static <T> T getResult(Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("gallery search interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("gallery search failed", e.getCause());
+		}
+	}
+
+	private static void offer(PriorityQueue<Match> best, Match match, int maxResults) {
+		if (best.size() < maxResults) {
+			best.add(match);
+		} else if (maxResults > 0 && best.peek().score < match.score) {
+			best.poll();
+			best.add(match);
+		}
+	}
+
+	/**
+	 * The templates of one partition.
+	 */
+	private final class Partition {
+
+		private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+		private final Map<String, Integer> index = new HashMap<>();
+
+		private final List<String> referenceIds = new ArrayList<>();
+
+		private final List<LongBuffer> segments = new ArrayList<>();
+
+		private final FileChannel channel;
+
+		private volatile int count;
+
+		Partition(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		boolean insert(String referenceId, long[] template) throws IOException {
+			int templateLength = matcher.getTemplateLength();
+			lock.writeLock().lock();
+			try {
+				if (index.containsKey(referenceId)) {
+					return false;
+				}
+				int position = count;
+				if (position / segmentSize == segments.size()) {
+					segments.add(allocateSegment(segments.size()));
+				}
+				LongBuffer segment = segments.get(position / segmentSize);
+				int offset = (position % segmentSize) * templateLength;
+				for (int i = 0; i < templateLength; i++) {
+					segment.put(offset + i, template[i]);
+				}
+				index.put(referenceId, position);
+				referenceIds.add(referenceId);
+				count = position + 1;
+				return true;
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		long[] getTemplate(String referenceId) {
+			lock.readLock().lock();
+			try {
+				Integer position = index.get(referenceId);
+				return position == null ? null : copy(position);
+			} finally {
+				lock.readLock().unlock();
+			}
+		}
+
+		long[] getRandomTemplate(Random random) {
+			lock.readLock().lock();
+			try {
+				return count == 0 ? null : copy(random.nextInt(count));
+			} finally {
+				lock.readLock().unlock();
+			}
+		}
+
+		void compare(long[] probe, String referenceId, double threshold, int maxResults, PriorityQueue<Match> best) {
+			lock.readLock().lock();
+			try {
+				Integer position = index.get(referenceId);
+				if (position != null) {
+					double score = matcher.score(probe, segments.get(position / segmentSize),
+							(position % segmentSize) * matcher.getTemplateLength());
+					if (score >= threshold) {
+						offer(best, new Match(referenceId, score), maxResults);
+					}
+				}
+			} finally {
+				lock.readLock().unlock();
+			}
+		}
+
+		PriorityQueue<Match> search(long[] probe, String excludedReferenceId, double threshold, int maxResults) {
+			PriorityQueue<Match> best = new PriorityQueue<>(BY_SCORE);
+			int templateLength = matcher.getTemplateLength();
+			lock.readLock().lock();
+			try {
+				int size = count;
+				for (int start = 0; start < size; start += segmentSize) {
+					LongBuffer segment = segments.get(start / segmentSize);
+					int end = Math.min(size, start + segmentSize);
+					for (int position = start, offset = 0; position < end; position++, offset += templateLength) {
+						double score = matcher.score(probe, segment, offset);
+						if (score >= threshold) {
+							String referenceId = referenceIds.get(position);
+							if (!referenceId.equals(excludedReferenceId)) {
+								offer(best, new Match(referenceId, score), maxResults);
+							}
+						}
+					}
+				}
+			} finally {
+				lock.readLock().unlock();
+			}
+			return best;
+		}
+
+		private long[] copy(int position) {
+			int templateLength = matcher.getTemplateLength();
+			LongBuffer segment = segments.get(position / segmentSize);
+			int offset = (position % segmentSize) * templateLength;
+			long[] template = new long[templateLength];
+			for (int i = 0; i < templateLength; i++) {
+				template[i] = segment.get(offset + i);
+			}
+			return template;
+		}
+
+		private LongBuffer allocateSegment(int segmentIndex) throws IOException {
+			int bytes = segmentSize * matcher.getTemplateLength() * Long.BYTES;
+			if (channel == null) {
+				return ByteBuffer.allocateDirect(bytes).asLongBuffer();
+			}
+			return channel.map(FileChannel.MapMode.READ_WRITE, (long) segmentIndex * bytes, bytes).asLongBuffer();
+		}
+	}
+
+	/**
+	 * A reference matching a probe.
+	 */
+	public static final class Match {
+
+		private final String referenceId;
+
+		private final double score;
+
+		Match(String referenceId, double score) {
+			this.referenceId = referenceId;
+			this.score = score;
+		}
+
+		public String getReferenceId() {
+			return referenceId;
+		}
+
+		public double getScore() {
+			return score;
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package io.mosip.registration.processor.abis.simulator;
+
+import java.nio.LongBuffer;
+import java.util.Random;
+
+/**
+ * Creates and compares the biometric templates of the simulated ABIS.
+ *
+ * A template is a fixed number of longs. The gallery stores them back to back
+ * and hands the matcher its storage with the offset of the template to compare,
+ * so a search never copies templates out of the gallery.
+ *
+ * @since 1.0.9
+ */
+public interface TemplateMatcher {
+
+	/**
+	 * Gets the length of a template.
+	 *
+	 * @return the number of longs of a template
+	 */
+	int getTemplateLength();
+
+	/**
+	 * Creates the template of a new person.
+	 *
+	 * @param random
+	 *            the random source
+	 * @return the template
+	 */
+	long[] createTemplate(Random random);
+
+	/**
+	 * Creates another capture of the person of a template, as a duplicate
+	 * registration would bring.
+	 *
+	 * @param template
+	 *            the template of the person
+	 * @param random
+	 *            the random source
+	 * @return the new template
+	 */
+	long[] createGenuineTemplate(long[] template, Random random);
+
+	/**
+	 * Compares a probe with a template of the gallery.
+	 *
+	 * @param probe
+	 *            the probe template
+	 * @param gallery
+	 *            the gallery storage
+	 * @param offset
+	 *            the offset of the gallery template in the storage
+	 * @return the score, from 0 for no likeness to 100 for identical templates
+	 */
+	double score(long[] probe, LongBuffer gallery, int offset);
+}
@@ -0,0 +1,88 @@
+package io.mosip.registration.processor.abis.messagequeue;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.activemq.command.ActiveMQBytesMessage;
+import org.apache.activemq.util.ByteSequence;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import io.mosip.registration.processor.abis.service.AbisService;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisIdentifyRequestDto;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisInsertRequestDto;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisInsertResponseDto;
+import io.mosip.registration.processor.core.queue.factory.MosipQueue;
+import io.mosip.registration.processor.core.spi.queue.MosipQueueManager;
+
+/**
+ * AbisMessageQueueImpl test
+ *
+ * @since 1.0.9
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AbisMessageQueueImplTest {
+
+	private static final String OUTBOUND_ADDRESS = "mosip-to-abis";
+
+	@Mock
+	private AbisService abisService;
+
+	@Mock
+	private MosipQueueManager<MosipQueue, byte[]> mosipQueueManager;
+
+	@Mock
+	private MosipQueue queue;
+
+	@InjectMocks
+	private AbisMessageQueueImpl abisMessageQueue;
+
+	@Test
+	public void testResponseSent() {
+		AbisInsertResponseDto response = new AbisInsertResponseDto();
+		response.setId("mosip.abis.insert");
+		response.setReturnValue(1);
+		Mockito.when(abisService.insert(Matchers.any(AbisInsertRequestDto.class))).thenReturn(response);
+		Mockito.when(mosipQueueManager.send(Matchers.any(), Matchers.any(), Matchers.anyString())).thenReturn(true);
+
+		assertTrue(abisMessageQueue.consumeLogic(message("mosip.abis.insert"), OUTBOUND_ADDRESS, queue));
+
+		ArgumentCaptor<byte[]> sent = ArgumentCaptor.forClass(byte[].class);
+		Mockito.verify(mosipQueueManager).send(Matchers.eq(queue), sent.capture(), Matchers.eq(OUTBOUND_ADDRESS));
+		assertTrue(new String(sent.getValue(), StandardCharsets.UTF_8).contains("\"returnValue\":1"));
+	}
+
+	@Test
+	public void testUnansweredInsertNotSent() {
+		Mockito.when(abisService.insert(Matchers.any(AbisInsertRequestDto.class))).thenReturn(null);
+
+		assertFalse(abisMessageQueue.consumeLogic(message("mosip.abis.insert"), OUTBOUND_ADDRESS, queue));
+
+		Mockito.verifyZeroInteractions(mosipQueueManager);
+	}
+
+	@Test
+	public void testUnansweredIdentifyNotSent() {
+		Mockito.when(abisService.identify(Matchers.any(AbisIdentifyRequestDto.class))).thenReturn(null);
+
+		assertFalse(abisMessageQueue.consumeLogic(message("mosip.abis.identify"), OUTBOUND_ADDRESS, queue));
+
+		Mockito.verifyZeroInteractions(mosipQueueManager);
+	}
+
+	private static ActiveMQBytesMessage message(String id) {
+		String request = "{\"id\":\"" + id + "\",\"ver\":\"1.1\",\"requestId\":\"01234567-89AB-CDEF-0123-456789ABCDEF\","
+				+ "\"requesttime\":\"2019-11-04T10:15:30.000Z\",\"referenceId\":\"10001100010000120190114115024\"}";
+		ActiveMQBytesMessage message = new ActiveMQBytesMessage();
+		message.setContent(new ByteSequence(request.getBytes(StandardCharsets.UTF_8)));
+		return message;
+	}
+}
@@ -0,0 +1,211 @@
+package io.mosip.registration.processor.abis.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisIdentifyRequestDto;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisIdentifyRequestGalleryDto;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisIdentifyResponseDto;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisInsertRequestDto;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisInsertResponseDto;
+import io.mosip.registration.processor.core.packet.dto.abis.CandidatesDto;
+import io.mosip.registration.processor.core.packet.dto.abis.Flag;
+import io.mosip.registration.processor.core.packet.dto.abis.ReferenceIdDto;
+
+/**
+ * SimulatedAbisServiceImpl test
+ *
+ * @since 1.0.9
+ */
+public class SimulatedAbisServiceImplTest {
+
+	private static final int SUCCESS = 1;
+
+	private static final int FAILURE = 2;
+
+	private MeterRegistry meterRegistry;
+
+	private SimulatedAbisServiceImpl abisService;
+
+	@Before
+	public void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		abisService = new SimulatedAbisServiceImpl();
+		ReflectionTestUtils.setField(abisService, "meterRegistry", meterRegistry);
+		// one partition, so a duplicate is always taken from the enrolled references
+		ReflectionTestUtils.setField(abisService, "partitions", 1);
+		ReflectionTestUtils.setField(abisService, "segmentSize", 16);
+		// low enough for captures a few duplicates apart to stay above the threshold
+		ReflectionTestUtils.setField(abisService, "genuineNoise", 0.05);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		abisService.close();
+	}
+
+	@Test
+	public void testInsertEnrolls() throws IOException {
+		abisService.init();
+
+		AbisInsertResponseDto response = abisService.insert(insertRequest("ref-1"));
+
+		assertEquals("mosip.abis.insert", response.getId());
+		assertEquals("request-ref-1", response.getRequestId());
+		assertEquals(SUCCESS, response.getReturnValue().intValue());
+		assertEquals(1.0, meterRegistry.get("regproc.abis.simulator.gallery.size").gauge().value(), 0.0);
+	}
+
+	@Test
+	public void testInsertWithoutReferenceFails() throws IOException {
+		abisService.init();
+
+		AbisInsertResponseDto response = abisService.insert(insertRequest(null));
+
+		assertEquals(FAILURE, response.getReturnValue().intValue());
+		assertEquals(5, response.getFailureReason().intValue());
+	}
+
+	@Test
+	public void testIdentifyFindsDuplicate() throws IOException {
+		ReflectionTestUtils.setField(abisService, "duplicateRate", 1.0);
+		abisService.init();
+		abisService.insert(insertRequest("ref-1"));
+		abisService.insert(insertRequest("ref-2"));
+
+		AbisIdentifyResponseDto response = abisService.identify(identifyRequest("ref-2"));
+
+		assertEquals("mosip.abis.identify", response.getId());
+		assertEquals(SUCCESS, response.getReturnValue().intValue());
+		assertEquals("1", response.getCandidateList().getCount());
+		CandidatesDto candidate = response.getCandidateList().getCandidates()[0];
+		assertEquals("ref-1", candidate.getReferenceId());
+		assertEquals(1, meterRegistry.get("regproc.abis.simulator.identify").timer().count());
+	}
+
+	@Test
+	public void testIdentifyUniqueHasNoCandidates() throws IOException {
+		abisService.init();
+		for (int i = 0; i < 20; i++) {
+			abisService.insert(insertRequest("ref-" + i));
+		}
+
+		AbisIdentifyResponseDto response = abisService.identify(identifyRequest("ref-0"));
+
+		assertEquals(SUCCESS, response.getReturnValue().intValue());
+		assertNull(response.getCandidateList());
+	}
+
+	@Test
+	public void testIdentifyWithinGalleryAndMaxResults() throws IOException {
+		ReflectionTestUtils.setField(abisService, "duplicateRate", 1.0);
+		abisService.init();
+		for (int i = 0; i < 5; i++) {
+			abisService.insert(insertRequest("ref-" + i));
+		}
+
+		AbisIdentifyRequestDto withinGallery = identifyRequest("ref-0");
+		withinGallery.setGallery(gallery("ref-3"));
+		AbisIdentifyRequestDto limited = identifyRequest("ref-0");
+		Flag flags = new Flag();
+		flags.setMaxResults(2);
+		limited.setFlags(flags);
+
+		CandidatesDto[] candidates = abisService.identify(withinGallery).getCandidateList().getCandidates();
+		assertEquals(1, candidates.length);
+		assertEquals("ref-3", candidates[0].getReferenceId());
+		assertEquals("2", abisService.identify(limited).getCandidateList().getCount());
+		assertEquals("4", abisService.identify(identifyRequest("ref-0")).getCandidateList().getCount());
+	}
+
+	@Test
+	public void testIdentifyNotEnrolledReference() throws IOException {
+		abisService.init();
+
+		AbisIdentifyResponseDto response = abisService.identify(identifyRequest("ref-1"));
+
+		assertEquals(FAILURE, response.getReturnValue().intValue());
+		assertEquals(7, response.getFailureReason().intValue());
+	}
+
+	@Test
+	public void testDeleteKeepsGallery() throws IOException {
+		ReflectionTestUtils.setField(abisService, "duplicateRate", 1.0);
+		abisService.init();
+		abisService.insert(insertRequest("ref-1"));
+		abisService.insert(insertRequest("ref-2"));
+
+		abisService.delete();
+
+		assertEquals("1", abisService.identify(identifyRequest("ref-2")).getCandidateList().getCount());
+	}
+
+	@Test
+	public void testInjectedFailure() throws IOException {
+		ReflectionTestUtils.setField(abisService, "failureRate", 1.0);
+		abisService.init();
+
+		AbisInsertResponseDto response = abisService.insert(insertRequest("ref-1"));
+
+		assertEquals(FAILURE, response.getReturnValue().intValue());
+		assertEquals(3, response.getFailureReason().intValue());
+	}
+
+	@Test
+	public void testLostRequestNotAnswered() throws IOException {
+		ReflectionTestUtils.setField(abisService, "noResponseRate", 1.0);
+		abisService.init();
+
+		assertNull(abisService.insert(insertRequest("ref-1")));
+		assertNull(abisService.identify(identifyRequest("ref-1")));
+	}
+
+	@Test
+	public void testPreload() throws IOException {
+		ReflectionTestUtils.setField(abisService, "preloadSize", 100);
+		abisService.init();
+
+		assertEquals(100.0, meterRegistry.get("regproc.abis.simulator.gallery.size").gauge().value(), 0.0);
+	}
+
+	private static AbisInsertRequestDto insertRequest(String referenceId) {
+		AbisInsertRequestDto request = new AbisInsertRequestDto();
+		request.setId("mosip.abis.insert");
+		request.setRequestId("request-" + referenceId);
+		request.setRequesttime("2019-11-04T10:15:30.000Z");
+		request.setReferenceId(referenceId);
+		return request;
+	}
+
+	private static AbisIdentifyRequestDto identifyRequest(String referenceId) {
+		AbisIdentifyRequestDto request = new AbisIdentifyRequestDto();
+		request.setId("mosip.abis.identify");
+		request.setRequestId("request-" + referenceId);
+		request.setRequesttime("2019-11-04T10:15:30.000Z");
+		request.setReferenceId(referenceId);
+		return request;
+	}
+
+	private static AbisIdentifyRequestGalleryDto gallery(String... referenceIds) {
+		List<ReferenceIdDto> references = new ArrayList<>();
+		for (String referenceId : referenceIds) {
+			ReferenceIdDto reference = new ReferenceIdDto();
+			reference.setReferenceId(referenceId);
+			references.add(reference);
+		}
+		AbisIdentifyRequestGalleryDto gallery = new AbisIdentifyRequestGalleryDto();
+		gallery.setReferenceIds(references);
+		return gallery;
+	}
+}
@@ -0,0 +1,91 @@
+package io.mosip.registration.processor.abis.simulator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.LongBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * HammingTemplateMatcher test
+ *
+ * @since 1.0.9
+ */
+public class HammingTemplateMatcherTest {
+
+	private static final double THRESHOLD = 70;
+
+	private final Random random = new Random(42);
+
+	@Test
+	public void testScoreByHammingDistance() {
+		HammingTemplateMatcher matcher = new HammingTemplateMatcher(4, 0.1);
+		long[] template = matcher.createTemplate(random);
+		long[] complement = new long[4];
+		long[] eightBitsFlipped = template.clone();
+		for (int i = 0; i < 4; i++) {
+			complement[i] = ~template[i];
+		}
+		eightBitsFlipped[1] ^= 0xFFL;
+
+		assertEquals(100.0, matcher.score(template, LongBuffer.wrap(template), 0), 0.0);
+		assertEquals(0.0, matcher.score(template, LongBuffer.wrap(complement), 0), 0.0);
+		// 8 of 256 bits
+		assertEquals(96.875, matcher.score(template, LongBuffer.wrap(eightBitsFlipped), 0), 0.0);
+	}
+
+	@Test
+	public void testScoreAtOffset() {
+		HammingTemplateMatcher matcher = new HammingTemplateMatcher(2, 0.1);
+		long[] first = matcher.createTemplate(random);
+		long[] second = matcher.createTemplate(random);
+		LongBuffer storage = LongBuffer.wrap(new long[] { first[0], first[1], second[0], second[1] });
+
+		assertEquals(100.0, matcher.score(second, storage, 2), 0.0);
+		assertTrue(matcher.score(second, storage, 0) < 100.0);
+	}
+
+	@Test
+	public void testGenuineAndImpostorScoresAroundThreshold() {
+		HammingTemplateMatcher matcher = new HammingTemplateMatcher(4, 0.1);
+		double genuineSum = 0;
+		double impostorSum = 0;
+		for (int i = 0; i < 1000; i++) {
+			long[] template = matcher.createTemplate(random);
+			double genuine = matcher.score(matcher.createGenuineTemplate(template, random), LongBuffer.wrap(template),
+					0);
+			double impostor = matcher.score(matcher.createTemplate(random), LongBuffer.wrap(template), 0);
+			assertTrue("genuine " + genuine, genuine >= THRESHOLD);
+			assertTrue("impostor " + impostor, impostor < THRESHOLD);
+			genuineSum += genuine;
+			impostorSum += impostor;
+		}
+
+		assertEquals(90.0, genuineSum / 1000, 1.0);
+		assertEquals(50.0, impostorSum / 1000, 1.0);
+	}
+
+	@Test
+	public void testNoNoiseGivesIdenticalCapture() {
+		HammingTemplateMatcher matcher = new HammingTemplateMatcher(4, 0);
+		long[] template = matcher.createTemplate(random);
+
+		long[] genuine = matcher.createGenuineTemplate(template, random);
+
+		assertArrayEquals(template, genuine);
+		assertEquals(4, matcher.getTemplateLength());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEmptyTemplateRejected() {
+		new HammingTemplateMatcher(0, 0.1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoiseAboveHalfRejected() {
+		new HammingTemplateMatcher(4, 0.6);
+	}
+}
@@ -0,0 +1,175 @@
+package io.mosip.registration.processor.abis.simulator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.mosip.registration.processor.abis.simulator.TemplateGallery.Match;
+
+/**
+ * TemplateGallery test
+ *
+ * @since 1.0.9
+ */
+public class TemplateGalleryTest {
+
+	private static final double THRESHOLD = 70;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final Random random = new Random(7);
+
+	private final HammingTemplateMatcher matcher = new HammingTemplateMatcher(4, 0.1);
+
+	private TemplateGallery gallery;
+
+	@After
+	public void tearDown() throws IOException {
+		if (gallery != null) {
+			gallery.close();
+		}
+	}
+
+	@Test
+	public void testInsertAndGetTemplate() throws IOException {
+		// segments of 2 templates, so the partitions grow over several
+		gallery = new TemplateGallery(matcher, 3, 2, null);
+		long[][] templates = new long[20][];
+		for (int i = 0; i < templates.length; i++) {
+			templates[i] = matcher.createTemplate(random);
+			assertTrue(gallery.insert("ref-" + i, templates[i]));
+		}
+
+		assertEquals(20, gallery.size());
+		for (int i = 0; i < templates.length; i++) {
+			assertArrayEquals(templates[i], gallery.getTemplate("ref-" + i));
+		}
+		assertNull(gallery.getTemplate("ref-20"));
+	}
+
+	@Test
+	public void testReinsertKeepsFirstTemplate() throws IOException {
+		gallery = new TemplateGallery(matcher, 2, 16, null);
+		long[] template = matcher.createTemplate(random);
+		gallery.insert("ref-1", template);
+
+		assertFalse(gallery.insert("ref-1", matcher.createTemplate(random)));
+		assertArrayEquals(template, gallery.getTemplate("ref-1"));
+		assertEquals(1, gallery.size());
+	}
+
+	@Test
+	public void testIdentifyFindsDuplicatesBestFirst() throws IOException {
+		gallery = new TemplateGallery(matcher, 4, 8, null);
+		long[] person = matcher.createTemplate(random);
+		gallery.insert("probe", person);
+		gallery.insert("same-capture", person.clone());
+		gallery.insert("other-capture", matcher.createGenuineTemplate(person, random));
+		for (int i = 0; i < 100; i++) {
+			gallery.insert("impostor-" + i, matcher.createTemplate(random));
+		}
+
+		List<Match> matches = gallery.identify(person, "probe", null, THRESHOLD, 5);
+
+		assertEquals(2, matches.size());
+		assertEquals("same-capture", matches.get(0).getReferenceId());
+		assertEquals(100.0, matches.get(0).getScore(), 0.0);
+		assertEquals("other-capture", matches.get(1).getReferenceId());
+		assertTrue(matches.get(1).getScore() >= THRESHOLD && matches.get(1).getScore() < 100.0);
+	}
+
+	@Test
+	public void testIdentifyKeepsMaxResults() throws IOException {
+		gallery = new TemplateGallery(matcher, 2, 4, null);
+		long[] person = matcher.createTemplate(random);
+		for (int i = 0; i < 10; i++) {
+			gallery.insert("capture-" + i, matcher.createGenuineTemplate(person, random));
+		}
+
+		List<Match> matches = gallery.identify(person, null, null, THRESHOLD, 3);
+
+		assertEquals(3, matches.size());
+		assertTrue(matches.get(0).getScore() >= matches.get(1).getScore());
+		assertTrue(matches.get(1).getScore() >= matches.get(2).getScore());
+		assertTrue(gallery.identify(person, null, null, THRESHOLD, 0).isEmpty());
+	}
+
+	@Test
+	public void testIdentifyWithinReferenceIds() throws IOException {
+		gallery = new TemplateGallery(matcher, 2, 4, null);
+		long[] person = matcher.createTemplate(random);
+		gallery.insert("probe", person);
+		gallery.insert("capture-1", matcher.createGenuineTemplate(person, random));
+		gallery.insert("capture-2", matcher.createGenuineTemplate(person, random));
+
+		List<Match> matches = gallery.identify(person, "probe",
+				Arrays.asList("probe", "capture-2", "not-enrolled", null), THRESHOLD, 5);
+
+		assertEquals(1, matches.size());
+		assertEquals("capture-2", matches.get(0).getReferenceId());
+		assertEquals(2, gallery.identify(person, "probe", Collections.emptyList(), THRESHOLD, 5).size());
+	}
+
+	@Test
+	public void testThresholdFiltersMatches() throws IOException {
+		gallery = new TemplateGallery(matcher, 2, 4, null);
+		long[] person = matcher.createTemplate(random);
+		gallery.insert("capture", matcher.createGenuineTemplate(person, random));
+		for (int i = 0; i < 50; i++) {
+			gallery.insert("impostor-" + i, matcher.createTemplate(random));
+		}
+
+		assertEquals(1, gallery.identify(person, null, null, THRESHOLD, 100).size());
+		assertEquals(51, gallery.identify(person, null, null, 0, 100).size());
+		assertTrue(gallery.identify(person, null, null, 100.1, 100).isEmpty());
+	}
+
+	@Test
+	public void testMemoryMappedPartitions() throws IOException {
+		Path directory = folder.getRoot().toPath().resolve("gallery");
+		gallery = new TemplateGallery(matcher, 2, 4, directory);
+		long[] person = matcher.createTemplate(random);
+		for (int i = 0; i < 20; i++) {
+			gallery.insert("ref-" + i, i == 13 ? person : matcher.createTemplate(random));
+		}
+
+		List<Match> matches = gallery.identify(person, null, null, THRESHOLD, 5);
+
+		assertTrue(Files.exists(directory.resolve("partition-0.bin")));
+		assertTrue(Files.exists(directory.resolve("partition-1.bin")));
+		assertEquals(1, matches.size());
+		assertEquals("ref-13", matches.get(0).getReferenceId());
+		assertArrayEquals(person, gallery.getTemplate("ref-13"));
+	}
+
+	@Test
+	public void testRandomTemplate() throws IOException {
+		gallery = new TemplateGallery(matcher, 1, 4, null);
+
+		assertNull(gallery.getRandomTemplate(random));
+		long[] template = matcher.createTemplate(random);
+		gallery.insert("ref-1", template);
+		assertArrayEquals(template, gallery.getRandomTemplate(random));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSegmentOver2GbRejected() throws IOException {
+		new TemplateGallery(matcher, 1, Integer.MAX_VALUE / 8, null);
+	}
+}
@@ -1,9 +1,16 @@
 package io.mosip.registration.processor.stages.demodedupe;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
@@ -12,12 +19,20 @@ import io.mosip.registration.processor.core.constant.LoggerFileConstant;
 import io.mosip.registration.processor.core.logger.RegProcessorLogger;
 import io.mosip.registration.processor.core.packet.dto.demographicinfo.DemographicInfoDto;
 import io.mosip.registration.processor.packet.storage.dao.PacketInfoDao;
-import io.mosip.registration.processor.stages.app.constants.DemoDedupeConstants;
-import io.mosip.registration.processor.status.service.RegistrationStatusService;
+import io.mosip.registration.processor.packet.storage.dto.DemographicDedupeCandidateDto;
 
 /**
  * The Class DemoDedupe.
  *
+ * With the blocking key index enabled, the candidates of an applicant are the
+ * records of processed registrations sharing a blocking key with it, read in
+ * one query. A candidate in the same language matches when its date of birth
+ * and gender are the same and its name is the same or its blocking keys score
+ * at least the match threshold. A value missing on either side is no evidence
+ * of a match, as with the exact query. Applicants stored before the index
+ * existed have no keys and are deduped on the exact name, gender and date of
+ * birth.
+ *
  * @author M1048358 Alok Ranjan
  * @author M1048860 Kiran Raj
  */
@@ -31,13 +46,18 @@ public class DemoDedupe {
 	@Autowired
 	private Environment env;
 
-	@Autowired
-	private RegistrationStatusService registrationStatusService;
-
 	/** The packet info dao. */
 	@Autowired
 	private PacketInfoDao packetInfoDao;
 
+	/** Whether candidates are found through the blocking key index. */
+	@Value("${registration.processor.demodedupe.blocking-index.enabled:false}")
+	private boolean blockingIndexEnabled;
+
+	/** The lowest score of a matching candidate, between 0 and 1. */
+	@Value("${registration.processor.demodedupe.match-threshold:1.0}")
+	private double matchThreshold;
+
 	/**
 	 * Perform dedupe.
 	 *
@@ -51,12 +71,18 @@ public class DemoDedupe {
 
 		List<DemographicInfoDto> applicantDemoDto = packetInfoDao.findDemoById(refId);
 		List<DemographicInfoDto> demographicInfoDtos;
-		List<DemographicInfoDto> infoDtos = new ArrayList<>();
-		for (DemographicInfoDto demoDto : applicantDemoDto) {
-			infoDtos.addAll(packetInfoDao.getAllDemographicInfoDtos(demoDto.getName(), demoDto.getGenderCode(),
-					demoDto.getDob(), demoDto.getLangCode()));
+		Map<String, Set<String>> blockingKeys = blockingIndexEnabled ? packetInfoDao.getDemographicDedupeKeys(refId)
+				: Collections.emptyMap();
+		if (!blockingKeys.isEmpty()) {
+			demographicInfoDtos = getMatchedDemographicInfoDtos(refId, applicantDemoDto, blockingKeys);
+		} else {
+			List<DemographicInfoDto> infoDtos = new ArrayList<>();
+			for (DemographicInfoDto demoDto : applicantDemoDto) {
+				infoDtos.addAll(packetInfoDao.getAllDemographicInfoDtos(demoDto.getName(), demoDto.getGenderCode(),
+						demoDto.getDob(), demoDto.getLangCode()));
+			}
+			demographicInfoDtos = getAllDemographicInfoDtosWithUin(infoDtos);
 		}
-		demographicInfoDtos = getAllDemographicInfoDtosWithUin(infoDtos);
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REFFERENCEID.toString(), refId,
 				"DemoDedupe::performDedupe()::exit");
 		return demographicInfoDtos;
@@ -65,8 +91,13 @@ public class DemoDedupe {
 	private List<DemographicInfoDto> getAllDemographicInfoDtosWithUin(
 			List<DemographicInfoDto> duplicateDemographicDtos) {
 		List<DemographicInfoDto> demographicInfoDtosWithUin = new ArrayList<>();
+		Set<String> regIds = new HashSet<>();
+		for (DemographicInfoDto demographicDto : duplicateDemographicDtos) {
+			regIds.add(demographicDto.getRegId());
+		}
+		Set<String> regIdsWithUin = packetInfoDao.getRegIdsWithUin(regIds);
 		for (DemographicInfoDto demographicDto : duplicateDemographicDtos) {
-			if (registrationStatusService.checkUinAvailabilityForRid(demographicDto.getRegId())) {
+			if (regIdsWithUin.contains(demographicDto.getRegId())) {
 				demographicInfoDtosWithUin.add(demographicDto);
 			}
 
@@ -74,5 +105,79 @@ public class DemoDedupe {
 		return demographicInfoDtosWithUin;
 	}
 
+	/**
+	 * Gets the matching record of each registration among the candidates.
+	 *
+	 * @param refId
+	 *            the ref id
+	 * @param applicantDemoDtos
+	 *            the records of the applicant
+	 * @param blockingKeys
+	 *            the blocking keys of the applicant by lang code
+	 * @return the matching records
+	 */
+	private List<DemographicInfoDto> getMatchedDemographicInfoDtos(String refId,
+			List<DemographicInfoDto> applicantDemoDtos, Map<String, Set<String>> blockingKeys) {
+		Map<String, DemographicInfoDto> applicantDemoDtoByLangCode = new HashMap<>();
+		for (DemographicInfoDto demoDto : applicantDemoDtos) {
+			applicantDemoDtoByLangCode.put(demoDto.getLangCode(), demoDto);
+		}
+		Set<String> allBlockingKeys = new HashSet<>();
+		for (Set<String> keys : blockingKeys.values()) {
+			allBlockingKeys.addAll(keys);
+		}
+		Map<String, DemographicInfoDto> matchedDemoDtos = new LinkedHashMap<>();
+		for (DemographicDedupeCandidateDto candidate : packetInfoDao.getDemographicDedupeCandidates(refId,
+				allBlockingKeys)) {
+			DemographicInfoDto candidateDto = candidate.getDemographicInfo();
+			DemographicInfoDto applicantDto = applicantDemoDtoByLangCode.get(candidateDto.getLangCode());
+			if (applicantDto != null && !matchedDemoDtos.containsKey(candidateDto.getRegId())
+					&& score(applicantDto, blockingKeys.get(candidateDto.getLangCode()), candidate) >= matchThreshold) {
+				matchedDemoDtos.put(candidateDto.getRegId(), candidateDto);
+			}
+		}
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REFFERENCEID.toString(), refId,
+				"DemoDedupe::getMatchedDemographicInfoDtos()::" + matchedDemoDtos.size() + " matched");
+		return new ArrayList<>(matchedDemoDtos.values());
+	}
+
+	/**
+	 * Scores a candidate against the applicant record of the same language: 0
+	 * when the date of birth or gender differ or are missing, 1 when the name is
+	 * the same, otherwise the Dice coefficient of their blocking keys.
+	 *
+	 * @param applicantDto
+	 *            the applicant record
+	 * @param applicantKeys
+	 *            the blocking keys of the applicant record
+	 * @param candidate
+	 *            the candidate record and its blocking keys
+	 * @return the score, between 0 and 1
+	 */
+	private double score(DemographicInfoDto applicantDto, Set<String> applicantKeys,
+			DemographicDedupeCandidateDto candidate) {
+		DemographicInfoDto candidateDto = candidate.getDemographicInfo();
+		if (!isSame(applicantDto.getDob(), candidateDto.getDob())
+				|| !isSame(applicantDto.getGenderCode(), candidateDto.getGenderCode())) {
+			return 0.0;
+		}
+		if (isSame(applicantDto.getName(), candidateDto.getName())) {
+			return 1.0;
+		}
+		if (applicantKeys == null || applicantKeys.isEmpty()) {
+			return 0.0;
+		}
+		int sharedKeys = 0;
+		for (String blockingKey : candidate.getBlockingKeys()) {
+			if (applicantKeys.contains(blockingKey)) {
+				sharedKeys++;
+			}
+		}
+		return 2.0 * sharedKeys / (applicantKeys.size() + candidate.getBlockingKeys().size());
+	}
+
+	private static boolean isSame(String applicantValue, String candidateValue) {
+		return applicantValue != null && applicantValue.equals(candidateValue);
+	}
 
 }
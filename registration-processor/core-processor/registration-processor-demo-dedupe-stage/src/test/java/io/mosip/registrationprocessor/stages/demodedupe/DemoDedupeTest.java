@@ -1,12 +1,20 @@
 package io.mosip.registrationprocessor.stages.demodedupe;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
@@ -19,6 +27,7 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
 import org.springframework.core.env.Environment;
 
 import io.mosip.kernel.core.util.HMACUtils;
@@ -30,6 +39,7 @@ import io.mosip.registration.processor.core.spi.packetmanager.PacketInfoManager;
 import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
 import io.mosip.registration.processor.packet.storage.dao.PacketInfoDao;
 import io.mosip.registration.processor.packet.storage.dto.ApplicantInfoDto;
+import io.mosip.registration.processor.packet.storage.dto.DemographicDedupeCandidateDto;
 import io.mosip.registration.processor.stages.demodedupe.DemoDedupe;
 import io.mosip.registration.processor.status.dto.InternalRegistrationStatusDto;
 import io.mosip.registration.processor.status.dto.RegistrationStatusDto;
@@ -109,7 +119,8 @@ public class DemoDedupeTest {
 
 		Mockito.when(filesystemAdapterImpl.checkFileExistence(anyString(), anyString())).thenReturn(Boolean.TRUE);
 		Mockito.when(filesystemAdapterImpl.getFile(anyString(), anyString())).thenReturn(inputStream);
-		Mockito.when(registrationStatusService.checkUinAvailabilityForRid(anyString())).thenReturn(true);
+		Mockito.when(packetInfoDao.getRegIdsWithUin(any()))
+				.thenAnswer(invocation -> new HashSet<>((Collection<?>) invocation.getArguments()[0]));
 
 		byte[] data = "1234567890".getBytes();
 		PowerMockito.mockStatic(IOUtils.class);
@@ -156,4 +167,99 @@ public class DemoDedupeTest {
 		assertEquals("Test for Demo Dedupe Empty", true, duplicates.isEmpty());
 	}
 
+	/**
+	 * Test candidates of the blocking key index scored against the applicant.
+	 */
+	@Test
+	public void testBlockingKeyIndexCandidatesScored() {
+		String regId = "1234567890";
+		Whitebox.setInternalState(demoDedupe, "blockingIndexEnabled", true);
+		Whitebox.setInternalState(demoDedupe, "matchThreshold", 0.5);
+
+		Mockito.when(packetInfoDao.findDemoById(regId))
+				.thenReturn(Collections.singletonList(demographicInfo(regId, "name", "male", "dob")));
+		Map<String, Set<String>> blockingKeys = new HashMap<>();
+		blockingKeys.put("eng", new HashSet<>(Arrays.asList("k1", "k2")));
+		Mockito.when(packetInfoDao.getDemographicDedupeKeys(regId)).thenReturn(blockingKeys);
+		List<DemographicDedupeCandidateDto> candidates = new ArrayList<>();
+		candidates.add(candidate(demographicInfo("1", "name", "male", "dob"), "k3"));
+		candidates.add(candidate(demographicInfo("2", "other", "male", "dob"), "k1", "k3"));
+		candidates.add(candidate(demographicInfo("2", "other", "male", "dob"), "k1", "k3"));
+		candidates.add(candidate(demographicInfo("3", "other", "male", "dob"), "k3", "k4"));
+		candidates.add(candidate(demographicInfo("4", "name", "female", "dob"), "k1", "k2"));
+		candidates.add(candidate(demographicInfo("5", "name", "male", "other"), "k1", "k2"));
+		Mockito.when(packetInfoDao.getDemographicDedupeCandidates(regId, blockingKeys.get("eng")))
+				.thenReturn(candidates);
+
+		List<DemographicInfoDto> duplicates = demoDedupe.performDedupe(regId);
+
+		assertEquals(2, duplicates.size());
+		assertEquals("1", duplicates.get(0).getRegId());
+		assertEquals("2", duplicates.get(1).getRegId());
+		Mockito.verify(packetInfoDao, Mockito.never()).getAllDemographicInfoDtos(any(), any(), any(), any());
+	}
+
+	/**
+	 * Test values missing on either side not taken as a match.
+	 */
+	@Test
+	public void testBlockingKeyIndexMissingValuesNotMatched() {
+		String regId = "1234567890";
+		Whitebox.setInternalState(demoDedupe, "blockingIndexEnabled", true);
+		Whitebox.setInternalState(demoDedupe, "matchThreshold", 0.5);
+
+		Mockito.when(packetInfoDao.findDemoById(regId))
+				.thenReturn(Collections.singletonList(demographicInfo(regId, null, "male", "dob")));
+		Map<String, Set<String>> blockingKeys = new HashMap<>();
+		blockingKeys.put("eng", new HashSet<>(Arrays.asList("k1", "k2")));
+		Mockito.when(packetInfoDao.getDemographicDedupeKeys(regId)).thenReturn(blockingKeys);
+		List<DemographicDedupeCandidateDto> candidates = new ArrayList<>();
+		candidates.add(candidate(demographicInfo("1", "name", "male", "dob"), "k3"));
+		candidates.add(candidate(demographicInfo("2", null, "male", "dob"), "k3"));
+		candidates.add(candidate(demographicInfo("3", "name", null, "dob"), "k1", "k2"));
+		candidates.add(candidate(demographicInfo("4", "name", "male", null), "k1", "k2"));
+		Mockito.when(packetInfoDao.getDemographicDedupeCandidates(regId, blockingKeys.get("eng")))
+				.thenReturn(candidates);
+
+		assertTrue(demoDedupe.performDedupe(regId).isEmpty());
+	}
+
+	/**
+	 * Test applicant without blocking keys deduped on the exact values.
+	 */
+	@Test
+	public void testBlockingKeyIndexWithoutKeys() {
+		String regId = "1234567890";
+		Whitebox.setInternalState(demoDedupe, "blockingIndexEnabled", true);
+		DemographicInfoDto applicant = demographicInfo(regId, "name", "male", "dob");
+
+		Mockito.when(packetInfoDao.findDemoById(regId)).thenReturn(Collections.singletonList(applicant));
+		Mockito.when(packetInfoDao.getDemographicDedupeKeys(regId)).thenReturn(Collections.emptyMap());
+		Mockito.when(packetInfoDao.getAllDemographicInfoDtos("name", "male", "dob", "eng"))
+				.thenReturn(Collections.singletonList(demographicInfo("1", "name", "male", "dob")));
+
+		List<DemographicInfoDto> duplicates = demoDedupe.performDedupe(regId);
+
+		assertEquals(1, duplicates.size());
+		Mockito.verify(packetInfoDao, Mockito.never()).getDemographicDedupeCandidates(any(), any());
+	}
+
+	private static DemographicInfoDto demographicInfo(String regId, String name, String gender, String dob) {
+		DemographicInfoDto demographicInfo = new DemographicInfoDto();
+		demographicInfo.setRegId(regId);
+		demographicInfo.setLangCode("eng");
+		demographicInfo.setName(name);
+		demographicInfo.setGenderCode(gender);
+		demographicInfo.setDob(dob);
+		return demographicInfo;
+	}
+
+	private static DemographicDedupeCandidateDto candidate(DemographicInfoDto demographicInfo,
+			String... blockingKeys) {
+		DemographicDedupeCandidateDto candidate = new DemographicDedupeCandidateDto();
+		candidate.setDemographicInfo(demographicInfo);
+		candidate.setBlockingKeys(new HashSet<>(Arrays.asList(blockingKeys)));
+		return candidate;
+	}
+
 }
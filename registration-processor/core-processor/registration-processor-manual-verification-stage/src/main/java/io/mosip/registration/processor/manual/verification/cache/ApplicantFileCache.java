@@ -0,0 +1,358 @@
+package io.mosip.registration.processor.manual.verification.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.exception.PacketDecryptionFailureException;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+
+/**
+ * Short lived cache of the files a manual verifier views for a case, keyed by
+ * registration id. The files of a case are read together on the first request,
+ * or ahead of it when the case is assigned, so that the biometric, demographic
+ * and packet meta info tabs do not read the packet again. Entries are bounded
+ * by total bytes, evicted in LRU order and expire after a TTL. A verifier holds
+ * at most one case: prefetching another case for the verifier evicts the
+ * previous one, and a prefetch that completes after its case was evicted or
+ * reassigned is dropped.
+ *
+ * @since 1.0.9
+ */
+public class ApplicantFileCache {
+
+	private static Logger regProcLogger = RegProcessorLogger.getLogger(ApplicantFileCache.class);
+
+	private static final String METRIC_PREFIX = "regproc.manual.verification.file.";
+
+	/**
+	 * Reads the files of a case on a cache miss.
+	 */
+	@FunctionalInterface
+	public interface CaseLoader {
+		Map<String, byte[]> load(String regId) throws PacketDecryptionFailureException, ApisResourceAccessException,
+				io.mosip.kernel.core.exception.IOException, IOException;
+	}
+
+	@Value("${registration.processor.manual.verification.file.cache.enabled:true}")
+	private boolean enabled;
+
+	@Value("${registration.processor.manual.verification.file.cache.max-bytes:67108864}")
+	private long maxBytes;
+
+	@Value("${registration.processor.manual.verification.file.cache.ttl-seconds:300}")
+	private long ttlSeconds;
+
+	/** The threads reading the files of assigned cases, 0 to not prefetch. */
+	@Value("${registration.processor.manual.verification.file.cache.prefetch-threads:2}")
+	private int prefetchThreads;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	/** Cases in access order, guarded by itself. */
+	private final LinkedHashMap<String, CaseFiles> cases = new LinkedHashMap<>(16, 0.75f, true);
+
+	/** The case last prefetched for each verifier. */
+	private final Map<String, String> caseByVerifier = new ConcurrentHashMap<>();
+
+	/** Per id locks so that a request and a prefetch read the packet only once. */
+	private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+	/** Total bytes held, guarded by cases. */
+	private long currentBytes;
+
+	private ThreadPoolExecutor prefetcher;
+
+	private Timer hitTimer;
+
+	private Timer missTimer;
+
+	public ApplicantFileCache() {
+	}
+
+	public ApplicantFileCache(long maxBytes, long ttlSeconds, int prefetchThreads) {
+		this.enabled = true;
+		this.maxBytes = maxBytes;
+		this.ttlSeconds = ttlSeconds;
+		this.prefetchThreads = prefetchThreads;
+	}
+
+	/**
+	 * Starts the prefetch threads and registers the metrics.
+	 */
+	@PostConstruct
+	public void start() {
+		if (!enabled) {
+			return;
+		}
+		if (prefetchThreads > 0) {
+			AtomicInteger threadNumber = new AtomicInteger();
+			prefetcher = new ThreadPoolExecutor(prefetchThreads, prefetchThreads, 0, TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<>(prefetchThreads * 16), runnable -> {
+						Thread thread = new Thread(runnable, "applicant-file-prefetch-" + threadNumber.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+		}
+		if (meterRegistry != null) {
+			bindTo(meterRegistry);
+		}
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (prefetcher != null) {
+			prefetcher.shutdownNow();
+		}
+		clear();
+	}
+
+	public void bindTo(MeterRegistry registry) {
+		hitTimer = fetchTimer(registry, "hit");
+		missTimer = fetchTimer(registry, "miss");
+		Gauge.builder(METRIC_PREFIX + "cache.bytes", this, ApplicantFileCache::getCurrentBytes)
+				.description("Bytes of applicant files cached").register(registry);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Returns a file of the case, reading all the files of the case on a miss.
+	 *
+	 * @param regId
+	 *            the registration id
+	 * @param fileName
+	 *            the file name
+	 * @param loader
+	 *            reads the files of the case on a miss
+	 * @return the file, null if the packet does not contain it
+	 * @throws PacketDecryptionFailureException
+	 *             if the packet could not be decrypted
+	 * @throws ApisResourceAccessException
+	 *             if the packet store could not be reached
+	 * @throws io.mosip.kernel.core.exception.IOException
+	 *             if the packet could not be read
+	 * @throws IOException
+	 *             if a file could not be read
+	 */
+	public byte[] getFile(String regId, String fileName, CaseLoader loader) throws PacketDecryptionFailureException,
+			ApisResourceAccessException, io.mosip.kernel.core.exception.IOException, IOException {
+		long start = System.nanoTime();
+		CaseFiles files = lookup(regId);
+		Timer timer = hitTimer;
+		if (files == null) {
+			files = load(regId, null, loader);
+			timer = missTimer;
+		}
+		if (timer != null) {
+			timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+		return files.get(fileName);
+	}
+
+	/**
+	 * Reads the files of a case assigned to a verifier in the background, and
+	 * evicts the case previously prefetched for the verifier. A prefetch is
+	 * dropped when the prefetch queue is full.
+	 *
+	 * @param verifierId
+	 *            the verifier user id
+	 * @param regId
+	 *            the registration id of the assigned case
+	 * @param loader
+	 *            reads the files of the case
+	 */
+	public void prefetch(String verifierId, String regId, CaseLoader loader) {
+		String previous = caseByVerifier.put(verifierId, regId);
+		if (previous != null && !previous.equals(regId)) {
+			evict(previous);
+		}
+		if (prefetcher == null || lookup(regId) != null) {
+			return;
+		}
+		try {
+			prefetcher.execute(() -> {
+				try {
+					load(regId, verifierId, loader);
+				} catch (Exception e) {
+					regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(),
+							LoggerFileConstant.REGISTRATIONID.toString(), regId,
+							"ApplicantFileCache::prefetch()::" + e.getMessage());
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					regId, "ApplicantFileCache::prefetch()::prefetch queue full");
+		}
+	}
+
+	/**
+	 * Evicts the files of the case.
+	 *
+	 * @param regId
+	 *            the registration id
+	 */
+	public void evict(String regId) {
+		// unassign first so that a prefetch storing concurrently sees it
+		caseByVerifier.values().remove(regId);
+		synchronized (cases) {
+			CaseFiles files = cases.remove(regId);
+			if (files != null) {
+				currentBytes -= files.size;
+			}
+		}
+	}
+
+	public void clear() {
+		synchronized (cases) {
+			cases.clear();
+			currentBytes = 0;
+		}
+		caseByVerifier.clear();
+	}
+
+	public int size() {
+		synchronized (cases) {
+			return cases.size();
+		}
+	}
+
+	public long getCurrentBytes() {
+		synchronized (cases) {
+			return currentBytes;
+		}
+	}
+
+	/**
+	 * Reads the files of the case once across concurrent callers.
+	 *
+	 * @param verifierId
+	 *            the verifier the case is prefetched for, null for a request
+	 */
+	private CaseFiles load(String regId, String verifierId, CaseLoader loader) throws PacketDecryptionFailureException,
+			ApisResourceAccessException, io.mosip.kernel.core.exception.IOException, IOException {
+		Object lock = loadLocks.computeIfAbsent(regId, key -> new Object());
+		synchronized (lock) {
+			try {
+				CaseFiles files = lookup(regId);
+				if (files != null) {
+					return files;
+				}
+				regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.REGISTRATIONID.toString(), regId,
+						"ApplicantFileCache::load()::reading applicant files");
+				files = new CaseFiles(loader.load(regId));
+				store(regId, verifierId, files);
+				return files;
+			} finally {
+				loadLocks.remove(regId, lock);
+			}
+		}
+	}
+
+	private CaseFiles lookup(String regId) {
+		synchronized (cases) {
+			CaseFiles files = cases.get(regId);
+			if (files != null && isExpired(files)) {
+				cases.remove(regId);
+				currentBytes -= files.size;
+				return null;
+			}
+			return files;
+		}
+	}
+
+	private void store(String regId, String verifierId, CaseFiles files) {
+		if (files.size > maxBytes || files.isEmpty()) {
+			return;
+		}
+		List<String> evicted = new ArrayList<>();
+		synchronized (cases) {
+			if (verifierId != null && !regId.equals(caseByVerifier.get(verifierId))) {
+				regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.REGISTRATIONID.toString(), regId,
+						"ApplicantFileCache::store()::case no longer assigned, prefetch dropped");
+				return;
+			}
+			CaseFiles previous = cases.put(regId, files);
+			if (previous != null) {
+				currentBytes -= previous.size;
+			}
+			currentBytes += files.size;
+			Iterator<Map.Entry<String, CaseFiles>> eldest = cases.entrySet().iterator();
+			while (currentBytes > maxBytes && eldest.hasNext()) {
+				Map.Entry<String, CaseFiles> candidate = eldest.next();
+				if (candidate.getValue() == files) {
+					continue;
+				}
+				eldest.remove();
+				currentBytes -= candidate.getValue().size;
+				evicted.add(candidate.getKey());
+			}
+		}
+		evicted.forEach(caseByVerifier.values()::remove);
+	}
+
+	private boolean isExpired(CaseFiles files) {
+		return System.currentTimeMillis() - files.createdTime > TimeUnit.SECONDS.toMillis(ttlSeconds);
+	}
+
+	private static Timer fetchTimer(MeterRegistry registry, String result) {
+		return Timer.builder(METRIC_PREFIX + "fetch").tag("result", result)
+				.description("Time to get an applicant file for manual verification").publishPercentiles(0.5, 0.95)
+				.publishPercentileHistogram().register(registry);
+	}
+
+	/**
+	 * The files of one case.
+	 */
+	private static class CaseFiles {
+
+		private final Map<String, byte[]> files;
+
+		private final long size;
+
+		private final long createdTime = System.currentTimeMillis();
+
+		CaseFiles(Map<String, byte[]> files) {
+			this.files = files;
+			long total = 0;
+			for (byte[] file : files.values()) {
+				total += file.length;
+			}
+			this.size = total;
+		}
+
+		byte[] get(String fileName) {
+			return files.get(fileName);
+		}
+
+		boolean isEmpty() {
+			return files.isEmpty();
+		}
+	}
+}
@@ -2,6 +2,7 @@ package io.mosip.registration.processor.manual.verification.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import io.mosip.registration.processor.manual.verification.cache.ApplicantFileCache;
 import io.mosip.registration.processor.manual.verification.exception.handler.ManualVerificationExceptionHandler;
 import io.mosip.registration.processor.manual.verification.response.builder.ManualVerificationResponseBuilder;
 import io.mosip.registration.processor.manual.verification.service.ManualVerificationService;
@@ -36,4 +37,9 @@ public class ManualVerificationConfigBean {
 		return new ManualVerificationResponseBuilder();
 	}
 
+	@Bean
+	ApplicantFileCache getApplicantFileCache() {
+		return new ApplicantFileCache();
+	}
+
 }
\ No newline at end of file
@@ -23,6 +23,7 @@ public class ManualVerificationConstants {
 	public static final String BIOMETRIC_SERVICE_ID = "mosip.registration.processor.manual.verification.biometric.id";
 	public static final String DEMOGRAPHIC_SERVICE_ID = "mosip.registration.processor.manual.verification.demographic.id";
 	public static final String PACKETINFO_SERVICE_ID = "mosip.registration.processor.manual.verification.packetinfo.id";
+	public static final String APPLICANT_FILE_SERVICE_ID = "mosip.registration.processor.manual.verification.applicantfile.id";
 	public static final String MVS_APPLICATION_VERSION = "mosip.registration.processor.application.version";
 	public static final String VERIFICATION_APPROVED = "Manual verification approved for registration id : ";
 	public static final String VERIFICATION_REJECTED = "Manual verification rejected for registration id : ";
@@ -2,21 +2,34 @@ package io.mosip.registration.processor.manual.verification.service.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.sql.Timestamp;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
 import io.mosip.registration.processor.core.code.ApiName;
@@ -48,6 +61,7 @@ import io.mosip.registration.processor.core.status.util.StatusUtil;
 import io.mosip.registration.processor.core.status.util.TrimExceptionMessage;
 import io.mosip.registration.processor.core.util.JsonUtil;
 import io.mosip.registration.processor.core.util.RegistrationExceptionMapperUtil;
+import io.mosip.registration.processor.manual.verification.cache.ApplicantFileCache;
 import io.mosip.registration.processor.manual.verification.constants.ManualVerificationConstants;
 import io.mosip.registration.processor.manual.verification.dto.ManualVerificationDTO;
 import io.mosip.registration.processor.manual.verification.dto.ManualVerificationStatus;
@@ -81,6 +95,12 @@ public class ManualVerificationServiceImpl implements ManualVerificationService
 
 	/** The Constant USER. */
 	private static final String USER = "MOSIP_SYSTEM";
+
+	private static final String METRIC_PREFIX = "regproc.manual.verification.claim.";
+
+	/** The files a verifier views for a case. */
+	private static final List<String> APPLICANT_FILES = Arrays.asList(PacketFiles.BIOMETRIC.name(),
+			PacketFiles.DEMOGRAPHIC.name(), PacketFiles.PACKET_META_INFO.name());
 	/** The audit log request builder. */
 
 	@Autowired
@@ -114,6 +134,46 @@ public class ManualVerificationServiceImpl implements ManualVerificationService
 	@Autowired
 	RegistrationExceptionMapperUtil registrationExceptionMapperUtil;
 
+	/** The meter registry. */
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	/** The cache of the files of assigned cases. */
+	@Autowired(required = false)
+	private ApplicantFileCache applicantFileCache;
+
+	/**
+	 * Claim pending records with UPDATE ... FOR UPDATE SKIP LOCKED (PostgreSQL)
+	 * instead of reading the oldest record and updating it.
+	 */
+	@Value("${registration.processor.manual.verification.claim.skip-locked:true}")
+	private boolean skipLockedClaim;
+
+	/**
+	 * The number of records claimed at once. The records beyond the first stay
+	 * assigned to the verifier and are returned by the next assign requests.
+	 */
+	@Value("${registration.processor.manual.verification.claim.batch-size:1}")
+	private int claimBatchSize;
+
+	private Timer claimTimer;
+
+	private Counter claimedCounter;
+
+	/**
+	 * Registers the claim metrics.
+	 */
+	@PostConstruct
+	public void init() {
+		if (meterRegistry != null) {
+			claimTimer = Timer.builder(METRIC_PREFIX + "latency")
+					.description("Time to claim pending manual verification records").publishPercentileHistogram()
+					.register(meterRegistry);
+			claimedCounter = Counter.builder(METRIC_PREFIX + "records")
+					.description("Manual verification records claimed").register(meterRegistry);
+		}
+	}
+
 	/*
 	 * * (non-Javadoc)
 	 * 
@@ -158,6 +218,13 @@ public class ManualVerificationServiceImpl implements ManualVerificationService
 			manualVerificationDTO.setMvUsrId(manualVerificationEntity.getMvUsrId());
 			manualVerificationDTO.setStatusCode(manualVerificationEntity.getStatusCode());
 			manualVerificationDTO.setReasonCode(manualVerificationEntity.getReasonCode());
+		} else if (skipLockedClaim) {
+			Object[] claimed = claimApplicant(dto.getUserId(), matchType);
+			manualVerificationDTO.setRegId((String) claimed[0]);
+			manualVerificationDTO.setMatchedRefId((String) claimed[1]);
+			manualVerificationDTO.setMatchedRefType((String) claimed[2]);
+			manualVerificationDTO.setMvUsrId(dto.getUserId());
+			manualVerificationDTO.setStatusCode(ManualVerificationStatus.ASSIGNED.name());
 		} else {
 			if (matchType.equalsIgnoreCase(DedupeSourceName.ALL.toString())) {
 				entities = basePacketRepository.getFirstApplicantDetailsForAll(ManualVerificationStatus.PENDING.name());
@@ -189,12 +256,60 @@ public class ManualVerificationServiceImpl implements ManualVerificationService
 
 		}
 
+		if (isApplicantFileCacheEnabled() && manualVerificationDTO.getRegId() != null) {
+			applicantFileCache.prefetch(dto.getUserId(), manualVerificationDTO.getRegId(), this::loadApplicantFiles);
+		}
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
 				dto.getUserId(), "ManualVerificationServiceImpl::assignApplicant()::exit");
 		return manualVerificationDTO;
 
 	}
 
+	/**
+	 * Claims the oldest pending records of the match type for the user, skipping
+	 * records being claimed by other verifiers.
+	 *
+	 * @param userId
+	 *            the manual verifier user id
+	 * @param matchType
+	 *            the match type
+	 * @return reg id, matched ref id and matched ref type of the oldest claimed
+	 *         record
+	 */
+	private Object[] claimApplicant(String userId, String matchType) {
+		long start = System.nanoTime();
+		Timestamp updDtimes = Timestamp.valueOf(LocalDateTime.now(ZoneId.of("UTC")));
+		int limit = Math.max(claimBatchSize, 1);
+		List<Object[]> claimed;
+		if (matchType.equalsIgnoreCase(DedupeSourceName.ALL.toString())) {
+			claimed = basePacketRepository.claimApplicantsForAll(ManualVerificationStatus.PENDING.name(),
+					ManualVerificationStatus.ASSIGNED.name(), userId, updDtimes, limit);
+		} else {
+			claimed = basePacketRepository.claimApplicants(ManualVerificationStatus.PENDING.name(),
+					ManualVerificationStatus.ASSIGNED.name(), matchType, userId, updDtimes, limit);
+		}
+		if (claimTimer != null) {
+			claimTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			claimedCounter.increment(claimed.size());
+		}
+		if (claimed.isEmpty()) {
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), userId,
+					"ManualVerificationServiceImpl::assignApplicant()"
+							+ PlatformErrorMessages.RPR_MVS_NO_ASSIGNED_RECORD.getMessage());
+			throw new NoRecordAssignedException(PlatformErrorMessages.RPR_MVS_NO_ASSIGNED_RECORD.getCode(),
+					PlatformErrorMessages.RPR_MVS_NO_ASSIGNED_RECORD.getMessage());
+		}
+		Object[] oldest = claimed.get(0);
+		for (Object[] record : claimed) {
+			if (((Timestamp) record[3]).before((Timestamp) oldest[3])) {
+				oldest = record;
+			}
+		}
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), userId,
+				"ManualVerificationServiceImpl::assignApplicant()::claimed " + claimed.size() + " records");
+		return oldest;
+	}
+
 	private boolean isMatchTypeDemoOrBio(String matchType) {
 		return matchType.equalsIgnoreCase(DedupeSourceName.DEMO.toString())
 				|| matchType.equalsIgnoreCase(DedupeSourceName.BIO.toString());
@@ -222,6 +337,15 @@ public class ManualVerificationServiceImpl implements ManualVerificationService
 			throw new InvalidFileNameException(PlatformErrorMessages.RPR_MVS_REG_ID_SHOULD_NOT_EMPTY_OR_NULL.getCode(),
 					PlatformErrorMessages.RPR_MVS_REG_ID_SHOULD_NOT_EMPTY_OR_NULL.getMessage());
 		}
+		if (isApplicantFileCacheEnabled() && APPLICANT_FILES.contains(fileName)) {
+			file = applicantFileCache.getFile(regId, fileName, this::loadApplicantFiles);
+			if (file != null) {
+				regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.REGISTRATIONID.toString(), regId,
+						"ManualVerificationServiceImpl::getApplicantFile()::exit");
+				return file;
+			}
+		}
 		if (PacketFiles.BIOMETRIC.name().equals(fileName)) {
 			fileInStream = getApplicantBiometricFile(regId, PacketFiles.APPLICANT_BIO_CBEFF.name());
 		} else if (PacketFiles.DEMOGRAPHIC.name().equals(fileName)) {
@@ -246,6 +370,53 @@ public class ManualVerificationServiceImpl implements ManualVerificationService
 		return file;
 	}
 
+	/**
+	 * Reads the files a verifier views for a case. The packet is decrypted once
+	 * for all of them by the packet manager. Each file is read on its own: a file
+	 * that cannot be read is left out, so that only its tab reads the packet again
+	 * and reports the error.
+	 *
+	 * @param regId
+	 *            the reg id
+	 * @return the files read from the packet by file name
+	 */
+	private Map<String, byte[]> loadApplicantFiles(String regId) {
+		Map<String, byte[]> files = new HashMap<>();
+		for (String fileName : APPLICANT_FILES) {
+			try {
+				putFile(files, fileName, openApplicantFile(regId, fileName));
+			} catch (PacketDecryptionFailureException | ApisResourceAccessException
+					| io.mosip.kernel.core.exception.IOException | IOException e) {
+				regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.REGISTRATIONID.toString(), regId,
+						"ManualVerificationServiceImpl::loadApplicantFiles()::" + fileName + "::" + e.getMessage());
+			}
+		}
+		return files;
+	}
+
+	private InputStream openApplicantFile(String regId, String fileName) throws PacketDecryptionFailureException,
+			ApisResourceAccessException, io.mosip.kernel.core.exception.IOException, IOException {
+		if (PacketFiles.BIOMETRIC.name().equals(fileName)) {
+			return getApplicantBiometricFile(regId, PacketFiles.APPLICANT_BIO_CBEFF.name());
+		} else if (PacketFiles.DEMOGRAPHIC.name().equals(fileName)) {
+			return getApplicantDemographicFile(regId, PacketFiles.ID.name());
+		}
+		return getApplicantMetaInfoFile(regId, PacketFiles.PACKET_META_INFO.name());
+	}
+
+	private void putFile(Map<String, byte[]> files, String fileName, InputStream fileInStream) throws IOException {
+		if (fileInStream != null) {
+			try (InputStream in = fileInStream) {
+				files.put(fileName, IOUtils.toByteArray(in));
+			}
+		}
+	}
+
+	private boolean isApplicantFileCacheEnabled() {
+		return applicantFileCache != null && applicantFileCache.isEnabled();
+	}
+
 	/**
 	 * Gets the applicant biometric file.
 	 *
@@ -374,6 +545,9 @@ public class ManualVerificationServiceImpl implements ManualVerificationService
 			}
 			ManualVerificationEntity maVerificationEntity = basePacketRepository.update(manualVerificationEntity);
 			manualVerificationDTO.setStatusCode(maVerificationEntity.getStatusCode());
+			if (applicantFileCache != null) {
+				applicantFileCache.evict(registrationId);
+			}
 			registrationStatusDto.setUpdatedBy(USER);
 			regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
 					manualVerificationDTO.getRegId(), description.getMessage());
@@ -29,7 +29,10 @@ import io.mosip.registration.processor.manual.verification.response.builder.Manu
 import io.mosip.registration.processor.manual.verification.response.dto.ManualVerificationAssignResponseDTO;
 import io.mosip.registration.processor.manual.verification.response.dto.ManualVerificationBioDemoResponseDTO;
 import io.mosip.registration.processor.manual.verification.service.ManualVerificationService;
+import io.mosip.registration.processor.manual.verification.util.ByteRange;
 import io.mosip.registration.processor.manual.verification.util.ManualVerificationRequestValidator;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
@@ -91,6 +94,8 @@ public class ManualVerificationStage extends MosipVerticleAPIManager {
 
 	private static final String APPLICATION_JSON = "application/json";
 
+	private static final String APPLICATION_OCTET_STREAM = "application/octet-stream";
+
 	/**
 	 * Deploy stage.
 	 */
@@ -175,6 +180,23 @@ public class ManualVerificationStage extends MosipVerticleAPIManager {
 
 		});
 
+		router.get(contextPath + "/applicantFile/:regId/:fileName");
+		router.handler(event -> {
+			try {
+				processApplicantFile(event);
+			} catch (PacketDecryptionFailureException | ApisResourceAccessException | IOException
+					| java.io.IOException e) {
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), "", "", ExceptionUtils.getStackTrace(e));
+				event.fail(e);
+			}
+		}, handlerObj -> {
+			manualVerificationExceptionHandler
+					.setId(env.getProperty(ManualVerificationConstants.APPLICANT_FILE_SERVICE_ID));
+			manualVerificationExceptionHandler.setResponseDtoType(new ManualVerificationBioDemoResponseDTO());
+			this.setResponseWithDigitalSignature(handlerObj,
+					manualVerificationExceptionHandler.handler(handlerObj.failure()), APPLICATION_JSON);
+		});
+
 	}
 
 	public void processBiometric(RoutingContext ctx)
@@ -291,6 +313,41 @@ public class ManualVerificationStage extends MosipVerticleAPIManager {
 
 	}
 
+	/**
+	 * Sends the raw bytes of an applicant file (BIOMETRIC, DEMOGRAPHIC or
+	 * PACKET_META_INFO), or the byte range asked for in the Range header.
+	 *
+	 * @param ctx
+	 *            the routing context
+	 */
+	public void processApplicantFile(RoutingContext ctx)
+			throws PacketDecryptionFailureException, ApisResourceAccessException, IOException, java.io.IOException {
+		String regId = ctx.request().getParam("regId");
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+				regId, "ManualVerificationStage::processApplicantFile::entry");
+		byte[] file = manualAdjudicationService.getApplicantFile(regId, ctx.request().getParam("fileName"));
+		HttpServerResponse response = ctx.response().putHeader("Access-Control-Allow-Origin", "*")
+				.putHeader("Access-Control-Allow-Methods", "GET, POST").putHeader("Accept-Ranges", "bytes");
+		if (file == null) {
+			response.setStatusCode(404).end();
+			return;
+		}
+		ByteRange range = ByteRange.parse(ctx.request().getHeader("Range"), file.length);
+		if (range == null) {
+			response.putHeader("content-type", APPLICATION_OCTET_STREAM).setStatusCode(200)
+					.end(Buffer.buffer(file));
+		} else if (!range.isSatisfiable()) {
+			response.putHeader("Content-Range", range.getContentRange()).setStatusCode(416).end();
+		} else {
+			response.putHeader("content-type", APPLICATION_OCTET_STREAM)
+					.putHeader("Content-Range", range.getContentRange()).setStatusCode(206)
+					.end(Buffer.buffer((int) range.getContentLength()).appendBytes(file, (int) range.getStart(),
+							(int) range.getContentLength()));
+		}
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+				regId, "ManualVerificationStage::processApplicantFile::exit");
+	}
+
 	public void sendMessage(MessageDTO messageDTO) {
 		this.send(this.mosipEventBus, MessageBusAddress.MANUAL_VERIFICATION_BUS, messageDTO);
 	}
@@ -0,0 +1,92 @@
+package io.mosip.registration.processor.manual.verification.util;
+
+/**
+ * A single byte range of an HTTP {@code Range} header, resolved against the
+ * length of the file.
+ *
+ * @since 1.0.9
+ */
+public final class ByteRange {
+
+	private static final String BYTES_UNIT = "bytes=";
+
+	/** First byte of the range. */
+	private final long start;
+
+	/** Last byte of the range, inclusive. */
+	private final long end;
+
+	private final long length;
+
+	private ByteRange(long start, long end, long length) {
+		this.start = start;
+		this.end = end;
+		this.length = length;
+	}
+
+	/**
+	 * Parses the range header. Multiple ranges and malformed headers are ignored,
+	 * as the header allows, and the whole file is served.
+	 *
+	 * @param header
+	 *            the Range header, may be null
+	 * @param length
+	 *            the length of the file
+	 * @return the range, null to serve the whole file
+	 */
+	public static ByteRange parse(String header, long length) {
+		if (header == null || !header.startsWith(BYTES_UNIT) || header.indexOf(',') >= 0) {
+			return null;
+		}
+		String spec = header.substring(BYTES_UNIT.length()).trim();
+		int dash = spec.indexOf('-');
+		if (dash < 0) {
+			return null;
+		}
+		try {
+			String first = spec.substring(0, dash).trim();
+			String last = spec.substring(dash + 1).trim();
+			if (first.isEmpty()) {
+				long suffix = Long.parseLong(last);
+				if (suffix <= 0 || length == 0) {
+					return new ByteRange(0, -1, length);
+				}
+				return new ByteRange(Math.max(0, length - suffix), length - 1, length);
+			}
+			long start = Long.parseLong(first);
+			long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+			if (start < 0 || end < start) {
+				return null;
+			}
+			if (start >= length) {
+				return new ByteRange(0, -1, length);
+			}
+			return new ByteRange(start, Math.min(end, length - 1), length);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	public boolean isSatisfiable() {
+		return start <= end;
+	}
+
+	public long getStart() {
+		return start;
+	}
+
+	public long getEnd() {
+		return end;
+	}
+
+	public long getContentLength() {
+		return isSatisfiable() ? end - start + 1 : 0;
+	}
+
+	/**
+	 * @return the Content-Range header value of the range
+	 */
+	public String getContentRange() {
+		return isSatisfiable() ? "bytes " + start + "-" + end + "/" + length : "bytes */" + length;
+	}
+}
@@ -0,0 +1,163 @@
+package io.mosip.registration.processor.manual.verification.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * ApplicantFileCache test
+ *
+ * @since 1.0.9
+ */
+public class ApplicantFileCacheTest {
+
+	private static final String BIOMETRIC = "BIOMETRIC";
+
+	private static final String DEMOGRAPHIC = "DEMOGRAPHIC";
+
+	private AtomicInteger loads;
+
+	private ApplicantFileCache cache;
+
+	@Before
+	public void setUp() {
+		loads = new AtomicInteger();
+		cache = new ApplicantFileCache(100, 300, 1);
+		cache.start();
+	}
+
+	@After
+	public void tearDown() {
+		cache.stop();
+	}
+
+	@Test
+	public void testCaseFilesReadOnce() throws Exception {
+		assertArrayEquals("bio-10001".getBytes(), cache.getFile("10001", BIOMETRIC, this::load));
+		assertArrayEquals("demo-10001".getBytes(), cache.getFile("10001", DEMOGRAPHIC, this::load));
+		assertNull(cache.getFile("10001", "PACKET_META_INFO", this::load));
+
+		assertEquals(1, loads.get());
+		assertEquals(19, cache.getCurrentBytes());
+	}
+
+	@Test
+	public void testPrefetchWarmsCase() throws Exception {
+		CountDownLatch loaded = new CountDownLatch(1);
+		cache.prefetch("mvusr1", "10001", regId -> {
+			Map<String, byte[]> files = load(regId);
+			loaded.countDown();
+			return files;
+		});
+		assertTrue(loaded.await(5, TimeUnit.SECONDS));
+
+		assertArrayEquals("bio-10001".getBytes(), cache.getFile("10001", BIOMETRIC, this::load));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void testNextCaseOfVerifierEvictsPrevious() throws Exception {
+		cache.getFile("10001", BIOMETRIC, this::load);
+		cache.prefetch("mvusr1", "10001", this::load);
+		cache.getFile("10002", BIOMETRIC, this::load);
+
+		cache.prefetch("mvusr1", "10002", this::load);
+
+		assertEquals(1, cache.size());
+		cache.getFile("10002", DEMOGRAPHIC, this::load);
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testPrefetchCompletingAfterEvictDropped() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch evicted = new CountDownLatch(1);
+		cache.prefetch("mvusr1", "10001", regId -> {
+			started.countDown();
+			try {
+				evicted.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return load(regId);
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		cache.evict("10001");
+		evicted.countDown();
+
+		// the single prefetch thread runs this after the evicted case completes
+		CountDownLatch drained = new CountDownLatch(1);
+		cache.prefetch("mvusr2", "10002", regId -> {
+			drained.countDown();
+			return load(regId);
+		});
+		assertTrue(drained.await(5, TimeUnit.SECONDS));
+
+		loads.set(0);
+		cache.getFile("10001", BIOMETRIC, this::load);
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void testBoundedByBytes() throws Exception {
+		cache.getFile("10001", BIOMETRIC, this::load);
+		cache.getFile("10002", BIOMETRIC, this::load);
+		cache.getFile("10001", BIOMETRIC, this::load);
+		cache.getFile("10003", BIOMETRIC, this::load);
+		cache.getFile("10004", BIOMETRIC, this::load);
+		cache.getFile("10005", BIOMETRIC, this::load);
+		cache.getFile("10006", BIOMETRIC, this::load);
+
+		assertTrue(cache.getCurrentBytes() <= 100);
+		loads.set(0);
+		cache.getFile("10006", BIOMETRIC, this::load);
+		cache.getFile("10002", BIOMETRIC, this::load);
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void testExpiredCaseReadAgain() throws Exception {
+		cache = new ApplicantFileCache(100, 0, 0);
+		cache.getFile("10001", BIOMETRIC, this::load);
+		Thread.sleep(5);
+
+		cache.getFile("10001", BIOMETRIC, this::load);
+
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testFetchLatencyReported() throws Exception {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		cache.bindTo(registry);
+
+		cache.getFile("10001", BIOMETRIC, this::load);
+		cache.getFile("10001", DEMOGRAPHIC, this::load);
+
+		assertEquals(1, registry.get("regproc.manual.verification.file.fetch").tag("result", "miss").timer().count());
+		assertEquals(1, registry.get("regproc.manual.verification.file.fetch").tag("result", "hit").timer().count());
+		assertEquals(19.0, registry.get("regproc.manual.verification.file.cache.bytes").gauge().value(), 0.0);
+	}
+
+	private Map<String, byte[]> load(String regId) {
+		loads.incrementAndGet();
+		Map<String, byte[]> files = new HashMap<>();
+		files.put(BIOMETRIC, ("bio-" + regId).getBytes());
+		files.put(DEMOGRAPHIC, ("demo-" + regId).getBytes());
+		return files;
+	}
+}
@@ -1,5 +1,6 @@
 package io.mosip.registration.processor.manual.verification.service;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
@@ -12,6 +13,7 @@ import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -24,17 +26,21 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.mosip.kernel.core.exception.IOException;
 import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
 import io.mosip.registration.processor.core.constant.PacketFiles;
 import io.mosip.registration.processor.core.constant.RegistrationType;
 import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
 import io.mosip.registration.processor.core.exception.PacketDecryptionFailureException;
+import io.mosip.registration.processor.core.exception.util.PacketStructure;
 import io.mosip.registration.processor.core.http.ResponseWrapper;
 import io.mosip.registration.processor.core.kernel.master.dto.UserResponseDTO;
 import io.mosip.registration.processor.core.kernel.master.dto.UserResponseDTOWrapper;
@@ -45,6 +51,7 @@ import io.mosip.registration.processor.core.spi.packetmanager.PacketInfoManager;
 import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
 import io.mosip.registration.processor.core.util.JsonUtil;
 import io.mosip.registration.processor.core.util.RegistrationExceptionMapperUtil;
+import io.mosip.registration.processor.manual.verification.cache.ApplicantFileCache;
 import io.mosip.registration.processor.manual.verification.dto.ManualVerificationDTO;
 import io.mosip.registration.processor.manual.verification.dto.ManualVerificationStatus;
 import io.mosip.registration.processor.manual.verification.dto.UserDto;
@@ -254,6 +261,58 @@ public class ManualVerificationServiceTest {
 		manualAdjudicationService.assignApplicant(dto);
 	}
 
+	@Test
+	public void assignStatusClaimSkipLockedCheck() throws Exception {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		ReflectionTestUtils.setField(manualAdjudicationService, "meterRegistry", registry);
+		ReflectionTestUtils.setField(manualAdjudicationService, "skipLockedClaim", true);
+		ReflectionTestUtils.setField(manualAdjudicationService, "claimBatchSize", 2);
+		((ManualVerificationServiceImpl) manualAdjudicationService).init();
+		Mockito.when(basePacketRepository.getAssignedApplicantDetails(anyString(), anyString()))
+				.thenReturn(entitiesTemp);
+		Mockito.when(basePacketRepository.claimApplicants(any(), any(), any(), any(), any(), Mockito.anyInt()))
+				.thenReturn(Arrays.asList(
+						new Object[] { "RegID2", "RefID2", "Type", Timestamp.valueOf("2020-05-02 10:00:00") },
+						new Object[] { "RegID", "RefID", "Type", Timestamp.valueOf("2020-05-01 10:00:00") }));
+		dto.setMatchType("DEMO");
+		dto.setUserId("110003");
+		mockUserActive();
+
+		ManualVerificationDTO assigned = manualAdjudicationService.assignApplicant(dto);
+
+		assertEquals("RegID", assigned.getRegId());
+		assertEquals("RefID", assigned.getMatchedRefId());
+		assertEquals("Type", assigned.getMatchedRefType());
+		assertEquals("110003", assigned.getMvUsrId());
+		assertEquals(ManualVerificationStatus.ASSIGNED.name(), assigned.getStatusCode());
+		Mockito.verify(basePacketRepository).claimApplicants(Mockito.eq(ManualVerificationStatus.PENDING.name()),
+				Mockito.eq(ManualVerificationStatus.ASSIGNED.name()), Mockito.eq("DEMO"), Mockito.eq("110003"),
+				any(), Mockito.eq(2));
+		Mockito.verify(basePacketRepository, Mockito.never()).update(any());
+		assertEquals(1, registry.get("regproc.manual.verification.claim.latency").timer().count());
+		assertEquals(2.0, registry.get("regproc.manual.verification.claim.records").counter().count(), 0.0);
+	}
+
+	@Test(expected = NoRecordAssignedException.class)
+	public void noRecordClaimedForAllCheck() throws Exception {
+		ReflectionTestUtils.setField(manualAdjudicationService, "skipLockedClaim", true);
+		Mockito.when(basePacketRepository.getAssignedApplicantDetails(anyString(), anyString()))
+				.thenReturn(entitiesTemp);
+		Mockito.when(basePacketRepository.claimApplicantsForAll(any(), any(), any(), any(), Mockito.anyInt()))
+				.thenReturn(new ArrayList<>());
+		dto.setMatchType("ALL");
+		dto.setUserId("110003");
+		mockUserActive();
+
+		manualAdjudicationService.assignApplicant(dto);
+	}
+
+	private void mockUserActive() throws Exception {
+		userResponseDto.add(userResponseDTO);
+		Mockito.when(mapper.readValue(anyString(), any(Class.class))).thenReturn(userResponseDTOWrapper);
+		Mockito.doReturn(responseWrapper).when(restClientService).getApi(any(), any(), any(), any(), any());
+	}
+
 	@Test(expected = MatchTypeNotFoundException.class)
 	public void noMatchTypeNotFoundException() throws JsonParseException, JsonMappingException, java.io.IOException {
 		dto.setMatchType("test");
@@ -321,6 +380,39 @@ public class ManualVerificationServiceTest {
 
 	}
 
+	@Test
+	public void getApplicantFileThroughCacheCheck() throws Exception {
+		ReflectionTestUtils.setField(manualAdjudicationService, "applicantFileCache",
+				new ApplicantFileCache(1000, 300, 0));
+		Mockito.when(filesystemCephAdapterImpl.getFile(anyString(), anyString()))
+				.thenAnswer(invocation -> new ByteArrayInputStream(((String) invocation.getArguments()[1]).getBytes()));
+
+		byte[] biometric = manualAdjudicationService.getApplicantFile("Id", PacketFiles.BIOMETRIC.name());
+		byte[] demographic = manualAdjudicationService.getApplicantFile("Id", PacketFiles.DEMOGRAPHIC.name());
+		manualAdjudicationService.getApplicantFile("Id", PacketFiles.PACKET_META_INFO.name());
+
+		assertArrayEquals((PacketStructure.BIOMETRIC + PacketFiles.APPLICANT_BIO_CBEFF.name()).getBytes(), biometric);
+		assertArrayEquals((PacketStructure.APPLICANTDEMOGRAPHIC + PacketFiles.ID.name()).getBytes(), demographic);
+		Mockito.verify(filesystemCephAdapterImpl, Mockito.times(3)).getFile(anyString(), anyString());
+	}
+
+	@Test
+	public void getApplicantFileThroughCacheWithUnreadableFileCheck() throws Exception {
+		ReflectionTestUtils.setField(manualAdjudicationService, "applicantFileCache",
+				new ApplicantFileCache(1000, 300, 0));
+		Mockito.when(filesystemCephAdapterImpl.getFile(anyString(), anyString()))
+				.thenAnswer(invocation -> new ByteArrayInputStream(((String) invocation.getArguments()[1]).getBytes()));
+		Mockito.when(filesystemCephAdapterImpl.getFile("Id", PacketStructure.PACKETMETAINFO))
+				.thenThrow(new ApisResourceAccessException("packet store unavailable"));
+
+		byte[] biometric = manualAdjudicationService.getApplicantFile("Id", PacketFiles.BIOMETRIC.name());
+		byte[] demographic = manualAdjudicationService.getApplicantFile("Id", PacketFiles.DEMOGRAPHIC.name());
+
+		assertArrayEquals((PacketStructure.BIOMETRIC + PacketFiles.APPLICANT_BIO_CBEFF.name()).getBytes(), biometric);
+		assertArrayEquals((PacketStructure.APPLICANTDEMOGRAPHIC + PacketFiles.ID.name()).getBytes(), demographic);
+		Mockito.verify(filesystemCephAdapterImpl, Mockito.times(3)).getFile(anyString(), anyString());
+	}
+
 	@Test(expected = InvalidFileNameException.class)
 	public void testExceptionIngetApplicantFile() throws Exception {
 		String regId = "Id";
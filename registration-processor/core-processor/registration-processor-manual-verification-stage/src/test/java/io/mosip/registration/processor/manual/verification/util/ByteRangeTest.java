@@ -0,0 +1,52 @@
+package io.mosip.registration.processor.manual.verification.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * ByteRange test
+ *
+ * @since 1.0.9
+ */
+public class ByteRangeTest {
+
+	@Test
+	public void testClosedRange() {
+		ByteRange range = ByteRange.parse("bytes=0-99", 1000);
+
+		assertEquals(0, range.getStart());
+		assertEquals(99, range.getEnd());
+		assertEquals(100, range.getContentLength());
+		assertEquals("bytes 0-99/1000", range.getContentRange());
+	}
+
+	@Test
+	public void testOpenAndSuffixRanges() {
+		assertEquals("bytes 900-999/1000", ByteRange.parse("bytes=900-", 1000).getContentRange());
+		assertEquals("bytes 950-999/1000", ByteRange.parse("bytes=-50", 1000).getContentRange());
+		assertEquals("bytes 0-999/1000", ByteRange.parse("bytes=-5000", 1000).getContentRange());
+		assertEquals("bytes 500-999/1000", ByteRange.parse("bytes=500-5000", 1000).getContentRange());
+	}
+
+	@Test
+	public void testUnsatisfiableRange() {
+		ByteRange range = ByteRange.parse("bytes=1000-", 1000);
+
+		assertFalse(range.isSatisfiable());
+		assertEquals(0, range.getContentLength());
+		assertEquals("bytes */1000", range.getContentRange());
+		assertFalse(ByteRange.parse("bytes=-0", 1000).isSatisfiable());
+	}
+
+	@Test
+	public void testIgnoredHeaders() {
+		assertNull(ByteRange.parse(null, 1000));
+		assertNull(ByteRange.parse("items=0-1", 1000));
+		assertNull(ByteRange.parse("bytes=0-1,5-9", 1000));
+		assertNull(ByteRange.parse("bytes=9-1", 1000));
+		assertNull(ByteRange.parse("bytes=a-b", 1000));
+	}
+}
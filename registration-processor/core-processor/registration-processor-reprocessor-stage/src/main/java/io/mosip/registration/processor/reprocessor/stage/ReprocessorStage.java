@@ -1,7 +1,10 @@
 package io.mosip.registration.processor.reprocessor.stage;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -205,7 +208,6 @@ public class ReprocessorStage extends MosipVerticleAPIManager {
 	 */
 	@Override
 	public MessageDTO process(MessageDTO object) {
-		List<InternalRegistrationStatusDto> dtolist = null;
 		LogDescription description = new LogDescription();
 		List<String> statusList = new ArrayList<>();
 		statusList.add(RegistrationTransactionStatusCode.SUCCESS.toString());
@@ -213,76 +215,55 @@ public class ReprocessorStage extends MosipVerticleAPIManager {
 		statusList.add(RegistrationTransactionStatusCode.IN_PROGRESS.toString());
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(), "",
 				"ReprocessorStage::process()::entry");
+		long startTime = System.nanoTime();
+		int reprocessedPackets = 0;
 		try {
-			Integer totalUnprocessesPackets = registrationStatusService.getUnProcessedPacketsCount(elapseTime,
-					reprocessCount, statusList);
-
-			while (totalUnprocessesPackets > 0) {
-				dtolist = registrationStatusService.getUnProcessedPackets(fetchSize, elapseTime, reprocessCount,
-						statusList);
-				if (!(dtolist.isEmpty())) {
-					dtolist.forEach(dto -> {
-						this.registrationId = dto.getRegistrationId();
-						if (reprocessCount.equals(dto.getReProcessRetryCount())) {
-							dto.setLatestTransactionStatusCode(
-									RegistrationTransactionStatusCode.REPROCESS_FAILED.toString());
-							dto.setLatestTransactionTypeCode(
-									RegistrationTransactionTypeCode.PACKET_REPROCESS.toString());
-							dto.setStatusComment(StatusUtil.RE_PROCESS_FAILED.getMessage());
-							dto.setStatusCode(RegistrationStatusCode.REPROCESS_FAILED.toString());
-							dto.setSubStatusCode(StatusUtil.RE_PROCESS_FAILED.getCode());
-							object.setRid(registrationId);
-							object.setIsValid(false);
-							object.setReg_type(RegistrationType.valueOf(dto.getRegistrationType()));
-							description.setMessage(PlatformSuccessMessages.RPR_RE_PROCESS_FAILED.getMessage());
-							description.setCode(PlatformSuccessMessages.RPR_RE_PROCESS_FAILED.getCode());
-
-						} else {
-							object.setRid(registrationId);
-							object.setIsValid(true);
-							object.setReg_type(RegistrationType.valueOf(dto.getRegistrationType()));
-							isTransactionSuccessful = true;
-							String stageName = MessageBusUtil.getMessageBusAdress(dto.getRegistrationStageName());
-							if (RegistrationTransactionStatusCode.SUCCESS.name()
-									.equalsIgnoreCase(dto.getLatestTransactionStatusCode())) {
-								stageName = stageName.concat(ReprocessorConstants.BUS_OUT);
-							} else {
-								stageName = stageName.concat(ReprocessorConstants.BUS_IN);
-							}
-							MessageBusAddress address = new MessageBusAddress(stageName);
-							sendMessage(object, address);
-							dto.setUpdatedBy(ReprocessorConstants.USER);
-							Integer reprocessRetryCount = dto.getReProcessRetryCount() != null
-									? dto.getReProcessRetryCount() + 1
-									: 1;
-							dto.setReProcessRetryCount(reprocessRetryCount);
-							dto.setLatestTransactionStatusCode(RegistrationTransactionStatusCode.SUCCESS.toString());
-							dto.setLatestTransactionTypeCode(
-									RegistrationTransactionTypeCode.PACKET_REPROCESS.toString());
-							dto.setStatusComment(StatusUtil.RE_PROCESS_COMPLETED.getMessage());
-							dto.setSubStatusCode(StatusUtil.RE_PROCESS_COMPLETED.getCode());
-							description.setMessage(PlatformSuccessMessages.RPR_SENT_TO_REPROCESS_SUCCESS.getMessage());
-							description.setCode(PlatformSuccessMessages.RPR_SENT_TO_REPROCESS_SUCCESS.getCode());
-						}
-						regProcLogger.info(LoggerFileConstant.SESSIONID.toString(),
-								LoggerFileConstant.REGISTRATIONID.toString(), registrationId, description.getMessage());
-
-						/** Module-Id can be Both Success/Error code */
-						String moduleId = PlatformSuccessMessages.RPR_SENT_TO_REPROCESS_SUCCESS.getCode();
-						String moduleName = ModuleName.RE_PROCESSOR.toString();
-						registrationStatusService.updateRegistrationStatus(dto, moduleId, moduleName);
-						String eventId = EventId.RPR_402.toString();
-						String eventName = EventName.UPDATE.toString();
-						String eventType = EventType.BUSINESS.toString();
-
-						auditLogRequestBuilder.createAuditRequestBuilder(description.getMessage(), eventId, eventName,
-								eventType, moduleId, moduleName, registrationId);
-					});
-
-					totalUnprocessesPackets = totalUnprocessesPackets - fetchSize;
+			InternalRegistrationStatusDto lastClaimed = null;
+			List<InternalRegistrationStatusDto> dtolist;
+			do {
+				Map<String, MessageBusAddress> addresses = new HashMap<>();
+				// the status of the whole page is saved before any packet is sent
+				dtolist = registrationStatusService.claimUnProcessedPackets(fetchSize, elapseTime, reprocessCount,
+						statusList, lastClaimed, dto -> updateReprocessStatus(dto, addresses));
+				for (InternalRegistrationStatusDto dto : dtolist) {
+					this.registrationId = dto.getRegistrationId();
+					MessageBusAddress address = addresses.get(registrationId);
+					object.setRid(registrationId);
+					object.setIsValid(address != null);
+					object.setReg_type(RegistrationType.valueOf(dto.getRegistrationType()));
+					if (address != null) {
+						isTransactionSuccessful = true;
+						sendMessage(object, address);
+						description.setMessage(PlatformSuccessMessages.RPR_SENT_TO_REPROCESS_SUCCESS.getMessage());
+						description.setCode(PlatformSuccessMessages.RPR_SENT_TO_REPROCESS_SUCCESS.getCode());
+					} else {
+						description.setMessage(PlatformSuccessMessages.RPR_RE_PROCESS_FAILED.getMessage());
+						description.setCode(PlatformSuccessMessages.RPR_RE_PROCESS_FAILED.getCode());
+					}
+					regProcLogger.info(LoggerFileConstant.SESSIONID.toString(),
+							LoggerFileConstant.REGISTRATIONID.toString(), registrationId, description.getMessage());
+
+					/** Module-Id can be Both Success/Error code */
+					String moduleId = PlatformSuccessMessages.RPR_SENT_TO_REPROCESS_SUCCESS.getCode();
+					String moduleName = ModuleName.RE_PROCESSOR.toString();
+					String eventId = EventId.RPR_402.toString();
+					String eventName = EventName.UPDATE.toString();
+					String eventType = EventType.BUSINESS.toString();
+
+					auditLogRequestBuilder.createAuditRequestBuilder(description.getMessage(), eventId, eventName,
+							eventType, moduleId, moduleName, registrationId);
 				}
+				reprocessedPackets += dtolist.size();
+				if (!dtolist.isEmpty()) {
+					lastClaimed = dtolist.get(dtolist.size() - 1);
+				}
+			} while (dtolist.size() >= fetchSize);
 
-			}
+			long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+			regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					"", "ReprocessorStage::process()::reprocessed " + reprocessedPackets + " packets in "
+							+ elapsedMillis + " ms (" + reprocessedPackets * 1000L / Math.max(elapsedMillis, 1)
+							+ " packets/s)");
 
 		} catch (TablenotAccessibleException e) {
 			isTransactionSuccessful = false;
@@ -323,4 +304,40 @@ public class ReprocessorStage extends MosipVerticleAPIManager {
 
 		return object;
 	}
+
+	/**
+	 * Updates the status of a packet claimed for reprocessing. Packets that
+	 * reached the reprocess limit are marked as failed, the others get the
+	 * address of the stage they are resent to.
+	 *
+	 * @param dto
+	 *            the registration status dto
+	 * @param addresses
+	 *            the addresses of the packets to resend, by registration id
+	 */
+	private void updateReprocessStatus(InternalRegistrationStatusDto dto, Map<String, MessageBusAddress> addresses) {
+		if (reprocessCount.equals(dto.getReProcessRetryCount())) {
+			dto.setLatestTransactionStatusCode(RegistrationTransactionStatusCode.REPROCESS_FAILED.toString());
+			dto.setLatestTransactionTypeCode(RegistrationTransactionTypeCode.PACKET_REPROCESS.toString());
+			dto.setStatusComment(StatusUtil.RE_PROCESS_FAILED.getMessage());
+			dto.setStatusCode(RegistrationStatusCode.REPROCESS_FAILED.toString());
+			dto.setSubStatusCode(StatusUtil.RE_PROCESS_FAILED.getCode());
+		} else {
+			String stageName = MessageBusUtil.getMessageBusAdress(dto.getRegistrationStageName());
+			if (RegistrationTransactionStatusCode.SUCCESS.name()
+					.equalsIgnoreCase(dto.getLatestTransactionStatusCode())) {
+				stageName = stageName.concat(ReprocessorConstants.BUS_OUT);
+			} else {
+				stageName = stageName.concat(ReprocessorConstants.BUS_IN);
+			}
+			addresses.put(dto.getRegistrationId(), new MessageBusAddress(stageName));
+			dto.setUpdatedBy(ReprocessorConstants.USER);
+			Integer reprocessRetryCount = dto.getReProcessRetryCount() != null ? dto.getReProcessRetryCount() + 1 : 1;
+			dto.setReProcessRetryCount(reprocessRetryCount);
+			dto.setLatestTransactionStatusCode(RegistrationTransactionStatusCode.SUCCESS.toString());
+			dto.setLatestTransactionTypeCode(RegistrationTransactionTypeCode.PACKET_REPROCESS.toString());
+			dto.setStatusComment(StatusUtil.RE_PROCESS_COMPLETED.getMessage());
+			dto.setSubStatusCode(StatusUtil.RE_PROCESS_COMPLETED.getCode());
+		}
+	}
 }
@@ -3,13 +3,16 @@ package io.mosip.registration.processor.reprocessor.stage;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyList;
 import static org.mockito.Matchers.anyLong;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -17,6 +20,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -99,6 +103,7 @@ public class ReprocessorStageTest {
 		registrationStatusDto.setRegistrationId("2018701130000410092018110735");
 		registrationStatusDto.setRegistrationStageName("PacketValidatorStage");
 		registrationStatusDto.setReProcessRetryCount(0);
+		registrationStatusDto.setRegistrationType("NEW");
 		registrationStatusDto.setLatestTransactionStatusCode(RegistrationTransactionStatusCode.REPROCESS.toString());
 		dtolist.add(registrationStatusDto);
 		InternalRegistrationStatusDto registrationStatusDto1 = new InternalRegistrationStatusDto();
@@ -109,12 +114,33 @@ public class ReprocessorStageTest {
 		registrationStatusDto1.setRegistrationType("NEW");
 		registrationStatusDto1.setLatestTransactionStatusCode(RegistrationTransactionStatusCode.SUCCESS.toString());
 		dtolist.add(registrationStatusDto1);
-		Mockito.when(registrationStatusService.getUnProcessedPacketsCount(anyLong(), anyInt(), anyList()))
-				.thenReturn(1);
-		Mockito.when(registrationStatusService.getUnProcessedPackets(anyInt(), anyLong(), anyInt(), anyList()))
-				.thenReturn(dtolist);
+		Mockito.when(registrationStatusService.claimUnProcessedPackets(anyInt(), anyLong(), anyInt(), anyList(),
+				any(), any())).thenAnswer(claim(dtolist)).thenReturn(Collections.emptyList());
 		dto = reprocessorStage.process(dto);
 		assertTrue(dto.getIsValid());
+		assertEquals(Integer.valueOf(1), registrationStatusDto.getReProcessRetryCount());
+		assertEquals(Integer.valueOf(2), registrationStatusDto1.getReProcessRetryCount());
+		Mockito.verify(registrationStatusService).claimUnProcessedPackets(anyInt(), anyLong(), anyInt(), anyList(),
+				Mockito.eq(registrationStatusDto1), any());
+	}
+
+	@Test
+	public void testProcessStopsAfterPartialPage() {
+		InternalRegistrationStatusDto registrationStatusDto = new InternalRegistrationStatusDto();
+		registrationStatusDto.setRegistrationId("2018701130000410092018110735");
+		registrationStatusDto.setRegistrationStageName("PacketValidatorStage");
+		registrationStatusDto.setRegistrationType("NEW");
+		registrationStatusDto.setLatestTransactionStatusCode(RegistrationTransactionStatusCode.REPROCESS.toString());
+		List<InternalRegistrationStatusDto> dtolist = new ArrayList<>();
+		dtolist.add(registrationStatusDto);
+		Mockito.when(registrationStatusService.claimUnProcessedPackets(anyInt(), anyLong(), anyInt(), anyList(),
+				any(), any())).thenAnswer(claim(dtolist));
+
+		dto = reprocessorStage.process(dto);
+
+		assertTrue(dto.getIsValid());
+		Mockito.verify(registrationStatusService, Mockito.times(1)).claimUnProcessedPackets(anyInt(), anyLong(),
+				anyInt(), anyList(), any(), any());
 	}
 
 	@Test
@@ -137,12 +163,12 @@ public class ReprocessorStageTest {
 		registrationStatusDto1.setRegistrationType("NEW");
 		registrationStatusDto1.setLatestTransactionStatusCode(RegistrationTransactionStatusCode.SUCCESS.toString());
 		dtolist.add(registrationStatusDto1);
-		Mockito.when(registrationStatusService.getUnProcessedPacketsCount(anyLong(), anyInt(), anyList()))
-				.thenReturn(1);
-		Mockito.when(registrationStatusService.getUnProcessedPackets(anyInt(), anyLong(), anyInt(), anyList()))
-				.thenReturn(dtolist);
+		Mockito.when(registrationStatusService.claimUnProcessedPackets(anyInt(), anyLong(), anyInt(), anyList(),
+				any(), any())).thenAnswer(claim(dtolist)).thenReturn(Collections.emptyList());
 		dto = reprocessorStage.process(dto);
 		assertFalse(dto.getIsValid());
+		assertEquals(RegistrationTransactionStatusCode.REPROCESS_FAILED.toString(),
+				registrationStatusDto1.getLatestTransactionStatusCode());
 	}
 
 	/**
@@ -153,8 +179,8 @@ public class ReprocessorStageTest {
 	 */
 	@Test
 	public void exceptionTest() throws Exception {
-		Mockito.when(registrationStatusService.getUnProcessedPacketsCount(anyLong(), anyInt(), anyList()))
-				.thenReturn(null);
+		Mockito.when(registrationStatusService.claimUnProcessedPackets(anyInt(), anyLong(), anyInt(), anyList(),
+				any(), any())).thenReturn(null);
 		dto = reprocessorStage.process(dto);
 		assertEquals(true, dto.getInternalError());
 
@@ -162,8 +188,8 @@ public class ReprocessorStageTest {
 
 	@Test
 	public void TablenotAccessibleExceptionTest() throws Exception {
-		Mockito.when(registrationStatusService.getUnProcessedPacketsCount(anyLong(), anyInt(), anyList()))
-				.thenThrow(new TablenotAccessibleException("") {
+		Mockito.when(registrationStatusService.claimUnProcessedPackets(anyInt(), anyLong(), anyInt(), anyList(),
+				any(), any())).thenThrow(new TablenotAccessibleException("") {
 				});
 
 		dto = reprocessorStage.process(dto);
@@ -171,4 +197,18 @@ public class ReprocessorStageTest {
 
 	}
 
+	/**
+	 * Answers a claim with the given page, applying the status update to each
+	 * packet as the service does.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Answer<List<InternalRegistrationStatusDto>> claim(List<InternalRegistrationStatusDto> page) {
+		return invocation -> {
+			Consumer<InternalRegistrationStatusDto> updater = (Consumer<InternalRegistrationStatusDto>) invocation
+					.getArguments()[5];
+			page.forEach(updater);
+			return page;
+		};
+	}
+
 }
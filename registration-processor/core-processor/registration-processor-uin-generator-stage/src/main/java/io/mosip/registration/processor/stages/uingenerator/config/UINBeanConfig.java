@@ -2,6 +2,7 @@ package io.mosip.registration.processor.stages.uingenerator.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import io.mosip.registration.processor.stages.uingenerator.pool.UinPool;
 import io.mosip.registration.processor.stages.uingenerator.stage.UinGeneratorStage;
 
 @Configuration
@@ -11,4 +12,9 @@ public class UINBeanConfig {
 	public UinGeneratorStage getUinGeneratorStage() {
 		return new UinGeneratorStage();
 	}
+
+	@Bean
+	public UinPool getUinPool() {
+		return new UinPool();
+	}
 }
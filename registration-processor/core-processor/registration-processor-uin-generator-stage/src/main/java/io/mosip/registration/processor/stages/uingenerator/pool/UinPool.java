@@ -0,0 +1,407 @@
+package io.mosip.registration.processor.stages.uingenerator.pool;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.code.ApiName;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.exception.util.PlatformErrorMessages;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+import io.mosip.registration.processor.stages.uingenerator.constants.UINConstants;
+import io.mosip.registration.processor.stages.uingenerator.dto.UinDto;
+import io.mosip.registration.processor.stages.uingenerator.dto.UinGenResponseDto;
+import io.mosip.registration.processor.stages.uingenerator.dto.UinRequestDto;
+import io.mosip.registration.processor.stages.uingenerator.dto.UinResponseDto;
+
+/**
+ * UINs leased ahead of time from the kernel UIN generator, so that generating
+ * a UIN does not wait for the kernel.
+ *
+ * A filler thread keeps up to the capacity of issued UINs in a lock free queue
+ * and workers take them from it. A worker finding the pool empty counts a
+ * starvation, wakes the filler and gets its UIN from the kernel itself.
+ *
+ * The ASSIGNED status is sent on the calling thread, so a registration only
+ * succeeds once the kernel knows its UIN is taken. UNASSIGNED updates are
+ * queued and sent by the filler thread, in batches of back to back requests
+ * since the kernel takes one UIN per request; updates failing on the transport
+ * are retried after the interval. On shutdown the UINs still pooled are sent
+ * back as UNASSIGNED.
+ *
+ * An unclean shutdown (a crash, a kill or a kernel unreachable at shutdown)
+ * leaks the UINs still pooled and those with a queued UNASSIGNED update: they
+ * stay ISSUED in the kernel and are never handed out again. That is at most
+ * the capacity plus the pending updates, see the
+ * regproc.uin.pool.depth and regproc.uin.pool.status.pending gauges.
+ *
+ * When disabled, UINs are fetched and their status sent on the calling
+ * thread.
+ *
+ * @since 1.0.9
+ */
+public class UinPool {
+
+	/** The reg proc logger. */
+	private static Logger regProcLogger = RegProcessorLogger.getLogger(UinPool.class);
+
+	private static final String METRIC_PREFIX = "regproc.uin.pool.";
+
+	private static final Gson GSON = new Gson();
+
+	/** The registration processor rest client service. */
+	@Autowired
+	private RegistrationProcessorRestClientService<Object> registrationProcessorRestClientService;
+
+	/** The meter registry. */
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	@Value("${registration.processor.uin.pool.enabled:true}")
+	private boolean enabled;
+
+	@Value("${registration.processor.uin.pool.capacity:20}")
+	private int capacity;
+
+	@Value("${registration.processor.uin.pool.ack-batch-size:50}")
+	private int ackBatchSize;
+
+	@Value("${registration.processor.uin.pool.interval-ms:1000}")
+	private long intervalMillis;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final ConcurrentLinkedQueue<String> uins = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger depth = new AtomicInteger();
+
+	private final ConcurrentLinkedQueue<UinStatusUpdate> statusUpdates = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger pendingStatusUpdates = new AtomicInteger();
+
+	private final AtomicLong starvedCount = new AtomicLong();
+
+	private final AtomicLong fetchFailedCount = new AtomicLong();
+
+	private final AtomicLong sentCount = new AtomicLong();
+
+	private final AtomicLong failedCount = new AtomicLong();
+
+	private Timer fetchTimer;
+
+	private Thread fillerThread;
+
+	private volatile boolean running;
+
+	/** When the status updates may be retried after a failure. */
+	private long nextStatusUpdateNanos;
+
+	/**
+	 * Starts the filler thread, if enabled.
+	 */
+	@PostConstruct
+	public void start() {
+		if (!enabled || capacity <= 0) {
+			return;
+		}
+		if (meterRegistry != null) {
+			bindTo(meterRegistry);
+		}
+		nextStatusUpdateNanos = System.nanoTime();
+		running = true;
+		fillerThread = new Thread(this::run, "uin-pool-filler");
+		fillerThread.setDaemon(true);
+		fillerThread.start();
+	}
+
+	/**
+	 * Stops the filler thread, sends back the pooled UINs as UNASSIGNED and
+	 * sends the queued status updates.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for the filler
+	 */
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		if (!running) {
+			return;
+		}
+		running = false;
+		LockSupport.unpark(fillerThread);
+		fillerThread.join(TimeUnit.SECONDS.toMillis(10));
+		String uin;
+		while ((uin = uins.poll()) != null) {
+			depth.decrementAndGet();
+			queueStatusUpdate(new UinStatusUpdate(null, uin, UINConstants.UIN_UNASSIGNED));
+		}
+		while (!statusUpdates.isEmpty()) {
+			if (!sendStatusUpdates()) {
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.UIN.toString(), "",
+						pendingStatusUpdates.get() + " UIN status updates not sent at shutdown");
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Whether UINs are leased in the background.
+	 *
+	 * @return true if started
+	 */
+	public boolean isEnabled() {
+		return running;
+	}
+
+	/**
+	 * Takes an issued UIN, from the pool if it has one, otherwise from the
+	 * kernel.
+	 *
+	 * @return the UIN
+	 * @throws ApisResourceAccessException
+	 *             if the kernel could not be reached
+	 */
+	public String take() throws ApisResourceAccessException {
+		if (running) {
+			String uin = uins.poll();
+			LockSupport.unpark(fillerThread);
+			if (uin != null) {
+				depth.decrementAndGet();
+				return uin;
+			}
+			starvedCount.incrementAndGet();
+		}
+		return fetchUin();
+	}
+
+	/**
+	 * Sends the status of a taken UIN. ASSIGNED is sent on the calling thread,
+	 * UNASSIGNED in the background when enabled.
+	 *
+	 * @param registrationId
+	 *            the registration id the UIN was taken for
+	 * @param uin
+	 *            the uin
+	 * @param uinStatus
+	 *            ASSIGNED or UNASSIGNED
+	 * @throws ApisResourceAccessException
+	 *             if sent on the calling thread and the kernel could not be
+	 *             reached
+	 * @throws IOException
+	 *             if sent on the calling thread and the request could not be
+	 *             written
+	 */
+	public void release(String registrationId, String uin, String uinStatus)
+			throws ApisResourceAccessException, IOException {
+		UinStatusUpdate statusUpdate = new UinStatusUpdate(registrationId, uin, uinStatus);
+		if (!running || UINConstants.UIN_ASSIGNED.equals(uinStatus)) {
+			sendStatusUpdate(statusUpdate);
+			return;
+		}
+		queueStatusUpdate(statusUpdate);
+		LockSupport.unpark(fillerThread);
+		if (!running) {
+			// stopped meanwhile, the filler will not send it
+			sendStatusUpdates();
+		}
+	}
+
+	public int getDepth() {
+		return depth.get();
+	}
+
+	public int getPendingStatusUpdates() {
+		return pendingStatusUpdates.get();
+	}
+
+	public long getStarvedCount() {
+		return starvedCount.get();
+	}
+
+	public long getFetchFailedCount() {
+		return fetchFailedCount.get();
+	}
+
+	public long getSentCount() {
+		return sentCount.get();
+	}
+
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+
+	/**
+	 * Registers the depth and pending status update gauges, the starvation,
+	 * fetch failure and status update counters and the fetch latency timer.
+	 *
+	 * @param registry
+	 *            the meter registry
+	 */
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder(METRIC_PREFIX + "depth", depth, AtomicInteger::get).description("UINs leased and not taken")
+				.register(registry);
+		Gauge.builder(METRIC_PREFIX + "status.pending", pendingStatusUpdates, AtomicInteger::get)
+				.description("UIN status updates not sent yet").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + "starved", starvedCount, AtomicLong::doubleValue)
+				.description("UINs taken while the pool was empty").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + "fetch.failed", fetchFailedCount, AtomicLong::doubleValue)
+				.description("UINs the filler failed to lease").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + "status", sentCount, AtomicLong::doubleValue).tag("result", "sent")
+				.description("UIN status updates").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + "status", failedCount, AtomicLong::doubleValue)
+				.tag("result", "failed").description("UIN status updates").register(registry);
+		fetchTimer = Timer.builder(METRIC_PREFIX + "fetch.latency").description("Time leasing a UIN from the kernel")
+				.publishPercentileHistogram().register(registry);
+	}
+
+	private void run() {
+		while (running) {
+			boolean filled = false;
+			if (!statusUpdates.isEmpty() && System.nanoTime() - nextStatusUpdateNanos >= 0
+					&& !sendStatusUpdates()) {
+				nextStatusUpdateNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+			}
+			if (depth.get() < capacity) {
+				filled = fill();
+			}
+			if (!filled && running) {
+				LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(intervalMillis));
+			}
+		}
+	}
+
+	/**
+	 * Leases one UIN into the pool.
+	 *
+	 * @return false if the kernel did not issue one
+	 */
+	private boolean fill() {
+		try {
+			String uin = fetchUin();
+			if (uin == null) {
+				fetchFailedCount.incrementAndGet();
+				return false;
+			}
+			uins.offer(uin);
+			depth.incrementAndGet();
+			return true;
+		} catch (ApisResourceAccessException | RuntimeException e) {
+			fetchFailedCount.incrementAndGet();
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.UIN.toString(), "",
+					PlatformErrorMessages.RPR_PVM_API_RESOUCE_ACCESS_FAILED.getMessage() + e.getMessage()
+							+ ExceptionUtils.getStackTrace(e));
+			return false;
+		}
+	}
+
+	private String fetchUin() throws ApisResourceAccessException {
+		long start = System.nanoTime();
+		try {
+			String response = (String) registrationProcessorRestClientService.getApi(ApiName.UINGENERATOR, null, "",
+					"", String.class);
+			UinGenResponseDto uinResponseDto = GSON.fromJson(response, UinGenResponseDto.class);
+			return uinResponseDto.getResponse().getUin();
+		} finally {
+			if (fetchTimer != null) {
+				fetchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			}
+		}
+	}
+
+	private void queueStatusUpdate(UinStatusUpdate statusUpdate) {
+		statusUpdates.offer(statusUpdate);
+		pendingStatusUpdates.incrementAndGet();
+	}
+
+	/**
+	 * Sends up to a batch of the queued status updates. An update failing on
+	 * the transport is queued again.
+	 *
+	 * @return false if an update has to be retried
+	 */
+	private boolean sendStatusUpdates() {
+		List<UinStatusUpdate> retries = new ArrayList<>();
+		UinStatusUpdate statusUpdate;
+		for (int i = 0; i < ackBatchSize && (statusUpdate = statusUpdates.poll()) != null; i++) {
+			pendingStatusUpdates.decrementAndGet();
+			try {
+				sendStatusUpdate(statusUpdate);
+			} catch (ApisResourceAccessException e) {
+				retries.add(statusUpdate);
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.REGISTRATIONID.toString(), String.valueOf(statusUpdate.registrationId),
+						PlatformErrorMessages.RPR_PVM_API_RESOUCE_ACCESS_FAILED.getMessage() + e.getMessage());
+			} catch (IOException | RuntimeException e) {
+				failedCount.incrementAndGet();
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.REGISTRATIONID.toString(), String.valueOf(statusUpdate.registrationId),
+						PlatformErrorMessages.RPR_SYS_JSON_PARSING_EXCEPTION.getMessage() + e.getMessage()
+								+ ExceptionUtils.getStackTrace(e));
+			}
+		}
+		for (UinStatusUpdate retry : retries) {
+			queueStatusUpdate(retry);
+		}
+		return retries.isEmpty();
+	}
+
+	private void sendStatusUpdate(UinStatusUpdate statusUpdate) throws ApisResourceAccessException, IOException {
+		UinRequestDto uinRequest = new UinRequestDto();
+		UinResponseDto uinDto = new UinResponseDto();
+		uinDto.setUin(statusUpdate.uin);
+		uinDto.setStatus(statusUpdate.status);
+		uinRequest.setRequest(uinDto);
+		String response = (String) registrationProcessorRestClientService.putApi(ApiName.UINGENERATOR, null, "", "",
+				mapper.writeValueAsString(uinRequest), String.class, MediaType.APPLICATION_JSON);
+		UinDto uinresponse = GSON.fromJson(response, UinDto.class);
+
+		if (uinresponse.getResponse() != null) {
+			sentCount.incrementAndGet();
+			regProcLogger.info(LoggerFileConstant.SESSIONID.toString(),
+					LoggerFileConstant.REGISTRATIONID.toString() + statusUpdate.registrationId, "Success",
+					"Kernel service called successfully to update the uin status as " + statusUpdate.status);
+		} else {
+			failedCount.incrementAndGet();
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
+					LoggerFileConstant.REGISTRATIONID.toString() + statusUpdate.registrationId, "Failure",
+					"is : Kernel service failed to update the uin status as " + statusUpdate.status);
+		}
+	}
+
+	/**
+	 * The status to send for a taken UIN.
+	 */
+	private static class UinStatusUpdate {
+		private final String registrationId;
+		private final String uin;
+		private final String status;
+
+		UinStatusUpdate(String registrationId, String uin, String status) {
+			this.registrationId = registrationId;
+			this.uin = uin;
+			this.status = status;
+		}
+	}
+}
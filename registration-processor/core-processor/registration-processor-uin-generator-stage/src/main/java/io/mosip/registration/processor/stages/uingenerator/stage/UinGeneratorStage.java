@@ -13,16 +13,12 @@ import org.json.simple.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 
 import com.fasterxml.jackson.core.JsonParseException;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.Gson;
 
 import io.mosip.kernel.core.fsadapter.exception.FSAdapterException;
 import io.mosip.kernel.core.logger.spi.Logger;
@@ -69,16 +65,13 @@ import io.mosip.registration.processor.packet.storage.utils.ABISHandlerUtil;
 import io.mosip.registration.processor.packet.storage.utils.Utilities;
 import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
 import io.mosip.registration.processor.stages.uingenerator.constants.UINConstants;
-import io.mosip.registration.processor.stages.uingenerator.dto.UinDto;
-import io.mosip.registration.processor.stages.uingenerator.dto.UinGenResponseDto;
-import io.mosip.registration.processor.stages.uingenerator.dto.UinRequestDto;
-import io.mosip.registration.processor.stages.uingenerator.dto.UinResponseDto;
 import io.mosip.registration.processor.stages.uingenerator.dto.VidRequestDto;
 import io.mosip.registration.processor.stages.uingenerator.dto.VidResponseDto;
 import io.mosip.registration.processor.stages.uingenerator.exception.VidCreationException;
 import io.mosip.registration.processor.stages.uingenerator.idrepo.dto.IdRequestDto;
 import io.mosip.registration.processor.stages.uingenerator.idrepo.dto.IdResponseDTO;
 import io.mosip.registration.processor.stages.uingenerator.idrepo.dto.RequestDto;
+import io.mosip.registration.processor.stages.uingenerator.pool.UinPool;
 import io.mosip.registration.processor.stages.uingenerator.util.UinStatusMessage;
 import io.mosip.registration.processor.status.code.RegistrationStatusCode;
 import io.mosip.registration.processor.status.code.RegistrationType;
@@ -165,6 +158,10 @@ public class UinGeneratorStage extends MosipVerticleAPIManager {
 	@Autowired
 	ABISHandlerUtil aBISHandlerUtil;
 
+	/** The pool of leased UINs. */
+	@Autowired
+	private UinPool uinPool;
+
 	private TrimExceptionMessage trimExceptionMessage = new TrimExceptionMessage();
 
 	/*
@@ -185,7 +182,7 @@ public class UinGeneratorStage extends MosipVerticleAPIManager {
 		String registrationId = object.getRid();
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
 				registrationId, "UinGeneratorStage::process()::entry");
-		UinGenResponseDto uinResponseDto = null;
+		String uin = null;
 
 		InternalRegistrationStatusDto registrationStatusDto = null;
 		registrationStatusDto = registrationStatusService.getRegistrationStatus(registrationId);
@@ -216,27 +213,21 @@ public class UinGeneratorStage extends MosipVerticleAPIManager {
 				Long uinFieldCheck = number != null ? number.longValue() : null;
 				if (uinFieldCheck == null) {
 
-					String test = (String) registrationProcessorRestClientService.getApi(ApiName.UINGENERATOR, null, "",
-							"", String.class);
+					uin = uinPool.take();
 
-					Gson gsonObj = new Gson();
-					uinResponseDto = gsonObj.fromJson(test, UinGenResponseDto.class);
-
-					long uinInLong = Long.parseLong(uinResponseDto.getResponse().getUin());
+					long uinInLong = Long.parseLong(uin);
 					demographicIdentity.put("UIN", uinInLong);
 
-					idResponseDTO = sendIdRepoWithUin(registrationId, demographicIdentity,
-							uinResponseDto.getResponse().getUin(), description);
+					idResponseDTO = sendIdRepoWithUin(registrationId, demographicIdentity, uin, description);
 
 					boolean isUinAlreadyPresent = isUinAlreadyPresent(idResponseDTO, registrationId);
 
 					if (isIdResponseNotNull(idResponseDTO) || isUinAlreadyPresent) {
-						generateVid(registrationId, uinResponseDto.getResponse().getUin(), isUinAlreadyPresent);
+						generateVid(registrationId, uin, isUinAlreadyPresent);
 						registrationStatusDto.setStatusComment(StatusUtil.UIN_GENERATED_SUCCESS.getMessage());
 						registrationStatusDto.setSubStatusCode(StatusUtil.UIN_GENERATED_SUCCESS.getCode());
 						String uinStatus = isUinAlreadyPresent ? UINConstants.UIN_UNASSIGNED : UINConstants.UIN_ASSIGNED;
-						sendResponseToUinGenerator(registrationId, uinResponseDto.getResponse().getUin(),
-								uinStatus);
+						uinPool.release(registrationId, uin, uinStatus);
 						isTransactionSuccessful = true;
 						registrationStatusDto.setStatusCode(RegistrationStatusCode.PROCESSED.toString());
 						description.setMessage(PlatformSuccessMessages.RPR_UIN_GENERATOR_STAGE_SUCCESS.getMessage());
@@ -256,8 +247,7 @@ public class UinGeneratorStage extends MosipVerticleAPIManager {
 						registrationStatusDto.setStatusCode(RegistrationStatusCode.REJECTED.toString());
 						registrationStatusDto.setLatestTransactionStatusCode(registrationStatusMapperUtil
 								.getStatusCode(RegistrationExceptionTypeCode.PACKET_UIN_GENERATION_FAILED));
-						sendResponseToUinGenerator(registrationId, uinResponseDto.getResponse().getUin(),
-								UINConstants.UIN_UNASSIGNED);
+						uinPool.release(registrationId, uin, UINConstants.UIN_UNASSIGNED);
 						isTransactionSuccessful = false;
 						description.setMessage(PlatformErrorMessages.RPR_UGS_UIN_UPDATE_FAILURE.getMessage());
 						description.setCode(PlatformErrorMessages.RPR_UGS_UIN_UPDATE_FAILURE.getCode());
@@ -853,63 +843,6 @@ public class UinGeneratorStage extends MosipVerticleAPIManager {
 		return response;
 	}
 
-	/**
-	 * Send response to uin generator.
-	 *
-	 * @param uin
-	 *            the uin
-	 * @param uinStatus
-	 *            the uin status
-	 * @throws ApisResourceAccessException
-	 * @throws IOException
-	 * @throws VidCreationException
-	 */
-	private void sendResponseToUinGenerator(String registrationId, String uin, String uinStatus)
-			throws ApisResourceAccessException, IOException {
-		UinRequestDto uinRequest = new UinRequestDto();
-		UinResponseDto uinDto = new UinResponseDto();
-		uinDto.setUin(uin);
-		uinDto.setStatus(uinStatus);
-		uinRequest.setRequest(uinDto);
-		String jsonString = null;
-		ObjectMapper objMapper = new ObjectMapper();
-		try {
-			jsonString = objMapper.writeValueAsString(uinRequest);
-			String response;
-
-			response = (String) registrationProcessorRestClientService.putApi(ApiName.UINGENERATOR, null, "", "",
-					jsonString, String.class, MediaType.APPLICATION_JSON);
-
-			Gson gsonValue = new Gson();
-			UinDto uinresponse = gsonValue.fromJson(response, UinDto.class);
-
-			if (uinresponse.getResponse() != null) {
-				String uinSuccessDescription = "Kernel service called successfully to update the uin status as assigned";
-
-				regProcLogger.info(LoggerFileConstant.SESSIONID.toString(),
-						LoggerFileConstant.REGISTRATIONID.toString() + registrationId, "Success",
-						uinSuccessDescription);
-			} else {
-				String uinErrorDescription = "Kernel service called successfully to update the uin status as unassigned";
-				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
-						LoggerFileConstant.REGISTRATIONID.toString() + registrationId, "Failure",
-						"is : " + uinErrorDescription);
-			}
-		} catch (JsonProcessingException e) {
-			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
-					registrationId, PlatformErrorMessages.RPR_SYS_JSON_PARSING_EXCEPTION.getMessage() + e.getMessage()
-							+ ExceptionUtils.getStackTrace(e));
-
-			throw e;
-		} catch (ApisResourceAccessException e) {
-			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
-					registrationId, PlatformErrorMessages.RPR_PVM_API_RESOUCE_ACCESS_FAILED.getMessage()
-							+ e.getMessage() + ExceptionUtils.getStackTrace(e));
-			throw e;
-		}
-
-	}
-
 	/**
 	 * Deploy verticle.
 	 */
@@ -76,6 +76,7 @@ import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequest
 import io.mosip.registration.processor.rest.client.audit.dto.AuditResponseDto;
 import io.mosip.registration.processor.stages.uingenerator.dto.VidResponseDto;
 import io.mosip.registration.processor.stages.uingenerator.idrepo.dto.IdResponseDTO;
+import io.mosip.registration.processor.stages.uingenerator.pool.UinPool;
 import io.mosip.registration.processor.stages.uingenerator.idrepo.dto.ResponseDTO;
 import io.mosip.registration.processor.stages.uingenerator.stage.UinGeneratorStage;
 import io.mosip.registration.processor.status.dto.InternalRegistrationStatusDto;
@@ -186,6 +187,10 @@ public class UinGeneratorStageTest {
 		Mockito.when(description.getCode()).thenReturn("CODE");
 		Mockito.when(description.getMessage()).thenReturn("MESSAGE");
 		MockitoAnnotations.initMocks(this);
+		UinPool uinPool = new UinPool();
+		ReflectionTestUtils.setField(uinPool, "registrationProcessorRestClientService",
+				registrationProcessorRestClientService);
+		ReflectionTestUtils.setField(uinGeneratorStage, "uinPool", uinPool);
 		Field auditLog = AuditLogRequestBuilder.class.getDeclaredField("registrationProcessorRestService");
 		auditLog.setAccessible(true);
 		@SuppressWarnings("unchecked")
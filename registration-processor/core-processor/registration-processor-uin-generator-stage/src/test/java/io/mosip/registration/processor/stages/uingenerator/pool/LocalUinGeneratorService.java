@@ -0,0 +1,145 @@
+package io.mosip.registration.processor.stages.uingenerator.pool;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.mosip.registration.processor.core.code.ApiName;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+import io.mosip.registration.processor.stages.uingenerator.constants.UINConstants;
+import io.mosip.registration.processor.stages.uingenerator.dto.UinRequestDto;
+
+/**
+ * In memory stand-in of the kernel UIN generator for tests. Issues sequential
+ * UINs on GET and moves an issued UIN to ASSIGNED or back to UNASSIGNED on
+ * PUT, answering in the kernel's format. Can add latency to each call and be
+ * made unreachable.
+ *
+ * @since 1.0.9
+ */
+public class LocalUinGeneratorService implements RegistrationProcessorRestClientService<Object> {
+
+	public static final String ISSUED = "ISSUED";
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final AtomicLong nextUin = new AtomicLong(2000000000L);
+
+	private final Map<String, String> statuses = new ConcurrentHashMap<>();
+
+	private final AtomicInteger getCount = new AtomicInteger();
+
+	private final AtomicInteger putCount = new AtomicInteger();
+
+	private volatile long latencyMicros;
+
+	private volatile boolean unreachable;
+
+	public void setLatencyMicros(long latencyMicros) {
+		this.latencyMicros = latencyMicros;
+	}
+
+	public void setUnreachable(boolean unreachable) {
+		this.unreachable = unreachable;
+	}
+
+	public String getStatus(String uin) {
+		return statuses.get(uin);
+	}
+
+	public long count(String status) {
+		return statuses.values().stream().filter(status::equals).count();
+	}
+
+	public int getGetCount() {
+		return getCount.get();
+	}
+
+	/**
+	 * Gets the PUT calls, including those failed as unreachable.
+	 *
+	 * @return the count
+	 */
+	public int getPutCount() {
+		return putCount.get();
+	}
+
+	@Override
+	public Object getApi(ApiName apiName, List<String> pathsegments, String queryParam, String queryParamValue,
+			Class<?> responseType) throws ApisResourceAccessException {
+		call(apiName);
+		getCount.incrementAndGet();
+		String uin = String.valueOf(nextUin.getAndIncrement());
+		statuses.put(uin, ISSUED);
+		return "{\"id\":\"mosip.kernel.uin.get\",\"version\":\"1.0\",\"response\":{\"uin\":\"" + uin + "\"},\"errors\":[]}";
+	}
+
+	@Override
+	public Object putApi(ApiName apiName, List<String> pathsegments, String queryParam, String queryParamValue,
+			Object requestedData, Class<?> responseType, MediaType mediaType) throws ApisResourceAccessException {
+		putCount.incrementAndGet();
+		call(apiName);
+		UinRequestDto request;
+		try {
+			request = mapper.readValue((String) requestedData, UinRequestDto.class);
+		} catch (IOException e) {
+			throw new ApisResourceAccessException("invalid request", e);
+		}
+		String uin = request.getRequest().getUin();
+		String status = request.getRequest().getStatus();
+		boolean known = (UINConstants.UIN_ASSIGNED.equals(status) || UINConstants.UIN_UNASSIGNED.equals(status))
+				&& statuses.replace(uin, ISSUED, status);
+		if (!known) {
+			return "{\"id\":\"mosip.kernel.uin.update\",\"version\":\"1.0\",\"response\":null,"
+					+ "\"errors\":[{\"errorCode\":\"KER-UIG-004\",\"message\":\"Given UIN is not in ISSUED status\"}]}";
+		}
+		return "{\"id\":\"mosip.kernel.uin.update\",\"version\":\"1.0\",\"response\":{\"uin\":\"" + uin
+				+ "\",\"status\":\"" + status + "\"},\"errors\":[]}";
+	}
+
+	@Override
+	public Object postApi(ApiName apiName, String queryParam, String queryParamValue, Object requestedData,
+			Class<?> responseType) throws ApisResourceAccessException {
+		throw new UnsupportedOperationException(apiName.name());
+	}
+
+	@Override
+	public Object postApi(ApiName apiName, String queryParamName, String queryParamValue, Object requestedData,
+			Class<?> responseType, MediaType mediaType) throws ApisResourceAccessException {
+		throw new UnsupportedOperationException(apiName.name());
+	}
+
+	@Override
+	public Object postApi(ApiName apiName, List<String> pathsegments, String queryParam, String queryParamValue,
+			Object requestedData, Class<?> responseType) throws ApisResourceAccessException {
+		throw new UnsupportedOperationException(apiName.name());
+	}
+
+	@Override
+	public Object patchApi(ApiName apiName, List<String> pathsegments, String queryParam, String queryParamValue,
+			Object requestedData, Class<?> responseType) throws ApisResourceAccessException {
+		throw new UnsupportedOperationException(apiName.name());
+	}
+
+	private void call(ApiName apiName) throws ApisResourceAccessException {
+		if (apiName != ApiName.UINGENERATOR) {
+			throw new UnsupportedOperationException(apiName.name());
+		}
+		if (latencyMicros > 0) {
+			LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros));
+		}
+		if (unreachable) {
+			throw new ApisResourceAccessException("UIN generator unreachable");
+		}
+	}
+}
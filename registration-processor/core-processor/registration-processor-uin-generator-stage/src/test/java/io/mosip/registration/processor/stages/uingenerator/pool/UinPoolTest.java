@@ -0,0 +1,214 @@
+package io.mosip.registration.processor.stages.uingenerator.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.stages.uingenerator.constants.UINConstants;
+
+/**
+ * UinPool test
+ *
+ * @since 1.0.9
+ */
+public class UinPoolTest {
+
+	private LocalUinGeneratorService uinGeneratorService;
+
+	private MeterRegistry meterRegistry;
+
+	private UinPool uinPool;
+
+	@Before
+	public void setUp() {
+		uinGeneratorService = new LocalUinGeneratorService();
+		meterRegistry = new SimpleMeterRegistry();
+		uinPool = new UinPool();
+		ReflectionTestUtils.setField(uinPool, "registrationProcessorRestClientService", uinGeneratorService);
+		ReflectionTestUtils.setField(uinPool, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(uinPool, "enabled", true);
+		ReflectionTestUtils.setField(uinPool, "capacity", 5);
+		ReflectionTestUtils.setField(uinPool, "ackBatchSize", 2);
+		ReflectionTestUtils.setField(uinPool, "intervalMillis", 20L);
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		uinPool.stop();
+	}
+
+	@Test
+	public void testPoolFilledAndRefilled() throws Exception {
+		uinPool.start();
+		assertTrue(await(() -> uinPool.getDepth() == 5));
+
+		String uin = uinPool.take();
+
+		assertEquals(LocalUinGeneratorService.ISSUED, uinGeneratorService.getStatus(uin));
+		assertTrue(await(() -> uinPool.getDepth() == 5 && uinGeneratorService.getGetCount() == 6));
+		assertEquals(0, uinPool.getStarvedCount());
+		assertEquals(5.0, meterRegistry.get("regproc.uin.pool.depth").gauge().value(), 0.0);
+	}
+
+	@Test
+	public void testAssignedSentOnCallingThreadUnassignedInBackground() throws Exception {
+		uinPool.start();
+		assertTrue(await(() -> uinPool.getDepth() == 5));
+		List<String> uins = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			uins.add(uinPool.take());
+		}
+
+		for (int i = 1; i < 5; i++) {
+			uinPool.release("1000" + i, uins.get(i), UINConstants.UIN_ASSIGNED);
+			assertEquals(UINConstants.UIN_ASSIGNED, uinGeneratorService.getStatus(uins.get(i)));
+		}
+		uinPool.release("10000", uins.get(0), UINConstants.UIN_UNASSIGNED);
+
+		assertTrue(await(() -> uinPool.getSentCount() == 5));
+		assertEquals(UINConstants.UIN_UNASSIGNED, uinGeneratorService.getStatus(uins.get(0)));
+		assertEquals(4, uinGeneratorService.count(UINConstants.UIN_ASSIGNED));
+		assertEquals(0, uinPool.getPendingStatusUpdates());
+	}
+
+	@Test
+	public void testAssignedFailsWhileUnreachable() throws Exception {
+		uinPool.start();
+		assertTrue(await(() -> uinPool.getDepth() == 5));
+		String uin = uinPool.take();
+		uinGeneratorService.setUnreachable(true);
+
+		try {
+			uinPool.release("10001", uin, UINConstants.UIN_ASSIGNED);
+			fail();
+		} catch (ApisResourceAccessException e) {
+			assertEquals(0, uinPool.getPendingStatusUpdates());
+			assertEquals(LocalUinGeneratorService.ISSUED, uinGeneratorService.getStatus(uin));
+		}
+	}
+
+	@Test
+	public void testUnassignedRetriedWhileUnreachable() throws Exception {
+		uinPool.start();
+		assertTrue(await(() -> uinPool.getDepth() == 5));
+		String uin = uinPool.take();
+		uinGeneratorService.setUnreachable(true);
+
+		uinPool.release("10001", uin, UINConstants.UIN_UNASSIGNED);
+
+		assertTrue(await(() -> uinGeneratorService.getPutCount() >= 2));
+		assertTrue(await(() -> uinPool.getPendingStatusUpdates() == 1));
+		assertEquals(0, uinPool.getSentCount());
+		uinGeneratorService.setUnreachable(false);
+		assertTrue(await(() -> uinPool.getSentCount() == 1));
+		assertEquals(UINConstants.UIN_UNASSIGNED, uinGeneratorService.getStatus(uin));
+	}
+
+	@Test
+	public void testStarvedTakeFetchesDirectly() throws Exception {
+		uinGeneratorService.setUnreachable(true);
+		uinPool.start();
+
+		try {
+			uinPool.take();
+			fail();
+		} catch (ApisResourceAccessException e) {
+			assertEquals(1, uinPool.getStarvedCount());
+		}
+		uinGeneratorService.setUnreachable(false);
+		uinGeneratorService.setLatencyMicros(50000);
+		String uin = uinPool.take();
+
+		assertEquals(LocalUinGeneratorService.ISSUED, uinGeneratorService.getStatus(uin));
+		assertEquals(2, uinPool.getStarvedCount());
+		assertEquals(2.0, meterRegistry.get("regproc.uin.pool.starved").functionCounter().count(), 0.0);
+	}
+
+	@Test
+	public void testConcurrentTakesUnique() throws Exception {
+		uinPool.start();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		Set<String> uins = ConcurrentHashMap.newKeySet();
+		List<Future<Void>> futures = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			futures.add(executor.submit((Callable<Void>) () -> {
+				for (int j = 0; j < 25; j++) {
+					assertTrue(uins.add(uinPool.take()));
+				}
+				return null;
+			}));
+		}
+		for (Future<Void> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		assertEquals(100, uins.size());
+	}
+
+	@Test
+	public void testPooledUinsReturnedOnStop() throws Exception {
+		uinPool.start();
+		assertTrue(await(() -> uinPool.getDepth() == 5));
+		String uin = uinPool.take();
+		uinPool.release("10001", uin, UINConstants.UIN_ASSIGNED);
+
+		uinPool.stop();
+
+		assertFalse(uinPool.isEnabled());
+		assertEquals(0, uinPool.getDepth());
+		assertEquals(UINConstants.UIN_ASSIGNED, uinGeneratorService.getStatus(uin));
+		assertEquals(0, uinGeneratorService.count(LocalUinGeneratorService.ISSUED));
+		assertEquals(uinGeneratorService.getGetCount() - 1, uinGeneratorService.count(UINConstants.UIN_UNASSIGNED));
+	}
+
+	@Test
+	public void testDisabledCallsKernelOnCallingThread() throws Exception {
+		ReflectionTestUtils.setField(uinPool, "enabled", false);
+		uinPool.start();
+
+		String uin = uinPool.take();
+		uinPool.release("10001", uin, UINConstants.UIN_ASSIGNED);
+
+		assertFalse(uinPool.isEnabled());
+		assertEquals(1, uinGeneratorService.getGetCount());
+		assertEquals(UINConstants.UIN_ASSIGNED, uinGeneratorService.getStatus(uin));
+		uinGeneratorService.setUnreachable(true);
+		try {
+			uinPool.release("10001", uin, UINConstants.UIN_ASSIGNED);
+			fail();
+		} catch (ApisResourceAccessException e) {
+			assertEquals(1, uinPool.getSentCount());
+		}
+	}
+
+	private static boolean await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				return false;
+			}
+			Thread.sleep(10);
+		}
+		return true;
+	}
+}
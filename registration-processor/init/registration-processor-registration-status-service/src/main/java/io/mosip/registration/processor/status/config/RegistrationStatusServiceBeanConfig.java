@@ -26,6 +26,7 @@ import io.mosip.registration.processor.status.service.RegistrationStatusService;
 import io.mosip.registration.processor.status.service.SyncRegistrationService;
 import io.mosip.registration.processor.status.service.TransactionService;
 import io.mosip.registration.processor.status.service.impl.RegistrationStatusServiceImpl;
+import io.mosip.registration.processor.status.service.impl.RegistrationStatusWriter;
 import io.mosip.registration.processor.status.service.impl.SyncRegistrationServiceImpl;
 import io.mosip.registration.processor.status.service.impl.TransactionServiceImpl;
 import io.mosip.registration.processor.status.utilities.RegistrationExternalStatusUtility;
@@ -55,6 +56,11 @@ public class RegistrationStatusServiceBeanConfig {
 		return new SyncRegistrationDao();
 	}
 
+	@Bean
+	public RegistrationStatusWriter getRegistrationStatusWriter() {
+		return new RegistrationStatusWriter();
+	}
+
 	@Bean
 	public RestTemplateBuilder getRestTemplateBuilder() {
 		return new RestTemplateBuilder();
@@ -1,12 +1,14 @@
 package io.mosip.registration.processor.print.stage;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import javax.jms.Message;
 
@@ -18,6 +20,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.stereotype.Service;
 
+import io.mosip.kernel.core.fsadapter.spi.FileSystemAdapter;
 import io.mosip.kernel.core.idvalidator.spi.UinValidator;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.kernel.core.pdfgenerator.exception.PDFGeneratorException;
@@ -58,9 +61,9 @@ import io.mosip.registration.processor.core.util.JsonUtil;
 import io.mosip.registration.processor.packet.storage.utils.Utilities;
 import io.mosip.registration.processor.print.exception.PrintGlobalExceptionHandler;
 import io.mosip.registration.processor.print.exception.QueueConnectionNotFound;
-import io.mosip.registration.processor.print.service.dto.PrintQueueDTO;
 import io.mosip.registration.processor.print.service.exception.PDFSignatureException;
 import io.mosip.registration.processor.print.service.impl.PrintPostServiceImpl;
+import io.mosip.registration.processor.print.service.utility.PrintJobEnvelope;
 import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
 import io.mosip.registration.processor.status.code.RegistrationStatusCode;
 import io.mosip.registration.processor.status.dto.InternalRegistrationStatusDto;
@@ -91,6 +94,12 @@ public class PrintStage extends MosipVerticleAPIManager {
 	/** The Constant UIN_TEXT_FILE. */
 	private static final String UIN_TEXT_FILE = "textFile";
 
+	/** The Constant UIN_CARD_PDF_REFERENCE, the name of the card pdf in the packet store. */
+	private static final String UIN_CARD_PDF_REFERENCE = "UIN_CARD.pdf";
+
+	/** The Constant MAX_RETRY_BACKOFF_MILLIS. */
+	private static final long MAX_RETRY_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
 	/** The reg proc logger. */
 	private static Logger regProcLogger = RegProcessorLogger.getLogger(PrintStage.class);
 
@@ -132,6 +141,22 @@ public class PrintStage extends MosipVerticleAPIManager {
 	@Autowired
 	private PrintService<Map<String, byte[]>> printService;
 
+	/** The packet store, holding the card pdf of a claim check. */
+	@Autowired
+	private FileSystemAdapter fileSystemAdapter;
+
+	/** Whether only a reference to the card pdf, kept in the packet store, is sent. */
+	@Value("${registration.processor.print.claim-check.enabled:false}")
+	private boolean claimCheck;
+
+	/** The number of times a print job is sent again when the queue is unavailable. */
+	@Value("${registration.processor.print.queue.retry-count:5}")
+	private int queueRetryCount;
+
+	/** The wait before the first retry, doubled on each retry. */
+	@Value("${registration.processor.print.queue.retry-backoff-ms:500}")
+	private long queueRetryBackoffMillis;
+
 	/** The print post service. */
 	@Autowired
 	private PrintPostServiceImpl printPostService;
@@ -281,9 +306,14 @@ public class PrintStage extends MosipVerticleAPIManager {
 
 				}
 			}
-			Map<String, byte[]> documentBytesMap = printService.getDocuments(idType, idValue, cardType, false);
+			Map<String, Path> spooledDocuments = printService.spoolDocuments(idType, idValue, cardType, false);
 
-			boolean isAddedToQueue = sendToQueue(queue, documentBytesMap, 0, regId);
+			boolean isAddedToQueue;
+			try {
+				isAddedToQueue = sendToQueue(queue, spooledDocuments, regId);
+			} finally {
+				printService.deleteSpooledDocuments(spooledDocuments);
+			}
 
 			if (isAddedToQueue) {
 				object.setIsValid(Boolean.TRUE);
@@ -405,49 +435,93 @@ public class PrintStage extends MosipVerticleAPIManager {
 	}
 
 	/**
-	 * Send to queue.
+	 * Send to queue, retrying with a doubling wait while the queue is
+	 * unavailable. The card pdf of a claim check is removed from the packet
+	 * store again if the print job is not sent, as no consumer will read it.
 	 *
 	 * @param queue
 	 *            the queue
-	 * @param documentBytesMap
-	 *            the document bytes map
-	 * @param count
-	 *            the count
-	 * @param uin
-	 *            the uin
+	 * @param spooledDocuments
+	 *            the spooled documents
+	 * @param regId
+	 *            the reg id
 	 * @return true, if successful
 	 * @throws IOException
 	 *             Signals that an I/O exception has occurred.
 	 */
-	private boolean sendToQueue(MosipQueue queue, Map<String, byte[]> documentBytesMap, int count, String regId)
+	private boolean sendToQueue(MosipQueue queue, Map<String, Path> spooledDocuments, String regId)
 			throws IOException {
-		boolean isAddedToQueue = false;
+		byte[] printJob;
+		if (claimCheck) {
+			try (InputStream pdf = Files.newInputStream(spooledDocuments.get(UIN_CARD_PDF))) {
+				if (!fileSystemAdapter.storeFile(regId, UIN_CARD_PDF_REFERENCE, pdf)) {
+					return false;
+				}
+			}
+			printJob = PrintJobEnvelope.writeClaimCheck(regId, spooledDocuments.get(UIN_TEXT_FILE),
+					UIN_CARD_PDF_REFERENCE);
+		} else {
+			printJob = PrintJobEnvelope.write(regId, spooledDocuments.get(UIN_TEXT_FILE),
+					spooledDocuments.get(UIN_CARD_PDF));
+		}
+
+		boolean isSent = false;
 		try {
-			PrintQueueDTO queueDto = new PrintQueueDTO();
-			queueDto.setPdfBytes(documentBytesMap.get(UIN_CARD_PDF));
-			queueDto.setTextBytes(documentBytesMap.get(UIN_TEXT_FILE));
-			queueDto.setRegId(regId);
-			ByteArrayOutputStream bos = new ByteArrayOutputStream();
-			ObjectOutputStream oos = new ObjectOutputStream(bos);
-			oos.writeObject(queueDto);
-			oos.flush();
-			byte[] printQueueBytes = bos.toByteArray();
-			isAddedToQueue = mosipQueueManager.send(queue, printQueueBytes, address);
+			isSent = send(queue, printJob, regId);
+			return isSent;
+		} finally {
+			if (claimCheck && !isSent && !fileSystemAdapter.deleteFile(regId, UIN_CARD_PDF_REFERENCE)) {
+				regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.REGISTRATIONID.toString(), regId,
+						"PrintStage::sendToQueue():: unable to delete " + UIN_CARD_PDF_REFERENCE);
+			}
+		}
+	}
 
-		} catch (ConnectionUnavailableException e) {
-			if (count < 5) {
-				sendToQueue(queue, documentBytesMap, count + 1, regId);
-			} else {
-				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
-						LoggerFileConstant.REGISTRATIONID.toString(), "",
-						PlatformErrorMessages.RPR_MQI_UNABLE_TO_SEND_TO_QUEUE.name() + e.getMessage()
-								+ ExceptionUtils.getStackTrace(e));
-				throw new ConnectionUnavailableException(
-						PlatformErrorMessages.RPR_MQI_UNABLE_TO_SEND_TO_QUEUE.getCode());
+	/**
+	 * Sends the print job, retrying with a doubling wait while the queue is
+	 * unavailable.
+	 *
+	 * @param queue
+	 *            the queue
+	 * @param printJob
+	 *            the print job
+	 * @param regId
+	 *            the reg id
+	 * @return true, if successful
+	 */
+	private boolean send(MosipQueue queue, byte[] printJob, String regId) {
+		for (int retry = 0;; retry++) {
+			try {
+				return mosipQueueManager.send(queue, printJob, address);
+			} catch (ConnectionUnavailableException e) {
+				if (retry >= queueRetryCount) {
+					regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
+							LoggerFileConstant.REGISTRATIONID.toString(), regId,
+							PlatformErrorMessages.RPR_MQI_UNABLE_TO_SEND_TO_QUEUE.name() + e.getMessage()
+									+ ExceptionUtils.getStackTrace(e));
+					throw new ConnectionUnavailableException(
+							PlatformErrorMessages.RPR_MQI_UNABLE_TO_SEND_TO_QUEUE.getCode());
+				}
+				waitBeforeRetry(retry);
 			}
 		}
+	}
 
-		return isAddedToQueue;
+	/**
+	 * Waits before a retry, twice as long as before the previous one.
+	 *
+	 * @param retry
+	 *            the number of retries made
+	 */
+	private void waitBeforeRetry(int retry) {
+		long backoffMillis = Math.min(queueRetryBackoffMillis << Math.min(retry, 20), MAX_RETRY_BACKOFF_MILLIS);
+		try {
+			Thread.sleep(backoffMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ConnectionUnavailableException(PlatformErrorMessages.RPR_MQI_UNABLE_TO_SEND_TO_QUEUE.getCode());
+		}
 	}
 
 	/*
@@ -1,5 +1,6 @@
 package io.mosip.registrationprocessor.print.stage.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
@@ -8,7 +9,10 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doNothing;
 
 import java.io.IOException;
+import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -21,8 +25,11 @@ import org.apache.activemq.command.ActiveMQBytesMessage;
 import org.apache.activemq.util.ByteSequence;
 import org.json.simple.JSONObject;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -34,6 +41,7 @@ import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import io.mosip.kernel.core.fsadapter.spi.FileSystemAdapter;
 import io.mosip.kernel.core.idvalidator.spi.UinValidator;
 import io.mosip.kernel.core.pdfgenerator.exception.PDFGeneratorException;
 import io.mosip.registration.processor.core.abstractverticle.MessageBusAddress;
@@ -66,6 +74,7 @@ import io.mosip.registration.processor.packet.storage.utils.Utilities;
 import io.mosip.registration.processor.print.exception.QueueConnectionNotFound;
 import io.mosip.registration.processor.print.service.exception.PDFSignatureException;
 import io.mosip.registration.processor.print.service.impl.PrintPostServiceImpl;
+import io.mosip.registration.processor.print.service.utility.PrintJobEnvelope;
 import io.mosip.registration.processor.print.stage.PrintStage;
 import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
 import io.mosip.registration.processor.rest.client.audit.dto.AuditResponseDto;
@@ -135,6 +144,12 @@ public class PrintStageTest {
 	@Mock
 	private PrintService<Map<String, byte[]>> printService;
 
+	@Mock
+	private FileSystemAdapter fileSystemAdapter;
+
+	@Rule
+	public TemporaryFolder spoolFolder = new TemporaryFolder();
+
 	@Mock
 	public PacketManager filesystemAdapter;
 
@@ -206,10 +221,11 @@ public class PrintStageTest {
 
 		byte[] pdfbytes = "UIN Card Template pdf".getBytes();
 		byte[] textBytes = "Text File ".getBytes();
-		Map<String, byte[]> byteMap = new HashMap<>();
-		byteMap.put("uinPdf", pdfbytes);
-		byteMap.put("textFile", textBytes);
-		Mockito.when(printService.getDocuments(any(), anyString(), anyString(), anyBoolean())).thenReturn(byteMap);
+		Map<String, Path> spooledDocuments = new HashMap<>();
+		spooledDocuments.put("uinPdf", Files.write(spoolFolder.newFile().toPath(), pdfbytes));
+		spooledDocuments.put("textFile", Files.write(spoolFolder.newFile().toPath(), textBytes));
+		Mockito.when(printService.spoolDocuments(any(), anyString(), anyString(), anyBoolean()))
+				.thenReturn(spooledDocuments);
 
 		Mockito.when(mosipConnectionFactory.createConnection(anyString(), anyString(), anyString(), anyString()))
 				.thenReturn(queue);
@@ -334,10 +350,10 @@ public class PrintStageTest {
 	}
 
 	@Test
-	public void testPdfGenerationException() {
+	public void testPdfGenerationException() throws IOException {
 
 		PDFGeneratorException e = new PDFGeneratorException(null, null);
-		Mockito.doThrow(e).when(printService).getDocuments(any(), anyString(), anyString(), anyBoolean());
+		Mockito.doThrow(e).when(printService).spoolDocuments(any(), anyString(), anyString(), anyBoolean());
 
 		MessageDTO dto = new MessageDTO();
 		dto.setRid("1234567890987654321");
@@ -351,9 +367,9 @@ public class PrintStageTest {
 	}
 
 	@Test
-	public void testTemplateProcessingFailureException() {
+	public void testTemplateProcessingFailureException() throws IOException {
 		TemplateProcessingFailureException e = new TemplateProcessingFailureException();
-		Mockito.doThrow(e).when(printService).getDocuments(any(), anyString(), anyString(), anyBoolean());
+		Mockito.doThrow(e).when(printService).spoolDocuments(any(), anyString(), anyString(), anyBoolean());
 
 		MessageDTO dto = new MessageDTO();
 		dto.setRid("1234567890987654321");
@@ -398,6 +414,89 @@ public class PrintStageTest {
 		assertTrue(result.getInternalError());
 	}
 
+	@Test
+	public void testPrintJobEnvelopeSent() throws IOException {
+		MessageDTO dto = new MessageDTO();
+		dto.setRid("1234567890987654321");
+		dto.setReg_type(RegistrationType.NEW);
+		doNothing().when(printPostService).generatePrintandPostal(any(), any(), any());
+		MessageDTO result = stage.process(dto);
+		assertTrue(result.getIsValid());
+
+		ArgumentCaptor<byte[]> message = ArgumentCaptor.forClass(byte[].class);
+		Mockito.verify(mosipQueueManager).send(any(), message.capture(), anyString());
+		PrintJobEnvelope printJob = PrintJobEnvelope.read(message.getValue());
+		assertEquals("1234567890987654321", printJob.getRegId());
+		assertFalse(printJob.isClaimCheck());
+		ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+		printJob.writePdf(pdf);
+		assertEquals("UIN Card Template pdf", pdf.toString());
+		Mockito.verify(printService).deleteSpooledDocuments(any());
+	}
+
+	@Test
+	public void testClaimCheckSent() throws IOException {
+		ReflectionTestUtils.setField(stage, "claimCheck", true);
+		Mockito.when(fileSystemAdapter.storeFile(anyString(), anyString(), any())).thenReturn(true);
+		MessageDTO dto = new MessageDTO();
+		dto.setRid("1234567890987654321");
+		dto.setReg_type(RegistrationType.NEW);
+		doNothing().when(printPostService).generatePrintandPostal(any(), any(), any());
+		MessageDTO result = stage.process(dto);
+		assertTrue(result.getIsValid());
+
+		ArgumentCaptor<byte[]> message = ArgumentCaptor.forClass(byte[].class);
+		Mockito.verify(mosipQueueManager).send(any(), message.capture(), anyString());
+		PrintJobEnvelope printJob = PrintJobEnvelope.read(message.getValue());
+		assertTrue(printJob.isClaimCheck());
+		Mockito.verify(fileSystemAdapter).storeFile(Mockito.eq("1234567890987654321"),
+				Mockito.eq(printJob.getPdfReference()), any());
+		Mockito.verify(fileSystemAdapter, Mockito.never()).deleteFile(anyString(), anyString());
+	}
+
+	@Test
+	public void testClaimCheckDeletedWhenNotSent() {
+		ReflectionTestUtils.setField(stage, "claimCheck", true);
+		Mockito.when(fileSystemAdapter.storeFile(anyString(), anyString(), any())).thenReturn(true);
+		Mockito.when(fileSystemAdapter.deleteFile(anyString(), anyString())).thenReturn(true);
+		Mockito.when(mosipQueueManager.send(any(), any(), anyString())).thenReturn(false);
+		MessageDTO dto = new MessageDTO();
+		dto.setRid("1234567890987654321");
+		dto.setReg_type(RegistrationType.NEW);
+		doNothing().when(printPostService).generatePrintandPostal(any(), any(), any());
+		MessageDTO result = stage.process(dto);
+		assertFalse(result.getIsValid());
+		Mockito.verify(fileSystemAdapter).deleteFile("1234567890987654321", "UIN_CARD.pdf");
+	}
+
+	@Test
+	public void testClaimCheckNotStored() {
+		ReflectionTestUtils.setField(stage, "claimCheck", true);
+		Mockito.when(fileSystemAdapter.storeFile(anyString(), anyString(), any())).thenReturn(false);
+		MessageDTO dto = new MessageDTO();
+		dto.setRid("1234567890987654321");
+		dto.setReg_type(RegistrationType.NEW);
+		doNothing().when(printPostService).generatePrintandPostal(any(), any(), any());
+		MessageDTO result = stage.process(dto);
+		assertFalse(result.getIsValid());
+		Mockito.verify(mosipQueueManager, Mockito.never()).send(any(), any(), anyString());
+	}
+
+	@Test
+	public void testSendRetriedWhileQueueUnavailable() {
+		ReflectionTestUtils.setField(stage, "queueRetryCount", 2);
+		ReflectionTestUtils.setField(stage, "queueRetryBackoffMillis", 1L);
+		Mockito.when(mosipQueueManager.send(any(), any(), anyString())).thenThrow(new ConnectionUnavailableException())
+				.thenThrow(new ConnectionUnavailableException()).thenReturn(true);
+		MessageDTO dto = new MessageDTO();
+		dto.setRid("1234567890987654321");
+		dto.setReg_type(RegistrationType.NEW);
+		doNothing().when(printPostService).generatePrintandPostal(any(), any(), any());
+		MessageDTO result = stage.process(dto);
+		assertTrue(result.getIsValid());
+		Mockito.verify(mosipQueueManager, Mockito.times(3)).send(any(), any(), anyString());
+	}
+
 	@Test
 	public void testException() throws ApisResourceAccessException {
 		NullPointerException e = new NullPointerException();
@@ -717,10 +816,10 @@ public class PrintStageTest {
 		assertTrue(result.getIsValid());
 	}
 	@Test
-	public void testPDFSignatureException() {
+	public void testPDFSignatureException() throws IOException {
 
 		PDFSignatureException e = new PDFSignatureException(null, null);
-		Mockito.doThrow(e).when(printService).getDocuments(any(), anyString(), anyString(), anyBoolean());
+		Mockito.doThrow(e).when(printService).spoolDocuments(any(), anyString(), anyString(), anyBoolean());
 
 		MessageDTO dto = new MessageDTO();
 		dto.setRid("1234567890987654321");
@@ -13,6 +13,7 @@ import io.mosip.kernel.core.crypto.spi.CryptoCoreSpec;
 import io.mosip.kernel.crypto.jce.core.CryptoCore;
 import io.mosip.kernel.keygenerator.bouncycastle.KeyGenerator;
 import io.mosip.registration.processor.packet.storage.utils.AuthUtil;
+import io.mosip.registration.processor.rest.client.cache.MasterDataCache;
 import io.mosip.registration.processor.stages.osivalidator.OSIValidator;
 import io.mosip.registration.processor.stages.osivalidator.OSIValidatorStage;
 import io.mosip.registration.processor.stages.osivalidator.UMCValidator;
@@ -57,4 +58,9 @@ public class OSIConfigBean {
 		return new AuthUtil();
 	}
 
+	@Bean
+	public MasterDataCache getMasterDataCache() {
+		return new MasterDataCache();
+	}
+
 }
@@ -46,6 +46,7 @@ import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessor
 import io.mosip.registration.processor.core.status.util.StatusUtil;
 import io.mosip.registration.processor.core.util.IdentityIteratorUtil;
 import io.mosip.registration.processor.core.util.JsonUtil;
+import io.mosip.registration.processor.rest.client.cache.MasterDataCache;
 import io.mosip.registration.processor.stages.osivalidator.utils.OSIUtils;
 import io.mosip.registration.processor.stages.osivalidator.utils.StatusMessage;
 import io.mosip.registration.processor.status.dto.InternalRegistrationStatusDto;
@@ -73,6 +74,10 @@ public class UMCValidator {
 	@Autowired
 	private RegistrationProcessorRestClientService<Object> registrationProcessorRestService;
 
+	/** The master data cache, null to call master data for every packet. */
+	@Autowired(required = false)
+	private MasterDataCache masterDataCache;
+
 	@Autowired
 	private OSIUtils osiUtils;
 
@@ -132,12 +137,10 @@ public class UMCValidator {
 		pathsegments.add(langCode);
 		pathsegments.add(effectiveDate);
 		RegistrationCenterResponseDto rcpdto = null;
-		ResponseWrapper<?> responseWrapper;
+		ResponseWrapper<RegistrationCenterResponseDto> responseWrapper;
 
-		responseWrapper = (ResponseWrapper<?>) registrationProcessorRestService.getApi(ApiName.CENTERHISTORY,
-				pathsegments, "", "", ResponseWrapper.class);
-		rcpdto = mapper.readValue(mapper.writeValueAsString(responseWrapper.getResponse()),
-				RegistrationCenterResponseDto.class);
+		responseWrapper = getMasterData(ApiName.CENTERHISTORY, pathsegments, RegistrationCenterResponseDto.class);
+		rcpdto = responseWrapper.getResponse();
 
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
 				registrationStatusDto.getRegistrationId(),
@@ -200,12 +203,10 @@ public class UMCValidator {
 		pathsegments.add(langCode);
 		pathsegments.add(effdatetimes);
 		MachineHistoryResponseDto mhrdto;
-		ResponseWrapper<?> responseWrapper;
+		ResponseWrapper<MachineHistoryResponseDto> responseWrapper;
 
-		responseWrapper = (ResponseWrapper<?>) registrationProcessorRestService.getApi(ApiName.MACHINEHISTORY,
-				pathsegments, "", "", ResponseWrapper.class);
-		mhrdto = mapper.readValue(mapper.writeValueAsString(responseWrapper.getResponse()),
-				MachineHistoryResponseDto.class);
+		responseWrapper = getMasterData(ApiName.MACHINEHISTORY, pathsegments, MachineHistoryResponseDto.class);
+		mhrdto = responseWrapper.getResponse();
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
 				registrationStatusDto.getRegistrationId(),
 				"UMCValidator::isValidMachine()::MachineHistory service ended with response data : "
@@ -292,13 +293,12 @@ public class UMCValidator {
 	private boolean validateMapping(List<String> pathsegments, InternalRegistrationStatusDto registrationStatusDto)
 			throws IOException, ApisResourceAccessException {
 		boolean isValidUser = false;
-		ResponseWrapper<?> responseWrapper;
+		ResponseWrapper<RegistrationCenterUserMachineMappingHistoryResponseDto> responseWrapper;
 		RegistrationCenterUserMachineMappingHistoryResponseDto userDto = null;
 
-		responseWrapper = (ResponseWrapper<?>) registrationProcessorRestService.getApi(ApiName.CENTERUSERMACHINEHISTORY,
-				pathsegments, "", "", ResponseWrapper.class);
-		userDto = mapper.readValue(mapper.writeValueAsString(responseWrapper.getResponse()),
+		responseWrapper = getMasterData(ApiName.CENTERUSERMACHINEHISTORY, pathsegments,
 				RegistrationCenterUserMachineMappingHistoryResponseDto.class);
+		userDto = responseWrapper.getResponse();
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
 				registrationStatusDto.getRegistrationId(),
 				"UMCValidator::validateMapping()::CenterUserMachineHistory service ended with response data : "
@@ -500,11 +500,10 @@ public class UMCValidator {
 				pathsegments.add(deviceCode);
 				pathsegments.add(rcmDto.getPacketCreationDate());
 
-				ResponseWrapper<?> responseWrapper = (ResponseWrapper<?>) registrationProcessorRestService
-						.getApi(ApiName.REGISTRATIONCENTERDEVICEHISTORY, pathsegments, "", "", ResponseWrapper.class);
-				registrationCenterDeviceHistoryResponseDto = mapper.readValue(
-						mapper.writeValueAsString(responseWrapper.getResponse()),
+				ResponseWrapper<RegistrationCenterDeviceHistoryResponseDto> responseWrapper = getMasterData(
+						ApiName.REGISTRATIONCENTERDEVICEHISTORY, pathsegments,
 						RegistrationCenterDeviceHistoryResponseDto.class);
+				registrationCenterDeviceHistoryResponseDto = responseWrapper.getResponse();
 				regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(),
 						LoggerFileConstant.REGISTRATIONID.toString(), registrationStatusDto.getRegistrationId(),
 						"UMCValidator::isDeviceMappedWithCenter()::CenterUserMachineHistory service ended with response data : "
@@ -677,14 +676,13 @@ public class UMCValidator {
 		pathsegments.add(rcmDto.getRegcntrId());
 		pathsegments.add(primaryLanguagecode);
 		pathsegments.add(rcmDto.getPacketCreationDate());
-		ResponseWrapper<?> responseWrapper;
+		ResponseWrapper<RegistartionCenterTimestampResponseDto> responseWrapper;
 		RegistartionCenterTimestampResponseDto result;
 
-		responseWrapper = (ResponseWrapper<?>) registrationProcessorRestService
-				.getApi(ApiName.REGISTRATIONCENTERTIMESTAMP, pathsegments, "", "", ResponseWrapper.class);
-
-		result = mapper.readValue(mapper.writeValueAsString(responseWrapper.getResponse()),
+		responseWrapper = getMasterData(ApiName.REGISTRATIONCENTERTIMESTAMP, pathsegments,
 				RegistartionCenterTimestampResponseDto.class);
+
+		result = responseWrapper.getResponse();
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
 				registrationStatusDto.getRegistrationId(),
 				"UMCValidator::isDeviceActive()::CenterUserMachineHistory service ended with response data : "
@@ -711,4 +709,33 @@ public class UMCValidator {
 				rcmDto.getRegId(), "UMCValidator::validateCenterIdAndTimestamp()::exit");
 		return isValid;
 	}
+
+	/**
+	 * Gets the master data response, through the master data cache when there
+	 * is one.
+	 *
+	 * @param apiName
+	 *            the api name
+	 * @param pathsegments
+	 *            the pathsegments
+	 * @param responseType
+	 *            the response type
+	 * @return the response wrapper
+	 * @throws ApisResourceAccessException
+	 *             the apis resource access exception
+	 * @throws IOException
+	 */
+	private <T> ResponseWrapper<T> getMasterData(ApiName apiName, List<String> pathsegments, Class<T> responseType)
+			throws ApisResourceAccessException, IOException {
+		if (masterDataCache != null) {
+			return masterDataCache.getApi(apiName, pathsegments, "", "", responseType);
+		}
+		ResponseWrapper<?> responseWrapper = (ResponseWrapper<?>) registrationProcessorRestService.getApi(apiName,
+				pathsegments, "", "", ResponseWrapper.class);
+		ResponseWrapper<T> typedResponseWrapper = new ResponseWrapper<>();
+		typedResponseWrapper.setErrors(responseWrapper.getErrors());
+		typedResponseWrapper.setResponse(
+				mapper.readValue(mapper.writeValueAsString(responseWrapper.getResponse()), responseType));
+		return typedResponseWrapper;
+	}
 }
\ No newline at end of file
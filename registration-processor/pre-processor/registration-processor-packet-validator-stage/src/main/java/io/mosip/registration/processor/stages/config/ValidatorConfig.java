@@ -20,6 +20,7 @@ import io.mosip.kernel.core.idobjectvalidator.exception.IdObjectValidationFailed
 import io.mosip.kernel.core.idobjectvalidator.spi.IdObjectValidator;
 import io.mosip.kernel.core.util.StringUtils;
 import io.mosip.registration.processor.core.packet.dto.applicantcategory.ApplicantTypeDocument;
+import io.mosip.registration.processor.rest.client.cache.MasterDataCache;
 import io.mosip.registration.processor.rest.client.utils.RestApiClient;
 import io.mosip.registration.processor.stages.helper.RestHelper;
 import io.mosip.registration.processor.stages.helper.RestHelperImpl;
@@ -88,6 +89,11 @@ public class ValidatorConfig {
 		return new AuditUtility();
 	}
 
+	@Bean
+	public MasterDataCache getMasterDataCache() {
+		return new MasterDataCache();
+	}
+
 	@PostConstruct
 	public void validateReferenceValidator() throws ClassNotFoundException {
 		if (StringUtils.isNotBlank(env.getProperty(IDOBJECT_PROVIDER))) {
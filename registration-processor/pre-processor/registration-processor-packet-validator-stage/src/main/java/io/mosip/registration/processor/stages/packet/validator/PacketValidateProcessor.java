@@ -74,6 +74,7 @@ import io.mosip.registration.processor.packet.storage.exception.IdentityNotFound
 import io.mosip.registration.processor.packet.storage.exception.ParsingException;
 import io.mosip.registration.processor.packet.storage.utils.Utilities;
 import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
+import io.mosip.registration.processor.rest.client.cache.MasterDataCache;
 import io.mosip.registration.processor.stages.dto.PacketValidationDto;
 import io.mosip.registration.processor.stages.utils.ApplicantDocumentValidation;
 import io.mosip.registration.processor.stages.utils.AuditUtility;
@@ -164,6 +165,9 @@ public class PacketValidateProcessor {
 	@Autowired
 	private AuditUtility auditUtility;
 
+	@Autowired(required = false)
+	private MasterDataCache masterDataCache;
+
 	/** The sync registration service. */
 	@Autowired
 	private SyncRegistrationService<SyncResponseDto, SyncRegistrationDto> syncRegistrationService;
@@ -742,7 +746,7 @@ public class PacketValidateProcessor {
 			return packetValidationDto.isMasterDataValidation();
 		}
 		MasterDataValidation masterDataValidation = new MasterDataValidation(env, registrationProcessorRestService,
-				utility);
+				utility, masterDataCache);
 		packetValidationDto.setMasterDataValidation(masterDataValidation.validateMasterData(jsonString));
 		if (!packetValidationDto.isMasterDataValidation()) {
 			packetValidationDto.setPacketValidaionFailure(StatusUtil.MASTER_DATA_VALIDATION_FAILED.getMessage());
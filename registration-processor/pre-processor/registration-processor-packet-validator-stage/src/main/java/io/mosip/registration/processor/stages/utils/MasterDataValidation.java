@@ -30,6 +30,7 @@ import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessor
 import io.mosip.registration.processor.core.util.JsonUtil;
 import io.mosip.registration.processor.packet.storage.exception.IdentityNotFoundException;
 import io.mosip.registration.processor.packet.storage.utils.Utilities;
+import io.mosip.registration.processor.rest.client.cache.MasterDataCache;
 
 /**
  * The Class MasterDataValidation.
@@ -58,6 +59,9 @@ public class MasterDataValidation {
 	/** The utility. */
 	private Utilities utility;
 
+	/** The master data cache, null to call master data for every value. */
+	private MasterDataCache masterDataCache;
+
 	/** The Constant VALUE. */
 	private static final String VALUE = "value";
 
@@ -81,9 +85,29 @@ public class MasterDataValidation {
 	 */
 	public MasterDataValidation(Environment env,
 			RegistrationProcessorRestClientService<Object> registrationProcessorRestService, Utilities utility) {
+		this(env, registrationProcessorRestService, utility, null);
+	}
+
+	/**
+	 * Instantiates a new master data validation looking the values up through
+	 * the master data cache.
+	 *
+	 * @param env
+	 *            the env
+	 * @param registrationProcessorRestService
+	 *            the registration processor rest service
+	 * @param utility
+	 *            the utility
+	 * @param masterDataCache
+	 *            the master data cache, or null
+	 */
+	public MasterDataValidation(Environment env,
+			RegistrationProcessorRestClientService<Object> registrationProcessorRestService, Utilities utility,
+			MasterDataCache masterDataCache) {
 		this.env = env;
 		this.registrationProcessorRestService = registrationProcessorRestService;
 		this.utility = utility;
+		this.masterDataCache = masterDataCache;
 
 	}
 
@@ -192,10 +216,15 @@ public class MasterDataValidation {
 
 				pathsegmentsEng.add(value);
 
-				ResponseWrapper<StatusResponseDto> responseWrapper = (ResponseWrapper<StatusResponseDto>) registrationProcessorRestService
-						.getApi(ApiName.valueOf(key.toUpperCase()), pathsegmentsEng, "", "", ResponseWrapper.class);
-				statusResponseDto = mapper.readValue(mapper.writeValueAsString(responseWrapper.getResponse()),
-						StatusResponseDto.class);
+				if (masterDataCache != null) {
+					statusResponseDto = masterDataCache.getApi(ApiName.valueOf(key.toUpperCase()), pathsegmentsEng,
+							"", "", StatusResponseDto.class).getResponse();
+				} else {
+					ResponseWrapper<StatusResponseDto> responseWrapper = (ResponseWrapper<StatusResponseDto>) registrationProcessorRestService
+							.getApi(ApiName.valueOf(key.toUpperCase()), pathsegmentsEng, "", "", ResponseWrapper.class);
+					statusResponseDto = mapper.readValue(mapper.writeValueAsString(responseWrapper.getResponse()),
+							StatusResponseDto.class);
+				}
 				regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(),
 						LoggerFileConstant.REGISTRATIONID.toString(), "",
 						"MasterDataValidation::validateIdentityValues():: MasterData Api call  ended with response data : "
@@ -20,6 +20,7 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.springframework.core.env.Environment;
 import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.web.client.HttpClientErrorException;
 
 import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
@@ -29,6 +30,7 @@ import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessor
 import io.mosip.registration.processor.core.util.JsonUtil;
 import io.mosip.registration.processor.packet.storage.exception.IdentityNotFoundException;
 import io.mosip.registration.processor.packet.storage.utils.Utilities;
+import io.mosip.registration.processor.rest.client.cache.MasterDataCache;
 import io.mosip.registration.processor.status.dto.InternalRegistrationStatusDto;
 
 @RunWith(PowerMockRunner.class)
@@ -89,6 +91,20 @@ public class MasterDataValidationTest {
 
 	}
 
+	@Test
+	public void testMasterDataValidationThroughCache() throws Exception {
+		MasterDataCache masterDataCache = new MasterDataCache(registrationProcessorRestService, new MockEnvironment(),
+				100, 300, 30);
+		masterDataValidation = new MasterDataValidation(env, registrationProcessorRestService, utility,
+				masterDataCache);
+		assertTrue(masterDataValidation.validateMasterData(jsonString));
+
+		Mockito.reset(registrationProcessorRestService);
+		assertTrue("Test for Master Data Validation of cached values",
+				masterDataValidation.validateMasterData(jsonString));
+		Mockito.verify(registrationProcessorRestService, Mockito.never()).getApi(any(), any(), any(), any(), any());
+	}
+
 	@Test
 	public void testMasterDataValidationResouceFailure() throws Exception {
 
@@ -1,5 +1,8 @@
 package io.mosip.registration.processor.camel.bridge;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -7,10 +10,12 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
 import org.apache.camel.component.vertx.VertxComponent;
 import org.apache.camel.impl.DefaultCamelContext;
 import org.apache.camel.impl.JndiRegistry;
 import org.apache.camel.model.RoutesDefinition;
+import org.apache.camel.support.TypeConverterSupport;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
@@ -24,6 +29,7 @@ import org.springframework.web.client.RestTemplate;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.registration.processor.core.abstractverticle.MessageBusAddress;
 import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+import io.mosip.registration.processor.core.abstractverticle.MessageDTOCodec;
 import io.mosip.registration.processor.core.abstractverticle.MosipEventBus;
 import io.mosip.registration.processor.core.abstractverticle.MosipRouter;
 import io.mosip.registration.processor.core.abstractverticle.MosipVerticleAPIManager;
@@ -118,6 +124,12 @@ public class MosipBridgeFactory extends MosipVerticleAPIManager {
         }
 		CamelContext camelContext = new DefaultCamelContext(registry);
 		camelContext.setStreamCaching(true);
+		// routes read the message as JSON, also when stages send it in the binary codec
+		MessageDTOJsonConverter messageDTOJsonConverter = new MessageDTOJsonConverter();
+		camelContext.getTypeConverterRegistry().addTypeConverter(String.class, MessageDTO.class,
+				messageDTOJsonConverter);
+		camelContext.getTypeConverterRegistry().addTypeConverter(InputStream.class, MessageDTO.class,
+				messageDTOJsonConverter);
 		VertxComponent vertxComponent = new VertxComponent();
 		vertxComponent.setVertx(vertx);
 		List<String> camelRoutesFilesArr = Arrays.asList(camelRoutesFileName.split(","));
@@ -142,4 +154,20 @@ public class MosipBridgeFactory extends MosipVerticleAPIManager {
 		// TODO Auto-generated method stub
 		return null;
 	}
+
+	/**
+	 * Converts a {@link MessageDTO} body to the JSON stages send without the
+	 * binary codec.
+	 */
+	private static class MessageDTOJsonConverter extends TypeConverterSupport {
+
+		@Override
+		public <T> T convertTo(Class<T> type, Exchange exchange, Object value) {
+			String json = MessageDTOCodec.toJson((MessageDTO) value).encode();
+			if (type == InputStream.class) {
+				return type.cast(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+			}
+			return type.cast(json);
+		}
+	}
 }
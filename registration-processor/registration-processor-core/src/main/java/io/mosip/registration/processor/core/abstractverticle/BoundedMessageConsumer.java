@@ -0,0 +1,272 @@
+package io.mosip.registration.processor.core.abstractverticle;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.impl.HandlerRegistration;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Event bus consumer of a stage that processes at most a given number of
+ * messages at a time.
+ *
+ * Messages received while the limit is reached wait in a queue. When the queue
+ * reaches its capacity the consumer is paused and it is resumed once the queue
+ * is half empty. While paused the event bus buffers up to as many further
+ * messages as the queue holds and discards the rest, so a stage that falls
+ * behind holds a bounded number of messages in memory. A discarded message is
+ * counted; its packet keeps its status and is sent again by the reprocessor.
+ * Messages are processed on the Vert.x worker pool, or on the given executor.
+ *
+ * @since 1.0.9
+ */
+public class BoundedMessageConsumer {
+
+	private static final String METRIC_PREFIX = "regproc.stage.consumer.";
+
+	/** The logger. */
+	private Logger logger = LoggerFactory.getLogger(BoundedMessageConsumer.class);
+
+	private final Vertx vertx;
+
+	private final String address;
+
+	private final int maxInFlight;
+
+	private final int pendingCapacity;
+
+	private final Executor executor;
+
+	private final Deque<PendingMessage> pending = new ArrayDeque<>();
+
+	private int inFlight;
+
+	private boolean paused;
+
+	private long pausedCount;
+
+	private long discardedCount;
+
+	private volatile Timer waitTimer;
+
+	private volatile Timer processTimer;
+
+	private Context context;
+
+	private MessageConsumer<Object> consumer;
+
+	private Handler<Object> task;
+
+	/**
+	 * Instantiates a new bounded message consumer.
+	 *
+	 * @param vertx
+	 *            the vertx instance
+	 * @param address
+	 *            the address to consume
+	 * @param maxInFlight
+	 *            the most messages processed at a time
+	 * @param pendingCapacity
+	 *            the most messages waiting before the consumer is paused
+	 * @param executor
+	 *            the executor to process messages on, null for the Vert.x
+	 *            worker pool
+	 */
+	public BoundedMessageConsumer(Vertx vertx, String address, int maxInFlight, int pendingCapacity,
+			Executor executor) {
+		this.vertx = vertx;
+		this.address = address;
+		this.maxInFlight = Math.max(1, maxInFlight);
+		this.pendingCapacity = Math.max(1, pendingCapacity);
+		this.executor = executor;
+	}
+
+	/**
+	 * Starts consuming, each message body is passed to the task off the event
+	 * loop.
+	 *
+	 * @param task
+	 *            the blocking task processing a message body
+	 */
+	@SuppressWarnings("unchecked")
+	public void start(Handler<Object> task) {
+		this.task = task;
+		context = vertx.getOrCreateContext();
+		consumer = vertx.eventBus().consumer(address);
+		// the event bus discards messages beyond this while paused
+		consumer.setMaxBufferedMessages(pendingCapacity);
+		if (consumer instanceof HandlerRegistration) {
+			((HandlerRegistration<Object>) consumer).discardHandler(message -> discarded());
+		}
+		consumer.handler(message -> receive(message.body()));
+	}
+
+	/**
+	 * Stops consuming, messages being processed are finished.
+	 */
+	public void stop() {
+		if (consumer != null) {
+			consumer.unregister();
+		}
+		synchronized (this) {
+			pending.clear();
+		}
+	}
+
+	public synchronized int getInFlight() {
+		return inFlight;
+	}
+
+	public synchronized int getPending() {
+		return pending.size();
+	}
+
+	public synchronized boolean isPaused() {
+		return paused;
+	}
+
+	public synchronized long getPausedCount() {
+		return pausedCount;
+	}
+
+	public synchronized long getDiscardedCount() {
+		return discardedCount;
+	}
+
+	/**
+	 * Registers the in flight and waiting gauges, the pause and discard counters
+	 * and the wait and processing time histograms, tagged with the address.
+	 *
+	 * @param registry
+	 *            the meter registry
+	 */
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder(METRIC_PREFIX + "in-flight", this, BoundedMessageConsumer::getInFlight).tag("address", address)
+				.description("Messages being processed").register(registry);
+		Gauge.builder(METRIC_PREFIX + "pending", this, BoundedMessageConsumer::getPending).tag("address", address)
+				.description("Messages waiting to be processed").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + "paused", this, BoundedMessageConsumer::getPausedCount)
+				.tag("address", address).description("Times the consumer was paused").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + "discarded", this, BoundedMessageConsumer::getDiscardedCount)
+				.tag("address", address).description("Messages discarded while the consumer was paused")
+				.register(registry);
+		waitTimer = Timer.builder(METRIC_PREFIX + "wait").tag("address", address)
+				.description("Time from receiving a message to processing it").publishPercentileHistogram()
+				.register(registry);
+		processTimer = Timer.builder(METRIC_PREFIX + "process").tag("address", address)
+				.description("Time processing a message").publishPercentileHistogram().register(registry);
+	}
+
+	private void receive(Object body) {
+		PendingMessage message = new PendingMessage(body, System.nanoTime());
+		synchronized (this) {
+			if (inFlight >= maxInFlight) {
+				pending.add(message);
+				if (!paused && pending.size() >= pendingCapacity) {
+					paused = true;
+					pausedCount++;
+					consumer.pause();
+				}
+				return;
+			}
+			inFlight++;
+		}
+		execute(message);
+	}
+
+	private void discarded() {
+		synchronized (this) {
+			discardedCount++;
+		}
+		logger.warn("message discarded, consumer of " + address + " paused with a full buffer");
+	}
+
+	private void execute(PendingMessage message) {
+		if (executor == null) {
+			vertx.executeBlocking(future -> {
+				process(message);
+				future.complete();
+			}, false, res -> {
+				if (!res.succeeded()) {
+					logger.error("failure " + res.cause());
+				}
+				completed();
+			});
+			return;
+		}
+		executor.execute(() -> {
+			try {
+				process(message);
+			} catch (RuntimeException e) {
+				logger.error("failure " + e);
+			} finally {
+				context.runOnContext(v -> completed());
+			}
+		});
+	}
+
+	private void process(PendingMessage message) {
+		long start = System.nanoTime();
+		record(waitTimer, start - message.receivedNanos);
+		try {
+			task.handle(message.body);
+		} finally {
+			record(processTimer, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Takes the next waiting message, resuming the consumer once half of the
+	 * queue is free. Runs on the consumer's context.
+	 */
+	private void completed() {
+		PendingMessage next;
+		boolean resume = false;
+		synchronized (this) {
+			next = pending.poll();
+			if (next == null) {
+				inFlight--;
+			}
+			if (paused && pending.size() <= pendingCapacity / 2) {
+				paused = false;
+				resume = true;
+			}
+		}
+		if (resume) {
+			consumer.resume();
+		}
+		if (next != null) {
+			execute(next);
+		}
+	}
+
+	private static void record(Timer timer, long nanos) {
+		if (timer != null) {
+			timer.record(nanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * A received message and when it was received.
+	 */
+	private static class PendingMessage {
+		private final Object body;
+		private final long receivedNanos;
+
+		PendingMessage(Object body, long receivedNanos) {
+			this.body = body;
+			this.receivedNanos = receivedNanos;
+		}
+	}
+}
@@ -0,0 +1,261 @@
+package io.mosip.registration.processor.core.abstractverticle;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.registration.processor.core.constant.HealthConstant;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.healthchecks.Status;
+
+/**
+ * Runs the health checks of a stage on a background schedule and keeps the last
+ * status of each, so that a health request is answered without running any
+ * check on the calling thread, which is the event loop. A check is reported
+ * down until its first run has completed, and when its status is older than
+ * the maximum staleness because the check is stuck.
+ *
+ * @since 1.0.9
+ */
+public class HealthProbeScheduler {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(HealthProbeScheduler.class);
+
+	private static final String METRIC_PREFIX = "regproc.health.";
+
+	private final long intervalMillis;
+
+	private final long timeoutMillis;
+
+	private final long maxStalenessMillis;
+
+	private final ScheduledExecutorService executor;
+
+	private final Map<String, Probe> probes = new ConcurrentHashMap<>();
+
+	private volatile MeterRegistry meterRegistry;
+
+	/**
+	 * Instantiates a new health probe scheduler.
+	 *
+	 * @param threads
+	 *            the threads running the checks
+	 * @param intervalMillis
+	 *            the delay between two runs of a check
+	 * @param timeoutMillis
+	 *            the time a check that completes asynchronously is waited for
+	 * @param maxStalenessMillis
+	 *            the age after which the last status of a check is reported
+	 *            down
+	 */
+	public HealthProbeScheduler(int threads, long intervalMillis, long timeoutMillis, long maxStalenessMillis) {
+		this.intervalMillis = intervalMillis;
+		this.timeoutMillis = timeoutMillis;
+		this.maxStalenessMillis = maxStalenessMillis;
+		AtomicInteger threadNumber = new AtomicInteger();
+		ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(Math.max(1, threads),
+				runnable -> {
+					Thread thread = new Thread(runnable, "stage-health-probe-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		scheduledExecutor.setRemoveOnCancelPolicy(true);
+		this.executor = scheduledExecutor;
+	}
+
+	/**
+	 * Registers the metrics of the checks registered from now on.
+	 *
+	 * @param registry
+	 *            the meter registry
+	 */
+	public void bindTo(MeterRegistry registry) {
+		this.meterRegistry = registry;
+	}
+
+	/**
+	 * Schedules the check and returns the procedure answering from its last
+	 * status. A check registered again under the same name replaces the previous
+	 * one.
+	 *
+	 * @param name
+	 *            the check name
+	 * @param check
+	 *            the check
+	 * @return the procedure to register with the health checks
+	 */
+	public Handler<Future<Status>> register(String name, Handler<Future<Status>> check) {
+		Probe probe = new Probe(name, check);
+		Probe previous = probes.put(name, probe);
+		if (previous != null) {
+			previous.task.cancel(false);
+		}
+		MeterRegistry registry = meterRegistry;
+		if (registry != null) {
+			probe.bindTo(registry);
+		}
+		probe.task = executor.scheduleWithFixedDelay(probe::run, 0, intervalMillis, TimeUnit.MILLISECONDS);
+		return probe::serve;
+	}
+
+	/**
+	 * Stops running the check.
+	 *
+	 * @param name
+	 *            the check name
+	 */
+	public void unregister(String name) {
+		Probe probe = probes.remove(name);
+		if (probe != null) {
+			probe.task.cancel(false);
+		}
+	}
+
+	/**
+	 * Stops running the checks.
+	 */
+	public void stop() {
+		executor.shutdownNow();
+		probes.clear();
+	}
+
+	/**
+	 * @param name
+	 *            the check name
+	 * @return the milliseconds since the last run of the check completed, -1 if
+	 *         it has not completed yet
+	 */
+	public long getStalenessMillis(String name) {
+		Probe probe = probes.get(name);
+		Snapshot snapshot = probe != null ? probe.snapshot : null;
+		return snapshot != null ? System.currentTimeMillis() - snapshot.completedTime : -1;
+	}
+
+	/**
+	 * One scheduled check and its last status.
+	 */
+	private class Probe {
+
+		private final String name;
+
+		private final Handler<Future<Status>> check;
+
+		private volatile Snapshot snapshot;
+
+		private volatile Timer latencyTimer;
+
+		private ScheduledFuture<?> task;
+
+		Probe(String name, Handler<Future<Status>> check) {
+			this.name = name;
+			this.check = check;
+		}
+
+		void bindTo(MeterRegistry registry) {
+			latencyTimer = Timer.builder(METRIC_PREFIX + "probe").tag("check", name)
+					.description("Time to run a health check").publishPercentiles(0.5, 0.95).register(registry);
+			TimeGauge.builder(METRIC_PREFIX + "staleness", this, TimeUnit.MILLISECONDS, Probe::stalenessMillis)
+					.tag("check", name).description("Age of the last status of a health check").register(registry);
+			Gauge.builder(METRIC_PREFIX + "status", this, Probe::up).tag("check", name)
+					.description("1 if the last status of a health check is up, else 0").register(registry);
+		}
+
+		/**
+		 * Runs the check and keeps its status.
+		 */
+		void run() {
+			long start = System.nanoTime();
+			Status status;
+			try {
+				status = invoke();
+			} catch (Exception e) {
+				LOGGER.error("health check " + name + " failed : " + e.getMessage());
+				status = Status.KO(new JsonObject().put(HealthConstant.ERROR, e.getMessage()))
+						.setProcedureInError(true);
+			}
+			snapshot = new Snapshot(status, System.currentTimeMillis());
+			Timer timer = latencyTimer;
+			if (timer != null) {
+				timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			}
+		}
+
+		private Status invoke() throws InterruptedException {
+			Future<Status> future = Future.future();
+			CountDownLatch completed = new CountDownLatch(1);
+			future.setHandler(result -> completed.countDown());
+			check.handle(future);
+			if (!completed.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+				return Status.KO(new JsonObject().put(HealthConstant.ERROR,
+						"health check timed out after " + timeoutMillis + " ms"));
+			}
+			if (future.failed()) {
+				return Status.KO(new JsonObject().put(HealthConstant.ERROR, future.cause().getMessage()))
+						.setProcedureInError(true);
+			}
+			return future.result() != null ? future.result() : Status.OK();
+		}
+
+		/**
+		 * Completes the health request with a copy of the last status.
+		 */
+		void serve(Future<Status> future) {
+			Snapshot last = snapshot;
+			if (last == null) {
+				future.complete(Status.KO(new JsonObject().put(HealthConstant.ERROR,
+						"health check " + name + " has not completed yet")));
+				return;
+			}
+			long age = System.currentTimeMillis() - last.completedTime;
+			if (age > maxStalenessMillis) {
+				future.complete(Status.KO(new JsonObject().put(HealthConstant.ERROR,
+						"last health check completed " + age + " ms ago")));
+				return;
+			}
+			Status status = new Status(last.status);
+			if (last.status.getData() != null) {
+				status.setData(last.status.getData().copy());
+			}
+			future.complete(status);
+		}
+
+		private double stalenessMillis() {
+			Snapshot last = snapshot;
+			return last != null ? System.currentTimeMillis() - last.completedTime : 0;
+		}
+
+		private double up() {
+			Snapshot last = snapshot;
+			return last != null && last.status.isOk() ? 1 : 0;
+		}
+	}
+
+	/**
+	 * The status of a completed run of a check.
+	 */
+	private static class Snapshot {
+
+		private final Status status;
+
+		private final long completedTime;
+
+		Snapshot(Status status, long completedTime) {
+			this.status = status;
+			this.completedTime = completedTime;
+		}
+	}
+}
@@ -4,6 +4,8 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import io.mosip.registration.processor.core.constant.RegistrationType;
 
@@ -21,6 +23,9 @@ public class MessageBusAddress implements Serializable {
 
 	public static final String BUS_OUT = "bus-out";
 
+	/** The addresses built for each registration type, by base address. */
+	private static final ConcurrentMap<String, ConcurrentMap<RegistrationType, MessageBusAddress>> REG_TYPE_ADDRESSES = new ConcurrentHashMap<>();
+
 	/**
 	 * Instantiates a new message bus address.
 	 */
@@ -48,6 +53,23 @@ public class MessageBusAddress implements Serializable {
 	/** The address. */
 	private String address;
 
+	/**
+	 * Gets the address for a registration type, built once per address and
+	 * registration type. The returned address is shared and must not be
+	 * changed.
+	 *
+	 * @param messageBusAddress
+	 *            the address
+	 * @param regType
+	 *            the registration type
+	 * @return the address for the registration type
+	 */
+	public static MessageBusAddress forRegistrationType(MessageBusAddress messageBusAddress,
+			RegistrationType regType) {
+		return REG_TYPE_ADDRESSES.computeIfAbsent(messageBusAddress.getAddress(), key -> new ConcurrentHashMap<>())
+				.computeIfAbsent(regType, key -> new MessageBusAddress(messageBusAddress, regType));
+	}
+
 	/**
 	 * Instantiates a new message bus address.
 	 *
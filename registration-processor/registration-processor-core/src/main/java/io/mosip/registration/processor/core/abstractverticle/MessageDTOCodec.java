@@ -0,0 +1,226 @@
+package io.mosip.registration.processor.core.abstractverticle;
+
+import java.nio.charset.StandardCharsets;
+
+import io.mosip.registration.processor.core.constant.RegistrationType;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Event bus codec for {@link MessageDTO}, written field by field instead of
+ * through Jackson.
+ *
+ * The wire layout is the length of the rest, a format version byte, a byte
+ * flagging which fields are set and the values of the set fields: strings as
+ * a length prefixed UTF-8 value, the registration type by name, booleans only
+ * as flags. Messages delivered in the same JVM are copied, not encoded.
+ *
+ * {@link #toJson(MessageDTO)} and {@link #fromJson(JsonObject)} give the same
+ * JSON as Jackson does for the stages and camel routes that still exchange
+ * {@link JsonObject} messages.
+ *
+ * @since 1.0.9
+ */
+public class MessageDTOCodec implements MessageCodec<MessageDTO, MessageDTO> {
+
+	/** The codec name sent with each message. */
+	public static final String NAME = "mosip-message-dto";
+
+	private static final byte FORMAT_VERSION = 1;
+
+	private static final int REG_TYPE = 1;
+	private static final int RID = 1 << 1;
+	private static final int IS_VALID = 1 << 2;
+	private static final int IS_VALID_TRUE = 1 << 3;
+	private static final int INTERNAL_ERROR = 1 << 4;
+	private static final int INTERNAL_ERROR_TRUE = 1 << 5;
+	private static final int ADDRESS = 1 << 6;
+	private static final int RETRY_COUNT = 1 << 7;
+
+	private static final String REG_TYPE_KEY = "reg_type";
+	private static final String RID_KEY = "rid";
+	private static final String IS_VALID_KEY = "isValid";
+	private static final String INTERNAL_ERROR_KEY = "internalError";
+	private static final String ADDRESS_KEY = "messageBusAddress";
+	private static final String ADDRESS_VALUE_KEY = "address";
+	private static final String RETRY_COUNT_KEY = "retryCount";
+
+	@Override
+	public void encodeToWire(Buffer buffer, MessageDTO message) {
+		int lengthPosition = buffer.length();
+		buffer.appendInt(0);
+		buffer.appendByte(FORMAT_VERSION);
+		int flags = flags(message);
+		buffer.appendByte((byte) flags);
+		if ((flags & REG_TYPE) != 0) {
+			appendString(buffer, message.getReg_type().name());
+		}
+		if ((flags & RID) != 0) {
+			appendString(buffer, message.getRid());
+		}
+		if ((flags & ADDRESS) != 0) {
+			appendString(buffer, message.getMessageBusAddress().getAddress());
+		}
+		if ((flags & RETRY_COUNT) != 0) {
+			buffer.appendInt(message.getRetryCount());
+		}
+		buffer.setInt(lengthPosition, buffer.length() - lengthPosition - 4);
+	}
+
+	@Override
+	public MessageDTO decodeFromWire(int pos, Buffer buffer) {
+		int position = pos + 4;
+		byte formatVersion = buffer.getByte(position++);
+		if (formatVersion != FORMAT_VERSION) {
+			throw new IllegalStateException("Unsupported MessageDTO format version " + formatVersion);
+		}
+		int flags = buffer.getByte(position++) & 0xFF;
+		MessageDTO message = new MessageDTO();
+		if ((flags & REG_TYPE) != 0) {
+			int length = buffer.getInt(position);
+			message.setReg_type(RegistrationType.valueOf(buffer.getString(position + 4, position + 4 + length)));
+			position += 4 + length;
+		}
+		if ((flags & RID) != 0) {
+			int length = buffer.getInt(position);
+			message.setRid(buffer.getString(position + 4, position + 4 + length));
+			position += 4 + length;
+		}
+		if ((flags & IS_VALID) != 0) {
+			message.setIsValid((flags & IS_VALID_TRUE) != 0);
+		}
+		if ((flags & INTERNAL_ERROR) != 0) {
+			message.setInternalError((flags & INTERNAL_ERROR_TRUE) != 0);
+		}
+		if ((flags & ADDRESS) != 0) {
+			int length = buffer.getInt(position);
+			message.setMessageBusAddress(new MessageBusAddress(buffer.getString(position + 4, position + 4 + length)));
+			position += 4 + length;
+		}
+		if ((flags & RETRY_COUNT) != 0) {
+			message.setRetryCount(buffer.getInt(position));
+		}
+		return message;
+	}
+
+	@Override
+	public MessageDTO transform(MessageDTO message) {
+		return copy(message);
+	}
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	@Override
+	public byte systemCodecID() {
+		return -1;
+	}
+
+	/**
+	 * Copies a message, the message bus address is shared.
+	 *
+	 * @param message
+	 *            the message
+	 * @return the copy
+	 */
+	public static MessageDTO copy(MessageDTO message) {
+		MessageDTO copy = new MessageDTO();
+		copy.setReg_type(message.getReg_type());
+		copy.setRid(message.getRid());
+		copy.setIsValid(message.getIsValid());
+		copy.setInternalError(message.getInternalError());
+		copy.setMessageBusAddress(message.getMessageBusAddress());
+		copy.setRetryCount(message.getRetryCount());
+		return copy;
+	}
+
+	/**
+	 * Converts a message to the JSON Jackson would give for it.
+	 *
+	 * @param message
+	 *            the message
+	 * @return the JSON object
+	 */
+	public static JsonObject toJson(MessageDTO message) {
+		JsonObject jsonObject = new JsonObject();
+		jsonObject.put(REG_TYPE_KEY, message.getReg_type() != null ? message.getReg_type().name() : null);
+		jsonObject.put(RID_KEY, message.getRid());
+		jsonObject.put(IS_VALID_KEY, message.getIsValid());
+		jsonObject.put(INTERNAL_ERROR_KEY, message.getInternalError());
+		MessageBusAddress address = message.getMessageBusAddress();
+		jsonObject.put(ADDRESS_KEY,
+				address != null ? new JsonObject().put(ADDRESS_VALUE_KEY, address.getAddress()) : null);
+		jsonObject.put(RETRY_COUNT_KEY, message.getRetryCount());
+		return jsonObject;
+	}
+
+	/**
+	 * Reads a message from JSON sent by {@link #toJson(MessageDTO)} or Jackson.
+	 *
+	 * @param jsonObject
+	 *            the JSON object
+	 * @return the message
+	 */
+	public static MessageDTO fromJson(JsonObject jsonObject) {
+		MessageDTO message = new MessageDTO();
+		String regType = jsonObject.getString(REG_TYPE_KEY);
+		if (regType != null) {
+			message.setReg_type(RegistrationType.valueOf(regType));
+		}
+		message.setRid(jsonObject.getString(RID_KEY));
+		message.setIsValid(jsonObject.getBoolean(IS_VALID_KEY));
+		message.setInternalError(jsonObject.getBoolean(INTERNAL_ERROR_KEY));
+		JsonObject address = jsonObject.getJsonObject(ADDRESS_KEY);
+		if (address != null) {
+			message.setMessageBusAddress(new MessageBusAddress(address.getString(ADDRESS_VALUE_KEY)));
+		}
+		message.setRetryCount(jsonObject.getInteger(RETRY_COUNT_KEY));
+		return message;
+	}
+
+	/**
+	 * Gets the message from an event bus message body.
+	 *
+	 * @param body
+	 *            a {@link MessageDTO} or its {@link JsonObject}
+	 * @return the message
+	 */
+	public static MessageDTO fromBody(Object body) {
+		if (body instanceof MessageDTO) {
+			return (MessageDTO) body;
+		}
+		return fromJson((JsonObject) body);
+	}
+
+	private static int flags(MessageDTO message) {
+		int flags = 0;
+		if (message.getReg_type() != null) {
+			flags |= REG_TYPE;
+		}
+		if (message.getRid() != null) {
+			flags |= RID;
+		}
+		if (message.getIsValid() != null) {
+			flags |= message.getIsValid() ? IS_VALID | IS_VALID_TRUE : IS_VALID;
+		}
+		if (message.getInternalError() != null) {
+			flags |= message.getInternalError() ? INTERNAL_ERROR | INTERNAL_ERROR_TRUE : INTERNAL_ERROR;
+		}
+		if (message.getMessageBusAddress() != null && message.getMessageBusAddress().getAddress() != null) {
+			flags |= ADDRESS;
+		}
+		if (message.getRetryCount() != null) {
+			flags |= RETRY_COUNT;
+		}
+		return flags;
+	}
+
+	private static void appendString(Buffer buffer, String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		buffer.appendInt(bytes.length);
+		buffer.appendBytes(bytes);
+	}
+}
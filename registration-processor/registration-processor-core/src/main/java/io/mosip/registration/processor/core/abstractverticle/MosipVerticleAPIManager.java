@@ -1,5 +1,7 @@
 package io.mosip.registration.processor.core.abstractverticle;
 
+import javax.sql.DataSource;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
@@ -35,6 +37,13 @@ public abstract class MosipVerticleAPIManager extends MosipVerticleManager {
 	@Autowired
 	ObjectMapper objectMapper;
 
+	/** The data source of the stage, used by the database health check. */
+	@Autowired(required = false)
+	DataSource dataSource;
+
+	/** The health check handler, closed when the verticle stops. */
+	private StageHealthCheckHandler healthCheckHandler;
+
 	/**
 	 * This method creates a body handler for the routes
 	 *
@@ -62,7 +71,9 @@ public abstract class MosipVerticleAPIManager extends MosipVerticleManager {
 	public void configureHealthCheckEndpoint(Vertx vertx, Router router, final String servletPath,
 			String consumeAddress, String sendAddress) {
 		StageHealthCheckHandler healthCheckHandler = new StageHealthCheckHandler(vertx, null, objectMapper,
-				environment);
+				environment, dataSource, getMeterRegistry());
+		closeHealthCheckHandler();
+		this.healthCheckHandler = healthCheckHandler;
 		router.get(servletPath + HealthConstant.HEALTH_ENDPOINT).handler(healthCheckHandler);
 		if (servletPath.contains("packetreceiver") || servletPath.contains("uploader")) {
 			healthCheckHandler.register("virusscanner", healthCheckHandler::virusScanHealthChecker);
@@ -115,6 +126,27 @@ public abstract class MosipVerticleAPIManager extends MosipVerticleManager {
 		healthCheckHandler.register("db", healthCheckHandler::databaseHealthChecker);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.vertx.core.AbstractVerticle#stop()
+	 */
+	@Override
+	public void stop() throws Exception {
+		closeHealthCheckHandler();
+		super.stop();
+	}
+
+	/**
+	 * Stops the scheduled health probes and closes their broker connection.
+	 */
+	private void closeHealthCheckHandler() {
+		if (healthCheckHandler != null) {
+			healthCheckHandler.close();
+			healthCheckHandler = null;
+		}
+	}
+
 	private boolean checkServletPathContainsCoreProcessor(String servletPath) {
 		return servletPath.contains("packetvalidator") || servletPath.contains("osi") || servletPath.contains("demo")
 				|| servletPath.contains("bio") || servletPath.contains("uin") || servletPath.contains("quality")
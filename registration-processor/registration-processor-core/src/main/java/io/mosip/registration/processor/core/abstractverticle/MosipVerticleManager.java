@@ -5,22 +5,29 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 
 import com.hazelcast.config.Config;
 import com.hazelcast.config.UrlXmlConfig;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.mosip.registration.processor.core.exception.DeploymentFailureException;
 import io.mosip.registration.processor.core.exception.util.PlatformErrorMessages;
 import io.mosip.registration.processor.core.spi.eventbus.EventBusManager;
+import io.mosip.registration.processor.core.spi.filesystem.manager.PacketManager;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Verticle;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxOptions;
 import io.vertx.core.eventbus.EventBusOptions;
-import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.core.spi.cluster.ClusterManager;
@@ -39,11 +46,43 @@ import io.vertx.spi.cluster.hazelcast.HazelcastClusterManager;
 public abstract class MosipVerticleManager extends AbstractVerticle
 		implements EventBusManager<MosipEventBus, MessageBusAddress, MessageDTO> {
 
+	private static final String IO_EXECUTOR = "io";
+
 	/** The logger. */
 	private Logger logger = LoggerFactory.getLogger(MosipVerticleManager.class);
 
 	@Value("${eventbus.port}")
 	private String eventBusPort;
+
+	/**
+	 * Whether messages are sent in the binary {@link MessageDTOCodec} layout
+	 * instead of JSON. Every stage and the camel bridge decode both.
+	 */
+	@Value("${registration.processor.eventbus.binary-codec.enabled:false}")
+	private boolean binaryCodec;
+
+	/** The most messages a consumer processes at a time. */
+	@Value("${registration.processor.consumer.max-in-flight:32}")
+	private int maxInFlight = 32;
+
+	/** The most messages waiting for a consumer before it is paused. */
+	@Value("${registration.processor.consumer.pending-capacity:1000}")
+	private int pendingCapacity = 1000;
+
+	/**
+	 * Where consumers process messages: worker for the Vert.x worker pool, io
+	 * for a thread per message in flight.
+	 */
+	@Value("${registration.processor.consumer.executor:worker}")
+	private String consumerExecutor = "worker";
+
+	/** The meter registry, if metrics are enabled. */
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	/** Releases the decrypted packet once a message is processed, when present. */
+	@Autowired(required = false)
+	private PacketManager packetManager;
 	
 	/* (non-Javadoc)
 	 * @see io.mosip.registration.processor.core.spi.eventbus.EventBusManager#getEventBus(java.lang.Class, java.lang.String)
@@ -81,6 +120,7 @@ public abstract class MosipVerticleManager extends AbstractVerticle
 				.setEventBusOptions(new EventBusOptions().setPort(getEventBusPort()).setHost(address));
 		Vertx.clusteredVertx(options, result -> {
 			if (result.succeeded()) {
+				registerMessageCodec(result.result());
 				result.result().deployVerticle((Verticle) verticleName,
 						new DeploymentOptions().setHa(false).setWorker(true).setWorkerPoolSize(instanceNumber));
 				eventBus.complete(result.result());
@@ -109,20 +149,19 @@ public abstract class MosipVerticleManager extends AbstractVerticle
 	@Override
 	public void consumeAndSend(MosipEventBus mosipEventBus, MessageBusAddress fromAddress,
 			MessageBusAddress toAddress) {
-		Vertx vertx = mosipEventBus.getEventbus();
-		vertx.eventBus().consumer(fromAddress.getAddress(), msg -> {
-			logger.debug("received from " + fromAddress.toString() + msg.body());
-			vertx.executeBlocking(future -> {
-				JsonObject jsonObject = (JsonObject) msg.body();
-				MessageDTO messageDTO = jsonObject.mapTo(MessageDTO.class);
-				MessageDTO result = process(messageDTO);
-				future.complete();
-				send(mosipEventBus, toAddress, result);
-			}, false, res -> {
-				if (!res.succeeded()) {
-					logger.error("failure " + res.cause());
-				}
-			});
+		createConsumer(mosipEventBus.getEventbus(), fromAddress).start(body -> {
+			if (logger.isDebugEnabled()) {
+				logger.debug("received from " + fromAddress.toString() + body);
+			}
+			MessageDTO messageDTO = MessageDTOCodec.fromBody(body);
+			MessageDTO result;
+			holdPacket(messageDTO);
+			try {
+				result = process(messageDTO);
+			} finally {
+				releasePacket(messageDTO);
+			}
+			send(mosipEventBus, toAddress, result);
 		});
 	}
 
@@ -138,10 +177,12 @@ public abstract class MosipVerticleManager extends AbstractVerticle
 	 */
 	public void send(MosipEventBus mosipEventBus, MessageBusAddress toAddress, MessageDTO message) {
 		Vertx vertx = mosipEventBus.getEventbus();
-		MessageBusAddress messageBusAddress = new MessageBusAddress(toAddress, message.getReg_type());
-		JsonObject jsonObject = JsonObject.mapFrom(message);
-		vertx.eventBus().send(messageBusAddress.getAddress(), jsonObject);
-		logger.debug("sent to " + toAddress.toString() + " message " + jsonObject);
+		MessageBusAddress messageBusAddress = MessageBusAddress.forRegistrationType(toAddress, message.getReg_type());
+		Object body = binaryCodec ? message : MessageDTOCodec.toJson(message);
+		vertx.eventBus().send(messageBusAddress.getAddress(), body);
+		if (logger.isDebugEnabled()) {
+			logger.debug("sent to " + toAddress.toString() + " message " + body);
+		}
 	}
 
 	/**
@@ -153,24 +194,105 @@ public abstract class MosipVerticleManager extends AbstractVerticle
 	 *            The address from which message needs to be consumed
 	 */
 	public void consume(MosipEventBus mosipEventBus, MessageBusAddress fromAddress) {
-		Vertx vertx = mosipEventBus.getEventbus();
-		vertx.eventBus().consumer(fromAddress.getAddress(), message -> {
-			logger.debug("received from " + fromAddress.toString() + " message " + message.body());
-			vertx.executeBlocking(future -> {
-				JsonObject jsonObject = (JsonObject) message.body();
-				MessageDTO messageDTO = jsonObject.mapTo(MessageDTO.class);
+		createConsumer(mosipEventBus.getEventbus(), fromAddress).start(body -> {
+			if (logger.isDebugEnabled()) {
+				logger.debug("received from " + fromAddress.toString() + " message " + body);
+			}
+			MessageDTO messageDTO = MessageDTOCodec.fromBody(body);
+			holdPacket(messageDTO);
+			try {
 				process(messageDTO);
-				future.complete();
-			}, false, res -> {
-				if (!res.succeeded()) {
-					logger.error("failure " + res.cause());
-				}
-			});
+			} finally {
+				releasePacket(messageDTO);
+			}
 		});
 	}
 
+	/**
+	 * Creates the consumer of an address, limited to the configured number of
+	 * messages in flight and waiting.
+	 *
+	 * @param vertx
+	 *            the vertx instance
+	 * @param fromAddress
+	 *            the address to consume
+	 * @return the consumer, not started
+	 */
+	protected BoundedMessageConsumer createConsumer(Vertx vertx, MessageBusAddress fromAddress) {
+		Executor executor = null;
+		if (IO_EXECUTOR.equalsIgnoreCase(consumerExecutor)) {
+			executor = ioExecutor(fromAddress.getAddress(), maxInFlight);
+		}
+		BoundedMessageConsumer consumer = new BoundedMessageConsumer(vertx, fromAddress.getAddress(), maxInFlight,
+				pendingCapacity, executor);
+		if (meterRegistry != null) {
+			consumer.bindTo(meterRegistry);
+		}
+		return consumer;
+	}
+
+	/**
+	 * Creates an executor with a thread for each message in flight, for stages
+	 * that mostly wait on I/O and would otherwise hold Vert.x worker threads.
+	 * Idle threads end after a minute.
+	 */
+	private static Executor ioExecutor(String address, int threads) {
+		AtomicInteger threadNumber = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, address + "-io-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Registers the {@link MessageDTOCodec} as the codec of {@link MessageDTO}
+	 * messages, so they can be sent and received in its binary layout.
+	 *
+	 * @param vertx
+	 *            the vertx instance
+	 */
+	public static void registerMessageCodec(Vertx vertx) {
+		vertx.eventBus().registerDefaultCodec(MessageDTO.class, new MessageDTOCodec());
+	}
+
+	/**
+	 * Holds the packet session of the message's registration id while the
+	 * message is processed.
+	 *
+	 * @param messageDTO
+	 *            the message to process
+	 */
+	private void holdPacket(MessageDTO messageDTO) {
+		if (packetManager != null && messageDTO.getRid() != null) {
+			packetManager.holdPacket(messageDTO.getRid());
+		}
+	}
+
+	/**
+	 * Releases the packet session held for the message's registration id.
+	 *
+	 * @param messageDTO
+	 *            the processed message
+	 */
+	private void releasePacket(MessageDTO messageDTO) {
+		if (packetManager != null && messageDTO.getRid() != null) {
+			packetManager.releasePacket(messageDTO.getRid());
+		}
+	}
+
 	public Integer getEventBusPort() {
 		return Integer.parseInt(eventBusPort);
 	}
 
+	/**
+	 * @return the meter registry, null if metrics are not enabled
+	 */
+	protected MeterRegistry getMeterRegistry() {
+		return meterRegistry;
+	}
+
 }
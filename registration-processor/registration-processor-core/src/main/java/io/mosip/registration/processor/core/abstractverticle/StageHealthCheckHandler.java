@@ -2,25 +2,27 @@ package io.mosip.registration.processor.core.abstractverticle;
 
 import static io.vertx.ext.healthchecks.impl.StatusHelper.isUp;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.security.PrivilegedExceptionAction;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
 
 import javax.jms.BytesMessage;
+import javax.jms.JMSException;
 import javax.jms.MessageConsumer;
 import javax.jms.MessageProducer;
 import javax.jms.Queue;
 import javax.jms.Session;
+import javax.sql.DataSource;
 
 import org.apache.activemq.ActiveMQConnectionFactory;
 import org.apache.activemq.command.ActiveMQBytesMessage;
@@ -43,6 +45,7 @@ import org.springframework.jdbc.support.JdbcUtils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.mosip.registration.processor.core.constant.HealthConstant;
 import io.netty.handler.codec.http.HttpResponse;
 import io.vertx.core.AsyncResult;
@@ -65,6 +68,12 @@ import xyz.capybara.clamav.commands.scan.result.ScanResult;
 import xyz.capybara.clamav.exceptions.ClamavException;
 
 /**
+ * Health check handler of a stage. Unless disabled, the checks run on a
+ * background schedule and a health request is answered from their last status,
+ * see {@link HealthProbeScheduler}. The checks reuse the data source of the
+ * stage, one broker connection, the HDFS file system and the ClamAV client
+ * between runs.
+ *
  * @author Mukul Puspam
  *
  */
@@ -90,6 +99,10 @@ public class StageHealthCheckHandler implements HealthCheckHandler {
 	private ClamavClient clamavClient;
 	private FileSystem configuredFileSystem;
 	private Path hadoopLibPath;
+	private DataSource dataSource;
+	private javax.jms.Connection queueConnection;
+	private long probeTimeoutMillis;
+	private HealthProbeScheduler probeScheduler;
 	private static final String HADOOP_HOME = "hadoop-lib";
 	private static final String WIN_UTIL = "winutils.exe";
 	private static final String CLASSPATH_PREFIX = "classpath:";
@@ -97,6 +110,8 @@ public class StageHealthCheckHandler implements HealthCheckHandler {
 
 	private static final String DEFAULT_QUERY = "SELECT 1";
 
+	private static final byte[] VIRUS_SCAN_TEST_DATA = "virus scan test".getBytes();
+
 	private StageHealthCheckHandler.JSONResultBuilder resultBuilder;
 	/**
 	 * The field for Logger
@@ -113,6 +128,22 @@ public class StageHealthCheckHandler implements HealthCheckHandler {
 	 */
 	public StageHealthCheckHandler(Vertx vertx, AuthProvider provider, ObjectMapper objectMapper,
 			Environment environment) {
+		this(vertx, provider, objectMapper, environment, null, null);
+	}
+
+	/**
+	 * @param vertx
+	 * @param provider
+	 * @param objectMapper
+	 * @param environment
+	 * @param dataSource
+	 *            the data source of the stage, null to connect to the configured
+	 *            url
+	 * @param meterRegistry
+	 *            the registry of the check metrics, may be null
+	 */
+	public StageHealthCheckHandler(Vertx vertx, AuthProvider provider, ObjectMapper objectMapper,
+			Environment environment, DataSource dataSource, MeterRegistry meterRegistry) {
 		this.healthChecks = new HealthChecksImpl(vertx);
 		this.authProvider = provider;
 		this.objectMapper = objectMapper;
@@ -132,17 +163,34 @@ public class StageHealthCheckHandler implements HealthCheckHandler {
 		this.queueBrokerUrl = environment.getProperty(HealthConstant.QUEUE_BROKER_URL);
 		this.currentWorkingDirPath = new File(System.getProperty(HealthConstant.CURRENT_WORKING_DIRECTORY));
 		this.resultBuilder = new StageHealthCheckHandler.JSONResultBuilder();
+		this.dataSource = dataSource;
+		this.probeTimeoutMillis = getProperty(environment, HealthConstant.PROBE_TIMEOUT, Long.class, 5000L);
+		if (getProperty(environment, HealthConstant.SNAPSHOT_ENABLED, Boolean.class, Boolean.TRUE)) {
+			this.probeScheduler = new HealthProbeScheduler(
+					getProperty(environment, HealthConstant.PROBE_THREADS, Integer.class, 2),
+					getProperty(environment, HealthConstant.PROBE_INTERVAL, Long.class, 30000L), probeTimeoutMillis,
+					getProperty(environment, HealthConstant.MAX_STALENESS, Long.class, 120000L));
+			if (meterRegistry != null) {
+				probeScheduler.bindTo(meterRegistry);
+			}
+		}
+	}
+
+	private static <T> T getProperty(Environment environment, String key, Class<T> type, T defaultValue) {
+		T value = environment.getProperty(key, type, defaultValue);
+		return value != null ? value : defaultValue;
 	}
 
 	@Override
 	public StageHealthCheckHandler register(String name, Handler<Future<Status>> procedure) {
-		healthChecks.register(name, procedure);
+		healthChecks.register(name, probeScheduler != null ? probeScheduler.register(name, procedure) : procedure);
 		return this;
 	}
 
 	@Override
 	public StageHealthCheckHandler register(String name, long timeout, Handler<Future<Status>> procedure) {
-		healthChecks.register(name, timeout, procedure);
+		healthChecks.register(name, timeout,
+				probeScheduler != null ? probeScheduler.register(name, procedure) : procedure);
 		return this;
 	}
 
@@ -150,24 +198,59 @@ public class StageHealthCheckHandler implements HealthCheckHandler {
 	 * @param future
 	 */
 	public void queueHealthChecker(Future<Status> future) {
+		Session session = null;
 		try {
-			ActiveMQConnectionFactory activeMQConnectionFactory = new ActiveMQConnectionFactory(queueUsername,
-					queuePassword, queueBrokerUrl);
-			javax.jms.Connection connection = activeMQConnectionFactory.createConnection();
-			connection.start();
-			Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			session = getQueueConnection().createSession(false, Session.AUTO_ACKNOWLEDGE);
 			Queue destination = session.createQueue(HealthConstant.QUEUE_ADDRESS);
 			MessageProducer messageProducer = session.createProducer(destination);
 			BytesMessage byteMessage = session.createBytesMessage();
 			byteMessage.writeObject((HealthConstant.PING).getBytes());
 			messageProducer.send(byteMessage);
 			MessageConsumer messageConsumer = session.createConsumer(destination);
-			String res = new String(((ActiveMQBytesMessage) messageConsumer.receive()).getContent().data);
+			ActiveMQBytesMessage reply = (ActiveMQBytesMessage) messageConsumer.receive(probeTimeoutMillis);
+			if (reply == null) {
+				throw new JMSException("no message received within " + probeTimeoutMillis + " ms");
+			}
+			String res = new String(reply.getContent().data);
 			final JsonObject result = resultBuilder.create().add(HealthConstant.RESPONSE, res).build();
 			future.complete(Status.OK(result));
 		} catch (Exception e) {
+			closeQueueConnection();
 			final JsonObject result = resultBuilder.create().add(HealthConstant.ERROR, e.getMessage()).build();
 			future.complete(Status.KO(result));
+		} finally {
+			if (session != null) {
+				try {
+					session.close();
+				} catch (JMSException e) {
+					LOGGER.error(e.getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the broker connection, opened on first use
+	 * @throws JMSException
+	 */
+	private synchronized javax.jms.Connection getQueueConnection() throws JMSException {
+		if (queueConnection == null) {
+			javax.jms.Connection connection = new ActiveMQConnectionFactory(queueUsername, queuePassword,
+					queueBrokerUrl).createConnection();
+			connection.start();
+			queueConnection = connection;
+		}
+		return queueConnection;
+	}
+
+	private synchronized void closeQueueConnection() {
+		if (queueConnection != null) {
+			try {
+				queueConnection.close();
+			} catch (JMSException e) {
+				LOGGER.error(e.getMessage());
+			}
+			queueConnection = null;
 		}
 	}
 
@@ -175,6 +258,31 @@ public class StageHealthCheckHandler implements HealthCheckHandler {
 	 * @param future
 	 */
 	public void hdfsHealthChecker(Future<Status> future) {
+		try {
+			org.apache.hadoop.fs.Path path = new org.apache.hadoop.fs.Path(
+					FilenameUtils.concat("1000".toUpperCase(), "1000".toUpperCase()));
+
+			final JsonObject result = resultBuilder.create()
+					.add(HealthConstant.RESPONSE, getFileSystem().exists(path)).build();
+			future.complete(Status.OK(result));
+
+		} catch (Exception e) {
+			final JsonObject result = resultBuilder.create().add(HealthConstant.ERROR, e.getMessage()).build();
+			future.complete(Status.KO(result));
+		}
+	}
+
+	/**
+	 * @return the file system, created and logged in on first use
+	 * @throws Exception
+	 */
+	private synchronized FileSystem getFileSystem() throws Exception {
+		if (configuredFileSystem != null) {
+			if (isAuthEnable) {
+				UserGroupInformation.getLoginUser().checkTGTAndReloginFromKeytab();
+			}
+			return configuredFileSystem;
+		}
 		Configuration configuration = null;
 		try {
 			configuration = new Configuration();
@@ -202,17 +310,10 @@ public class StageHealthCheckHandler implements HealthCheckHandler {
 			} else {
 				configuredFileSystem = getDefaultConfiguredFileSystem(configuration);
 			}
-
-			org.apache.hadoop.fs.Path path = new org.apache.hadoop.fs.Path(
-					FilenameUtils.concat("1000".toUpperCase(), "1000".toUpperCase()));
-
-			final JsonObject result = resultBuilder.create()
-					.add(HealthConstant.RESPONSE, configuredFileSystem.exists(path)).build();
-			future.complete(Status.OK(result));
-
+			return configuredFileSystem;
 		} catch (Exception e) {
-			final JsonObject result = resultBuilder.create().add(HealthConstant.ERROR, e.getMessage()).build();
-			future.complete(Status.KO(result));
+			configuredFileSystem = null;
+			throw e;
 		}
 	}
 
@@ -275,19 +376,16 @@ public class StageHealthCheckHandler implements HealthCheckHandler {
 	 */
 	public void virusScanHealthChecker(Future<Status> future) {
 		try {
-			this.clamavClient = new ClamavClient(clamavHost, clamavPort);
-			ScanResult scanResult;
-
-			File file = new File("virus_scan_test.txt");
-			String fileData = "virus scan test";
-			Files.write(Paths.get("virus_scan_test.txt"), fileData.getBytes());
-			scanResult = this.clamavClient.scan(new FileInputStream(file));
+			if (this.clamavClient == null) {
+				this.clamavClient = new ClamavClient(clamavHost, clamavPort);
+			}
+			ScanResult scanResult = this.clamavClient.scan(new ByteArrayInputStream(VIRUS_SCAN_TEST_DATA));
 
 			final JsonObject result = resultBuilder.create().add(HealthConstant.RESPONSE, scanResult.getStatus().name())
 					.build();
 			future.complete(Status.OK(result));
 
-		} catch (ClamavException | IOException e) {
+		} catch (ClamavException e) {
 			final JsonObject result = resultBuilder.create().add(HealthConstant.ERROR, e.getMessage()).build();
 			future.complete(Status.KO(result));
 		}
@@ -301,14 +399,20 @@ public class StageHealthCheckHandler implements HealthCheckHandler {
 	 */
 	public void databaseHealthChecker(Future<Status> future) {
 
-		try {
-			Class.forName(driver);
-		} catch (ClassNotFoundException exception) {
-			final JsonObject result = resultBuilder.create().add(HealthConstant.ERROR, exception.getMessage()).build();
-			future.complete(Status.KO(result));
+		if (dataSource == null) {
+			try {
+				Class.forName(driver);
+			} catch (ClassNotFoundException exception) {
+				final JsonObject result = resultBuilder.create().add(HealthConstant.ERROR, exception.getMessage())
+						.build();
+				future.complete(Status.KO(result));
+				return;
+			}
 		}
-		try (Connection conn = DriverManager.getConnection(url, username, password)) {
+		try (Connection conn = dataSource != null ? dataSource.getConnection()
+				: DriverManager.getConnection(url, username, password)) {
 			try (final Statement statement = conn.createStatement()) {
+				statement.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(probeTimeoutMillis)));
 
 				try (final ResultSet rs = statement.executeQuery(DEFAULT_QUERY)) {
 
@@ -516,9 +620,22 @@ public class StageHealthCheckHandler implements HealthCheckHandler {
 	@Override
 	public synchronized StageHealthCheckHandler unregister(String name) {
 		healthChecks.unregister(name);
+		if (probeScheduler != null) {
+			probeScheduler.unregister(name);
+		}
 		return this;
 	}
 
+	/**
+	 * Stops the scheduled checks and closes the broker connection.
+	 */
+	public void close() {
+		if (probeScheduler != null) {
+			probeScheduler.stop();
+		}
+		closeQueueConnection();
+	}
+
 	/**
 	 * Check if error has occurred or not
 	 * 
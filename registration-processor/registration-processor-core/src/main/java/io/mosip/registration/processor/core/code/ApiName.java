@@ -166,6 +166,9 @@ public enum ApiName {
 	/** The decryption api from DMZ *. */
 	DMZCRYPTOMANAGERDECRYPT,
 
+	/** The symmetric key decryption api of key manager *. */
+	KEYMANAGERDECRYPT,
+
 	/** The AUDIT api from DMZ *. */
 	DMZAUDIT,
 
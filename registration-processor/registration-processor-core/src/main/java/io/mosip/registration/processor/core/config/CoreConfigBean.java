@@ -23,6 +23,7 @@ import io.mosip.registration.processor.core.spi.queue.MosipQueueConnectionFactor
 import io.mosip.registration.processor.core.spi.queue.MosipQueueManager;
 import io.mosip.registration.processor.core.token.validation.TokenValidator;
 import io.mosip.registration.processor.core.util.DigitalSignatureUtility;
+import io.mosip.registration.processor.core.util.LocalSignatureEngine;
 import io.mosip.registration.processor.core.util.RegistrationExceptionMapperUtil;
 import io.vertx.config.ConfigRetriever;
 import io.vertx.config.ConfigRetrieverOptions;
@@ -151,6 +152,11 @@ public class CoreConfigBean {
 		return new DigitalSignatureUtility();
 	}
 
+	@Bean
+	public LocalSignatureEngine getLocalSignatureEngine() {
+		return new LocalSignatureEngine();
+	}
+
 	@Bean
 	public LogDescription getLogDescription() {
 		return new LogDescription();
@@ -35,5 +35,10 @@ public class HealthConstant {
 	public static final String QUEUE_PASSWORD = "registration.processor.queue.password";
 	public static final String QUEUE_BROKER_URL = "registration.processor.queue.url";
 	public static final String CURRENT_WORKING_DIRECTORY= "user.dir";
+	public static final String SNAPSHOT_ENABLED = "registration.processor.health.snapshot.enabled";
+	public static final String PROBE_INTERVAL = "registration.processor.health.probe.interval-ms";
+	public static final String PROBE_TIMEOUT = "registration.processor.health.probe.timeout-ms";
+	public static final String PROBE_THREADS = "registration.processor.health.probe.threads";
+	public static final String MAX_STALENESS = "registration.processor.health.max-staleness-ms";
 	
 }
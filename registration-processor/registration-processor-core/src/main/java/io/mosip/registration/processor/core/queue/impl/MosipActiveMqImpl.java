@@ -1,20 +1,17 @@
 package io.mosip.registration.processor.core.queue.impl;
 
-import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import javax.jms.BytesMessage;
-import javax.jms.Connection;
-import javax.jms.Destination;
-import javax.jms.ExceptionListener;
+import javax.annotation.PreDestroy;
 import javax.jms.JMSException;
-import javax.jms.MessageConsumer;
-import javax.jms.MessageProducer;
-import javax.jms.Session;
 
-import org.apache.activemq.ActiveMQConnection;
 import org.apache.activemq.ActiveMQConnectionFactory;
-import org.apache.activemq.transport.TransportListener;
+import org.springframework.beans.factory.annotation.Value;
 
+import io.mosip.kernel.core.exception.ExceptionUtils;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.registration.processor.core.constant.LoggerFileConstant;
 import io.mosip.registration.processor.core.exception.util.PlatformErrorMessages;
@@ -26,12 +23,10 @@ import io.mosip.registration.processor.core.queue.factory.QueueListenerFactory;
 import io.mosip.registration.processor.core.queue.impl.exception.ConnectionUnavailableException;
 import io.mosip.registration.processor.core.queue.impl.exception.InvalidConnectionException;
 import io.mosip.registration.processor.core.spi.queue.MosipQueueManager;
-//need to be removed - added for logging
-import org.apache.commons.lang.exception.ExceptionUtils;
-
 
 /**
-* This class is ActiveMQ implementation for Mosip Queue
+* This class is ActiveMQ implementation for Mosip Queue. Connections are shared
+* per broker, senders borrow a pooled session and its cached producer.
 * 
  * @author Mukul Puspam
 * 
@@ -39,138 +34,143 @@ import org.apache.commons.lang.exception.ExceptionUtils;
 */
 public class MosipActiveMqImpl implements MosipQueueManager<MosipQueue, byte[]> {
 
-              /** The reg proc logger. */
-              private static Logger regProcLogger = RegProcessorLogger.getLogger(MosipActiveMqImpl.class);
-
-              private Connection connection;
-              private Session session;
-              private Destination destination;
-              private static final String LINE_SEPERATOR = "----------------";
-
-              /**
-              * The method to set up session and destination
-              * 
-               * @param mosipActiveMq The Mosip ActiveMq instance
-              */
-	private void setup(MosipActiveMq mosipActiveMq) {
-		regProcLogger.debug(LINE_SEPERATOR, LINE_SEPERATOR, "In ActiveMq setUp ", LINE_SEPERATOR);
+	/** The reg proc logger. */
+	private static Logger regProcLogger = RegProcessorLogger.getLogger(MosipActiveMqImpl.class);
+
+	/** The sessions a broker connection keeps for sending. */
+	@Value("${registration.processor.queue.session-pool-size:8}")
+	private int sessionPoolSize = 8;
+
+	/** How long a sender waits for a free session. */
+	@Value("${registration.processor.queue.session-borrow-timeout-ms:5000}")
+	private long sessionBorrowTimeoutMillis = 5000;
+
+	/** The queue prefetch of consumers, negative keeps the broker url's. */
+	@Value("${registration.processor.queue.consumer-prefetch:-1}")
+	private int consumerPrefetch = -1;
+
+	/** The retries of a send that failed with the connection. */
+	@Value("${registration.processor.queue.send-retries:1}")
+	private int sendRetries = 1;
+
+	/** The delay between attempts to reconnect consumers. */
+	@Value("${registration.processor.queue.reconnect-interval-ms:5000}")
+	private long reconnectIntervalMillis = 5000;
+
+	/** The connections per broker url and user. */
+	private final Map<String, PooledActiveMqConnection> connections = new ConcurrentHashMap<>();
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * io.mosip.registration.processor.core.spi.queue.MosipQueueManager#send(java.
+	 * lang.Object, java.lang.Object, java.lang.String)
+	 */
+	@Override
+	public Boolean send(MosipQueue mosipQueue, byte[] message, String address) {
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"MosipActiveMqImpl::send()::entry");
+		send(mosipQueue, Collections.singletonList(message), address, false);
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"MosipActiveMqImpl::send()::exit");
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * io.mosip.registration.processor.core.spi.queue.MosipQueueManager#sendBatch(
+	 * java.lang.Object, java.util.List, java.lang.String)
+	 */
+	@Override
+	public Boolean sendBatch(MosipQueue mosipQueue, List<byte[]> messages, String address) {
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"MosipActiveMqImpl::sendBatch()::entry");
+		if (!messages.isEmpty()) {
+			send(mosipQueue, messages, address, true);
+		}
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"MosipActiveMqImpl::sendBatch()::exit");
+		return true;
+	}
+
+	private void send(MosipQueue mosipQueue, List<byte[]> messages, String address, boolean transacted) {
+		PooledActiveMqConnection pooledConnection = getConnection(mosipQueue, "send");
 		try {
-			ActiveMQConnection activemQConn = (ActiveMQConnection) connection;
-			if (activemQConn == null || activemQConn.isClosed()) {
-				regProcLogger.debug(LINE_SEPERATOR, LINE_SEPERATOR, "-----INITIAL CONNECTION-----",
-						LINE_SEPERATOR + this.connection);
-				regProcLogger.debug(LINE_SEPERATOR, LINE_SEPERATOR, "-----INITIAL SESSION-----",
-						LINE_SEPERATOR + this.session);
-				connection = mosipActiveMq.getActiveMQConnectionFactory().createConnection();
-				activemQConn = (ActiveMQConnection) connection;
-				activemQConn.addTransportListener(new TransportExceptionListener());
-				if (session == null) {
-					connection.start();
-					this.session = this.connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-					regProcLogger.debug(LINE_SEPERATOR, LINE_SEPERATOR, "-----NEW CONNECTION-----",
-							LINE_SEPERATOR + this.connection);
-					regProcLogger.debug(LINE_SEPERATOR, LINE_SEPERATOR, "-----NEW SESSION-----",
-							LINE_SEPERATOR + this.session);
-				}
-			}
+			pooledConnection.send(address, messages, transacted);
+		} catch (JMSException e) {
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					"", "MosipActiveMqImpl::send():: error with error message "
+							+ PlatformErrorMessages.RPR_MQI_UNABLE_TO_SEND_TO_QUEUE.getMessage() + " "
+							+ ExceptionUtils.getStackTrace(e));
+			throw new ConnectionUnavailableException(PlatformErrorMessages.RPR_MQI_UNABLE_TO_SEND_TO_QUEUE.getMessage());
+		}
+	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * io.mosip.registration.processor.core.spi.queue.MosipQueueManager#consume(java
+	 * .lang.Object, java.lang.String)
+	 */
+	@Override
+	public byte[] consume(MosipQueue mosipQueue, String address, QueueListener object) {
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"MosipActiveMqImpl::consume()::entry");
+		PooledActiveMqConnection pooledConnection = getConnection(mosipQueue, "consume");
+		try {
+			pooledConnection.consume(address, QueueListenerFactory.getListener(mosipQueue.getQueueName(), object));
 		} catch (JMSException e) {
-			regProcLogger.error(LINE_SEPERATOR, LINE_SEPERATOR, "-----EXCEPTION While starting connection -----",
-					LINE_SEPERATOR + ExceptionUtils.getFullStackTrace(e));
-			throw new ConnectionUnavailableException(PlatformErrorMessages.RPR_MQI_CONNECTION_UNAVAILABLE.getMessage(),
-					e);
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					"", "MosipActiveMqImpl::consume():: error with error message "
+							+ PlatformErrorMessages.RPR_MQI_UNABLE_TO_CONSUME_FROM_QUEUE.getMessage() + " "
+							+ ExceptionUtils.getStackTrace(e));
+			throw new ConnectionUnavailableException(
+					PlatformErrorMessages.RPR_MQI_UNABLE_TO_CONSUME_FROM_QUEUE.getMessage());
 		}
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"MosipActiveMqImpl::consume()::exit");
 
+		return null;
 	}
 
-              /*
-              * (non-Javadoc)
-              * 
-               * @see
-              * io.mosip.registration.processor.core.spi.queue.MosipQueueManager#send(java.
-              * lang.Object, java.lang.Object, java.lang.String)
-              */
-              @Override
-              public Boolean send(MosipQueue mosipQueue, byte[] message, String address) {
-                            regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
-                                                          "", "MosipActiveMqImpl::send()::entry");
-
-                             boolean flag = false;
-                             MosipActiveMq mosipActiveMq = (MosipActiveMq) mosipQueue;
-                             ActiveMQConnectionFactory activeMQConnectionFactory = mosipActiveMq.getActiveMQConnectionFactory();
-                             if (activeMQConnectionFactory == null) {
-                                           regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
-                                                                        "", "MosipActiveMqImpl::send():: error with error message "
-                                                                                                     + PlatformErrorMessages.RPR_MQI_INVALID_CONNECTION.getMessage());
-                                           throw new InvalidConnectionException(PlatformErrorMessages.RPR_MQI_INVALID_CONNECTION.getMessage());
-                             }
-                             setup(mosipActiveMq);
-                             try {
-                                           destination = session.createQueue(address);
-                                           MessageProducer messageProducer = session.createProducer(destination);
-                                           BytesMessage byteMessage = session.createBytesMessage();
-                                           byteMessage.writeObject(message);
-                                           messageProducer.send(byteMessage);
-                                           flag = true;
-                             } catch (JMSException e) {
-                                           regProcLogger.error("*******SEND EXCEPTION *****", "*******SEND EXCEPTION *****",
-                                                                        "*******SEND EXCEPTION *****", ExceptionUtils.getFullStackTrace(e));
-                                           regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
-                                                                        "", "MosipActiveMqImpl::send():: error with error message "
-                                                                                                     + PlatformErrorMessages.RPR_MQI_UNABLE_TO_SEND_TO_QUEUE.getMessage());
-                                           throw new ConnectionUnavailableException(
-                                                          PlatformErrorMessages.RPR_MQI_UNABLE_TO_SEND_TO_QUEUE.getMessage());
-                             }
-                            regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
-                                                          "", "MosipActiveMqImpl::send()::exit");
-
-                             return flag;
-              }
-
-              /*
-              * (non-Javadoc)
-              * 
-               * @see
-              * io.mosip.registration.processor.core.spi.queue.MosipQueueManager#consume(java
-              * .lang.Object, java.lang.String)
-              */
-              @Override
-              public byte[] consume(MosipQueue mosipQueue, String address, QueueListener object) {
-                            regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
-                                                          "", "MosipActiveMqImpl::consume()::entry");
-
-                             MosipActiveMq mosipActiveMq = (MosipActiveMq) mosipQueue;
-                             ActiveMQConnectionFactory activeMQConnectionFactory = mosipActiveMq.getActiveMQConnectionFactory();
-                             if (activeMQConnectionFactory == null) {
-                                           regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
-                                                                        "", "MosipActiveMqImpl::consume():: error with error message "
-                                                                                                     + PlatformErrorMessages.RPR_MQI_INVALID_CONNECTION.getMessage());
-                                           
-                                           throw new InvalidConnectionException(PlatformErrorMessages.RPR_MQI_INVALID_CONNECTION.getMessage());
-                             }
-                             if (destination == null) {
-                                           setup(mosipActiveMq);
-                             }
-                             MessageConsumer consumer;
-                             try {
-                                           destination = session.createQueue(address);
-                                           consumer = session.createConsumer(destination);
-                             consumer.setMessageListener(QueueListenerFactory.getListener(mosipQueue.getQueueName(), object));
-                             } catch (JMSException e) {
-                                           
-                                           regProcLogger.error("*******CONSUME EXCEPTION *****", "*******CONSUME EXCEPTION *****",
-                                                                        "*******CONSUME EXCEPTION *****", ExceptionUtils.getFullStackTrace(e));                                  
-                                           regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
-                                                                        "", "MosipActiveMqImpl::consume():: error with error message "
-                                                                                                     + PlatformErrorMessages.RPR_MQI_UNABLE_TO_CONSUME_FROM_QUEUE.getMessage());
-                             
-                                           throw new ConnectionUnavailableException(
-                                                          PlatformErrorMessages.RPR_MQI_UNABLE_TO_CONSUME_FROM_QUEUE.getMessage());
-                             }
-                            regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
-                                                          "", "MosipActiveMqImpl::consume()::exit");
-
-                             return null;
-              }
+	/**
+	 * Closes the broker connections.
+	 */
+	@PreDestroy
+	public void close() {
+		connections.values().forEach(PooledActiveMqConnection::close);
+		connections.clear();
+	}
 
+	/**
+	 * Gets the shared connection to the broker of the queue, one per broker url
+	 * and user whichever {@link MosipActiveMq} instance asks for it.
+	 */
+	private PooledActiveMqConnection getConnection(MosipQueue mosipQueue, String operation) {
+		MosipActiveMq mosipActiveMq = (MosipActiveMq) mosipQueue;
+		ActiveMQConnectionFactory activeMQConnectionFactory = mosipActiveMq.getActiveMQConnectionFactory();
+		if (activeMQConnectionFactory == null) {
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					"", "MosipActiveMqImpl::" + operation + "():: error with error message "
+							+ PlatformErrorMessages.RPR_MQI_INVALID_CONNECTION.getMessage());
+			throw new InvalidConnectionException(PlatformErrorMessages.RPR_MQI_INVALID_CONNECTION.getMessage());
+		}
+		String key = mosipActiveMq.getBrokerUrl() + "|" + mosipActiveMq.getUsername();
+		return connections.computeIfAbsent(key,
+				k -> new PooledActiveMqConnection(activeMQConnectionFactory, mosipActiveMq.getBrokerUrl(),
+						sessionPoolSize, consumerPrefetch, sendRetries, sessionBorrowTimeoutMillis,
+						reconnectIntervalMillis));
+	}
+
+	/**
+	 * Gets the connection kept for the broker of the queue, for tests.
+	 */
+	PooledActiveMqConnection getPooledConnection(MosipQueue mosipQueue) {
+		MosipActiveMq mosipActiveMq = (MosipActiveMq) mosipQueue;
+		return connections.get(mosipActiveMq.getBrokerUrl() + "|" + mosipActiveMq.getUsername());
+	}
 }
@@ -0,0 +1,404 @@
+package io.mosip.registration.processor.core.queue.impl;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.apache.activemq.ActiveMQConnection;
+import org.apache.activemq.ActiveMQConnectionFactory;
+
+import io.mosip.kernel.core.exception.ExceptionUtils;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+
+/**
+ * One connection to an ActiveMQ broker shared by all threads, with a bounded
+ * pool of sessions for sending and a dedicated session per consumer.
+ * <p>
+ * A JMS session may only be used by one thread at a time, so a sender borrows
+ * a session, sends through the producer the session keeps for the address and
+ * gives the session back. Batches are sent in a transacted session and
+ * committed once. When the connection fails it is dropped: the pooled sessions
+ * are closed as they come back, a failed send is retried once on a new
+ * connection and consumers are opened again on the new connection by a
+ * background reconnect.
+ *
+ * @since 1.0.9
+ */
+class PooledActiveMqConnection {
+
+	private static Logger regProcLogger = RegProcessorLogger.getLogger(PooledActiveMqConnection.class);
+
+	/** The producers kept per session, the least recently used is closed. */
+	private static final int MAX_PRODUCERS_PER_SESSION = 32;
+
+	private final ActiveMQConnectionFactory connectionFactory;
+
+	private final String brokerUrl;
+
+	private final int consumerPrefetch;
+
+	private final int sendRetries;
+
+	private final long borrowTimeoutMillis;
+
+	private final long reconnectIntervalMillis;
+
+	private final Object lock = new Object();
+
+	private volatile ActiveMQConnection connection;
+
+	private final Semaphore sessionPermits;
+
+	private final BlockingQueue<PooledSession> idleSessions = new LinkedBlockingQueue<>();
+
+	private final BlockingQueue<PooledSession> idleTransactedSessions = new LinkedBlockingQueue<>();
+
+	private final List<ConsumerRegistration> consumers = new CopyOnWriteArrayList<>();
+
+	private final ScheduledExecutorService reconnectExecutor;
+
+	private final AtomicBoolean reconnectScheduled = new AtomicBoolean();
+
+	private volatile boolean closed;
+
+	private final AtomicLong connectCount = new AtomicLong();
+
+	private final AtomicLong retryCount = new AtomicLong();
+
+	PooledActiveMqConnection(ActiveMQConnectionFactory connectionFactory, String brokerUrl, int maxSessions,
+			int consumerPrefetch, int sendRetries, long borrowTimeoutMillis, long reconnectIntervalMillis) {
+		this.connectionFactory = connectionFactory;
+		this.brokerUrl = brokerUrl;
+		this.consumerPrefetch = consumerPrefetch;
+		this.sendRetries = sendRetries;
+		this.borrowTimeoutMillis = borrowTimeoutMillis;
+		this.reconnectIntervalMillis = reconnectIntervalMillis;
+		this.sessionPermits = new Semaphore(Math.max(1, maxSessions));
+		this.reconnectExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "activemq-reconnect");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Sends the messages to the queue of the address, in one transaction if
+	 * asked to. Retried on a new connection when the connection failed.
+	 *
+	 * @param address    the queue address
+	 * @param messages   the messages
+	 * @param transacted whether the messages are committed together
+	 * @throws JMSException if the messages could not be sent
+	 */
+	void send(String address, List<byte[]> messages, boolean transacted) throws JMSException {
+		for (int attempt = 0;; attempt++) {
+			PooledSession pooledSession = borrow(transacted);
+			boolean sent = false;
+			try {
+				pooledSession.send(address, messages);
+				sent = true;
+				return;
+			} catch (JMSException e) {
+				if (attempt >= sendRetries || closed) {
+					throw e;
+				}
+				retryCount.incrementAndGet();
+				regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
+						brokerUrl, "send to " + address + " failed, retrying : " + e.getMessage());
+				ActiveMQConnection failed = pooledSession.connection;
+				if (!isUsable(failed) || e.getCause() instanceof IOException) {
+					dropConnection(failed);
+				}
+			} finally {
+				giveBack(pooledSession, sent);
+			}
+		}
+	}
+
+	/**
+	 * Opens a consumer on the queue of the address in its own session. The
+	 * consumer is opened again whenever the connection is replaced.
+	 *
+	 * @param address  the queue address
+	 * @param listener the message listener
+	 * @throws JMSException if the consumer could not be opened
+	 */
+	void consume(String address, MessageListener listener) throws JMSException {
+		ConsumerRegistration registration = new ConsumerRegistration(address, listener);
+		synchronized (lock) {
+			registration.open(connection());
+			consumers.add(registration);
+		}
+	}
+
+	long getConnectCount() {
+		return connectCount.get();
+	}
+
+	long getRetryCount() {
+		return retryCount.get();
+	}
+
+	int getIdleSessions() {
+		return idleSessions.size() + idleTransactedSessions.size();
+	}
+
+	void close() {
+		closed = true;
+		reconnectExecutor.shutdownNow();
+		synchronized (lock) {
+			consumers.clear();
+			idleSessions.clear();
+			idleTransactedSessions.clear();
+			if (connection != null) {
+				closeQuietly(connection);
+				connection = null;
+			}
+		}
+	}
+
+	private PooledSession borrow(boolean transacted) throws JMSException {
+		boolean acquired;
+		try {
+			acquired = sessionPermits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		if (!acquired) {
+			throw new JMSException("No session free on " + brokerUrl + " within " + borrowTimeoutMillis + " ms");
+		}
+		try {
+			ActiveMQConnection current = connection();
+			BlockingQueue<PooledSession> idle = transacted ? idleTransactedSessions : idleSessions;
+			PooledSession pooledSession;
+			while ((pooledSession = idle.poll()) != null) {
+				if (pooledSession.connection == current) {
+					return pooledSession;
+				}
+				pooledSession.close();
+			}
+			return new PooledSession(current, transacted);
+		} catch (JMSException | RuntimeException e) {
+			sessionPermits.release();
+			throw e;
+		}
+	}
+
+	private void giveBack(PooledSession pooledSession, boolean reusable) {
+		if (reusable && !closed && pooledSession.connection == connection) {
+			(pooledSession.transacted ? idleTransactedSessions : idleSessions).offer(pooledSession);
+		} else {
+			pooledSession.close();
+		}
+		sessionPermits.release();
+	}
+
+	private ActiveMQConnection connection() throws JMSException {
+		ActiveMQConnection current = connection;
+		if (isUsable(current)) {
+			return current;
+		}
+		synchronized (lock) {
+			current = connection;
+			if (isUsable(current)) {
+				return current;
+			}
+			if (closed) {
+				throw new JMSException("Connection to " + brokerUrl + " is closed");
+			}
+			if (current != null) {
+				closeQuietly(current);
+				connection = null;
+			}
+			ActiveMQConnection created = (ActiveMQConnection) connectionFactory.createConnection();
+			try {
+				created.addTransportListener(new TransportExceptionListener());
+				created.setExceptionListener(e -> onConnectionFailure(created, e));
+				if (consumerPrefetch >= 0) {
+					created.getPrefetchPolicy().setQueuePrefetch(consumerPrefetch);
+				}
+				created.start();
+				for (ConsumerRegistration registration : consumers) {
+					registration.open(created);
+				}
+			} catch (JMSException | RuntimeException e) {
+				closeQuietly(created);
+				throw e;
+			}
+			connectCount.incrementAndGet();
+			regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
+					brokerUrl, "connected, consumers opened : " + consumers.size());
+			connection = created;
+			return created;
+		}
+	}
+
+	private static boolean isUsable(ActiveMQConnection connection) {
+		return connection != null && !connection.isClosed() && !connection.isClosing()
+				&& !connection.isTransportFailed();
+	}
+
+	private void onConnectionFailure(ActiveMQConnection failed, JMSException e) {
+		regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), brokerUrl,
+				"connection failed : " + ExceptionUtils.getStackTrace(e));
+		dropConnection(failed);
+	}
+
+	/**
+	 * Forgets the failed connection and closes it off the JMS dispatch thread.
+	 * When consumers are registered the connection is opened again until the
+	 * broker is back, otherwise the next send opens it.
+	 */
+	private void dropConnection(ActiveMQConnection failed) {
+		synchronized (lock) {
+			if (connection == failed) {
+				connection = null;
+			}
+		}
+		if (closed) {
+			return;
+		}
+		reconnectExecutor.execute(() -> closeQuietly(failed));
+		scheduleReconnect(0);
+	}
+
+	private void scheduleReconnect(long delayMillis) {
+		if (consumers.isEmpty() || closed || !reconnectScheduled.compareAndSet(false, true)) {
+			return;
+		}
+		reconnectExecutor.schedule(() -> {
+			reconnectScheduled.set(false);
+			try {
+				connection();
+			} catch (JMSException | RuntimeException e) {
+				regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
+						brokerUrl, "reconnect failed, next attempt in " + reconnectIntervalMillis + " ms : "
+								+ e.getMessage());
+				scheduleReconnect(reconnectIntervalMillis);
+			}
+		}, delayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	private static void closeQuietly(ActiveMQConnection connection) {
+		try {
+			connection.close();
+		} catch (JMSException | RuntimeException e) {
+			regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+					"closing connection failed : " + e.getMessage());
+		}
+	}
+
+	/**
+	 * A session used by one thread at a time, with its producers per address.
+	 */
+	private static class PooledSession {
+
+		private final ActiveMQConnection connection;
+
+		private final boolean transacted;
+
+		private final Session session;
+
+		private final Map<String, MessageProducer> producers = new LinkedHashMap<String, MessageProducer>(16, 0.75f,
+				true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, MessageProducer> eldest) {
+				if (size() <= MAX_PRODUCERS_PER_SESSION) {
+					return false;
+				}
+				try {
+					eldest.getValue().close();
+				} catch (JMSException e) {
+					// the session is closed with the producer anyway
+				}
+				return true;
+			}
+		};
+
+		PooledSession(ActiveMQConnection connection, boolean transacted) throws JMSException {
+			this.connection = connection;
+			this.transacted = transacted;
+			this.session = connection.createSession(transacted,
+					transacted ? Session.SESSION_TRANSACTED : Session.AUTO_ACKNOWLEDGE);
+		}
+
+		void send(String address, List<byte[]> messages) throws JMSException {
+			MessageProducer producer = producers.get(address);
+			if (producer == null) {
+				producer = session.createProducer(session.createQueue(address));
+				producers.put(address, producer);
+			}
+			try {
+				for (byte[] message : messages) {
+					BytesMessage bytesMessage = session.createBytesMessage();
+					bytesMessage.writeObject(message);
+					producer.send(bytesMessage);
+				}
+				if (transacted) {
+					session.commit();
+				}
+			} catch (JMSException e) {
+				if (transacted) {
+					try {
+						session.rollback();
+					} catch (JMSException | RuntimeException rollbackException) {
+						// the session is dropped after a failed send
+					}
+				}
+				throw e;
+			}
+		}
+
+		void close() {
+			try {
+				session.close();
+			} catch (JMSException | RuntimeException e) {
+				// the connection may be gone already
+			}
+		}
+	}
+
+	/**
+	 * A consumer opened on every connection until the pool is closed.
+	 */
+	private static class ConsumerRegistration {
+
+		private final String address;
+
+		private final MessageListener listener;
+
+		ConsumerRegistration(String address, MessageListener listener) {
+			this.address = address;
+			this.listener = listener;
+		}
+
+		void open(ActiveMQConnection connection) throws JMSException {
+			Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			MessageConsumer consumer = session.createConsumer(session.createQueue(address));
+			consumer.setMessageListener(listener);
+		}
+	}
+}
@@ -85,4 +85,22 @@ public interface PacketManager {
 	 * @return true, if is packet present
 	 */
 	public boolean isPacketPresent(String id);
+
+	/**
+	 * Keeps a decrypted copy of the packet for the id, once read, until
+	 * {@link #releasePacket(String)} is called, so that the reads in between
+	 * decrypt the packet once. Outside a hold every read fetches and decrypts
+	 * the packet. Callers release the hold in a finally block.
+	 *
+	 * @param id the id
+	 */
+	public void holdPacket(String id);
+
+	/**
+	 * Releases a hold taken with {@link #holdPacket(String)}. The decrypted copy
+	 * of the packet is dropped once the last hold for the id is released.
+	 *
+	 * @param id the id
+	 */
+	public void releasePacket(String id);
 }
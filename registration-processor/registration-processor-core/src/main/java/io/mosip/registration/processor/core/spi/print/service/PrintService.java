@@ -1,5 +1,9 @@
 package io.mosip.registration.processor.core.spi.print.service;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
 import io.mosip.registration.processor.core.constant.IdType;
 
 /**
@@ -27,4 +31,31 @@ public interface PrintService<T> {
 	 */
 	public T getDocuments(IdType type, String idValue, String cardType, boolean isPasswordProtected);
 
+	/**
+	 * Renders the documents of a card and writes them to the spool directory,
+	 * so that the card is not held in memory until it is sent.
+	 *
+	 * @param type
+	 *            the type
+	 * @param idValue
+	 *            the id value
+	 * @param cardType
+	 *            the card type
+	 * @param isPasswordProtected
+	 *            the is password protected
+	 * @return the spooled files by document name
+	 * @throws IOException
+	 *             if a document can not be written
+	 */
+	public Map<String, Path> spoolDocuments(IdType type, String idValue, String cardType,
+			boolean isPasswordProtected) throws IOException;
+
+	/**
+	 * Deletes the spooled documents of a card.
+	 *
+	 * @param spooledDocuments
+	 *            the spooled files by document name
+	 */
+	public void deleteSpooledDocuments(Map<String, Path> spooledDocuments);
+
 }
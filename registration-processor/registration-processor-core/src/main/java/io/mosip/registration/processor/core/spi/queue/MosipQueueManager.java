@@ -1,5 +1,7 @@
 package io.mosip.registration.processor.core.spi.queue;
 
+import java.util.List;
+
 import io.mosip.registration.processor.core.queue.factory.QueueListener;
 
 /**
@@ -20,6 +22,23 @@ public interface MosipQueueManager<T, V>{
 	 */
 	public Boolean send(T mosipQueue, V message, String address);
 
+	/**
+	 * This method sends messages on a given Address, one by one unless the
+	 * implementation can send them in one transaction
+	 * 
+	 * @param mosipQueue The mosipQueue instance
+	 * @param messages   The messages
+	 * @param address    The address
+	 * @return True if messages are sent, false otherwise
+	 */
+	public default Boolean sendBatch(T mosipQueue, List<V> messages, String address) {
+		boolean sent = true;
+		for (V message : messages) {
+			sent &= send(mosipQueue, message, address);
+		}
+		return sent;
+	}
+
 	/**
 	 * This method consumes a message from a given address
 	 * 
@@ -1,6 +1,7 @@
 package io.mosip.registration.processor.core.util;
 
 import java.io.IOException;
+import java.security.GeneralSecurityException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -38,14 +39,59 @@ public class DigitalSignatureUtility {
 	@Autowired
 	ObjectMapper mapper;
 
+	@Autowired(required = false)
+	private LocalSignatureEngine localSignatureEngine;
+
 	private static final String DIGITAL_SIGNATURE_ID = "mosip.registration.processor.digital.signature.id";
 	private static final String DATETIME_PATTERN = "mosip.registration.processor.datetime.pattern";
 	private static final String REG_PROC_APPLICATION_VERSION = "mosip.registration.processor.application.version";
 
+	/**
+	 * Signs the data in process when the local signature engine has a valid key,
+	 * else, or if local signing fails, through the key manager.
+	 *
+	 * @param data
+	 *            the data
+	 * @return the signature
+	 */
 	public String getDigitalSignature(String data) {
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"DigitalSignatureUtility::getDigitalSignature()::entry");
 
+		if (localSignatureEngine != null && localSignatureEngine.isAvailable()) {
+			try {
+				return localSignatureEngine.sign(data);
+			} catch (GeneralSecurityException e) {
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+						"DigitalSignatureUtility::getDigitalSignature():: local signing failed, signing through key manager "
+								+ e.getMessage());
+			}
+		}
+		return getRemoteDigitalSignature(data);
+	}
+
+	/**
+	 * Verifies a response signature against the signing certificate of the key
+	 * manager.
+	 *
+	 * @param data
+	 *            the signed data
+	 * @param signature
+	 *            the signature
+	 * @return true if the signature is valid
+	 */
+	public boolean verifyDigitalSignature(String data, String signature) {
+		if (localSignatureEngine == null) {
+			throw new DigitalSignatureException("No signing certificate configured");
+		}
+		try {
+			return localSignatureEngine.verify(data, signature);
+		} catch (GeneralSecurityException | IllegalArgumentException e) {
+			throw new DigitalSignatureException(e.getMessage(), e);
+		}
+	}
+
+	private String getRemoteDigitalSignature(String data) {
 		SignRequestDto dto=new SignRequestDto();
 		dto.setData(data);
 		RequestWrapper<SignRequestDto> request=new RequestWrapper<>();
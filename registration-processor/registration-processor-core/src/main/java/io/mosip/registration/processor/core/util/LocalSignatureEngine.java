@@ -0,0 +1,247 @@
+package io.mosip.registration.processor.core.util;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.jose4j.jwa.AlgorithmConstraints;
+import org.jose4j.jwa.AlgorithmConstraints.ConstraintType;
+import org.jose4j.jws.JsonWebSignature;
+import org.jose4j.jwx.CompactSerializer;
+import org.jose4j.lang.JoseException;
+import org.springframework.beans.factory.annotation.Value;
+
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.kernel.core.util.CryptoUtil;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+
+/**
+ * Signs responses in process with the signing key of the key manager, read
+ * from its key store, instead of calling the key manager for every response.
+ * The key store is read again on a schedule so that a rotated key is picked
+ * up; the certificate it replaces is kept to verify responses signed before
+ * the rotation. A key whose certificate has expired is not used.
+ *
+ * Signatures are in the format of the kernel's CryptoCore, which the key
+ * manager signs with: a JWS compact serialization with detached content, the
+ * payload being the UTF-8 bytes of the data. Both verify each other's
+ * signatures, as LocalSignatureEngineTest checks against CryptoCore. Signing
+ * locally is off by default, so responses are signed by the key manager
+ * unless enabled.
+ *
+ * @since 1.0.9
+ */
+public class LocalSignatureEngine {
+
+	private static Logger regProcLogger = RegProcessorLogger.getLogger(LocalSignatureEngine.class);
+
+	@Value("${registration.processor.signature.local.enabled:false}")
+	private boolean enabled;
+
+	@Value("${registration.processor.signature.local.keystore.path:}")
+	private String keyStorePath;
+
+	@Value("${registration.processor.signature.local.keystore.type:PKCS12}")
+	private String keyStoreType;
+
+	@Value("${registration.processor.signature.local.keystore.password:}")
+	private String keyStorePassword;
+
+	@Value("${registration.processor.signature.local.keystore.alias:}")
+	private String keyAlias;
+
+	/** JWS algorithm, the same as the key manager signs with. */
+	@Value("${registration.processor.signature.local.algorithm:${mosip.kernel.crypto.sign-algorithm-name:RS256}}")
+	private String algorithm;
+
+	@Value("${registration.processor.signature.local.refresh-interval-ms:3600000}")
+	private long refreshIntervalMillis;
+
+	private volatile SigningKey current;
+
+	private volatile SigningKey previous;
+
+	private ScheduledExecutorService refresher;
+
+	public LocalSignatureEngine() {
+	}
+
+	public LocalSignatureEngine(String algorithm, PrivateKey privateKey, X509Certificate certificate) {
+		this.algorithm = algorithm;
+		this.current = new SigningKey(privateKey, certificate);
+	}
+
+	/**
+	 * Reads the key store and schedules its refresh, when enabled.
+	 */
+	@PostConstruct
+	public void start() {
+		if (!enabled || keyStorePath == null || keyStorePath.isEmpty()) {
+			return;
+		}
+		refreshQuietly();
+		refresher = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "signature-key-refresh");
+			thread.setDaemon(true);
+			return thread;
+		});
+		refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMillis, refreshIntervalMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (refresher != null) {
+			refresher.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return true if a signing key with a valid certificate is loaded
+	 */
+	public boolean isAvailable() {
+		SigningKey key = current;
+		return key != null && key.isValid(new Date());
+	}
+
+	/**
+	 * Signs the data with the current key.
+	 *
+	 * @param data
+	 *            the data
+	 * @return the signature, a JWS with detached content like the key manager
+	 *         returns it
+	 * @throws GeneralSecurityException
+	 *             if no valid key is loaded or signing fails
+	 */
+	public String sign(String data) throws GeneralSecurityException {
+		SigningKey key = current;
+		if (key == null || !key.isValid(new Date())) {
+			throw new GeneralSecurityException("No valid signing key loaded");
+		}
+		JsonWebSignature jws = new JsonWebSignature();
+		jws.setPayloadBytes(data.getBytes(StandardCharsets.UTF_8));
+		jws.setAlgorithmHeaderValue(algorithm);
+		jws.setKey(key.privateKey);
+		jws.setDoKeyValidation(false);
+		try {
+			return jws.getDetachedContentCompactSerialization();
+		} catch (JoseException e) {
+			throw new GeneralSecurityException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Verifies a signature against the current certificate and the one it
+	 * replaced.
+	 *
+	 * @param data
+	 *            the signed data
+	 * @param signature
+	 *            the signature, a JWS with detached content
+	 * @return true if either certificate verifies the signature
+	 * @throws GeneralSecurityException
+	 *             if no certificate is loaded or the signature cannot be checked
+	 */
+	public boolean verify(String data, String signature) throws GeneralSecurityException {
+		SigningKey key = current;
+		if (key == null) {
+			throw new GeneralSecurityException("No signing certificate loaded");
+		}
+		String[] parts = signature.split("\\.");
+		if (parts.length != 3) {
+			return false;
+		}
+		String compactSerialization = CompactSerializer.serialize(parts[0],
+				CryptoUtil.encodeBase64(data.getBytes(StandardCharsets.UTF_8)), parts[2]);
+		if (verify(key.certificate, compactSerialization)) {
+			return true;
+		}
+		SigningKey replaced = previous;
+		return replaced != null && verify(replaced.certificate, compactSerialization);
+	}
+
+	private boolean verify(X509Certificate certificate, String compactSerialization)
+			throws GeneralSecurityException {
+		JsonWebSignature jws = new JsonWebSignature();
+		jws.setAlgorithmConstraints(new AlgorithmConstraints(ConstraintType.WHITELIST, algorithm));
+		try {
+			jws.setCompactSerialization(compactSerialization);
+			jws.setKey(certificate.getPublicKey());
+			return jws.verifySignature();
+		} catch (JoseException e) {
+			throw new GeneralSecurityException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Reads the signing key and certificate from the key store. The loaded key is
+	 * replaced only if the certificate has changed.
+	 *
+	 * @throws GeneralSecurityException
+	 *             if the key store has no key or certificate for the alias
+	 * @throws IOException
+	 *             if the key store cannot be read
+	 */
+	public synchronized void refresh() throws GeneralSecurityException, IOException {
+		KeyStore keyStore = KeyStore.getInstance(keyStoreType);
+		char[] password = keyStorePassword.toCharArray();
+		try (InputStream in = new FileInputStream(keyStorePath)) {
+			keyStore.load(in, password);
+		}
+		PrivateKey privateKey = (PrivateKey) keyStore.getKey(keyAlias, password);
+		X509Certificate certificate = (X509Certificate) keyStore.getCertificate(keyAlias);
+		if (privateKey == null || certificate == null) {
+			throw new GeneralSecurityException("No signing key for alias " + keyAlias);
+		}
+		SigningKey loaded = current;
+		if (loaded == null || !loaded.certificate.equals(certificate)) {
+			previous = loaded;
+			current = new SigningKey(privateKey, certificate);
+			regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+					"LocalSignatureEngine::refresh():: loaded signing certificate "
+							+ certificate.getSerialNumber() + " valid till " + certificate.getNotAfter());
+		}
+	}
+
+	private void refreshQuietly() {
+		try {
+			refresh();
+		} catch (GeneralSecurityException | IOException | RuntimeException e) {
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+					"LocalSignatureEngine::refresh():: error with error message " + e.getMessage());
+		}
+	}
+
+	/**
+	 * A signing key and its certificate.
+	 */
+	private static class SigningKey {
+
+		private final PrivateKey privateKey;
+
+		private final X509Certificate certificate;
+
+		SigningKey(PrivateKey privateKey, X509Certificate certificate) {
+			this.privateKey = privateKey;
+			this.certificate = certificate;
+		}
+
+		boolean isValid(Date date) {
+			return !date.before(certificate.getNotBefore()) && !date.after(certificate.getNotAfter());
+		}
+	}
+}
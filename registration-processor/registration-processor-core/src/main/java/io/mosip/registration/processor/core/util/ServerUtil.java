@@ -22,12 +22,20 @@ public class ServerUtil {
 	/** The host not found. */
 	private String noHost  = "HOST_NOT_FOUND";
 
+	/** The server ip, resolved once. */
+	private final String serverIp;
+
+	/** The server name, resolved once. */
+	private final String serverName;
+
 	/**
 	 * 
 	 * Instantiates a new server util.
 	 */
 	private ServerUtil() {
 		super();
+		serverIp = resolveServerIp();
+		serverName = resolveServerName();
 	}
 
 	/**
@@ -53,7 +61,20 @@ public class ServerUtil {
 	 *
 	 */
 	public String getServerIp() {
+		return serverIp;
+	}
 
+	/**
+	 * This method return Server Host Name.
+	 *
+	 * @return The ServerName
+	 *
+	 */
+	public String getServerName() {
+		return serverName;
+	}
+
+	private String resolveServerIp() {
 		try {
 			return InetAddress.getLocalHost().getHostAddress();
 		} catch (UnknownHostException e) {
@@ -63,13 +84,7 @@ public class ServerUtil {
 
 	}
 
-	/**
-	 * This method return Server Host Name.
-	 *
-	 * @return The ServerName
-	 *
-	 */
-	public String getServerName() {
+	private String resolveServerName() {
 		try {
 			return InetAddress.getLocalHost().getHostName();
 		} catch (UnknownHostException e) {
@@ -0,0 +1,149 @@
+package io.mosip.registration.processor.abstractverticle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.registration.processor.core.abstractverticle.BoundedMessageConsumer;
+import io.vertx.core.Vertx;
+
+/**
+ * BoundedMessageConsumer test
+ *
+ * @since 1.0.9
+ */
+public class BoundedMessageConsumerTest {
+
+	private static final String ADDRESS = "bounded-consumer-bus-in";
+
+	private Vertx vertx;
+
+	private ExecutorService executor;
+
+	private final AtomicInteger running = new AtomicInteger();
+
+	private final AtomicInteger maxRunning = new AtomicInteger();
+
+	private final AtomicInteger processed = new AtomicInteger();
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@Before
+	public void setup() {
+		vertx = Vertx.vertx();
+	}
+
+	@After
+	public void tearDown() {
+		release.countDown();
+		vertx.close();
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testInFlightLimitedAndConsumerPaused() throws InterruptedException {
+		BoundedMessageConsumer consumer = start(new BoundedMessageConsumer(vertx, ADDRESS, 2, 4, null));
+
+		for (int i = 0; i < 8; i++) {
+			vertx.eventBus().send(ADDRESS, "message-" + i);
+		}
+
+		assertTrue(await(() -> consumer.getPending() == 4 && consumer.isPaused()));
+		assertEquals(2, consumer.getInFlight());
+		release.countDown();
+		assertTrue(await(() -> processed.get() == 8));
+		assertTrue(await(() -> consumer.getInFlight() == 0));
+		assertEquals(2, maxRunning.get());
+		assertTrue(consumer.getPausedCount() >= 1);
+		assertFalse(consumer.isPaused());
+	}
+
+	@Test
+	public void testMessagesWhilePausedBufferedUpToCapacity() throws InterruptedException {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		BoundedMessageConsumer consumer = new BoundedMessageConsumer(vertx, ADDRESS, 1, 2, null);
+		consumer.bindTo(registry);
+		start(consumer);
+
+		for (int i = 0; i < 3; i++) {
+			vertx.eventBus().send(ADDRESS, "message-" + i);
+		}
+		assertTrue(await(consumer::isPaused));
+		for (int i = 3; i < 2000; i++) {
+			vertx.eventBus().send(ADDRESS, "message-" + i);
+		}
+
+		// the event bus keeps as many as the queue while paused
+		assertTrue(await(() -> consumer.getDiscardedCount() == 1995));
+		release.countDown();
+		assertTrue(await(() -> processed.get() == 5));
+		assertTrue(await(() -> consumer.getInFlight() == 0));
+		assertEquals(1995.0, registry.get("regproc.stage.consumer.discarded").tag("address", ADDRESS)
+				.functionCounter().count(), 0.0);
+	}
+
+	@Test
+	public void testIoExecutorAndMetrics() throws InterruptedException {
+		executor = Executors.newFixedThreadPool(3);
+		MeterRegistry registry = new SimpleMeterRegistry();
+		BoundedMessageConsumer consumer = new BoundedMessageConsumer(vertx, ADDRESS, 3, 10, executor);
+		consumer.bindTo(registry);
+		start(consumer);
+		release.countDown();
+
+		for (int i = 0; i < 20; i++) {
+			vertx.eventBus().send(ADDRESS, "message-" + i);
+		}
+
+		assertTrue(await(() -> processed.get() == 20));
+		assertTrue(maxRunning.get() <= 3);
+		assertTrue(await(() -> consumer.getInFlight() == 0));
+		assertEquals(20, registry.get("regproc.stage.consumer.process").tag("address", ADDRESS).timer().count());
+		assertEquals(20, registry.get("regproc.stage.consumer.wait").tag("address", ADDRESS).timer().count());
+	}
+
+	private BoundedMessageConsumer start(BoundedMessageConsumer consumer) throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		vertx.runOnContext(v -> {
+			consumer.start(body -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				running.decrementAndGet();
+				processed.incrementAndGet();
+			});
+			started.countDown();
+		});
+		started.await(5, TimeUnit.SECONDS);
+		return consumer;
+	}
+
+	private static boolean await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				return false;
+			}
+			Thread.sleep(10);
+		}
+		return true;
+	}
+}
@@ -12,9 +12,27 @@ public class ConsumerVerticle extends MosipVerticleManager {
 	private MessageDTO messageDTO;
 	private MosipEventBus mosipEventBus;
 
+	/**
+	 * Each verticle deploys the next one, which sends again, until this depth.
+	 * Closing vertx undeploys the chain recursively, so an unbounded chain
+	 * overflows the stack once it grows deep enough.
+	 */
+	private static final int MAX_DEPTH = 200;
+
+	private final int depth;
+
+	public ConsumerVerticle() {
+		this(0);
+	}
+
+	private ConsumerVerticle(int depth) {
+		this.depth = depth;
+	}
+
 	public void start() {
-		ConsumerVerticle consumerVerticle = new ConsumerVerticle();
-		vertx.deployVerticle(consumerVerticle);
+		if (depth < MAX_DEPTH) {
+			vertx.deployVerticle(new ConsumerVerticle(depth + 1));
+		}
 		this.mosipEventBus = new MosipEventBus(vertx);
 		this.messageDTO = new MessageDTO();
 		this.messageDTO.setRid("1001");
@@ -0,0 +1,161 @@
+package io.mosip.registration.processor.abstractverticle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.registration.processor.core.abstractverticle.HealthProbeScheduler;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.healthchecks.Status;
+
+/**
+ * HealthProbeScheduler test
+ *
+ * @since 1.0.9
+ */
+public class HealthProbeSchedulerTest {
+
+	private final AtomicInteger runs = new AtomicInteger();
+
+	private HealthProbeScheduler scheduler;
+
+	@After
+	public void tearDown() {
+		scheduler.stop();
+	}
+
+	@Test
+	public void testServedFromLastStatus() throws InterruptedException {
+		scheduler = new HealthProbeScheduler(1, 60000, 1000, 60000);
+		Handler<Future<Status>> procedure = scheduler.register("db", this::check);
+		awaitSnapshot("db");
+
+		for (int i = 0; i < 5; i++) {
+			Status status = serve(procedure);
+			assertTrue(status.isOk());
+			assertEquals("PostgreSQL", status.getData().getString("database"));
+		}
+
+		assertEquals(1, runs.get());
+	}
+
+	@Test
+	public void testRunsOnSchedule() throws InterruptedException {
+		scheduler = new HealthProbeScheduler(1, 10, 1000, 60000);
+		scheduler.register("db", this::check);
+
+		awaitRuns(3);
+	}
+
+	@Test
+	public void testFailedAndTimedOutChecksReportedDown() throws InterruptedException {
+		scheduler = new HealthProbeScheduler(2, 60000, 50, 60000);
+		Handler<Future<Status>> failing = scheduler.register("queuecheck", future -> {
+			throw new IllegalStateException("broker down");
+		});
+		Handler<Future<Status>> hanging = scheduler.register("hdfscheck", future -> {
+		});
+		awaitSnapshot("queuecheck");
+		awaitSnapshot("hdfscheck");
+
+		Status failed = serve(failing);
+		Status timedOut = serve(hanging);
+
+		assertFalse(failed.isOk());
+		assertTrue(failed.isProcedureInError());
+		assertEquals("broker down", failed.getData().getString("error"));
+		assertFalse(timedOut.isOk());
+	}
+
+	@Test
+	public void testReportedDownBeforeFirstRun() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		scheduler = new HealthProbeScheduler(1, 60000, 5000, 60000);
+		Handler<Future<Status>> procedure = scheduler.register("db", future -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			check(future);
+		});
+
+		Status status = serve(procedure);
+		release.countDown();
+
+		assertFalse(status.isOk());
+		assertEquals(0, runs.get());
+		awaitRuns(1);
+		awaitSnapshot("db");
+		assertTrue(serve(procedure).isOk());
+	}
+
+	@Test
+	public void testStaleStatusReportedDown() throws InterruptedException {
+		scheduler = new HealthProbeScheduler(1, 60000, 1000, 0);
+		Handler<Future<Status>> procedure = scheduler.register("db", this::check);
+		awaitSnapshot("db");
+		Thread.sleep(5);
+
+		assertFalse(serve(procedure).isOk());
+		assertTrue(scheduler.getStalenessMillis("db") > 0);
+	}
+
+	@Test
+	public void testProbeMetrics() throws InterruptedException {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		scheduler = new HealthProbeScheduler(1, 60000, 1000, 60000);
+		scheduler.bindTo(registry);
+		scheduler.register("db", this::check);
+		Timer timer = registry.get("regproc.health.probe").tag("check", "db").timer();
+		long deadline = System.currentTimeMillis() + 5000;
+		while (timer.count() == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+
+		assertEquals(1, timer.count());
+		assertEquals(1.0, registry.get("regproc.health.status").tag("check", "db").gauge().value(), 0.0);
+		assertTrue(registry.get("regproc.health.staleness").tag("check", "db").timeGauge()
+				.value(TimeUnit.MILLISECONDS) >= 0);
+	}
+
+	private void check(Future<Status> future) {
+		runs.incrementAndGet();
+		future.complete(Status.OK(new JsonObject().put("database", "PostgreSQL")));
+	}
+
+	private void awaitRuns(int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (runs.get() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertTrue(runs.get() >= count);
+	}
+
+	private void awaitSnapshot(String name) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (scheduler.getStalenessMillis(name) < 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertTrue(scheduler.getStalenessMillis(name) >= 0);
+	}
+
+	private static Status serve(Handler<Future<Status>> procedure) {
+		Future<Status> future = Future.future();
+		procedure.handle(future);
+		assertTrue(future.isComplete());
+		return future.result();
+	}
+}
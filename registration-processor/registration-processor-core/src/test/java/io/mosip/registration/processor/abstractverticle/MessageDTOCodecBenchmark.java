@@ -0,0 +1,117 @@
+package io.mosip.registration.processor.abstractverticle;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.mosip.registration.processor.core.abstractverticle.MessageBusAddress;
+import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+import io.mosip.registration.processor.core.abstractverticle.MessageDTOCodec;
+import io.mosip.registration.processor.core.constant.RegistrationType;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.impl.codecs.JsonObjectMessageCodec;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Cost of one event bus hop of a {@link MessageDTO} between stages on
+ * different nodes: the sender builds the address and encodes the message, the
+ * receiver decodes it. Each invocation passes a message along a chain of
+ * {@value #HOPS} stages, the score is per hop. Compares Jackson reflection
+ * with the JSON codec (the old path), the hand written JSON and the binary
+ * {@link MessageDTOCodec}.
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/test-classes:&lt;test classpath&gt; org.openjdk.jmh.Main MessageDTOCodecBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MessageDTOCodecBenchmark {
+
+	private static final int HOPS = 16;
+
+	private final JsonObjectMessageCodec jsonCodec = new JsonObjectMessageCodec();
+
+	private final MessageDTOCodec messageCodec = new MessageDTOCodec();
+
+	private MessageDTO messageDTO;
+
+	@Setup
+	public void setup() {
+		messageDTO = new MessageDTO();
+		messageDTO.setRid("10031100110005020190313110030");
+		messageDTO.setReg_type(RegistrationType.NEW);
+		messageDTO.setIsValid(true);
+		messageDTO.setInternalError(false);
+		messageDTO.setMessageBusAddress(MessageBusAddress.PACKET_VALIDATOR_BUS_IN);
+		messageDTO.setRetryCount(0);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HOPS)
+	public MessageDTO jacksonJson() {
+		MessageDTO message = messageDTO;
+		for (int i = 0; i < HOPS; i++) {
+			MessageBusAddress address = new MessageBusAddress(MessageBusAddress.PACKET_VALIDATOR_BUS_OUT,
+					message.getReg_type());
+			Buffer buffer = Buffer.buffer();
+			jsonCodec.encodeToWire(buffer, JsonObject.mapFrom(message));
+			message = jsonCodec.decodeFromWire(0, buffer).mapTo(MessageDTO.class);
+			message.setMessageBusAddress(address);
+		}
+		return message;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HOPS)
+	public MessageDTO handWrittenJson() {
+		MessageDTO message = messageDTO;
+		for (int i = 0; i < HOPS; i++) {
+			MessageBusAddress address = MessageBusAddress.forRegistrationType(MessageBusAddress.PACKET_VALIDATOR_BUS_OUT,
+					message.getReg_type());
+			Buffer buffer = Buffer.buffer();
+			jsonCodec.encodeToWire(buffer, MessageDTOCodec.toJson(message));
+			message = MessageDTOCodec.fromJson(jsonCodec.decodeFromWire(0, buffer));
+			message.setMessageBusAddress(address);
+		}
+		return message;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HOPS)
+	public MessageDTO binaryCodec() {
+		MessageDTO message = messageDTO;
+		for (int i = 0; i < HOPS; i++) {
+			MessageBusAddress address = MessageBusAddress.forRegistrationType(MessageBusAddress.PACKET_VALIDATOR_BUS_OUT,
+					message.getReg_type());
+			Buffer buffer = Buffer.buffer();
+			messageCodec.encodeToWire(buffer, message);
+			message = messageCodec.decodeFromWire(0, buffer);
+			message.setMessageBusAddress(address);
+		}
+		return message;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(MessageDTOCodecBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
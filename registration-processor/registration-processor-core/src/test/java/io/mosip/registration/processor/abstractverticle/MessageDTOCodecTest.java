@@ -0,0 +1,88 @@
+package io.mosip.registration.processor.abstractverticle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.mosip.registration.processor.core.abstractverticle.MessageBusAddress;
+import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+import io.mosip.registration.processor.core.abstractverticle.MessageDTOCodec;
+import io.mosip.registration.processor.core.constant.RegistrationType;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * MessageDTOCodec test
+ *
+ * @since 1.0.9
+ */
+public class MessageDTOCodecTest {
+
+	private MessageDTOCodec codec = new MessageDTOCodec();
+
+	private MessageDTO messageDTO;
+
+	@Before
+	public void setup() {
+		messageDTO = new MessageDTO();
+		messageDTO.setRid("10031100110005020190313110030");
+		messageDTO.setReg_type(RegistrationType.RES_UPDATE);
+		messageDTO.setIsValid(true);
+		messageDTO.setInternalError(false);
+		messageDTO.setMessageBusAddress(MessageBusAddress.DEMO_DEDUPE_BUS_IN);
+		messageDTO.setRetryCount(2);
+	}
+
+	@Test
+	public void testWireRoundTrip() {
+		Buffer buffer = Buffer.buffer().appendString("header");
+		codec.encodeToWire(buffer, messageDTO);
+
+		assertEquals(messageDTO.toString(), codec.decodeFromWire(6, buffer).toString());
+	}
+
+	@Test
+	public void testWireRoundTripWithoutFields() {
+		Buffer buffer = Buffer.buffer();
+		codec.encodeToWire(buffer, new MessageDTO());
+
+		MessageDTO decoded = codec.decodeFromWire(0, buffer);
+		assertNull(decoded.getRid());
+		assertNull(decoded.getIsValid());
+		assertNull(decoded.getMessageBusAddress());
+		assertEquals(new MessageDTO().toString(), decoded.toString());
+	}
+
+	@Test
+	public void testTransformCopies() {
+		MessageDTO copy = codec.transform(messageDTO);
+
+		assertNotSame(messageDTO, copy);
+		assertEquals(messageDTO.toString(), copy.toString());
+	}
+
+	@Test
+	public void testJsonMatchesJackson() {
+		assertEquals(JsonObject.mapFrom(messageDTO), MessageDTOCodec.toJson(messageDTO));
+		assertEquals(JsonObject.mapFrom(new MessageDTO()), MessageDTOCodec.toJson(new MessageDTO()));
+		assertEquals(messageDTO.toString(), MessageDTOCodec.fromJson(JsonObject.mapFrom(messageDTO)).toString());
+		assertEquals(messageDTO.toString(), MessageDTOCodec.fromBody(MessageDTOCodec.toJson(messageDTO)).toString());
+	}
+
+	@Test
+	public void testRegistrationTypeAddressInterned() {
+		MessageBusAddress address = MessageBusAddress.forRegistrationType(MessageBusAddress.DEMO_DEDUPE_BUS_OUT,
+				RegistrationType.NEW);
+
+		assertEquals(new MessageBusAddress(MessageBusAddress.DEMO_DEDUPE_BUS_OUT, RegistrationType.NEW).getAddress(),
+				address.getAddress());
+		assertSame(address,
+				MessageBusAddress.forRegistrationType(MessageBusAddress.DEMO_DEDUPE_BUS_OUT, RegistrationType.NEW));
+		assertEquals(MessageBusAddress.DEMO_DEDUPE_BUS_IN.getAddress(), MessageBusAddress
+				.forRegistrationType(MessageBusAddress.DEMO_DEDUPE_BUS_IN, RegistrationType.LOST).getAddress());
+	}
+}
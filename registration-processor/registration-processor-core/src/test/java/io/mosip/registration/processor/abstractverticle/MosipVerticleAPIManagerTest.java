@@ -0,0 +1,34 @@
+package io.mosip.registration.processor.abstractverticle;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+import io.mosip.registration.processor.core.abstractverticle.MosipVerticleAPIManager;
+import io.mosip.registration.processor.core.abstractverticle.StageHealthCheckHandler;
+
+/**
+ * MosipVerticleAPIManager test
+ *
+ * @since 1.0.9
+ */
+public class MosipVerticleAPIManagerTest {
+
+	@Test
+	public void testStopClosesHealthCheckHandler() throws Exception {
+		MosipVerticleAPIManager verticle = new MosipVerticleAPIManager() {
+			@Override
+			public MessageDTO process(MessageDTO object) {
+				return object;
+			}
+		};
+		StageHealthCheckHandler healthCheckHandler = Mockito.mock(StageHealthCheckHandler.class);
+		ReflectionTestUtils.setField(verticle, "healthCheckHandler", healthCheckHandler);
+
+		verticle.stop();
+		verticle.stop();
+
+		Mockito.verify(healthCheckHandler).close();
+	}
+}
@@ -0,0 +1,146 @@
+package io.mosip.registration.processor.core.queue.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.BytesMessage;
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.mosip.registration.processor.core.queue.factory.MosipActiveMq;
+
+/**
+ * Messages per second sent by {@value #THREADS} threads to an embedded broker
+ * with a consumer draining the queue. Compares the old path, one shared
+ * session creating a producer per message, with {@link MosipActiveMqImpl}
+ * sending through pooled sessions and cached producers, one by one and in
+ * transacted batches of {@value #BATCH_SIZE}.
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main MosipActiveMqBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(MosipActiveMqBenchmark.THREADS)
+@Fork(1)
+public class MosipActiveMqBenchmark {
+
+	static final int THREADS = 4;
+
+	private static final int BATCH_SIZE = 16;
+
+	private static final String BROKER_URL = "vm://mosip-activemq-benchmark?create=false";
+
+	private static final String ADDRESS = "benchmark-address";
+
+	private final byte[] message = ("{\"regId\":\"10031100110005020190313110030\",\"reqId\":"
+			+ "\"01234567-89ab-cdef-0123-456789abcdef\",\"requestType\":\"INSERT\"}").getBytes(StandardCharsets.UTF_8);
+
+	private BrokerService broker;
+
+	private Connection drainConnection;
+
+	private Connection sharedConnection;
+
+	private Session sharedSession;
+
+	private MosipActiveMqImpl mosipActiveMq;
+
+	private MosipActiveMq queue;
+
+	private List<byte[]> batch;
+
+	@Setup
+	public void setup() throws Exception {
+		broker = new BrokerService();
+		broker.setBrokerName("mosip-activemq-benchmark");
+		broker.setPersistent(false);
+		broker.setUseJmx(false);
+		broker.start();
+
+		ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory(BROKER_URL);
+		drainConnection = connectionFactory.createConnection();
+		Session drainSession = drainConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		drainSession.createConsumer(drainSession.createQueue(ADDRESS)).setMessageListener(received -> {
+		});
+		drainConnection.start();
+
+		sharedConnection = connectionFactory.createConnection();
+		sharedConnection.start();
+		sharedSession = sharedConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+
+		mosipActiveMq = new MosipActiveMqImpl();
+		queue = new MosipActiveMq("ACTIVEMQ", null, null, BROKER_URL);
+		batch = new ArrayList<>();
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			batch.add(message);
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		mosipActiveMq.close();
+		sharedConnection.close();
+		drainConnection.close();
+		broker.stop();
+	}
+
+	/**
+	 * The old send: the shared session is used by one thread at a time and a
+	 * producer is created for every message, closed here so the broker does not
+	 * collect them for the length of the run.
+	 */
+	@Benchmark
+	public void sharedSessionProducerPerMessage() throws JMSException {
+		synchronized (sharedSession) {
+			MessageProducer producer = sharedSession.createProducer(sharedSession.createQueue(ADDRESS));
+			BytesMessage bytesMessage = sharedSession.createBytesMessage();
+			bytesMessage.writeObject(message);
+			producer.send(bytesMessage);
+			producer.close();
+		}
+	}
+
+	@Benchmark
+	public Boolean pooledSend() {
+		return mosipActiveMq.send(queue, message, ADDRESS);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public Boolean pooledTransactedBatch() {
+		return mosipActiveMq.sendBatch(queue, batch, ADDRESS);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(MosipActiveMqBenchmark.class.getSimpleName()).build()).run();
+	}
+}
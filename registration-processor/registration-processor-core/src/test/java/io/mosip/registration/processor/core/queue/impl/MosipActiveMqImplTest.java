@@ -0,0 +1,199 @@
+package io.mosip.registration.processor.core.queue.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.registration.processor.core.queue.factory.MosipActiveMq;
+import io.mosip.registration.processor.core.queue.factory.QueueListener;
+import io.mosip.registration.processor.core.queue.impl.exception.InvalidConnectionException;
+
+/**
+ * MosipActiveMqImpl test against an embedded broker listening on a local port
+ *
+ * @since 1.0.9
+ */
+public class MosipActiveMqImplTest {
+
+	private static final String BROKER_NAME = "mosip-activemq-test";
+
+	private String brokerUrl;
+
+	private BrokerService broker;
+
+	private MosipActiveMqImpl mosipActiveMq;
+
+	private MosipActiveMq queue;
+
+	private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+
+	@Before
+	public void setUp() throws Exception {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			brokerUrl = "tcp://localhost:" + socket.getLocalPort();
+		}
+		broker = startBroker();
+		mosipActiveMq = new MosipActiveMqImpl();
+		ReflectionTestUtils.setField(mosipActiveMq, "sessionPoolSize", 2);
+		ReflectionTestUtils.setField(mosipActiveMq, "reconnectIntervalMillis", 50L);
+		queue = new MosipActiveMq("ACTIVEMQ", null, null, brokerUrl);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		mosipActiveMq.close();
+		broker.stop();
+		broker.waitUntilStopped();
+	}
+
+	@Test
+	public void testConcurrentSendsShareSessions() throws Exception {
+		mosipActiveMq.consume(queue, "test-address", listener());
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<Void>> futures = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			int thread = i;
+			futures.add(executor.submit((Callable<Void>) () -> {
+				for (int j = 0; j < 25; j++) {
+					assertTrue(mosipActiveMq.send(queue, bytes(thread + "-" + j), "test-address"));
+				}
+				return null;
+			}));
+		}
+		for (Future<Void> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		assertTrue(await(() -> received.size() == 100));
+		assertTrue(received.contains("3-24"));
+		PooledActiveMqConnection connection = mosipActiveMq.getPooledConnection(queue);
+		assertEquals(1, connection.getConnectCount());
+		assertTrue(connection.getIdleSessions() <= 2);
+	}
+
+	@Test
+	public void testBatchSentInOneTransaction() throws Exception {
+		mosipActiveMq.consume(queue, "test-address", listener());
+		List<byte[]> messages = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			messages.add(bytes("batch-" + i));
+		}
+
+		assertTrue(mosipActiveMq.sendBatch(queue, messages, "test-address"));
+
+		for (int i = 0; i < 5; i++) {
+			assertEquals("batch-" + i, received.poll(5, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	public void testQueuesOfSameBrokerShareConnection() throws Exception {
+		MosipActiveMq otherQueue = new MosipActiveMq("ACTIVEMQ", null, null, brokerUrl);
+		mosipActiveMq.consume(queue, "test-address", listener());
+		mosipActiveMq.consume(otherQueue, "other-address", listener());
+		mosipActiveMq.send(queue, bytes("first"), "test-address");
+		mosipActiveMq.send(otherQueue, bytes("second"), "other-address");
+
+		assertSame(mosipActiveMq.getPooledConnection(queue), mosipActiveMq.getPooledConnection(otherQueue));
+		assertEquals(1, mosipActiveMq.getPooledConnection(queue).getConnectCount());
+		assertTrue(await(() -> received.size() == 2));
+	}
+
+	@Test
+	public void testConsumerAndSenderReconnectAfterBrokerRestart() throws Exception {
+		mosipActiveMq.consume(queue, "test-address", listener());
+		mosipActiveMq.send(queue, bytes("before"), "test-address");
+		assertEquals("before", received.poll(5, TimeUnit.SECONDS));
+
+		broker.stop();
+		broker.waitUntilStopped();
+		broker = startBroker();
+		PooledActiveMqConnection connection = mosipActiveMq.getPooledConnection(queue);
+		assertTrue(await(() -> connection.getConnectCount() == 2));
+		mosipActiveMq.send(queue, bytes("after"), "test-address");
+
+		assertEquals("after", received.poll(5, TimeUnit.SECONDS));
+		assertNull(received.poll());
+	}
+
+	@Test(expected = InvalidConnectionException.class)
+	public void testNoConnectionFactory() {
+		MosipActiveMq invalidQueue = new MosipActiveMq("ACTIVEMQ", null, null, brokerUrl) {
+
+			@Override
+			public ActiveMQConnectionFactory getActiveMQConnectionFactory() {
+				return null;
+			}
+		};
+		mosipActiveMq.send(invalidQueue, bytes("message"), "test-address");
+	}
+
+	private QueueListener listener() {
+		return new QueueListener() {
+
+			@Override
+			public void setListener(Message message) {
+				try {
+					BytesMessage bytesMessage = (BytesMessage) message;
+					byte[] data = new byte[(int) bytesMessage.getBodyLength()];
+					bytesMessage.readBytes(data);
+					received.add(new String(data, StandardCharsets.UTF_8));
+				} catch (JMSException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		};
+	}
+
+	private BrokerService startBroker() throws Exception {
+		BrokerService brokerService = new BrokerService();
+		brokerService.setBrokerName(BROKER_NAME);
+		brokerService.setPersistent(false);
+		brokerService.setUseJmx(false);
+		brokerService.setUseShutdownHook(false);
+		brokerService.addConnector(brokerUrl);
+		brokerService.start();
+		return brokerService;
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static boolean await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				return false;
+			}
+			Thread.sleep(10);
+		}
+		return true;
+	}
+}
@@ -0,0 +1,221 @@
+package io.mosip.registration.processor.core.util;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.security.auth.x500.X500Principal;
+
+import org.bouncycastle.x509.X509V1CertificateGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.mosip.registration.processor.core.code.ApiName;
+import io.mosip.registration.processor.core.http.ResponseWrapper;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+
+/**
+ * Responses per second of the sync and status endpoints for the part spent on
+ * the response: serializing the body and signing it. {@code remote} signs
+ * through the key manager client, whose round trip is simulated by a stub
+ * sleeping {@code roundTripMillis}; {@code local} signs in process with a 2048
+ * bit RSA key. {@code entries} is the number of registrations in the
+ * response.
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/test-classes:&lt;test classpath&gt; org.openjdk.jmh.Main DigitalSignatureBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(8)
+@Fork(1)
+public class DigitalSignatureBenchmark {
+
+	@Param({ "1", "100" })
+	private int entries;
+
+	@Param({ "0", "5" })
+	private int roundTripMillis;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private DigitalSignatureUtility remote;
+
+	private DigitalSignatureUtility local;
+
+	private Map<String, Object> syncResponse;
+
+	private Map<String, Object> statusResponse;
+
+	@Setup
+	public void setup() throws Exception {
+		KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+		keyPairGenerator.initialize(2048);
+		KeyPair keyPair = keyPairGenerator.generateKeyPair();
+		remote = utility(null);
+		local = utility(new LocalSignatureEngine("RS256", keyPair.getPrivate(), certificate(keyPair)));
+
+		List<Map<String, Object>> syncEntries = new ArrayList<>();
+		List<Map<String, Object>> statusEntries = new ArrayList<>();
+		for (int i = 0; i < entries; i++) {
+			String registrationId = "1003110011" + String.format("%019d", i);
+			Map<String, Object> sync = new LinkedHashMap<>();
+			sync.put("registrationId", registrationId);
+			sync.put("parentRegistrationId", null);
+			sync.put("status", "SUCCESS");
+			sync.put("message", "Registartion Id's are successfully synched in Sync table");
+			syncEntries.add(sync);
+			Map<String, Object> status = new LinkedHashMap<>();
+			status.put("registrationId", registrationId);
+			status.put("statusCode", "PROCESSING");
+			statusEntries.add(status);
+		}
+		syncResponse = response("mosip.registration.sync", syncEntries);
+		statusResponse = response("mosip.registration.status", statusEntries);
+	}
+
+	@Benchmark
+	public String remoteSync() throws JsonProcessingException {
+		return remote.getDigitalSignature(mapper.writeValueAsString(syncResponse));
+	}
+
+	@Benchmark
+	public String localSync() throws JsonProcessingException {
+		return local.getDigitalSignature(mapper.writeValueAsString(syncResponse));
+	}
+
+	@Benchmark
+	public String remoteStatus() throws JsonProcessingException {
+		return remote.getDigitalSignature(mapper.writeValueAsString(statusResponse));
+	}
+
+	@Benchmark
+	public String localStatus() throws JsonProcessingException {
+		return local.getDigitalSignature(mapper.writeValueAsString(statusResponse));
+	}
+
+	private DigitalSignatureUtility utility(LocalSignatureEngine engine) {
+		MockEnvironment env = new MockEnvironment();
+		env.setProperty("mosip.registration.processor.digital.signature.id", "mosip.registration.processor.sign");
+		env.setProperty("mosip.registration.processor.datetime.pattern", "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+		env.setProperty("mosip.registration.processor.application.version", "1.0");
+		DigitalSignatureUtility utility = new DigitalSignatureUtility();
+		ReflectionTestUtils.setField(utility, "registrationProcessorRestService", new KeyManagerStub());
+		ReflectionTestUtils.setField(utility, "env", env);
+		ReflectionTestUtils.setField(utility, "mapper", mapper);
+		ReflectionTestUtils.setField(utility, "localSignatureEngine", engine);
+		return utility;
+	}
+
+	private static Map<String, Object> response(String id, List<Map<String, Object>> entries) {
+		Map<String, Object> response = new LinkedHashMap<>();
+		response.put("id", id);
+		response.put("version", "1.0");
+		response.put("responsetime", "2019-11-04T10:15:30.000Z");
+		response.put("response", entries);
+		response.put("errors", null);
+		return response;
+	}
+
+	@SuppressWarnings("deprecation")
+	private static X509Certificate certificate(KeyPair keyPair) throws Exception {
+		X500Principal subject = new X500Principal("CN=REGISTRATION_PROCESSOR");
+		X509V1CertificateGenerator generator = new X509V1CertificateGenerator();
+		generator.setSerialNumber(BigInteger.ONE);
+		generator.setIssuerDN(subject);
+		generator.setSubjectDN(subject);
+		generator.setNotBefore(new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1)));
+		generator.setNotAfter(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)));
+		generator.setPublicKey(keyPair.getPublic());
+		generator.setSignatureAlgorithm("SHA256withRSA");
+		return generator.generate(keyPair.getPrivate());
+	}
+
+	/**
+	 * Answers the sign request like the key manager after the round trip.
+	 */
+	private class KeyManagerStub implements RegistrationProcessorRestClientService<Object> {
+
+		@Override
+		public Object postApi(ApiName apiName, String queryParam, String queryParamValue, Object requestedData,
+				Class<?> responseType) {
+			if (roundTripMillis > 0) {
+				try {
+					Thread.sleep(roundTripMillis);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			ResponseWrapper<Map<String, Object>> response = new ResponseWrapper<>();
+			response.setResponse(Collections.singletonMap("signature", "c2lnbmF0dXJl"));
+			return response;
+		}
+
+		@Override
+		public Object getApi(ApiName apiName, List<String> pathsegments, String queryParam, String queryParamValue,
+				Class<?> responseType) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object postApi(ApiName apiName, String queryParamName, String queryParamValue, Object requestedData,
+				Class<?> responseType, MediaType mediaType) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object postApi(ApiName apiName, List<String> pathsegments, String queryParam, String queryParamValue,
+				Object requestedData, Class<?> responseType) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object patchApi(ApiName apiName, List<String> pathsegments, String queryParam,
+				String queryParamValue, Object requestedData, Class<?> responseType) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object putApi(ApiName apiName, List<String> pathsegments, String queryParam, String queryParamValue,
+				Object requestedData, Class<?> responseType, MediaType mediaType) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(DigitalSignatureBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
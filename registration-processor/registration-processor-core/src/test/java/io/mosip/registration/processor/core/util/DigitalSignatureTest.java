@@ -1,6 +1,7 @@
 package io.mosip.registration.processor.core.util;
 
 import java.io.IOException;
+import java.security.GeneralSecurityException;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -39,6 +40,9 @@ public class DigitalSignatureTest {
 	
 	@Mock
 	private ObjectMapper mapper;
+
+	@Mock
+	private LocalSignatureEngine localSignatureEngine;
 	
 	private static String signature="signature";
 	@Before
@@ -69,5 +73,47 @@ public class DigitalSignatureTest {
 				Matchers.any(), Matchers.any())).thenThrow(ApisResourceAccessException.class);
 		utility.getDigitalSignature("qwerty");
 	}
+
+	@Test
+	public void testGetSignatureLocally() throws ApisResourceAccessException, GeneralSecurityException {
+		Mockito.when(localSignatureEngine.isAvailable()).thenReturn(true);
+		Mockito.when(localSignatureEngine.sign("qwerty")).thenReturn(signature);
+
+		Assert.assertSame(signature, utility.getDigitalSignature("qwerty"));
+		Mockito.verify(registrationProcessorRestService, Mockito.never()).postApi(Matchers.any(), Matchers.any(),
+				Matchers.any(), Matchers.any(), Matchers.any());
+	}
+
+	@Test
+	public void testLocalSigningFallsBackToKeyManager() throws ApisResourceAccessException, IOException,
+			GeneralSecurityException {
+		SignResponseDto dto = new SignResponseDto();
+		dto.setSignature(signature);
+		ResponseWrapper<SignResponseDto> response = new ResponseWrapper<SignResponseDto>();
+		response.setResponse(dto);
+		Mockito.when(localSignatureEngine.isAvailable()).thenReturn(true);
+		Mockito.when(localSignatureEngine.sign("qwerty")).thenThrow(new GeneralSecurityException("key expired"));
+		Mockito.when(registrationProcessorRestService.postApi(Matchers.any(), Matchers.any(), Matchers.any(),
+				Matchers.any(), Matchers.any())).thenReturn(response);
+		Mockito.when(mapper.writeValueAsString(Matchers.any())).thenReturn("value");
+		Mockito.when(mapper.readValue(Matchers.anyString(), Matchers.any(Class.class))).thenReturn(dto);
+
+		Assert.assertSame(signature, utility.getDigitalSignature("qwerty"));
+	}
+
+	@Test
+	public void testVerifySignature() throws GeneralSecurityException {
+		Mockito.when(localSignatureEngine.verify("qwerty", signature)).thenReturn(true);
+
+		Assert.assertTrue(utility.verifyDigitalSignature("qwerty", signature));
+	}
+
+	@Test(expected = DigitalSignatureException.class)
+	public void testVerifySignatureException() throws GeneralSecurityException {
+		Mockito.when(localSignatureEngine.verify("qwerty", signature))
+				.thenThrow(new GeneralSecurityException("No signing certificate loaded"));
+
+		utility.verifyDigitalSignature("qwerty", signature);
+	}
 	
 }
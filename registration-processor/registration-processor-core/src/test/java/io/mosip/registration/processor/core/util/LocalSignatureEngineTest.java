@@ -0,0 +1,170 @@
+package io.mosip.registration.processor.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+
+import javax.security.auth.x500.X500Principal;
+
+import org.bouncycastle.x509.X509V1CertificateGenerator;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.kernel.core.util.CryptoUtil;
+import io.mosip.kernel.crypto.jce.core.CryptoCore;
+
+/**
+ * LocalSignatureEngine test
+ *
+ * @since 1.0.9
+ */
+public class LocalSignatureEngineTest {
+
+	private static final String ALGORITHM = "RS256";
+
+	private static final String CERTIFICATE_ALGORITHM = "SHA256withRSA";
+
+	private static final String ALIAS = "signing";
+
+	private static final String PASSWORD = "password";
+
+	private static final long DAY = 24 * 60 * 60 * 1000L;
+
+	private static final String DATA = "{\"id\":\"mosip.registration.status\",\"response\":[]}";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private KeyPairGenerator keyPairGenerator;
+
+	@Before
+	public void setUp() throws GeneralSecurityException {
+		keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+		keyPairGenerator.initialize(2048);
+	}
+
+	@Test
+	public void testSignAndVerify() throws Exception {
+		KeyPair keyPair = keyPairGenerator.generateKeyPair();
+		LocalSignatureEngine engine = new LocalSignatureEngine(ALGORITHM, keyPair.getPrivate(),
+				certificate(keyPair, -DAY, DAY));
+
+		String signature = engine.sign(DATA);
+
+		assertTrue(engine.isAvailable());
+		assertTrue(engine.verify(DATA, signature));
+		assertFalse(engine.verify(DATA + " ", signature));
+	}
+
+	@Test
+	public void testSignatureVerifiedByKeyManagerCryptoCore() throws Exception {
+		KeyPair keyPair = keyPairGenerator.generateKeyPair();
+		LocalSignatureEngine engine = new LocalSignatureEngine(ALGORITHM, keyPair.getPrivate(),
+				certificate(keyPair, -DAY, DAY));
+
+		String signature = engine.sign(DATA);
+
+		// a JWS with detached content, as the key manager returns it
+		String[] parts = signature.split("\\.", -1);
+		assertEquals(3, parts.length);
+		assertTrue(parts[1].isEmpty());
+		assertTrue(new String(CryptoUtil.decodeBase64(parts[0]), StandardCharsets.UTF_8).contains("\"RS256\""));
+		CryptoCore cryptoCore = cryptoCore();
+		assertTrue(cryptoCore.verifySignature(DATA.getBytes(StandardCharsets.UTF_8), signature, keyPair.getPublic()));
+		assertFalse(cryptoCore.verifySignature((DATA + " ").getBytes(StandardCharsets.UTF_8), signature,
+				keyPair.getPublic()));
+	}
+
+	@Test
+	public void testKeyManagerCryptoCoreSignatureVerified() throws Exception {
+		KeyPair keyPair = keyPairGenerator.generateKeyPair();
+		LocalSignatureEngine engine = new LocalSignatureEngine(ALGORITHM, keyPair.getPrivate(),
+				certificate(keyPair, -DAY, DAY));
+
+		String signature = cryptoCore().sign(DATA.getBytes(StandardCharsets.UTF_8), keyPair.getPrivate());
+
+		assertEquals(signature, engine.sign(DATA));
+		assertTrue(engine.verify(DATA, signature));
+		assertFalse(engine.verify(DATA + " ", signature));
+		assertFalse(engine.verify(DATA, CryptoUtil.encodeBase64(new byte[256])));
+	}
+
+	@Test(expected = GeneralSecurityException.class)
+	public void testExpiredCertificateNotUsed() throws Exception {
+		KeyPair keyPair = keyPairGenerator.generateKeyPair();
+		LocalSignatureEngine engine = new LocalSignatureEngine(ALGORITHM, keyPair.getPrivate(),
+				certificate(keyPair, -2 * DAY, -DAY));
+
+		assertFalse(engine.isAvailable());
+		engine.sign(DATA);
+	}
+
+	@Test
+	public void testRotatedKeyPickedUpOnRefresh() throws Exception {
+		File keyStoreFile = folder.newFile("signing.p12");
+		KeyPair oldKeyPair = keyPairGenerator.generateKeyPair();
+		writeKeyStore(keyStoreFile, oldKeyPair);
+		LocalSignatureEngine engine = new LocalSignatureEngine();
+		ReflectionTestUtils.setField(engine, "keyStorePath", keyStoreFile.getAbsolutePath());
+		ReflectionTestUtils.setField(engine, "keyStoreType", "PKCS12");
+		ReflectionTestUtils.setField(engine, "keyStorePassword", PASSWORD);
+		ReflectionTestUtils.setField(engine, "keyAlias", ALIAS);
+		ReflectionTestUtils.setField(engine, "algorithm", ALGORITHM);
+		engine.refresh();
+		String oldSignature = engine.sign(DATA);
+
+		writeKeyStore(keyStoreFile, keyPairGenerator.generateKeyPair());
+		engine.refresh();
+		String newSignature = engine.sign(DATA);
+
+		assertFalse(oldSignature.equals(newSignature));
+		assertTrue(engine.verify(DATA, newSignature));
+		assertTrue(engine.verify(DATA, oldSignature));
+	}
+
+	private static CryptoCore cryptoCore() {
+		CryptoCore cryptoCore = new CryptoCore();
+		ReflectionTestUtils.setField(cryptoCore, "signAlgorithm", ALGORITHM);
+		return cryptoCore;
+	}
+
+	private void writeKeyStore(File file, KeyPair keyPair) throws Exception {
+		KeyStore keyStore = KeyStore.getInstance("PKCS12");
+		keyStore.load(null, null);
+		keyStore.setKeyEntry(ALIAS, keyPair.getPrivate(), PASSWORD.toCharArray(),
+				new Certificate[] { certificate(keyPair, -DAY, DAY) });
+		try (OutputStream out = new FileOutputStream(file)) {
+			keyStore.store(out, PASSWORD.toCharArray());
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	private static X509Certificate certificate(KeyPair keyPair, long notBefore, long notAfter) throws Exception {
+		X500Principal subject = new X500Principal("CN=REGISTRATION_PROCESSOR");
+		X509V1CertificateGenerator generator = new X509V1CertificateGenerator();
+		generator.setSerialNumber(BigInteger.valueOf(System.nanoTime()));
+		generator.setIssuerDN(subject);
+		generator.setSubjectDN(subject);
+		generator.setNotBefore(new Date(System.currentTimeMillis() + notBefore));
+		generator.setNotAfter(new Date(System.currentTimeMillis() + notAfter));
+		generator.setPublicKey(keyPair.getPublic());
+		generator.setSignatureAlgorithm(CERTIFICATE_ALGORITHM);
+		return generator.generate(keyPair.getPrivate());
+	}
+}
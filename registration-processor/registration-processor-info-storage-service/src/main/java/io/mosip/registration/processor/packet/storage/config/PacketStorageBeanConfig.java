@@ -25,7 +25,9 @@ import io.mosip.registration.processor.packet.storage.dto.ApplicantInfoDto;
 import io.mosip.registration.processor.packet.storage.service.impl.PacketInfoManagerImpl;
 import io.mosip.registration.processor.packet.storage.utils.ABISHandlerUtil;
 import io.mosip.registration.processor.packet.storage.utils.AuthUtil;
+import io.mosip.registration.processor.packet.storage.utils.ConfigDocumentCache;
 import io.mosip.registration.processor.packet.storage.utils.Utilities;
+import io.mosip.registration.processor.rest.client.utils.RestApiClient;
 
 @Configuration
 @PropertySource("classpath:bootstrap.properties")
@@ -48,6 +50,11 @@ public class PacketStorageBeanConfig {
 		return new Utilities();
 	}
 
+	@Bean
+	public ConfigDocumentCache getConfigDocumentCache(RestApiClient restApiClient) {
+		return new ConfigDocumentCache(restApiClient);
+	}
+
 	@Bean
 	public ABISHandlerUtil getABISHandlerUtil() {
 		return new ABISHandlerUtil();
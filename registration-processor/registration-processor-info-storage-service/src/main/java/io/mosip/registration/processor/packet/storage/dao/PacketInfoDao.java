@@ -1,9 +1,13 @@
 package io.mosip.registration.processor.packet.storage.dao;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -12,15 +16,18 @@ import io.mosip.registration.processor.core.packet.dto.abis.AbisResponseDetDto;
 import io.mosip.registration.processor.core.packet.dto.abis.AbisResponseDto;
 import io.mosip.registration.processor.core.packet.dto.demographicinfo.DemographicInfoDto;
 import io.mosip.registration.processor.packet.storage.dto.ApplicantInfoDto;
+import io.mosip.registration.processor.packet.storage.dto.DemographicDedupeCandidateDto;
 import io.mosip.registration.processor.packet.storage.entity.AbisRequestEntity;
 import io.mosip.registration.processor.packet.storage.entity.AbisResponseDetEntity;
 import io.mosip.registration.processor.packet.storage.entity.AbisResponseEntity;
 import io.mosip.registration.processor.packet.storage.entity.IndividualDemographicDedupeEntity;
+import io.mosip.registration.processor.packet.storage.entity.IndividualDemographicDedupeKeyEntity;
 import io.mosip.registration.processor.packet.storage.entity.QcuserRegistrationIdEntity;
 import io.mosip.registration.processor.packet.storage.entity.RegBioRefEntity;
 import io.mosip.registration.processor.packet.storage.entity.RegDemoDedupeListEntity;
 import io.mosip.registration.processor.packet.storage.mapper.PacketInfoMapper;
 import io.mosip.registration.processor.packet.storage.repository.BasePacketRepository;
+import io.mosip.registration.processor.status.code.RegistrationStatusCode;
 import io.mosip.registration.processor.status.entity.BaseRegistrationEntity;
 import io.mosip.registration.processor.status.repositary.RegistrationRepositary;
 
@@ -38,6 +45,10 @@ public class PacketInfoDao {
 	@Autowired
 	private BasePacketRepository<IndividualDemographicDedupeEntity, String> demographicDedupeRepository;
 
+	/** The demographic dedupe key repository. */
+	@Autowired
+	private BasePacketRepository<IndividualDemographicDedupeKeyEntity, String> demographicDedupeKeyRepository;
+
 	/** The abis request repository. */
 	@Autowired
 	private BasePacketRepository<AbisRequestEntity, String> abisRequestRepository;
@@ -233,6 +244,81 @@ public class PacketInfoDao {
 		return demographicInfoDtos;
 	}
 
+	/**
+	 * Replaces the blocking keys of a registration.
+	 *
+	 * @param regId
+	 *            the reg id
+	 * @param demographicDedupeKeyEntities
+	 *            the blocking keys of the registration
+	 */
+	public void saveDemographicDedupeKeys(String regId,
+			List<IndividualDemographicDedupeKeyEntity> demographicDedupeKeyEntities) {
+		demographicDedupeKeyRepository.deleteDemoDedupeKeys(regId);
+		demographicDedupeKeyRepository.saveAll(demographicDedupeKeyEntities);
+	}
+
+	/**
+	 * Gets the blocking keys of a registration by lang code.
+	 *
+	 * @param regId
+	 *            the reg id
+	 * @return the hashed blocking keys by lang code
+	 */
+	public Map<String, Set<String>> getDemographicDedupeKeys(String regId) {
+		Map<String, Set<String>> blockingKeys = new HashMap<>();
+		for (IndividualDemographicDedupeKeyEntity entity : demographicDedupeKeyRepository.getDemoDedupeKeys(regId)) {
+			blockingKeys.computeIfAbsent(entity.getId().getLangCode(), langCode -> new HashSet<>())
+					.add(entity.getId().getBlockingKey());
+		}
+		return blockingKeys;
+	}
+
+	/**
+	 * Gets the active demographic records of processed registrations sharing a
+	 * blocking key, in one query.
+	 *
+	 * @param regId
+	 *            the reg id to leave out
+	 * @param blockingKeys
+	 *            the hashed blocking keys
+	 * @return the candidate records with all their blocking keys
+	 */
+	public List<DemographicDedupeCandidateDto> getDemographicDedupeCandidates(String regId,
+			Collection<String> blockingKeys) {
+		Map<IndividualDemographicDedupeEntity, DemographicDedupeCandidateDto> candidates = new LinkedHashMap<>();
+		if (blockingKeys.isEmpty()) {
+			return new ArrayList<>();
+		}
+		for (Object[] row : demographicDedupeRepository.getDemoDedupeCandidates(blockingKeys, regId,
+				RegistrationStatusCode.PROCESSED.toString())) {
+			DemographicDedupeCandidateDto candidate = candidates.computeIfAbsent(
+					(IndividualDemographicDedupeEntity) row[0], entity -> {
+						DemographicDedupeCandidateDto candidateDto = new DemographicDedupeCandidateDto();
+						candidateDto.setDemographicInfo(convertEntityToDemographicDto(entity));
+						candidateDto.setBlockingKeys(new HashSet<>());
+						return candidateDto;
+					});
+			candidate.getBlockingKeys().add((String) row[1]);
+		}
+		return new ArrayList<>(candidates.values());
+	}
+
+	/**
+	 * Gets the reg ids among the given ones that have a UIN.
+	 *
+	 * @param regIds
+	 *            the reg ids
+	 * @return the reg ids of processed registrations
+	 */
+	public Set<String> getRegIdsWithUin(Collection<String> regIds) {
+		if (regIds.isEmpty()) {
+			return new HashSet<>();
+		}
+		return new HashSet<>(
+				registrationRepositary.getRegIdsByStatusCode(regIds, RegistrationStatusCode.PROCESSED.toString()));
+	}
+
 	/**
 	 * Gets the reg id by UIN.
 	 *
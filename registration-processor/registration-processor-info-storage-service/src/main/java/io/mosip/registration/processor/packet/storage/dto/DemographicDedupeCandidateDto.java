@@ -0,0 +1,23 @@
+package io.mosip.registration.processor.packet.storage.dto;
+
+import java.util.Set;
+
+import io.mosip.registration.processor.core.packet.dto.demographicinfo.DemographicInfoDto;
+import lombok.Data;
+
+/**
+ * A demographic record found through the blocking key index, with its blocking
+ * keys.
+ *
+ * @since 1.0.9
+ */
+@Data
+public class DemographicDedupeCandidateDto {
+
+	/** The demographic info. */
+	private DemographicInfoDto demographicInfo;
+
+	/** The hashed blocking keys of the record. */
+	private Set<String> blockingKeys;
+
+}
@@ -0,0 +1,48 @@
+package io.mosip.registration.processor.packet.storage.entity;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+/**
+ * A blocking key of an individual demographic dedupe record. Records sharing a
+ * key are the dedupe candidates of each other.
+ *
+ * @since 1.0.9
+ */
+@Entity
+@Table(name = "individual_demographic_dedup_key", schema = "regprc")
+public class IndividualDemographicDedupeKeyEntity extends BasePacketEntity<IndividualDemographicDedupeKeyPKEntity>
+		implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	@Column(name = "cr_by", nullable = false)
+	private String crBy = "SYSTEM";
+
+	@Column(name = "cr_dtimes", updatable = false)
+	private LocalDateTime crDtimes;
+
+	public IndividualDemographicDedupeKeyEntity() {
+		super();
+	}
+
+	public String getCrBy() {
+		return crBy;
+	}
+
+	public void setCrBy(String crBy) {
+		this.crBy = crBy;
+	}
+
+	public LocalDateTime getCrDtimes() {
+		return crDtimes;
+	}
+
+	public void setCrDtimes(LocalDateTime crDtimes) {
+		this.crDtimes = crDtimes;
+	}
+
+}
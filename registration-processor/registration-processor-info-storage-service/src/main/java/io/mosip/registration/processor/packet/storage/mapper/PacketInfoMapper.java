@@ -32,6 +32,8 @@ import io.mosip.registration.processor.packet.storage.entity.AbisResponseDetPKEn
 import io.mosip.registration.processor.packet.storage.entity.AbisResponseEntity;
 import io.mosip.registration.processor.packet.storage.entity.AbisResponsePKEntity;
 import io.mosip.registration.processor.packet.storage.entity.IndividualDemographicDedupeEntity;
+import io.mosip.registration.processor.packet.storage.entity.IndividualDemographicDedupeKeyEntity;
+import io.mosip.registration.processor.packet.storage.entity.IndividualDemographicDedupeKeyPKEntity;
 import io.mosip.registration.processor.packet.storage.entity.IndividualDemographicDedupePKEntity;
 import io.mosip.registration.processor.packet.storage.entity.RegAbisRefEntity;
 import io.mosip.registration.processor.packet.storage.entity.RegAbisRefPkEntity;
@@ -40,6 +42,7 @@ import io.mosip.registration.processor.packet.storage.entity.RegBioRefPKEntity;
 import io.mosip.registration.processor.packet.storage.entity.RegDemoDedupeListEntity;
 import io.mosip.registration.processor.packet.storage.entity.RegDemoDedupeListPKEntity;
 import io.mosip.registration.processor.packet.storage.exception.DateParseException;
+import io.mosip.registration.processor.packet.storage.utils.DemoDedupeKeyUtil;
 
 /**
  * The Class PacketInfoMapper.
@@ -146,12 +149,7 @@ public class PacketInfoMapper {
 		IndividualDemographicDedupeEntity entity;
 		IndividualDemographicDedupePKEntity applicantDemographicPKEntity;
 		List<IndividualDemographicDedupeEntity> demogrphicDedupeEntities = new ArrayList<>();
-		StringBuilder languages = new StringBuilder();
-		if (demoDto.getName()!=null && !demoDto.getName().isEmpty()) {
-			for (JsonValue[] jsonValue : demoDto.getName())
-				getLanguages(jsonValue, languages);
-		}
-		String[] languageArray = getLanguages(demoDto.getGender(), languages);
+		String[] languageArray = getLanguages(demoDto);
 		for (int i = 0; i < languageArray.length; i++) {
 			entity = new IndividualDemographicDedupeEntity();
 			applicantDemographicPKEntity = new IndividualDemographicDedupePKEntity();
@@ -199,6 +197,57 @@ public class PacketInfoMapper {
 		return demogrphicDedupeEntities;
 	}
 
+	/**
+	 * Convert demographic dedupe dto to the hashed blocking keys of each
+	 * language.
+	 *
+	 * @param demoDto
+	 *            the demo dto
+	 * @param regId
+	 *            the reg id
+	 * @return the list
+	 */
+	public static List<IndividualDemographicDedupeKeyEntity> convertDemographicDedupeDtoToKeyEntities(
+			IndividualDemographicDedupe demoDto, String regId) {
+		List<IndividualDemographicDedupeKeyEntity> demographicDedupeKeyEntities = new ArrayList<>();
+		for (String language : getLanguages(demoDto)) {
+			List<String> names = new ArrayList<>();
+			if (demoDto.getName() != null) {
+				for (JsonValue[] jsonValue : demoDto.getName()) {
+					names.add(getJsonValues(jsonValue, language));
+				}
+			}
+			for (String blockingKey : DemoDedupeKeyUtil.blockingKeys(language, names,
+					getJsonValues(demoDto.getGender(), language), demoDto.getDateOfBirth())) {
+				IndividualDemographicDedupeKeyPKEntity keyPKEntity = new IndividualDemographicDedupeKeyPKEntity();
+				keyPKEntity.setBlockingKey(getHMACHashCode(blockingKey));
+				keyPKEntity.setRegId(regId);
+				keyPKEntity.setLangCode(language);
+				IndividualDemographicDedupeKeyEntity keyEntity = new IndividualDemographicDedupeKeyEntity();
+				keyEntity.setId(keyPKEntity);
+				keyEntity.setCrDtimes(LocalDateTime.now(ZoneId.of("UTC")));
+				demographicDedupeKeyEntities.add(keyEntity);
+			}
+		}
+		return demographicDedupeKeyEntities;
+	}
+
+	/**
+	 * Gets the languages of the name and gender.
+	 *
+	 * @param demoDto
+	 *            the demo dto
+	 * @return the languages
+	 */
+	private static String[] getLanguages(IndividualDemographicDedupe demoDto) {
+		StringBuilder languages = new StringBuilder();
+		if (demoDto.getName() != null && !demoDto.getName().isEmpty()) {
+			for (JsonValue[] jsonValue : demoDto.getName())
+				getLanguages(jsonValue, languages);
+		}
+		return getLanguages(demoDto.getGender(), languages);
+	}
+
 	public static String getHMACHashCode(String value) {
 		if (value == null)
 			return null;
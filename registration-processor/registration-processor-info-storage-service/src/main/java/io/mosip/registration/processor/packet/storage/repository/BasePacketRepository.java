@@ -1,5 +1,7 @@
 package io.mosip.registration.processor.packet.storage.repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.Modifying;
@@ -107,6 +109,61 @@ public interface BasePacketRepository<E extends BasePacketEntity<?>, T> extends
 	public List<E> getAssignedApplicantDetails(@Param("mvUserId") String mvUserId,
 			@Param("statusCode") String statusCode);
 
+	/**
+	 * Assigns the oldest {@link ManualVerificationEntity} records with the
+	 * specified status and match type to a manual verifier in one statement.
+	 * Rows locked by a concurrent claim are skipped instead of waited for, so
+	 * verifiers claiming at the same time get different records. Runs on
+	 * PostgreSQL only.
+	 *
+	 * @param statusCode
+	 *            the status of the records to claim
+	 * @param assignedStatus
+	 *            the status of the claimed records
+	 * @param matchType
+	 *            the match type
+	 * @param mvUserId
+	 *            the manual verifier user Id
+	 * @param updDtimes
+	 *            the update time of the claimed records
+	 * @param limit
+	 *            the maximum number of records to claim
+	 * @return reg id, matched ref id, matched ref type and creation time of the
+	 *         claimed records, in no particular order
+	 */
+	@Query(value = "UPDATE regprc.reg_manual_verification SET status_code=:assignedStatus, mv_usr_id=:mvUserId, upd_by=:mvUserId, upd_dtimes=:updDtimes WHERE ctid IN "
+			+ "(SELECT ctid FROM regprc.reg_manual_verification WHERE status_code=:statusCode AND trntyp_code=:trntyp_code ORDER BY cr_dtimes LIMIT :limit FOR UPDATE SKIP LOCKED) "
+			+ "RETURNING reg_id, matched_ref_id, matched_ref_type, cr_dtimes", nativeQuery = true)
+	public List<Object[]> claimApplicants(@Param("statusCode") String statusCode,
+			@Param("assignedStatus") String assignedStatus, @Param("trntyp_code") String matchType,
+			@Param("mvUserId") String mvUserId, @Param("updDtimes") Timestamp updDtimes, @Param("limit") int limit);
+
+	/**
+	 * Assigns the oldest {@link ManualVerificationEntity} records with the
+	 * specified status to a manual verifier in one statement, for source name as
+	 * ALL. Rows locked by a concurrent claim are skipped. Runs on PostgreSQL
+	 * only.
+	 *
+	 * @param statusCode
+	 *            the status of the records to claim
+	 * @param assignedStatus
+	 *            the status of the claimed records
+	 * @param mvUserId
+	 *            the manual verifier user Id
+	 * @param updDtimes
+	 *            the update time of the claimed records
+	 * @param limit
+	 *            the maximum number of records to claim
+	 * @return reg id, matched ref id, matched ref type and creation time of the
+	 *         claimed records, in no particular order
+	 */
+	@Query(value = "UPDATE regprc.reg_manual_verification SET status_code=:assignedStatus, mv_usr_id=:mvUserId, upd_by=:mvUserId, upd_dtimes=:updDtimes WHERE ctid IN "
+			+ "(SELECT ctid FROM regprc.reg_manual_verification WHERE status_code=:statusCode ORDER BY cr_dtimes LIMIT :limit FOR UPDATE SKIP LOCKED) "
+			+ "RETURNING reg_id, matched_ref_id, matched_ref_type, cr_dtimes", nativeQuery = true)
+	public List<Object[]> claimApplicantsForAll(@Param("statusCode") String statusCode,
+			@Param("assignedStatus") String assignedStatus, @Param("mvUserId") String mvUserId,
+			@Param("updDtimes") Timestamp updDtimes, @Param("limit") int limit);
+
 	/**
 	 * Update is active if duplicate found.
 	 *
@@ -118,6 +175,45 @@ public interface BasePacketRepository<E extends BasePacketEntity<?>, T> extends
 	@Query("UPDATE  IndividualDemographicDedupeEntity demo SET  demo.isActive = FALSE WHERE demo.id.regId =:regId")
 	public void updateIsActiveIfDuplicateFound(@Param("regId") String regId);
 
+	/**
+	 * Gets the blocking keys of a registration.
+	 *
+	 * @param regId
+	 *            the reg id
+	 * @return the blocking keys
+	 */
+	@Query("SELECT dedupeKey FROM IndividualDemographicDedupeKeyEntity dedupeKey WHERE dedupeKey.id.regId =:regId")
+	public List<E> getDemoDedupeKeys(@Param("regId") String regId);
+
+	/**
+	 * Gets the active demographic records of the registrations, other than the
+	 * given one, that share a blocking key and have the given status. Each
+	 * record is returned once for every blocking key it has, as an array of the
+	 * record and the key.
+	 *
+	 * @param blockingKeys
+	 *            the blocking keys
+	 * @param regId
+	 *            the reg id to leave out
+	 * @param statusCode
+	 *            the registration status code
+	 * @return the candidate records and their blocking keys
+	 */
+	@Query("SELECT DISTINCT demo, candidateKey.id.blockingKey FROM IndividualDemographicDedupeKeyEntity dedupeKey, IndividualDemographicDedupeEntity demo, IndividualDemographicDedupeKeyEntity candidateKey, RegistrationStatusEntity registration WHERE dedupeKey.id.blockingKey IN :blockingKeys and demo.id.regId = dedupeKey.id.regId and demo.id.langCode = dedupeKey.id.langCode and demo.id.regId <> :regId and demo.isActive = TRUE and candidateKey.id.regId = demo.id.regId and candidateKey.id.langCode = demo.id.langCode and registration.id = demo.id.regId and registration.statusCode =:statusCode")
+	public List<Object[]> getDemoDedupeCandidates(@Param("blockingKeys") Collection<String> blockingKeys,
+			@Param("regId") String regId, @Param("statusCode") String statusCode);
+
+	/**
+	 * Deletes the blocking keys of a registration.
+	 *
+	 * @param regId
+	 *            the reg id
+	 */
+	@Modifying
+	@Transactional
+	@Query("DELETE FROM IndividualDemographicDedupeKeyEntity dedupeKey WHERE dedupeKey.id.regId =:regId")
+	public void deleteDemoDedupeKeys(@Param("regId") String regId);
+
 	/**
 	 * Gets the reference id by rid.
 	 *
@@ -132,6 +132,10 @@ public class PacketInfoManagerImpl implements PacketInfoManager<Identity, Applic
 	@Value("${registration.processor.demodedupe.manualverification.status}")
 	private String manualVerificationStatus;
 
+	/** Whether the blocking keys of demo dedupe are kept. */
+	@Value("${registration.processor.demodedupe.blocking-index.enabled:false}")
+	private boolean blockingIndexEnabled;
+
 	/** The Constant MATCHED_REFERENCE_TYPE. */
 	private static final String MATCHED_REFERENCE_TYPE = "rid";
 
@@ -285,6 +289,10 @@ public class PacketInfoManagerImpl implements PacketInfoManager<Identity, Applic
 				demographicDedupeRepository.save(applicantDemographicEntity);
 
 			}
+			if (blockingIndexEnabled) {
+				packetInfoDao.saveDemographicDedupeKeys(regId,
+						PacketInfoMapper.convertDemographicDedupeDtoToKeyEntities(demographicData, regId));
+			}
 			isTransactionSuccessful = true;
 			description.setMessage("Individual Demographic Dedupe data saved ");
 
@@ -331,6 +339,10 @@ public class PacketInfoManagerImpl implements PacketInfoManager<Identity, Applic
 				demographicDedupeRepository.save(applicantDemographicEntity);
 
 			}
+			if (blockingIndexEnabled) {
+				packetInfoDao.saveDemographicDedupeKeys(registrationId,
+						PacketInfoMapper.convertDemographicDedupeDtoToKeyEntities(demographicData, registrationId));
+			}
 			isTransactionSuccessful = true;
 			description.setMessage("Individual Demographic Dedupe data saved ");
 
@@ -0,0 +1,569 @@
+package io.mosip.registration.processor.packet.storage.utils;
+
+import java.io.IOException;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.json.simple.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.rest.client.utils.RestApiClient;
+
+/**
+ * Cache of the documents the stages read from the config server, the identity
+ * mapping json, the id schema, the print and notification templates, keyed by
+ * url. A document is downloaded on its first use and then served from memory,
+ * its json parsed once into a view whose objects and arrays can not be
+ * modified, so that the packet path neither calls the config server nor
+ * parses. The documents are downloaded over the pooled connections of the
+ * {@link RestApiClient}.
+ *
+ * The documents are revalidated in the background, with the ETag the config
+ * server sent as If-None-Match, and at once when the refresh scope is
+ * refreshed. A document that fails to revalidate keeps being served.
+ *
+ * Properties, all optional:
+ *
+ * <pre>
+ * registration.processor.config.document.cache.enabled              (true)
+ * registration.processor.config.document.cache.revalidate-seconds   0 to revalidate on refresh only (300)
+ * </pre>
+ *
+ * @since 1.0.9
+ */
+public class ConfigDocumentCache {
+
+	private static Logger regProcLogger = RegProcessorLogger.getLogger(ConfigDocumentCache.class);
+
+	@Value("${registration.processor.config.document.cache.enabled:true}")
+	private boolean enabled;
+
+	@Value("${registration.processor.config.document.cache.revalidate-seconds:300}")
+	private long revalidateSeconds;
+
+	private final RestApiClient restApiClient;
+
+	private final RestTemplate restTemplate;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final Map<String, ConfigDocument> documents = new ConcurrentHashMap<>();
+
+	/** Per url locks so that concurrent first uses download a document once. */
+	private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService revalidator;
+
+	public ConfigDocumentCache(RestApiClient restApiClient) {
+		this.restApiClient = restApiClient;
+		this.restTemplate = null;
+	}
+
+	public ConfigDocumentCache(RestTemplate restTemplate, long revalidateSeconds) {
+		this.restApiClient = null;
+		this.restTemplate = restTemplate;
+		this.enabled = true;
+		this.revalidateSeconds = revalidateSeconds;
+	}
+
+	/**
+	 * Starts the background revalidation, if enabled.
+	 */
+	@PostConstruct
+	public void start() {
+		if (!enabled || revalidateSeconds <= 0) {
+			return;
+		}
+		revalidator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "config-document-revalidator");
+			thread.setDaemon(true);
+			return thread;
+		});
+		revalidator.scheduleWithFixedDelay(this::revalidateAll, revalidateSeconds, revalidateSeconds,
+				TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Stops the background revalidation.
+	 */
+	@PreDestroy
+	public void stop() {
+		if (revalidator != null) {
+			revalidator.shutdownNow();
+		}
+	}
+
+	/**
+	 * Gets the text of the document.
+	 *
+	 * @param url
+	 *            the url of the document
+	 * @return the text
+	 * @throws RestClientException
+	 *             if the document is not cached and could not be downloaded
+	 */
+	public String getText(String url) {
+		return getDocument(url).getText();
+	}
+
+	/**
+	 * Gets the parsed json of the document. The view is shared by every
+	 * caller, its objects and arrays, and their key, value and entry sets,
+	 * iterators and sub lists, throw on modification.
+	 *
+	 * @param url
+	 *            the url of the document
+	 * @return the json
+	 * @throws IOException
+	 *             if the document is not json
+	 * @throws RestClientException
+	 *             if the document is not cached and could not be downloaded
+	 */
+	public JSONObject getJson(String url) throws IOException {
+		return getDocument(url).getJson(mapper);
+	}
+
+	/**
+	 * Revalidates every cached document against the config server.
+	 */
+	public void revalidateAll() {
+		for (String url : documents.keySet()) {
+			revalidate(url);
+		}
+	}
+
+	/**
+	 * Revalidates the documents once the refresh scope is refreshed, as the
+	 * config files may have changed with the properties.
+	 *
+	 * @param event
+	 *            the refresh event
+	 */
+	@EventListener
+	public void onRefresh(RefreshScopeRefreshedEvent event) {
+		regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(), "",
+				"ConfigDocumentCache::onRefresh()::revalidating " + documents.size() + " documents");
+		revalidateAll();
+	}
+
+	public int size() {
+		return documents.size();
+	}
+
+	private ConfigDocument getDocument(String url) {
+		if (!enabled) {
+			return download(url, null);
+		}
+		ConfigDocument document = documents.get(url);
+		if (document != null) {
+			return document;
+		}
+		Object lock = loadLocks.computeIfAbsent(url, key -> new Object());
+		synchronized (lock) {
+			try {
+				document = documents.get(url);
+				if (document == null) {
+					document = download(url, null);
+					documents.put(url, document);
+				}
+				return document;
+			} finally {
+				loadLocks.remove(url, lock);
+			}
+		}
+	}
+
+	private void revalidate(String url) {
+		ConfigDocument current = documents.get(url);
+		if (current == null) {
+			return;
+		}
+		try {
+			ConfigDocument document = download(url, current);
+			if (document != current) {
+				documents.put(url, document);
+				regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+						url, "ConfigDocumentCache::revalidate()::document changed");
+			}
+		} catch (RestClientException e) {
+			regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					url, "ConfigDocumentCache::revalidate()::keeping the cached document " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Downloads the document, or revalidates the current one.
+	 *
+	 * @return the current document if it has not changed
+	 */
+	private ConfigDocument download(String url, ConfigDocument current) {
+		HttpHeaders headers = new HttpHeaders();
+		if (current != null && current.getEtag() != null) {
+			headers.setIfNoneMatch(current.getEtag());
+		}
+		ResponseEntity<String> response = getRestTemplate(url).exchange(url, HttpMethod.GET,
+				new HttpEntity<>(headers), String.class);
+		if (current != null && (response.getStatusCode() == HttpStatus.NOT_MODIFIED
+				|| Objects.equals(current.getText(), response.getBody()))) {
+			return current;
+		}
+		return new ConfigDocument(response.getBody(), response.getHeaders().getETag());
+	}
+
+	private RestTemplate getRestTemplate(String url) {
+		if (restTemplate != null) {
+			return restTemplate;
+		}
+		try {
+			return restApiClient.getRestTemplate(url);
+		} catch (KeyManagementException | NoSuchAlgorithmException | KeyStoreException e) {
+			throw new RestClientException("Could not create the pooled rest template", e);
+		}
+	}
+
+	/**
+	 * A downloaded document, its json parsed on first use.
+	 */
+	private static final class ConfigDocument {
+
+		private final String text;
+
+		private final String etag;
+
+		private volatile JSONObject json;
+
+		ConfigDocument(String text, String etag) {
+			this.text = text;
+			this.etag = etag;
+		}
+
+		String getText() {
+			return text;
+		}
+
+		String getEtag() {
+			return etag;
+		}
+
+		JSONObject getJson(ObjectMapper mapper) throws IOException {
+			JSONObject view = json;
+			if (view == null) {
+				synchronized (this) {
+					view = json;
+					if (view == null) {
+						view = new UnmodifiableJSONObject(freeze(mapper.readValue(text, LinkedHashMap.class)));
+						json = view;
+					}
+				}
+			}
+			return view;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T freeze(Object value) {
+		if (value instanceof Map) {
+			LinkedHashMap<Object, Object> frozen = new LinkedHashMap<>();
+			((Map<Object, Object>) value).forEach((key, item) -> frozen.put(key, freeze(item)));
+			return (T) new UnmodifiableMap(frozen);
+		}
+		if (value instanceof List) {
+			List<Object> frozen = new ArrayList<>();
+			((List<Object>) value).forEach(item -> frozen.add(freeze(item)));
+			return (T) new UnmodifiableList(frozen);
+		}
+		return (T) value;
+	}
+
+	/**
+	 * A json object of a cached document. It stays a {@link LinkedHashMap}, as
+	 * the json utilities expect, with the modifying methods throwing and the
+	 * key, value and entry sets served from an unmodifiable view of the same
+	 * entries.
+	 */
+	private static final class UnmodifiableMap extends LinkedHashMap<Object, Object> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Map<Object, Object> view;
+
+		UnmodifiableMap(Map<Object, Object> map) {
+			super(map);
+			this.view = Collections.unmodifiableMap(map);
+		}
+
+		@Override
+		public Set<Object> keySet() {
+			return view.keySet();
+		}
+
+		@Override
+		public Collection<Object> values() {
+			return view.values();
+		}
+
+		@Override
+		public Set<Map.Entry<Object, Object>> entrySet() {
+			return view.entrySet();
+		}
+
+		@Override
+		public Object put(Object key, Object value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void putAll(Map<?, ?> map) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object remove(Object key) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean remove(Object key, Object value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void clear() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object putIfAbsent(Object key, Object value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object replace(Object key, Object value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean replace(Object key, Object oldValue, Object newValue) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void replaceAll(BiFunction<? super Object, ? super Object, ?> function) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object computeIfAbsent(Object key, Function<? super Object, ?> function) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object computeIfPresent(Object key, BiFunction<? super Object, ? super Object, ?> function) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object compute(Object key, BiFunction<? super Object, ? super Object, ?> function) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object merge(Object key, Object value, BiFunction<? super Object, ? super Object, ?> function) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * The root json object of a cached document.
+	 */
+	private static final class UnmodifiableJSONObject extends JSONObject {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Map<Object, Object> view;
+
+		UnmodifiableJSONObject(Map<Object, Object> map) {
+			super(map);
+			this.view = Collections.unmodifiableMap(map);
+		}
+
+		@SuppressWarnings("rawtypes")
+		@Override
+		public Set keySet() {
+			return view.keySet();
+		}
+
+		@SuppressWarnings("rawtypes")
+		@Override
+		public Collection values() {
+			return view.values();
+		}
+
+		@SuppressWarnings("rawtypes")
+		@Override
+		public Set entrySet() {
+			return view.entrySet();
+		}
+
+		@Override
+		public Object put(Object key, Object value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@SuppressWarnings("rawtypes")
+		@Override
+		public void putAll(Map map) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object remove(Object key) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void clear() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * A json array of a cached document. It stays an {@link ArrayList}, as the
+	 * json utilities expect, with the modifying methods throwing and the
+	 * iterators and sub lists served from an unmodifiable view of the same
+	 * items.
+	 */
+	private static final class UnmodifiableList extends ArrayList<Object> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<Object> view;
+
+		UnmodifiableList(List<Object> items) {
+			super(items);
+			this.view = Collections.unmodifiableList(items);
+		}
+
+		@Override
+		public Iterator<Object> iterator() {
+			return view.iterator();
+		}
+
+		@Override
+		public ListIterator<Object> listIterator() {
+			return view.listIterator();
+		}
+
+		@Override
+		public ListIterator<Object> listIterator(int index) {
+			return view.listIterator(index);
+		}
+
+		@Override
+		public List<Object> subList(int fromIndex, int toIndex) {
+			return view.subList(fromIndex, toIndex);
+		}
+
+		@Override
+		public boolean add(Object item) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void add(int index, Object item) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean addAll(Collection<?> items) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean addAll(int index, Collection<?> items) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object set(int index, Object item) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object remove(int index) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean remove(Object item) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean removeAll(Collection<?> items) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean retainAll(Collection<?> items) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean removeIf(Predicate<? super Object> filter) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void replaceAll(UnaryOperator<Object> operator) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void sort(Comparator<? super Object> comparator) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void clear() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package io.mosip.registration.processor.packet.storage.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.commons.codec.language.Soundex;
+
+/**
+ * Blocking keys of the demographic dedupe.
+ *
+ * A name is normalized to its tokens: decomposed, without diacritics, lower
+ * case and split on anything not a letter or digit. A record gets one blocking
+ * key per distinct name token, made of the language code, the phonetic code of
+ * the token, the gender and the year and month of birth. Latin tokens are coded
+ * with Soundex, other scripts keep the token itself.
+ *
+ * @since 1.0.9
+ */
+public class DemoDedupeKeyUtil {
+
+	private static final String SEPARATOR = "|";
+
+	private static final int MAX_TOKEN_LENGTH = 64;
+
+	private static final int DOB_KEY_LENGTH = 6;
+
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+	private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private static final Pattern LATIN_TOKEN = Pattern.compile("[a-z]+");
+
+	private static final Pattern NON_DIGITS = Pattern.compile("\\D+");
+
+	private static final Soundex SOUNDEX = new Soundex();
+
+	private DemoDedupeKeyUtil() {
+	}
+
+	/**
+	 * Gets the normalized tokens of a name.
+	 *
+	 * @param name
+	 *            the name
+	 * @return the tokens, in order
+	 */
+	public static List<String> nameTokens(String name) {
+		List<String> tokens = new ArrayList<>();
+		if (name == null) {
+			return tokens;
+		}
+		for (String token : TOKEN_SEPARATOR.split(normalize(name))) {
+			if (!token.isEmpty()) {
+				tokens.add(token);
+			}
+		}
+		return tokens;
+	}
+
+	/**
+	 * Gets the normalized gender.
+	 *
+	 * @param gender
+	 *            the gender
+	 * @return the normalized gender, empty if none
+	 */
+	private static String normalizeGender(String gender) {
+		return gender != null ? normalize(gender).trim() : "";
+	}
+
+	/**
+	 * Gets the digits of a date of birth.
+	 *
+	 * @param dob
+	 *            the date of birth
+	 * @return the digits, empty if none
+	 */
+	private static String normalizeDob(String dob) {
+		return dob != null ? NON_DIGITS.matcher(dob).replaceAll("") : "";
+	}
+
+	/**
+	 * Gets the blocking keys of a demographic record in one language.
+	 *
+	 * @param langCode
+	 *            the lang code
+	 * @param names
+	 *            the values of the name fields
+	 * @param gender
+	 *            the gender
+	 * @param dob
+	 *            the date of birth
+	 * @return the blocking keys, empty if the name has no token
+	 */
+	public static Set<String> blockingKeys(String langCode, List<String> names, String gender, String dob) {
+		Set<String> keys = new LinkedHashSet<>();
+		String dobKey = normalizeDob(dob);
+		if (dobKey.length() > DOB_KEY_LENGTH) {
+			dobKey = dobKey.substring(0, DOB_KEY_LENGTH);
+		}
+		String suffix = SEPARATOR + normalizeGender(gender) + SEPARATOR + dobKey;
+		for (String name : names) {
+			for (String token : nameTokens(name)) {
+				keys.add(langCode + SEPARATOR + phoneticCode(token) + suffix);
+			}
+		}
+		return keys;
+	}
+
+	private static String phoneticCode(String token) {
+		if (LATIN_TOKEN.matcher(token).matches()) {
+			String code = SOUNDEX.encode(token);
+			if (!code.isEmpty()) {
+				return code;
+			}
+		}
+		return token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token;
+	}
+
+	private static String normalize(String value) {
+		return DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFKD)).replaceAll("")
+				.toLowerCase(Locale.ROOT);
+	}
+}
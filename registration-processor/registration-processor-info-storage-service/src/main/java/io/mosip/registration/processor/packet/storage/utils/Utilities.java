@@ -112,6 +112,12 @@ public class Utilities {
 	@Autowired
 	private MosipQueueConnectionFactory<MosipQueue> mosipConnectionFactory;
 
+	/** The config document cache, null to download the config files on every use. */
+	private ConfigDocumentCache configDocumentCache;
+
+	/** The config document cache of the static {@link #getJson(String, String)}. */
+	private static volatile ConfigDocumentCache sharedConfigDocumentCache;
+
 	/** The config server file storage URL. */
 	@Value("${config.server.file.storage.uri}")
 	private String configServerFileStorageURL;
@@ -210,10 +216,26 @@ public class Utilities {
 	 * @return the json
 	 */
 	public static String getJson(String configServerFileStorageURL, String uri) {
+		ConfigDocumentCache cache = sharedConfigDocumentCache;
+		if (cache != null) {
+			return cache.getText(configServerFileStorageURL + uri);
+		}
 		RestTemplate restTemplate = new RestTemplate();
 		return restTemplate.getForObject(configServerFileStorageURL + uri, String.class);
 	}
 
+	/**
+	 * Sets the config document cache the config files are read through.
+	 *
+	 * @param configDocumentCache
+	 *            the config document cache
+	 */
+	@Autowired(required = false)
+	public void setConfigDocumentCache(ConfigDocumentCache configDocumentCache) {
+		this.configDocumentCache = configDocumentCache;
+		sharedConfigDocumentCache = configDocumentCache;
+	}
+
 	/**
 	 * get applicant age by registration id. Checks the id json if dob or age
 	 * present, if yes returns age if both dob or age are not present then retrieves
@@ -390,6 +412,13 @@ public class Utilities {
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"Utilities::getRegistrationProcessorIdentityJson()::entry");
 
+		if (configDocumentCache != null) {
+			regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+					"Utilities::getRegistrationProcessorIdentityJson()::exit");
+			return JsonUtil.getJSONObject(
+					configDocumentCache.getJson(configServerFileStorageURL + getRegProcessorIdentityJson),
+					MappingJsonConstants.IDENTITY);
+		}
 		String getIdentityJsonString = Utilities.getJson(configServerFileStorageURL, getRegProcessorIdentityJson);
 		ObjectMapper mapIdentityJsonStringToObject = new ObjectMapper();
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
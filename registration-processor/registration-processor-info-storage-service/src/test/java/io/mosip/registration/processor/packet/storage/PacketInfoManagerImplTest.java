@@ -32,6 +32,7 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
 
 import io.mosip.kernel.core.dataaccess.exception.DataAccessLayerException;
 import io.mosip.kernel.dataaccess.hibernate.constant.HibernateErrorCode;
@@ -1004,6 +1005,22 @@ public class PacketInfoManagerImplTest {
 				.thenReturn(applicantDemographicEntities);
 		Mockito.when(demographicDedupeRepository.save(any())).thenReturn(entity);
 		packetInfoManagerImpl.saveIndividualDemographicDedupeUpdatePacket(demographicData, "1001", "", "");
+		Mockito.verify(packetInfoDao, Mockito.never()).saveDemographicDedupeKeys(any(), any());
+
+	}
+
+	@Test
+	public void testsaveIndividualDemographicDedupeWithBlockingIndex() {
+
+		Whitebox.setInternalState(packetInfoManagerImpl, "blockingIndexEnabled", true);
+		IndividualDemographicDedupe demographicData = new IndividualDemographicDedupe();
+		demographicData.setDateOfBirth("2019-03-02T06:29:41.011Z");
+		PowerMockito.mockStatic(PacketInfoMapper.class);
+		Mockito.when(PacketInfoMapper.converDemographicDedupeDtoToEntity(any(), any())).thenReturn(new ArrayList<>());
+		Mockito.when(PacketInfoMapper.convertDemographicDedupeDtoToKeyEntities(any(), any()))
+				.thenReturn(new ArrayList<>());
+		packetInfoManagerImpl.saveIndividualDemographicDedupeUpdatePacket(demographicData, "1001", "", "");
+		Mockito.verify(packetInfoDao).saveDemographicDedupeKeys(any(), any());
 
 	}
 
@@ -0,0 +1,351 @@
+package io.mosip.registration.processor.packet.storage.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.query.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.mosip.registration.processor.packet.storage.entity.IndividualDemographicDedupeEntity;
+import io.mosip.registration.processor.packet.storage.entity.IndividualDemographicDedupeKeyEntity;
+import io.mosip.registration.processor.packet.storage.mapper.PacketInfoMapper;
+import io.mosip.registration.processor.packet.storage.repository.BasePacketRepository;
+import io.mosip.registration.processor.packet.storage.utils.DemoDedupeKeyUtil;
+import io.mosip.registration.processor.status.entity.RegistrationStatusEntity;
+
+/**
+ * Cost of finding the demographic duplicates of one applicant in a synthetic
+ * {@code individual_demographic_dedup} table of {@code rows} records, with
+ * values hashed as the packet storage stores them. Compares the exact match
+ * query per language followed by one UIN check per candidate (the old path)
+ * with reading the applicant's blocking keys and the candidates, with their
+ * keys and UIN availability, in one query, then scoring them. The blocking key
+ * queries are the ones of {@link BasePacketRepository}, run by Hibernate on
+ * in-memory H2, so {@code roundTripMicros} adds a simulated network round trip
+ * per statement.
+ *
+ * Each applicant has two exact duplicates and two whose first name is spelled
+ * differently; the old path finds the first two, the blocking key index all
+ * four. For the 10M row table give the fork more memory:
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/test-classes:&lt;test classpath&gt; org.openjdk.jmh.Main DemoDedupeCandidateBenchmark -p rows=10000000 -jvmArgsAppend -Xmx24g
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class DemoDedupeCandidateBenchmark {
+
+	private static final int APPLICANTS = 200;
+
+	private static final String LANG_CODE = "eng";
+
+	private static final String PROCESSED = "PROCESSED";
+
+	private static final String[] SYLLABLES = { "ba", "ko", "mi", "ra", "sen", "tu", "la", "dor", "vi", "an", "el",
+			"ni", "ga", "ro", "shi", "ka", "mu", "ze", "pa", "lin", "fo", "de", "ta", "ju", "ri", "no", "wa", "be" };
+
+	private static final DateTimeFormatter DOB_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+
+	private static final String LEGACY_CANDIDATES = "SELECT i FROM IndividualDemographicDedupeEntity i WHERE i.name=:name "
+			+ " AND i.gender=:gender  AND i.dob=:dob  AND i.id.langCode=:langCode AND i.isActive=:isActive";
+
+	private static final String LEGACY_UIN_AVAILABILITY = "SELECT r FROM RegistrationStatusEntity r WHERE r.id = :rid "
+			+ " AND r.statusCode = :status_Code";
+
+	@Param({ "1000000" })
+	private int rows;
+
+	@Param({ "0", "500" })
+	private long roundTripMicros;
+
+	private SessionFactory sessionFactory;
+
+	private String findDemoById;
+
+	private String getDemoDedupeKeys;
+
+	private String getDemoDedupeCandidates;
+
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() throws NoSuchMethodException {
+		findDemoById = BasePacketRepository.class.getMethod("findDemoById", String.class)
+				.getAnnotation(org.springframework.data.jpa.repository.Query.class).value();
+		getDemoDedupeKeys = BasePacketRepository.class.getMethod("getDemoDedupeKeys", String.class)
+				.getAnnotation(org.springframework.data.jpa.repository.Query.class).value();
+		getDemoDedupeCandidates = BasePacketRepository.class
+				.getMethod("getDemoDedupeCandidates", Collection.class, String.class, String.class)
+				.getAnnotation(org.springframework.data.jpa.repository.Query.class).value();
+		sessionFactory = new Configuration().addAnnotatedClass(IndividualDemographicDedupeEntity.class)
+				.addAnnotatedClass(IndividualDemographicDedupeKeyEntity.class)
+				.addAnnotatedClass(RegistrationStatusEntity.class)
+				.setProperty("hibernate.connection.url", "jdbc:h2:mem:dedupe;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS regprc")
+				.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+				.setProperty("hibernate.hbm2ddl.auto", "create")
+				.setProperty("hibernate.hbm2ddl.create_namespaces", "true").buildSessionFactory();
+		try (Session session = sessionFactory.openSession()) {
+			session.doWork(connection -> {
+				connection.setAutoCommit(false);
+				try (Statement statement = connection.createStatement()) {
+					// the generated primary keys order their columns by name, index them as the DDL does;
+					// like the DDL there is no index on name and dob
+					statement.execute("CREATE INDEX idx_idemogd_id ON regprc.individual_demographic_dedup (reg_id, lang_code)");
+					statement.execute("CREATE INDEX idx_idemogdk_regid ON regprc.individual_demographic_dedup_key (reg_id)");
+				}
+				try (Populator populator = new Populator(connection.prepareStatement(
+						"INSERT INTO regprc.registration(id, reg_type, status_code, lang_code, is_active, upd_version) VALUES (?, 'NEW', ?, ?, TRUE, 0)"),
+						connection.prepareStatement(
+								"INSERT INTO regprc.individual_demographic_dedup(reg_id, lang_code, name, dob, gender, is_active, cr_by, cr_dtimes) VALUES (?, ?, ?, ?, ?, TRUE, 'SYSTEM', ?)"),
+						connection.prepareStatement(
+								"INSERT INTO regprc.individual_demographic_dedup_key(blocking_key, reg_id, lang_code, cr_by, cr_dtimes) VALUES (?, ?, ?, 'SYSTEM', ?)"))) {
+					Random random = new Random(42);
+					for (int i = 0; i < APPLICANTS; i++) {
+						String firstName = name(random);
+						String lastName = name(random);
+						String gender = random.nextBoolean() ? "Male" : "Female";
+						String dob = dob(random);
+						populator.add("A" + i, "PROCESSING", firstName, lastName, gender, dob);
+						populator.add("A" + i + "-exact-1", PROCESSED, firstName, lastName, gender, dob);
+						populator.add("A" + i + "-exact-2", PROCESSED, firstName, lastName, gender, dob);
+						populator.add("A" + i + "-variant-1", PROCESSED, firstName + firstName.charAt(firstName.length() - 1),
+								lastName, gender, dob);
+						populator.add("A" + i + "-variant-2", PROCESSED,
+								firstName.charAt(0) + "h" + firstName.substring(1), lastName, gender, dob);
+					}
+					for (int i = APPLICANTS * 5; i < rows; i++) {
+						populator.add("R" + i, random.nextInt(10) == 0 ? "PROCESSING" : PROCESSED, name(random),
+								name(random), random.nextBoolean() ? "Male" : "Female", dob(random));
+					}
+				}
+				connection.commit();
+			});
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		sessionFactory.close();
+	}
+
+	@Benchmark
+	public int exactMatchThenUinCheck() {
+		String regId = nextApplicant();
+		int matches = 0;
+		try (Session session = sessionFactory.openSession()) {
+			for (IndividualDemographicDedupeEntity applicant : findDemoById(session, regId)) {
+				roundTrip();
+				List<IndividualDemographicDedupeEntity> candidates = session
+						.createQuery(LEGACY_CANDIDATES, IndividualDemographicDedupeEntity.class)
+						.setParameter("name", applicant.getName()).setParameter("gender", applicant.getGender())
+						.setParameter("dob", applicant.getDob()).setParameter("langCode", applicant.getId().getLangCode())
+						.setParameter("isActive", true).getResultList();
+				for (IndividualDemographicDedupeEntity candidate : candidates) {
+					roundTrip();
+					if (!session.createQuery(LEGACY_UIN_AVAILABILITY, RegistrationStatusEntity.class)
+							.setParameter("rid", candidate.getId().getRegId()).setParameter("status_Code", PROCESSED)
+							.getResultList().isEmpty()) {
+						matches++;
+					}
+				}
+			}
+		}
+		return matches;
+	}
+
+	@Benchmark
+	public int blockingKeyIndex() {
+		String regId = nextApplicant();
+		Map<String, IndividualDemographicDedupeEntity> applicantByLangCode = new HashMap<>();
+		Map<String, Set<String>> keysByLangCode = new HashMap<>();
+		Map<IndividualDemographicDedupeEntity, Set<String>> candidates = new HashMap<>();
+		try (Session session = sessionFactory.openSession()) {
+			for (IndividualDemographicDedupeEntity applicant : findDemoById(session, regId)) {
+				applicantByLangCode.put(applicant.getId().getLangCode(), applicant);
+			}
+			roundTrip();
+			Set<String> allKeys = new HashSet<>();
+			for (IndividualDemographicDedupeKeyEntity key : session
+					.createQuery(getDemoDedupeKeys, IndividualDemographicDedupeKeyEntity.class)
+					.setParameter("regId", regId).getResultList()) {
+				keysByLangCode.computeIfAbsent(key.getId().getLangCode(), langCode -> new HashSet<>())
+						.add(key.getId().getBlockingKey());
+				allKeys.add(key.getId().getBlockingKey());
+			}
+			roundTrip();
+			Query<Object[]> query = session.createQuery(getDemoDedupeCandidates, Object[].class);
+			query.setParameterList("blockingKeys", allKeys).setParameter("regId", regId).setParameter("statusCode",
+					PROCESSED);
+			for (Object[] row : query.getResultList()) {
+				candidates.computeIfAbsent((IndividualDemographicDedupeEntity) row[0], entity -> new HashSet<>())
+						.add((String) row[1]);
+			}
+		}
+		Set<String> matches = new HashSet<>();
+		for (Map.Entry<IndividualDemographicDedupeEntity, Set<String>> candidate : candidates.entrySet()) {
+			IndividualDemographicDedupeEntity candidateEntity = candidate.getKey();
+			IndividualDemographicDedupeEntity applicant = applicantByLangCode.get(candidateEntity.getId().getLangCode());
+			Set<String> applicantKeys = keysByLangCode.get(candidateEntity.getId().getLangCode());
+			if (applicant == null || applicantKeys == null || !applicant.getDob().equals(candidateEntity.getDob())
+					|| !applicant.getGender().equals(candidateEntity.getGender())) {
+				continue;
+			}
+			int sharedKeys = 0;
+			for (String key : candidate.getValue()) {
+				if (applicantKeys.contains(key)) {
+					sharedKeys++;
+				}
+			}
+			if (applicant.getName().equals(candidateEntity.getName())
+					|| 2.0 * sharedKeys / (applicantKeys.size() + candidate.getValue().size()) >= 1.0) {
+				matches.add(candidateEntity.getId().getRegId());
+			}
+		}
+		return matches.size();
+	}
+
+	private List<IndividualDemographicDedupeEntity> findDemoById(Session session, String regId) {
+		roundTrip();
+		return session.createQuery(findDemoById, IndividualDemographicDedupeEntity.class).setParameter("regId", regId)
+				.getResultList();
+	}
+
+	private String nextApplicant() {
+		next = (next + 1) % APPLICANTS;
+		return "A" + next;
+	}
+
+	private void roundTrip() {
+		if (roundTripMicros > 0) {
+			LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+		}
+	}
+
+	private static String name(Random random) {
+		StringBuilder name = new StringBuilder();
+		int syllables = 2 + random.nextInt(2);
+		for (int i = 0; i < syllables; i++) {
+			name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+		}
+		name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+		return name.toString();
+	}
+
+	private static String dob(Random random) {
+		return LocalDate.of(1950, 1, 1).plusDays(random.nextInt(60 * 365)).format(DOB_FORMAT);
+	}
+
+	/**
+	 * Inserts registrations with their demographic record and blocking keys in
+	 * batches, hashed as the packet storage does.
+	 */
+	private static class Populator implements AutoCloseable {
+
+		private static final int BATCH_SIZE = 5000;
+
+		private final PreparedStatement registration;
+
+		private final PreparedStatement demographic;
+
+		private final PreparedStatement blockingKey;
+
+		private final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+		private final List<PreparedStatement> statements;
+
+		private int pending;
+
+		Populator(PreparedStatement registration, PreparedStatement demographic, PreparedStatement blockingKey) {
+			this.registration = registration;
+			this.demographic = demographic;
+			this.blockingKey = blockingKey;
+			this.statements = new ArrayList<>(Arrays.asList(registration, demographic, blockingKey));
+		}
+
+		void add(String regId, String statusCode, String firstName, String lastName, String gender, String dob)
+				throws SQLException {
+			registration.setString(1, regId);
+			registration.setString(2, statusCode);
+			registration.setString(3, LANG_CODE);
+			registration.addBatch();
+			demographic.setString(1, regId);
+			demographic.setString(2, LANG_CODE);
+			demographic.setString(3, PacketInfoMapper.getHMACHashCode((firstName + lastName).toUpperCase()));
+			demographic.setString(4, PacketInfoMapper.getHMACHashCode(dob));
+			demographic.setString(5, PacketInfoMapper.getHMACHashCode(gender));
+			demographic.setTimestamp(6, now);
+			demographic.addBatch();
+			for (String key : DemoDedupeKeyUtil.blockingKeys(LANG_CODE, Arrays.asList(firstName, lastName), gender,
+					dob)) {
+				blockingKey.setString(1, PacketInfoMapper.getHMACHashCode(key));
+				blockingKey.setString(2, regId);
+				blockingKey.setString(3, LANG_CODE);
+				blockingKey.setTimestamp(4, now);
+				blockingKey.addBatch();
+			}
+			if (++pending == BATCH_SIZE) {
+				flush();
+			}
+		}
+
+		private void flush() throws SQLException {
+			for (PreparedStatement statement : statements) {
+				statement.executeBatch();
+			}
+			pending = 0;
+		}
+
+		@Override
+		public void close() throws SQLException {
+			flush();
+			for (PreparedStatement statement : statements) {
+				statement.close();
+			}
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(DemoDedupeCandidateBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,235 @@
+package io.mosip.registration.processor.packet.storage.dao;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.mosip.registration.processor.packet.storage.repository.BasePacketRepository;
+
+/**
+ * Latency of assigning a pending manual verification record to one of 200
+ * verifiers assigning at the same time, on a copy of
+ * {@code reg_manual_verification} with the indexes of the DDL and {@code rows}
+ * pending records. Compares reading the oldest pending record and updating it
+ * by primary key (the old path, where concurrent verifiers wait on the same
+ * row) with the SKIP LOCKED claim of {@link BasePacketRepository}, run as
+ * declared there.
+ *
+ * Needs the mosip_regprc database on PostgreSQL 9.5 or later, with
+ * {@code max_connections} above the thread count. The benchmark table is
+ * created and dropped in its {@code public} schema:
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/test-classes:&lt;test classpath&gt; org.openjdk.jmh.Main ManualVerificationClaimBenchmark -p url=jdbc:postgresql://localhost:5432/mosip_regprc -p user=sysadmin -p password=...
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(200)
+@Fork(1)
+public class ManualVerificationClaimBenchmark {
+
+	private static final String TABLE = "regprc.reg_manual_verification";
+
+	private static final String BENCHMARK_TABLE = "mv_claim_benchmark";
+
+	private static final String PENDING = "PENDING";
+
+	private static final String ASSIGNED = "ASSIGNED";
+
+	private static final String MATCH_TYPE = "DEMO";
+
+	private static final Pattern NAMED_PARAMETER = Pattern.compile(":(\\w+)");
+
+	private static final String FIRST_APPLICANT = "SELECT reg_id, matched_ref_id, matched_ref_type FROM "
+			+ BENCHMARK_TABLE + " WHERE cr_dtimes IN (SELECT min(cr_dtimes) FROM " + BENCHMARK_TABLE
+			+ " WHERE status_code=? AND trntyp_code=?) AND status_code=?";
+
+	private static final String ASSIGN = "UPDATE " + BENCHMARK_TABLE
+			+ " SET status_code=?, mv_usr_id=?, upd_by=?, upd_dtimes=? WHERE reg_id=? AND matched_ref_id=? AND matched_ref_type=?";
+
+	@Param({ "jdbc:postgresql://localhost:5432/mosip_regprc" })
+	private String url;
+
+	@Param({ "postgres" })
+	private String user;
+
+	@Param({ "" })
+	private String password;
+
+	@Param({ "1000000" })
+	private int rows;
+
+	@Param({ "1" })
+	private int batchSize;
+
+	private String claim;
+
+	private List<String> claimParameters;
+
+	/**
+	 * Connection and statements of one verifier.
+	 */
+	@State(Scope.Thread)
+	public static class Verifier {
+
+		private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+		private final String userId = "mvusr" + NEXT_ID.incrementAndGet();
+
+		private Connection connection;
+
+		private PreparedStatement firstApplicant;
+
+		private PreparedStatement assign;
+
+		private PreparedStatement claim;
+
+		@Setup(Level.Trial)
+		public void connect(ManualVerificationClaimBenchmark benchmark) throws SQLException {
+			connection = benchmark.connect();
+			connection.setAutoCommit(false);
+			firstApplicant = connection.prepareStatement(FIRST_APPLICANT);
+			assign = connection.prepareStatement(ASSIGN);
+			claim = connection.prepareStatement(benchmark.claim);
+		}
+
+		@TearDown(Level.Trial)
+		public void close() throws SQLException {
+			connection.close();
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setup() throws NoSuchMethodException, SQLException {
+		String query = BasePacketRepository.class
+				.getMethod("claimApplicants", String.class, String.class, String.class, String.class,
+						Timestamp.class, int.class)
+				.getAnnotation(org.springframework.data.jpa.repository.Query.class).value()
+				.replace(TABLE, BENCHMARK_TABLE);
+		claimParameters = new ArrayList<>();
+		Matcher matcher = NAMED_PARAMETER.matcher(query);
+		while (matcher.find()) {
+			claimParameters.add(matcher.group(1));
+		}
+		claim = matcher.replaceAll("?");
+
+		try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS " + BENCHMARK_TABLE);
+			statement.execute("CREATE TABLE " + BENCHMARK_TABLE + " (LIKE " + TABLE + " INCLUDING ALL)");
+			statement.execute("INSERT INTO " + BENCHMARK_TABLE + " (reg_id, matched_ref_id, matched_ref_type, "
+					+ "status_code, trntyp_code, lang_code, is_active, cr_by, cr_dtimes) SELECT lpad(i::text, 29, '1'), "
+					+ "lpad(i::text, 29, '2'), 'DEMO', '" + PENDING + "', CASE WHEN i % 2 = 0 THEN 'DEMO' ELSE 'BIO' END, "
+					+ "'eng', TRUE, 'MOSIP_SYSTEM', timestamp '2020-01-01' + i * interval '1 second' "
+					+ "FROM generate_series(1, " + rows + ") AS i");
+			statement.execute("ANALYZE " + BENCHMARK_TABLE);
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void reset() throws SQLException {
+		try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+			statement.execute("UPDATE " + BENCHMARK_TABLE + " SET status_code='" + PENDING
+					+ "', mv_usr_id=NULL WHERE status_code<>'" + PENDING + "'");
+			statement.execute("VACUUM ANALYZE " + BENCHMARK_TABLE);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS " + BENCHMARK_TABLE);
+		}
+	}
+
+	@Benchmark
+	public int firstApplicantThenUpdate(Verifier verifier) throws SQLException {
+		verifier.firstApplicant.setString(1, PENDING);
+		verifier.firstApplicant.setString(2, MATCH_TYPE);
+		verifier.firstApplicant.setString(3, PENDING);
+		String[] key = null;
+		try (ResultSet resultSet = verifier.firstApplicant.executeQuery()) {
+			if (resultSet.next()) {
+				key = new String[] { resultSet.getString(1), resultSet.getString(2), resultSet.getString(3) };
+			}
+		}
+		int assigned = 0;
+		if (key != null) {
+			verifier.assign.setString(1, ASSIGNED);
+			verifier.assign.setString(2, verifier.userId);
+			verifier.assign.setString(3, verifier.userId);
+			verifier.assign.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+			verifier.assign.setString(5, key[0]);
+			verifier.assign.setString(6, key[1]);
+			verifier.assign.setString(7, key[2]);
+			assigned = verifier.assign.executeUpdate();
+		}
+		verifier.connection.commit();
+		return assigned;
+	}
+
+	@Benchmark
+	public int skipLockedClaim(Verifier verifier) throws SQLException {
+		Map<String, Object> values = new HashMap<>();
+		values.put("statusCode", PENDING);
+		values.put("assignedStatus", ASSIGNED);
+		values.put("trntyp_code", MATCH_TYPE);
+		values.put("mvUserId", verifier.userId);
+		values.put("updDtimes", new Timestamp(System.currentTimeMillis()));
+		values.put("limit", batchSize);
+		for (int i = 0; i < claimParameters.size(); i++) {
+			verifier.claim.setObject(i + 1, values.get(claimParameters.get(i)));
+		}
+		int claimed = 0;
+		try (ResultSet resultSet = verifier.claim.executeQuery()) {
+			while (resultSet.next()) {
+				claimed++;
+			}
+		}
+		verifier.connection.commit();
+		return claimed;
+	}
+
+	private Connection connect() throws SQLException {
+		return DriverManager.getConnection(url, user, password);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ManualVerificationClaimBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -1,12 +1,18 @@
 package io.mosip.registration.processor.packet.storage.dao;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -17,13 +23,18 @@ import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import io.mosip.registration.processor.core.packet.dto.demographicinfo.DemographicInfoDto;
+import io.mosip.registration.processor.packet.storage.dto.DemographicDedupeCandidateDto;
 import io.mosip.registration.processor.packet.storage.entity.AbisRequestEntity;
 import io.mosip.registration.processor.packet.storage.entity.IndividualDemographicDedupeEntity;
+import io.mosip.registration.processor.packet.storage.entity.IndividualDemographicDedupeKeyEntity;
+import io.mosip.registration.processor.packet.storage.entity.IndividualDemographicDedupeKeyPKEntity;
 import io.mosip.registration.processor.packet.storage.entity.IndividualDemographicDedupePKEntity;
 import io.mosip.registration.processor.packet.storage.entity.QcuserRegistrationIdEntity;
 import io.mosip.registration.processor.packet.storage.entity.RegBioRefEntity;
 import io.mosip.registration.processor.packet.storage.entity.RegDemoDedupeListEntity;
 import io.mosip.registration.processor.packet.storage.repository.BasePacketRepository;
+import io.mosip.registration.processor.status.entity.BaseRegistrationEntity;
+import io.mosip.registration.processor.status.repositary.RegistrationRepositary;
 
 /**
  * The Class PacketInfoDaoTest.
@@ -49,6 +60,12 @@ public class PacketInfoDaoTest {
 	@Mock
 	private BasePacketRepository<RegBioRefEntity, String> regBioRefRepository;
 
+	@Mock
+	private BasePacketRepository<IndividualDemographicDedupeKeyEntity, String> demographicDedupeKeyRepository;
+
+	@Mock
+	private RegistrationRepositary<BaseRegistrationEntity, String> registrationRepositary;
+
 	/** The applicant document entity. */
 	// @Mock
 	// private BasePacketRepository<ApplicantDocumentEntity, String>
@@ -190,4 +207,74 @@ public class PacketInfoDaoTest {
 		assertEquals("Abis", result.get(0).getAbisAppCode());
 	}
 
+	@Test
+	public void testSaveDemographicDedupeKeys() {
+		List<IndividualDemographicDedupeKeyEntity> keyEntities = Arrays.asList(keyEntity("key1", "eng"));
+		packetInfodao.saveDemographicDedupeKeys("2018782130000224092018121229", keyEntities);
+
+		Mockito.verify(demographicDedupeKeyRepository).deleteDemoDedupeKeys("2018782130000224092018121229");
+		Mockito.verify(demographicDedupeKeyRepository).saveAll(keyEntities);
+	}
+
+	@Test
+	public void testGetDemographicDedupeKeys() {
+		Mockito.when(demographicDedupeKeyRepository.getDemoDedupeKeys(anyString()))
+				.thenReturn(Arrays.asList(keyEntity("key1", "eng"), keyEntity("key2", "eng"), keyEntity("key3", "ara")));
+
+		Map<String, Set<String>> blockingKeys = packetInfodao.getDemographicDedupeKeys("2018782130000224092018121229");
+		assertEquals(new HashSet<>(Arrays.asList("key1", "key2")), blockingKeys.get("eng"));
+		assertEquals(Collections.singleton("key3"), blockingKeys.get("ara"));
+	}
+
+	@Test
+	public void testGetDemographicDedupeCandidates() {
+		IndividualDemographicDedupeEntity otherEntity = new IndividualDemographicDedupeEntity();
+		IndividualDemographicDedupePKEntity otherPKEntity = new IndividualDemographicDedupePKEntity();
+		otherPKEntity.setLangCode("fr");
+		otherPKEntity.setRegId("2018782130000224092018121230");
+		otherEntity.setId(otherPKEntity);
+		List<Object[]> rows = new ArrayList<>();
+		rows.add(new Object[] { dedupeEntity, "key1" });
+		rows.add(new Object[] { otherEntity, "key1" });
+		rows.add(new Object[] { dedupeEntity, "key2" });
+		Mockito.when(demographicDedupeRepository.getDemoDedupeCandidates(any(), anyString(), anyString()))
+				.thenReturn(rows);
+
+		List<DemographicDedupeCandidateDto> candidates = packetInfodao
+				.getDemographicDedupeCandidates("2018782130000224092018121231", Collections.singleton("key1"));
+		assertEquals(2, candidates.size());
+		assertEquals("2018782130000224092018121229", candidates.get(0).getDemographicInfo().getRegId());
+		assertEquals(new HashSet<>(Arrays.asList("key1", "key2")), candidates.get(0).getBlockingKeys());
+		assertEquals(Collections.singleton("key1"), candidates.get(1).getBlockingKeys());
+		Mockito.verify(demographicDedupeRepository).getDemoDedupeCandidates(Collections.singleton("key1"),
+				"2018782130000224092018121231", "PROCESSED");
+	}
+
+	@Test
+	public void testGetDemographicDedupeCandidatesWithoutKeys() {
+		assertTrue(packetInfodao.getDemographicDedupeCandidates("2018782130000224092018121231", Collections.emptySet())
+				.isEmpty());
+		Mockito.verify(demographicDedupeRepository, Mockito.never()).getDemoDedupeCandidates(any(), anyString(),
+				anyString());
+	}
+
+	@Test
+	public void testGetRegIdsWithUin() {
+		List<String> regIds = Arrays.asList("2018782130000224092018121229", "2018782130000224092018121230");
+		Mockito.when(registrationRepositary.getRegIdsByStatusCode(regIds, "PROCESSED"))
+				.thenReturn(Collections.singletonList("2018782130000224092018121230"));
+
+		assertEquals(Collections.singleton("2018782130000224092018121230"), packetInfodao.getRegIdsWithUin(regIds));
+	}
+
+	private IndividualDemographicDedupeKeyEntity keyEntity(String blockingKey, String langCode) {
+		IndividualDemographicDedupeKeyPKEntity keyPKEntity = new IndividualDemographicDedupeKeyPKEntity();
+		keyPKEntity.setBlockingKey(blockingKey);
+		keyPKEntity.setRegId("2018782130000224092018121229");
+		keyPKEntity.setLangCode(langCode);
+		IndividualDemographicDedupeKeyEntity keyEntity = new IndividualDemographicDedupeKeyEntity();
+		keyEntity.setId(keyPKEntity);
+		return keyEntity;
+	}
+
 }
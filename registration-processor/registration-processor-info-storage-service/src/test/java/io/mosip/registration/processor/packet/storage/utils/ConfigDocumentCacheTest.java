@@ -0,0 +1,188 @@
+package io.mosip.registration.processor.packet.storage.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+import org.json.simple.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import io.mosip.registration.processor.core.util.JsonUtil;
+import io.mosip.registration.processor.rest.client.utils.RestApiClient;
+
+/**
+ * ConfigDocumentCache test
+ *
+ * @since 1.0.9
+ */
+public class ConfigDocumentCacheTest {
+
+	private static final String URL = "http://config/registration-processor/default/DEV/RegistrationProcessorIdentity.json";
+
+	private static final String MAPPING = "{\"identity\":{\"name\":{\"value\":\"fullName\"},"
+			+ "\"individualBiometrics\":{\"value\":\"individualBiometrics\"},\"languages\":[\"eng\",\"ara\"]}}";
+
+	private MockRestServiceServer server;
+
+	private ConfigDocumentCache cache;
+
+	@Before
+	public void setUp() {
+		RestTemplate restTemplate = new RestTemplate();
+		server = MockRestServiceServer.bindTo(restTemplate).build();
+		cache = new ConfigDocumentCache(restTemplate, 0);
+	}
+
+	@Test
+	public void testDocumentDownloadedAndParsedOnce() throws IOException {
+		server.expect(ExpectedCount.once(), requestTo(URL)).andRespond(withSuccess(MAPPING, MediaType.TEXT_PLAIN));
+
+		JSONObject json = cache.getJson(URL);
+
+		assertSame(json, cache.getJson(URL));
+		assertEquals(MAPPING, cache.getText(URL));
+		JSONObject name = JsonUtil.getJSONObject(JsonUtil.getJSONObject(json, "identity"), "name");
+		assertEquals("fullName", name.get("value"));
+		server.verify();
+	}
+
+	@Test
+	public void testViewUnmodifiable() throws IOException {
+		server.expect(requestTo(URL)).andRespond(withSuccess(MAPPING, MediaType.TEXT_PLAIN));
+		JSONObject json = cache.getJson(URL);
+		@SuppressWarnings("unchecked")
+		Map<String, Object> identity = (Map<String, Object>) json.get("identity");
+		@SuppressWarnings("unchecked")
+		List<Object> languages = (List<Object>) identity.get("languages");
+
+		assertUnsupported(() -> json.put("identity", null));
+		assertUnsupported(() -> identity.remove("name"));
+		assertUnsupported(() -> identity.computeIfAbsent("dob", key -> "dateOfBirth"));
+		assertUnsupported(() -> languages.add("fra"));
+		assertEquals(2, JsonUtil.getJSONArray(JsonUtil.getJSONObject(json, "identity"), "languages").size());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testViewCollectionsUnmodifiable() throws IOException {
+		server.expect(requestTo(URL)).andRespond(withSuccess(MAPPING, MediaType.TEXT_PLAIN));
+		JSONObject json = cache.getJson(URL);
+		Map<String, Object> identity = (Map<String, Object>) json.get("identity");
+		List<Object> languages = (List<Object>) identity.get("languages");
+
+		assertUnsupported(() -> json.keySet().clear());
+		assertUnsupported(() -> ((Map.Entry<Object, Object>) json.entrySet().iterator().next()).setValue(null));
+		assertUnsupported(() -> identity.keySet().remove("name"));
+		assertUnsupported(() -> identity.values().clear());
+		assertUnsupported(() -> identity.entrySet().iterator().next().setValue(null));
+		assertUnsupported(() -> {
+			Iterator<Map.Entry<String, Object>> entries = identity.entrySet().iterator();
+			entries.next();
+			entries.remove();
+		});
+		assertUnsupported(() -> {
+			Iterator<Object> items = languages.iterator();
+			items.next();
+			items.remove();
+		});
+		assertUnsupported(() -> {
+			ListIterator<Object> items = languages.listIterator();
+			items.next();
+			items.set("fra");
+		});
+		assertUnsupported(() -> languages.listIterator(1).add("fra"));
+		assertUnsupported(() -> languages.subList(0, 1).clear());
+		assertEquals(3, identity.size());
+		assertEquals(Arrays.asList("eng", "ara"), languages);
+		assertEquals(Arrays.asList("name", "individualBiometrics", "languages"), new ArrayList<>(identity.keySet()));
+	}
+
+	@Test
+	public void testDownloadedWithPooledRestTemplate() throws Exception {
+		RestTemplate pooled = new RestTemplate();
+		MockRestServiceServer pooledServer = MockRestServiceServer.bindTo(pooled).build();
+		pooledServer.expect(requestTo(URL)).andRespond(withSuccess(MAPPING, MediaType.TEXT_PLAIN));
+		RestApiClient restApiClient = Mockito.mock(RestApiClient.class);
+		Mockito.when(restApiClient.getRestTemplate(URL)).thenReturn(pooled);
+		ConfigDocumentCache pooledCache = new ConfigDocumentCache(restApiClient);
+		ReflectionTestUtils.setField(pooledCache, "enabled", true);
+
+		assertEquals(MAPPING, pooledCache.getText(URL));
+		pooledServer.verify();
+	}
+
+	@Test
+	public void testRevalidatedWithEtag() throws IOException {
+		HttpHeaders etag = new HttpHeaders();
+		etag.setETag("\"v1\"");
+		server.expect(requestTo(URL)).andRespond(withSuccess(MAPPING, MediaType.TEXT_PLAIN).headers(etag));
+		server.expect(requestTo(URL)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+				.andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+		JSONObject json = cache.getJson(URL);
+
+		cache.revalidateAll();
+
+		assertSame(json, cache.getJson(URL));
+		server.verify();
+	}
+
+	@Test
+	public void testChangedDocumentReplaced() throws IOException {
+		String changed = MAPPING.replace("fullName", "name");
+		server.expect(requestTo(URL)).andRespond(withSuccess(MAPPING, MediaType.TEXT_PLAIN));
+		server.expect(requestTo(URL)).andRespond(withSuccess(changed, MediaType.TEXT_PLAIN));
+		JSONObject json = cache.getJson(URL);
+
+		cache.onRefresh(null);
+
+		JSONObject refreshed = cache.getJson(URL);
+		assertNotSame(json, refreshed);
+		assertEquals(changed, cache.getText(URL));
+		server.verify();
+	}
+
+	@Test
+	public void testFailedRevalidationKeepsDocument() {
+		server.expect(requestTo(URL)).andRespond(withSuccess(MAPPING, MediaType.TEXT_PLAIN));
+		server.expect(requestTo(URL)).andRespond(withServerError());
+		cache.getText(URL);
+
+		cache.revalidateAll();
+
+		assertEquals(MAPPING, cache.getText(URL));
+		assertEquals(1, cache.size());
+		server.verify();
+	}
+
+	private static void assertUnsupported(Runnable modification) {
+		try {
+			modification.run();
+		} catch (UnsupportedOperationException e) {
+			return;
+		}
+		assertTrue("modification of the cached view expected to fail", false);
+	}
+}
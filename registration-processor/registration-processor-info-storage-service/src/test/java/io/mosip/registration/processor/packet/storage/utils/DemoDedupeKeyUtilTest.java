@@ -0,0 +1,99 @@
+package io.mosip.registration.processor.packet.storage.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import io.mosip.registration.processor.core.packet.dto.demographicinfo.IndividualDemographicDedupe;
+import io.mosip.registration.processor.core.packet.dto.demographicinfo.JsonValue;
+import io.mosip.registration.processor.packet.storage.entity.IndividualDemographicDedupeKeyEntity;
+import io.mosip.registration.processor.packet.storage.mapper.PacketInfoMapper;
+
+/**
+ * DemoDedupeKeyUtil test
+ *
+ * @since 1.0.9
+ */
+public class DemoDedupeKeyUtilTest {
+
+	@Test
+	public void testNameTokensNormalized() {
+		assertEquals(Arrays.asList("jean", "paul", "o", "brien"), DemoDedupeKeyUtil.nameTokens(" Jéan-Paul  O'BRIEN "));
+		assertTrue(DemoDedupeKeyUtil.nameTokens(null).isEmpty());
+	}
+
+	@Test
+	public void testSpellingVariantsShareKeys() {
+		Set<String> keys = DemoDedupeKeyUtil.blockingKeys("eng", Arrays.asList("John", "Smith"), "Male", "1990/05/17");
+
+		assertEquals(2, keys.size());
+		assertEquals(keys,
+				DemoDedupeKeyUtil.blockingKeys("eng", Collections.singletonList("Smyth Jon"), "male", "1990/05/01"));
+	}
+
+	@Test
+	public void testKeysDifferByLanguageGenderAndBirthMonth() {
+		Set<String> keys = DemoDedupeKeyUtil.blockingKeys("eng", Collections.singletonList("John"), "Male",
+				"1990/05/17");
+
+		assertNotEquals(keys,
+				DemoDedupeKeyUtil.blockingKeys("fra", Collections.singletonList("John"), "Male", "1990/05/17"));
+		assertNotEquals(keys,
+				DemoDedupeKeyUtil.blockingKeys("eng", Collections.singletonList("John"), "Female", "1990/05/17"));
+		assertNotEquals(keys,
+				DemoDedupeKeyUtil.blockingKeys("eng", Collections.singletonList("John"), "Male", "1990/06/17"));
+	}
+
+	@Test
+	public void testNonLatinTokensKept() {
+		Set<String> keys = DemoDedupeKeyUtil.blockingKeys("ara", Collections.singletonList("محمد علي"), "ذكر",
+				"1990/05/17");
+
+		assertEquals(2, keys.size());
+		assertTrue(keys.iterator().next().contains("محمد"));
+	}
+
+	@Test
+	public void testNoNameNoKeys() {
+		List<String> names = new ArrayList<>();
+		names.add(null);
+		assertTrue(DemoDedupeKeyUtil.blockingKeys("eng", names, "Male", "1990/05/17").isEmpty());
+	}
+
+	@Test
+	public void testKeyEntitiesHashedPerLanguage() {
+		IndividualDemographicDedupe demographicData = new IndividualDemographicDedupe();
+		demographicData.setName(Arrays.<JsonValue[]>asList(
+				new JsonValue[] { jsonValue("eng", "John"), jsonValue("fra", "Jean") },
+				new JsonValue[] { jsonValue("eng", "Smith"), jsonValue("fra", "Smith") }));
+		demographicData.setGender(new JsonValue[] { jsonValue("eng", "Male"), jsonValue("fra", "Mâle") });
+		demographicData.setDateOfBirth("1990/05/17");
+
+		List<IndividualDemographicDedupeKeyEntity> keyEntities = PacketInfoMapper
+				.convertDemographicDedupeDtoToKeyEntities(demographicData, "1001");
+
+		assertEquals(4, keyEntities.size());
+		for (IndividualDemographicDedupeKeyEntity keyEntity : keyEntities) {
+			assertEquals("1001", keyEntity.getId().getRegId());
+			assertTrue(DemoDedupeKeyUtil.blockingKeys(keyEntity.getId().getLangCode(), Arrays.asList("John", "Smith"),
+					"Male", "1990/05/17").stream().noneMatch(keyEntity.getId().getBlockingKey()::equals));
+		}
+		assertEquals(PacketInfoMapper.getHMACHashCode("eng|J500|male|199005"),
+				keyEntities.get(0).getId().getBlockingKey());
+	}
+
+	private static JsonValue jsonValue(String language, String value) {
+		JsonValue jsonValue = new JsonValue();
+		jsonValue.setLanguage(language);
+		jsonValue.setValue(value);
+		return jsonValue;
+	}
+}
@@ -3,19 +3,35 @@ package io.mosip.registration.processor.message.sender.template;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang.exception.ExceptionUtils;
-import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.Template;
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.exception.MethodInvocationException;
+import org.apache.velocity.exception.ParseErrorException;
+import org.apache.velocity.exception.ResourceNotFoundException;
 import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.RuntimeInstance;
 import org.apache.velocity.runtime.log.NullLogChute;
+import org.apache.velocity.runtime.parser.ParseException;
 import org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader;
 import org.apache.velocity.runtime.resource.loader.FileResourceLoader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -24,8 +40,6 @@ import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.kernel.core.templatemanager.exception.TemplateMethodInvocationException;
 import io.mosip.kernel.core.templatemanager.exception.TemplateParsingException;
 import io.mosip.kernel.core.templatemanager.exception.TemplateResourceNotFoundException;
-import io.mosip.kernel.core.templatemanager.spi.TemplateManager;
-import io.mosip.kernel.templatemanager.velocity.impl.TemplateManagerImpl;
 import io.mosip.registration.processor.core.code.ApiName;
 import io.mosip.registration.processor.core.constant.LoggerFileConstant;
 import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
@@ -38,7 +52,12 @@ import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessor
 
 /**
  * The Class TemplateGenerator.
- * 
+ *
+ * Templates are fetched from master data once and kept parsed, per template
+ * type and language, for the cache time to live. The cache is emptied when the
+ * configuration is refreshed and can be warmed with the templates of a stage
+ * when its context starts.
+ *
  * @author M1048358 Alok
  */
 @Component
@@ -66,6 +85,30 @@ public class TemplateGenerator {
 	@Autowired
 	private ObjectMapper mapper;
 
+	/** The time a parsed template is used before it is fetched again, 0 to never keep it. */
+	@Value("${registration.processor.template.cache-ttl-ms:3600000}")
+	private long cacheTtlMillis = TimeUnit.HOURS.toMillis(1);
+
+	/** The template type codes fetched when the context starts. */
+	@Value("${registration.processor.template.warm-up-codes:}")
+	private String warmUpCodes;
+
+	/** The primary language. */
+	@Value("${mosip.primary-language:}")
+	private String primaryLang;
+
+	/** The secondary language. */
+	@Value("${mosip.secondary-language:}")
+	private String secondaryLang;
+
+	/** The velocity runtime shared by all templates. */
+	private volatile RuntimeInstance runtime;
+
+	/** The parsed templates by template type code and language. */
+	private final Map<String, CachedTemplate> templates = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean warmedUp = new AtomicBoolean();
+
 	/**
 	 * Gets the template.
 	 *
@@ -84,32 +127,25 @@ public class TemplateGenerator {
 	public InputStream getTemplate(String templateTypeCode, Map<String, Object> attributes, String langCode)
 			throws IOException, ApisResourceAccessException {
 
-		ResponseWrapper<?> responseWrapper;
-		TemplateResponseDto template;
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"TemplateGenerator::getTemplate()::entry");
 
 		try {
-			List<String> pathSegments = new ArrayList<>();
-			pathSegments.add(langCode);
-			pathSegments.add(templateTypeCode);
-
-			responseWrapper = (ResponseWrapper<?>) restClientService.getApi(ApiName.TEMPLATES, pathSegments, "", "",
-					ResponseWrapper.class);
-			template = mapper.readValue(mapper.writeValueAsString(responseWrapper.getResponse()),
-					TemplateResponseDto.class);
+			Template template = getCompiledTemplate(templateTypeCode, langCode);
 
 			InputStream fileTextStream = null;
 			if (template != null) {
-				InputStream stream = new ByteArrayInputStream(
-						template.getTemplates().iterator().next().getFileText().getBytes());
-				fileTextStream = getTemplateManager().merge(stream, attributes);
+				StringWriter writer = new StringWriter();
+				template.merge(attributes == null || attributes.isEmpty() ? new VelocityContext()
+						: new VelocityContext(attributes), writer);
+				fileTextStream = new ByteArrayInputStream(writer.toString().getBytes());
 			}
 			regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 					"TemplateGenerator::getTemplate()::exit");
 			return fileTextStream;
 
-		} catch (TemplateResourceNotFoundException | TemplateParsingException | TemplateMethodInvocationException e) {
+		} catch (TemplateResourceNotFoundException | TemplateParsingException | TemplateMethodInvocationException
+				| ResourceNotFoundException | ParseErrorException | MethodInvocationException | ParseException e) {
 			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
 					null, PlatformErrorMessages.RPR_TEM_PROCESSING_FAILURE.name() + e.getMessage()
 							+ ExceptionUtils.getStackTrace(e));
@@ -118,23 +154,154 @@ public class TemplateGenerator {
 	}
 
 	/**
-	 * Gets the template manager.
+	 * Removes a template from the cache, it is fetched again on next use.
 	 *
-	 * @return the template manager
+	 * @param templateTypeCode
+	 *            the template type code
+	 * @param langCode
+	 *            the lang code
 	 */
-	public TemplateManager getTemplateManager() {
-		final Properties properties = new Properties();
-		properties.put(RuntimeConstants.INPUT_ENCODING, defaultEncoding);
-		properties.put(RuntimeConstants.OUTPUT_ENCODING, defaultEncoding);
-		properties.put(RuntimeConstants.ENCODING_DEFAULT, defaultEncoding);
-		properties.put(RuntimeConstants.RESOURCE_LOADER, resourceLoader);
-		properties.put(RuntimeConstants.FILE_RESOURCE_LOADER_PATH, templatePath);
-		properties.put(RuntimeConstants.FILE_RESOURCE_LOADER_CACHE, cache);
-		properties.put(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM_CLASS, NullLogChute.class.getName());
-		properties.put("classpath.resource.loader.class", ClasspathResourceLoader.class.getName());
-		properties.put("file.resource.loader.class", FileResourceLoader.class.getName());
-		VelocityEngine engine = new VelocityEngine(properties);
-		engine.init();
-		return new TemplateManagerImpl(engine);
+	public void invalidate(String templateTypeCode, String langCode) {
+		templates.remove(getKey(templateTypeCode, langCode));
+	}
+
+	/**
+	 * Empties the template cache when the configuration is refreshed.
+	 */
+	@EventListener(EnvironmentChangeEvent.class)
+	public void invalidateAll() {
+		templates.clear();
+		regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"TemplateGenerator::invalidateAll()::template cache cleared");
+	}
+
+	/**
+	 * Fetches and parses the warm up templates in the primary and secondary
+	 * languages in the background, once the context has started.
+	 */
+	@EventListener(ContextRefreshedEvent.class)
+	public void warmUp() {
+		if (warmUpCodes == null || warmUpCodes.trim().isEmpty() || !warmedUp.compareAndSet(false, true)) {
+			return;
+		}
+		CompletableFuture.runAsync(() -> {
+			for (String templateTypeCode : warmUpCodes.split(",")) {
+				for (String langCode : new String[] { primaryLang, secondaryLang }) {
+					if (langCode != null && !langCode.isEmpty()) {
+						warmUp(templateTypeCode.trim(), langCode);
+					}
+				}
+			}
+		});
+	}
+
+	private void warmUp(String templateTypeCode, String langCode) {
+		try {
+			getCompiledTemplate(templateTypeCode, langCode);
+		} catch (Exception e) {
+			regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+					"TemplateGenerator::warmUp()::unable to load template " + templateTypeCode + " " + langCode
+							+ " : " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Gets the parsed template, from the cache when it has not expired.
+	 *
+	 * @return the template, null if master data has none
+	 */
+	private Template getCompiledTemplate(String templateTypeCode, String langCode)
+			throws IOException, ApisResourceAccessException, ParseException {
+		String key = getKey(templateTypeCode, langCode);
+		CachedTemplate cachedTemplate = templates.get(key);
+		if (cachedTemplate != null && System.nanoTime() - cachedTemplate.expiresNanos < 0) {
+			return cachedTemplate.template;
+		}
+		String fileText = fetchTemplateText(templateTypeCode, langCode);
+		if (fileText == null) {
+			templates.remove(key);
+			return null;
+		}
+		Template template = parse(fileText, key);
+		if (cacheTtlMillis > 0) {
+			templates.put(key, new CachedTemplate(template,
+					System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(cacheTtlMillis)));
+		}
+		return template;
+	}
+
+	private String fetchTemplateText(String templateTypeCode, String langCode)
+			throws IOException, ApisResourceAccessException {
+		List<String> pathSegments = new ArrayList<>();
+		pathSegments.add(langCode);
+		pathSegments.add(templateTypeCode);
+
+		ResponseWrapper<?> responseWrapper = (ResponseWrapper<?>) restClientService.getApi(ApiName.TEMPLATES,
+				pathSegments, "", "", ResponseWrapper.class);
+		TemplateResponseDto template = mapper.readValue(mapper.writeValueAsString(responseWrapper.getResponse()),
+				TemplateResponseDto.class);
+		return template != null ? template.getTemplates().iterator().next().getFileText() : null;
+	}
+
+	private Template parse(String fileText, String name) throws ParseException {
+		RuntimeInstance runtimeInstance = getRuntime();
+		Template template = new Template();
+		template.setName(name);
+		template.setRuntimeServices(runtimeInstance);
+		template.setData(runtimeInstance.parse(new StringReader(fileText), name));
+		template.initDocument();
+		return template;
+	}
+
+	/**
+	 * Gets the velocity runtime, created on first use.
+	 *
+	 * @return the runtime
+	 */
+	private RuntimeInstance getRuntime() {
+		RuntimeInstance runtimeInstance = runtime;
+		if (runtimeInstance == null) {
+			synchronized (this) {
+				runtimeInstance = runtime;
+				if (runtimeInstance == null) {
+					final Properties properties = new Properties();
+					properties.put(RuntimeConstants.INPUT_ENCODING, defaultEncoding);
+					properties.put(RuntimeConstants.OUTPUT_ENCODING, defaultEncoding);
+					properties.put(RuntimeConstants.ENCODING_DEFAULT, defaultEncoding);
+					properties.put(RuntimeConstants.RESOURCE_LOADER, resourceLoader);
+					properties.put(RuntimeConstants.FILE_RESOURCE_LOADER_PATH, templatePath);
+					properties.put(RuntimeConstants.FILE_RESOURCE_LOADER_CACHE, cache);
+					properties.put(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM_CLASS, NullLogChute.class.getName());
+					properties.put("classpath.resource.loader.class", ClasspathResourceLoader.class.getName());
+					properties.put("file.resource.loader.class", FileResourceLoader.class.getName());
+					runtimeInstance = new RuntimeInstance();
+					for (Map.Entry<Object, Object> property : properties.entrySet()) {
+						runtimeInstance.setProperty((String) property.getKey(), property.getValue());
+					}
+					runtimeInstance.init();
+					runtime = runtimeInstance;
+				}
+			}
+		}
+		return runtimeInstance;
+	}
+
+	private static String getKey(String templateTypeCode, String langCode) {
+		return templateTypeCode + "_" + langCode;
+	}
+
+	/**
+	 * A parsed template and when it expires.
+	 */
+	private static final class CachedTemplate {
+
+		private final Template template;
+
+		private final long expiresNanos;
+
+		CachedTemplate(Template template, long expiresNanos) {
+			this.template = template;
+			this.expiresNanos = expiresNanos;
+		}
 	}
 }
@@ -0,0 +1,149 @@
+package io.mosip.registration.processor.template.generator.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.log.NullLogChute;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.mosip.kernel.templatemanager.velocity.impl.TemplateManagerImpl;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.http.ResponseWrapper;
+import io.mosip.registration.processor.core.notification.template.generator.dto.TemplateDto;
+import io.mosip.registration.processor.core.notification.template.generator.dto.TemplateResponseDto;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+import io.mosip.registration.processor.message.sender.template.TemplateGenerator;
+
+/**
+ * Renders per second of an SMS notification, as sent by the message sender
+ * stage, and of a UIN card, as printed by the printing stage. Compares the old
+ * path, a new velocity engine and a parse of the template for every render,
+ * with {@link TemplateGenerator} merging its cached parsed template. The old
+ * path is measured without its template fetch from master data, which the
+ * cache saves as well.
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main TemplateGeneratorBenchmark
+ * </pre>
+ *
+ * @since 1.0.9
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(4)
+@Fork(1)
+public class TemplateGeneratorBenchmark {
+
+	private static final String SMS_TEMPLATE = "Dear $name_eng, your UIN $UIN for the registration $RID is generated"
+			+ " on $DATE. #if($isMasked)Your UIN is masked.#end";
+
+	private static final String UIN_CARD_TEMPLATE = "<html><head><meta charset=\"UTF-8\"/></head><body>"
+			+ "<table style=\"width:100%\"><tr><td><img src=\"$!ApplicantPhoto\"/></td><td>"
+			+ "#foreach($field in $fields)<p><b>$field</b> : $!attributes.get($field)</p>#end"
+			+ "</td></tr><tr><td colspan=\"2\">UIN : #if($isMasked)XXXXXX$UIN.substring(6)#else$UIN#end</td></tr>"
+			+ "<tr><td colspan=\"2\"><img src=\"$!QrCode\"/></td></tr></table></body></html>";
+
+	@Param({ "SMS", "UIN_CARD" })
+	private String templateTypeCode;
+
+	private String templateText;
+
+	private Map<String, Object> attributes;
+
+	private TemplateGenerator templateGenerator;
+
+	@Setup
+	public void setup() throws ApisResourceAccessException {
+		templateText = "SMS".equals(templateTypeCode) ? SMS_TEMPLATE : UIN_CARD_TEMPLATE;
+		Map<String, Object> values = new HashMap<>();
+		List<String> fields = new ArrayList<>();
+		for (String field : new String[] { "name_eng", "gender_eng", "dateOfBirth", "phone", "email",
+				"addressLine1_eng", "addressLine2_eng", "city_eng", "province_eng", "postalCode" }) {
+			values.put(field, field + " value");
+			fields.add(field);
+		}
+		attributes = new HashMap<>(values);
+		attributes.put("attributes", values);
+		attributes.put("fields", fields);
+		attributes.put("UIN", "2345678901");
+		attributes.put("RID", "10031100110005020190313110030");
+		attributes.put("DATE", "13-03-2019");
+		attributes.put("isMasked", Boolean.TRUE);
+
+		TemplateDto templateDto = new TemplateDto();
+		templateDto.setFileText(templateText);
+		TemplateResponseDto templateResponseDto = new TemplateResponseDto();
+		templateResponseDto.setTemplates(Collections.singletonList(templateDto));
+		ResponseWrapper<TemplateResponseDto> responseWrapper = new ResponseWrapper<>();
+		responseWrapper.setResponse(templateResponseDto);
+		@SuppressWarnings("unchecked")
+		RegistrationProcessorRestClientService<Object> restClientService = Mockito
+				.mock(RegistrationProcessorRestClientService.class);
+		Mockito.when(restClientService.getApi(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any())).thenReturn(responseWrapper);
+
+		templateGenerator = new TemplateGenerator();
+		ReflectionTestUtils.setField(templateGenerator, "restClientService", restClientService);
+		ReflectionTestUtils.setField(templateGenerator, "mapper", new ObjectMapper());
+	}
+
+	/**
+	 * The old render: the engine the old generator created for every template
+	 * and a merge parsing the template text.
+	 */
+	@Benchmark
+	public InputStream enginePerRender() throws IOException {
+		Properties properties = new Properties();
+		properties.put(RuntimeConstants.INPUT_ENCODING, "UTF-8");
+		properties.put(RuntimeConstants.OUTPUT_ENCODING, "UTF-8");
+		properties.put(RuntimeConstants.ENCODING_DEFAULT, "UTF-8");
+		properties.put(RuntimeConstants.RESOURCE_LOADER, "classpath");
+		properties.put(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM_CLASS, NullLogChute.class.getName());
+		properties.put("classpath.resource.loader.class",
+				"org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader");
+		VelocityEngine engine = new VelocityEngine(properties);
+		engine.init();
+		return new TemplateManagerImpl(engine).merge(new ByteArrayInputStream(templateText.getBytes()), attributes);
+	}
+
+	@Benchmark
+	public InputStream cachedTemplate() throws IOException, ApisResourceAccessException {
+		return templateGenerator.getTemplate(templateTypeCode, attributes, "eng");
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(TemplateGeneratorBenchmark.class.getSimpleName()).build()).run();
+	}
+}
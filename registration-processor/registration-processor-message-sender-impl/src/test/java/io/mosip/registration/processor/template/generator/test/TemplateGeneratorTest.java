@@ -19,6 +19,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -101,6 +102,45 @@ public class TemplateGeneratorTest {
 		Assert.assertTrue(EqualsBuilder.reflectionEquals(expected, result));
 	}
 
+	@Test
+	public void testParsedTemplateCached() throws IOException, ApisResourceAccessException {
+		Map<String, Object> attributes = new HashMap<>();
+		attributes.put("FirstName", "Alok");
+		templateGenerator.getTemplate("SMS", attributes, "eng");
+		attributes.put("FirstName", "Ravi");
+		InputStream result = templateGenerator.getTemplate("SMS", attributes, "eng");
+
+		Assert.assertEquals("Hi Ravi, your UIN is generated", IOUtils.toString(result, "UTF-8"));
+		Mockito.verify(restClientService, Mockito.times(1)).getApi(any(), any(), any(), any(), any());
+
+		templateGenerator.getTemplate("SMS", attributes, "ara");
+		Mockito.verify(restClientService, Mockito.times(2)).getApi(any(), any(), any(), any(), any());
+	}
+
+	@Test
+	public void testTemplateFetchedAgainAfterInvalidation() throws IOException, ApisResourceAccessException {
+		Map<String, Object> attributes = new HashMap<>();
+		attributes.put("FirstName", "Alok");
+		templateGenerator.getTemplate("SMS", attributes, "eng");
+		templateGenerator.invalidate("SMS", "eng");
+		templateGenerator.getTemplate("SMS", attributes, "eng");
+		templateGenerator.invalidateAll();
+		templateGenerator.getTemplate("SMS", attributes, "eng");
+
+		Mockito.verify(restClientService, Mockito.times(3)).getApi(any(), any(), any(), any(), any());
+	}
+
+	@Test
+	public void testTemplateNotCachedWithoutTimeToLive() throws IOException, ApisResourceAccessException {
+		ReflectionTestUtils.setField(templateGenerator, "cacheTtlMillis", 0L);
+		Map<String, Object> attributes = new HashMap<>();
+		attributes.put("FirstName", "Alok");
+		templateGenerator.getTemplate("SMS", attributes, "eng");
+		templateGenerator.getTemplate("SMS", attributes, "eng");
+
+		Mockito.verify(restClientService, Mockito.times(2)).getApi(any(), any(), any(), any(), any());
+	}
+
 	@Test(expected = TemplateProcessingFailureException.class)
 	public void testExceptions() throws IOException, ApisResourceAccessException {
 		String templateTypeCode = "SMS";
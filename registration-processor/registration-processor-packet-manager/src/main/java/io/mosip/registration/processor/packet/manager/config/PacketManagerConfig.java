@@ -2,6 +2,7 @@ package io.mosip.registration.processor.packet.manager.config;
 
 import java.io.InputStream;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -10,17 +11,34 @@ import io.mosip.registration.processor.packet.manager.decryptor.Decryptor;
 import io.mosip.registration.processor.core.spi.filesystem.manager.FileManager;
 import io.mosip.registration.processor.core.spi.filesystem.manager.PacketManager;
 import io.mosip.registration.processor.packet.manager.decryptor.DecryptorImpl;
+import io.mosip.registration.processor.packet.manager.decryptor.KeyManagerSessionKeyUnwrapper;
+import io.mosip.registration.processor.packet.manager.decryptor.KeyStoreSessionKeyUnwrapper;
+import io.mosip.registration.processor.packet.manager.decryptor.SessionKeyUnwrapper;
+import io.mosip.registration.processor.packet.manager.decryptor.StreamingDecryptorImpl;
 import io.mosip.registration.processor.packet.manager.dto.DirectoryPathDto;
 import io.mosip.registration.processor.packet.manager.idreposervice.IdRepoService;
 import io.mosip.registration.processor.packet.manager.idreposervice.impl.IdRepoServiceImpl;
 import io.mosip.registration.processor.packet.manager.service.impl.FileManagerImpl;
 import io.mosip.registration.processor.packet.manager.service.impl.FileSystemManagerImpl;
+import io.mosip.registration.processor.packet.manager.session.PacketSessionCache;
 
 /**
  * The Class PacketManagerConfig.
  */
 @Configuration
 public class PacketManagerConfig {
+
+	private static final String STREAMING_DECRYPTOR = "streaming";
+
+	private static final String KEYSTORE_KEY_SOURCE = "keystore";
+
+	/** rest (cryptomanager decrypts the whole packet) or streaming. */
+	@Value("${registration.processor.packet.decryptor.mode:rest}")
+	private String decryptorMode;
+
+	/** keymanager or keystore, used by the streaming decryptor. */
+	@Value("${registration.processor.packet.decryptor.key-source:keymanager}")
+	private String keySource;
 	
 	@Bean
 	@Primary
@@ -42,7 +60,21 @@ public class PacketManagerConfig {
     @Bean
     @Primary
     public Decryptor getDecryptor() {
+        if (STREAMING_DECRYPTOR.equalsIgnoreCase(decryptorMode)) {
+            return new StreamingDecryptorImpl();
+        }
         return new DecryptorImpl();
     }
+    @Bean
+    public SessionKeyUnwrapper getSessionKeyUnwrapper() {
+        if (KEYSTORE_KEY_SOURCE.equalsIgnoreCase(keySource)) {
+            return new KeyStoreSessionKeyUnwrapper();
+        }
+        return new KeyManagerSessionKeyUnwrapper();
+    }
+    @Bean
+    public PacketSessionCache getPacketSessionCache() {
+        return new PacketSessionCache();
+    }
 
 }
@@ -0,0 +1,87 @@
+package io.mosip.registration.processor.packet.manager.decryptor;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+
+import io.mosip.kernel.core.exception.ServiceError;
+import io.mosip.kernel.core.util.CryptoUtil;
+import io.mosip.kernel.core.util.DateUtils;
+import io.mosip.registration.processor.core.code.ApiName;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.exception.PacketDecryptionFailureException;
+import io.mosip.registration.processor.core.http.RequestWrapper;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+import io.mosip.registration.processor.packet.manager.dto.KeymanagerResponseDto;
+import io.mosip.registration.processor.packet.manager.dto.SymmetricKeyRequestDto;
+import io.mosip.registration.processor.packet.manager.exception.PacketDecryptionFailureExceptionConstant;
+
+/**
+ * Decrypts the packet session key through the key manager, so only the few
+ * hundred bytes of the wrapped key go over the wire instead of the packet.
+ * Used when {@code registration.processor.packet.decryptor.key-source} is
+ * {@code keymanager}. Like the other rest apis, the url is looked up by the
+ * {@link ApiName} in the config server, so it has to be configured next to
+ * {@code DMZCRYPTOMANAGERDECRYPT}:
+ *
+ * <pre>
+ * KEYMANAGERDECRYPT=${mosip.base.url}/v1/keymanager/decrypt
+ * </pre>
+ *
+ * @since 1.0.9
+ */
+public class KeyManagerSessionKeyUnwrapper implements SessionKeyUnwrapper {
+
+	private static final String DECRYPT_SERVICE_ID = "mosip.registration.processor.crypto.decrypt.id";
+	private static final String REG_PROC_APPLICATION_VERSION = "mosip.registration.processor.application.version";
+	private static final String DATETIME_PATTERN = "mosip.registration.processor.datetime.pattern";
+
+	@Value("${registration.processor.application.id}")
+	private String applicationId;
+
+	@Autowired
+	private RegistrationProcessorRestClientService<Object> restClientService;
+
+	@Autowired
+	private Environment env;
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.mosip.registration.processor.packet.manager.decryptor.
+	 * SessionKeyUnwrapper#unwrap(byte[], java.lang.String,
+	 * java.time.LocalDateTime)
+	 */
+	@Override
+	public byte[] unwrap(byte[] encryptedKey, String referenceId, LocalDateTime timestamp)
+			throws PacketDecryptionFailureException, ApisResourceAccessException {
+		SymmetricKeyRequestDto symmetricKeyRequestDto = new SymmetricKeyRequestDto(applicationId, timestamp,
+				referenceId, CryptoUtil.encodeBase64(encryptedKey));
+		RequestWrapper<SymmetricKeyRequestDto> request = new RequestWrapper<>();
+		request.setId(env.getProperty(DECRYPT_SERVICE_ID));
+		request.setMetadata(null);
+		request.setRequest(symmetricKeyRequestDto);
+		DateTimeFormatter format = DateTimeFormatter.ofPattern(env.getProperty(DATETIME_PATTERN));
+		request.setRequesttime(
+				LocalDateTime.parse(DateUtils.getUTCCurrentDateTimeString(env.getProperty(DATETIME_PATTERN)), format));
+		request.setVersion(env.getProperty(REG_PROC_APPLICATION_VERSION));
+
+		KeymanagerResponseDto response = (KeymanagerResponseDto) restClientService
+				.postApi(ApiName.KEYMANAGERDECRYPT, "", "", request, KeymanagerResponseDto.class);
+		if (response.getErrors() != null && !response.getErrors().isEmpty()) {
+			ServiceError error = response.getErrors().get(0);
+			throw new PacketDecryptionFailureException(error.getErrorCode(), error.getMessage());
+		}
+		if (response.getResponse() == null || response.getResponse().getSymmetricKey() == null) {
+			throw new PacketDecryptionFailureException(
+					PacketDecryptionFailureExceptionConstant.MOSIP_PACKET_DECRYPTION_FAILURE_ERROR_CODE.getErrorCode(),
+					PacketDecryptionFailureExceptionConstant.MOSIP_PACKET_DECRYPTION_FAILURE_ERROR_CODE
+							.getErrorMessage());
+		}
+		return CryptoUtil.decodeBase64(response.getResponse().getSymmetricKey());
+	}
+
+}
@@ -0,0 +1,99 @@
+package io.mosip.registration.processor.packet.manager.decryptor;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.spec.MGF1ParameterSpec;
+import java.time.LocalDateTime;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import io.mosip.registration.processor.core.exception.PacketDecryptionFailureException;
+import io.mosip.registration.processor.packet.manager.exception.PacketDecryptionFailureExceptionConstant;
+
+/**
+ * Decrypts the packet session key with a private key from a local key store.
+ * Meant as a stand-in for the key manager in test and load environments; the
+ * reference id and timestamp are ignored.
+ *
+ * @since 1.0.9
+ */
+public class KeyStoreSessionKeyUnwrapper implements SessionKeyUnwrapper {
+
+	/** Same padding as the kernel crypto core uses to wrap the session key. */
+	private static final String RSA_TRANSFORMATION = "RSA/ECB/OAEPWithSHA-256AndMGF1Padding";
+
+	private static final OAEPParameterSpec OAEP_PARAMETERS = new OAEPParameterSpec("SHA-256", "MGF1",
+			MGF1ParameterSpec.SHA256, PSource.PSpecified.DEFAULT);
+
+	@Value("${registration.processor.packet.decryptor.keystore.path:}")
+	private String keyStorePath;
+
+	@Value("${registration.processor.packet.decryptor.keystore.type:PKCS12}")
+	private String keyStoreType;
+
+	@Value("${registration.processor.packet.decryptor.keystore.password:}")
+	private String keyStorePassword;
+
+	@Value("${registration.processor.packet.decryptor.keystore.alias:}")
+	private String keyAlias;
+
+	private volatile PrivateKey privateKey;
+
+	public KeyStoreSessionKeyUnwrapper() {
+	}
+
+	public KeyStoreSessionKeyUnwrapper(PrivateKey privateKey) {
+		this.privateKey = privateKey;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.mosip.registration.processor.packet.manager.decryptor.
+	 * SessionKeyUnwrapper#unwrap(byte[], java.lang.String,
+	 * java.time.LocalDateTime)
+	 */
+	@Override
+	public byte[] unwrap(byte[] encryptedKey, String referenceId, LocalDateTime timestamp)
+			throws PacketDecryptionFailureException {
+		try {
+			Cipher cipher = Cipher.getInstance(RSA_TRANSFORMATION);
+			cipher.init(Cipher.DECRYPT_MODE, getPrivateKey(), OAEP_PARAMETERS);
+			return cipher.doFinal(encryptedKey);
+		} catch (GeneralSecurityException | IOException e) {
+			throw new PacketDecryptionFailureException(
+					PacketDecryptionFailureExceptionConstant.MOSIP_PACKET_DECRYPTION_FAILURE_ERROR_CODE.getErrorCode(),
+					PacketDecryptionFailureExceptionConstant.MOSIP_PACKET_DECRYPTION_FAILURE_ERROR_CODE
+							.getErrorMessage(),
+					e);
+		}
+	}
+
+	private PrivateKey getPrivateKey() throws GeneralSecurityException, IOException {
+		if (privateKey == null) {
+			synchronized (this) {
+				if (privateKey == null) {
+					KeyStore keyStore = KeyStore.getInstance(keyStoreType);
+					char[] password = keyStorePassword.toCharArray();
+					try (InputStream in = new FileInputStream(keyStorePath)) {
+						keyStore.load(in, password);
+					}
+					privateKey = (PrivateKey) keyStore.getKey(keyAlias, password);
+					if (privateKey == null) {
+						throw new GeneralSecurityException("No private key for alias " + keyAlias);
+					}
+				}
+			}
+		}
+		return privateKey;
+	}
+
+}
@@ -0,0 +1,33 @@
+package io.mosip.registration.processor.packet.manager.decryptor;
+
+import java.time.LocalDateTime;
+
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.exception.PacketDecryptionFailureException;
+
+/**
+ * Decrypts the RSA encrypted AES session key of a packet.
+ *
+ * @since 1.0.9
+ */
+public interface SessionKeyUnwrapper {
+
+	/**
+	 * This Method decrypts the session key of a packet
+	 * 
+	 * @param encryptedKey
+	 *            RSA encrypted session key
+	 * @param referenceId
+	 *            center and machine id of the packet
+	 * @param timestamp
+	 *            packet creation time, used to pick the key pair
+	 * @return the raw AES session key
+	 * @throws PacketDecryptionFailureException
+	 *             if the key could not be decrypted
+	 * @throws ApisResourceAccessException
+	 *             if the key manager could not be reached
+	 */
+	public byte[] unwrap(byte[] encryptedKey, String referenceId, LocalDateTime timestamp)
+			throws PacketDecryptionFailureException, ApisResourceAccessException;
+
+}
@@ -0,0 +1,271 @@
+package io.mosip.registration.processor.packet.manager.decryptor;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+import org.apache.commons.codec.binary.Base64InputStream;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.io.CipherInputStream;
+import org.bouncycastle.crypto.io.InvalidCipherTextIOException;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.code.EventId;
+import io.mosip.registration.processor.core.code.EventName;
+import io.mosip.registration.processor.core.code.EventType;
+import io.mosip.registration.processor.core.code.ModuleName;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.exception.PacketDecryptionFailureException;
+import io.mosip.registration.processor.core.exception.util.PlatformErrorMessages;
+import io.mosip.registration.processor.core.exception.util.PlatformSuccessMessages;
+import io.mosip.registration.processor.core.logger.LogDescription;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.packet.manager.exception.PacketDecryptionFailureExceptionConstant;
+import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
+
+/**
+ * Decryptor that never holds the packet on the heap. The packet is
+ * BASE64(wrapped session key + key splitter + AES-GCM cipher text + IV); the
+ * wrapped key is decrypted through a {@link SessionKeyUnwrapper} and the cipher
+ * text is spooled to a temp file, since the IV trails it, then decrypted as a
+ * stream into a second temp file. The packet is returned, and its decryption
+ * audited as successful, only once the GCM tag has been verified, so that
+ * callers reading a single entry of the packet never see unauthenticated
+ * bytes. A tag mismatch fails with a {@link PacketDecryptionFailureException}.
+ *
+ * @since 1.0.9
+ */
+public class StreamingDecryptorImpl implements Decryptor {
+
+	private static Logger regProcLogger = RegProcessorLogger.getLogger(StreamingDecryptorImpl.class);
+
+	private static final String TEMP_FILE_PREFIX = "packet-cipher-";
+
+	private static final String PLAIN_TEMP_FILE_PREFIX = "packet-plain-";
+
+	/** Upper bound on the wrapped key, well above a 4096 bit RSA block. */
+	private static final int MAX_WRAPPED_KEY_LENGTH = 8192;
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private static final String INVALID_PACKET_FORMAT = "Packet DecryptionFailed-Invalid Packet format";
+	private static final String IO_EXCEPTION = "Exception while reading packet inputStream";
+	private static final String DATE_TIME_EXCEPTION = "Error while parsing packet timestamp";
+	private static final String TAG_MISMATCH = "Packet DecryptionFailed-Authentication tag mismatch";
+
+	@Value("${mosip.kernel.registrationcenterid.length}")
+	private int centerIdLength;
+
+	@Value("${registration.processor.rid.machineidsubstring}")
+	private int machineIdSubStringLength;
+
+	@Value("${mosip.kernel.data-key-splitter:#KEY_SPLITTER#}")
+	private String keySplitter;
+
+	@Value("${mosip.kernel.crypto.gcm-tag-length:128}")
+	private int tagLength;
+
+	@Value("${registration.processor.packet.decryptor.iv-length:16}")
+	private int ivLength;
+
+	@Value("${registration.processor.packet.decryptor.temp-dir:}")
+	private String tempDir;
+
+	@Autowired
+	private SessionKeyUnwrapper sessionKeyUnwrapper;
+
+	@Autowired
+	private AuditLogRequestBuilder auditLogRequestBuilder;
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * io.mosip.registration.processor.packet.manager.decryptor.Decryptor#decrypt(
+	 * java.io.InputStream, java.lang.String)
+	 */
+	@Override
+	public InputStream decrypt(InputStream encryptedPacket, String registrationId)
+			throws PacketDecryptionFailureException, ApisResourceAccessException {
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+				registrationId, "StreamingDecryptorImpl::decrypt()::entry");
+		boolean isTransactionSuccessful = false;
+		LogDescription description = new LogDescription();
+		File cipherFile = null;
+		try (InputStream in = new BufferedInputStream(new Base64InputStream(encryptedPacket), BUFFER_SIZE)) {
+			String centerId = registrationId.substring(0, centerIdLength);
+			String machineId = registrationId.substring(centerIdLength, machineIdSubStringLength);
+			LocalDateTime packetCreatedTime = getPacketCreatedTime(registrationId);
+
+			byte[] wrappedKey = readWrappedKey(in);
+			byte[] sessionKey = sessionKeyUnwrapper.unwrap(wrappedKey, centerId + "_" + machineId,
+					packetCreatedTime);
+
+			cipherFile = File.createTempFile(TEMP_FILE_PREFIX, null, getTempDir());
+			Files.copy(in, cipherFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			InputStream decryptedPacket = decryptToFile(cipherFile, sessionKey);
+
+			isTransactionSuccessful = true;
+			description.setMessage(PlatformSuccessMessages.RPR_DECRYPTION_SUCCESS.getMessage());
+			description.setCode(PlatformSuccessMessages.RPR_DECRYPTION_SUCCESS.getCode());
+			regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					registrationId, "StreamingDecryptorImpl::decrypt()::exit");
+			return decryptedPacket;
+		} catch (IOException e) {
+			description.setMessage(PlatformErrorMessages.RPR_PDS_IO_EXCEPTION.getMessage());
+			description.setCode(PlatformErrorMessages.RPR_PDS_IO_EXCEPTION.getCode());
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					registrationId, description.getMessage());
+			throw new PacketDecryptionFailureException(
+					PacketDecryptionFailureExceptionConstant.MOSIP_PACKET_DECRYPTION_FAILURE_ERROR_CODE.getErrorCode(),
+					IO_EXCEPTION, e);
+		} catch (DateTimeParseException e) {
+			description.setMessage(PlatformErrorMessages.RPR_PDS_DATE_TIME_EXCEPTION.getMessage());
+			description.setCode(PlatformErrorMessages.RPR_PDS_DATE_TIME_EXCEPTION.getCode());
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					registrationId, description.getMessage());
+			throw new PacketDecryptionFailureException(
+					PacketDecryptionFailureExceptionConstant.MOSIP_PACKET_DECRYPTION_FAILURE_ERROR_CODE.getErrorCode(),
+					DATE_TIME_EXCEPTION);
+		} catch (PacketDecryptionFailureException | ApisResourceAccessException e) {
+			description.setMessage(
+					PlatformErrorMessages.RPR_PDS_PACKET_DECRYPTION_FAILURE.getMessage() + e.getMessage());
+			description.setCode(PlatformErrorMessages.RPR_PDS_PACKET_DECRYPTION_FAILURE.getCode());
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					registrationId, description.getMessage());
+			throw e;
+		} finally {
+			if (cipherFile != null) {
+				cipherFile.delete();
+			}
+			String eventId = isTransactionSuccessful ? EventId.RPR_402.toString() : EventId.RPR_405.toString();
+			String eventName = isTransactionSuccessful ? EventName.UPDATE.toString()
+					: EventName.EXCEPTION.toString();
+			String eventType = isTransactionSuccessful ? EventType.BUSINESS.toString()
+					: EventType.SYSTEM.toString();
+			String moduleId = isTransactionSuccessful ? PlatformSuccessMessages.RPR_DECRYPTION_SUCCESS.getCode()
+					: description.getCode();
+			auditLogRequestBuilder.createAuditRequestBuilder(description.getMessage(), eventId, eventName, eventType,
+					moduleId, ModuleName.DECRYPTOR.toString(), registrationId);
+		}
+	}
+
+	/**
+	 * Gets the packet creation time from the trailing yyyyMMddHHmmss of the
+	 * registration id.
+	 */
+	private LocalDateTime getPacketCreatedTime(String registrationId) throws PacketDecryptionFailureException {
+		if (registrationId.length() <= 14) {
+			throw new PacketDecryptionFailureException(
+					PacketDecryptionFailureExceptionConstant.MOSIP_PACKET_DECRYPTION_FAILURE_ERROR_CODE.getErrorCode(),
+					INVALID_PACKET_FORMAT);
+		}
+		String packetCreatedDateTime = registrationId.substring(registrationId.length() - 14);
+		String formattedDate = packetCreatedDateTime.substring(0, 8) + "T"
+				+ packetCreatedDateTime.substring(packetCreatedDateTime.length() - 6);
+		return LocalDateTime.parse(formattedDate, DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss"));
+	}
+
+	/**
+	 * Reads the decoded stream up to and including the key splitter.
+	 */
+	private byte[] readWrappedKey(InputStream in) throws IOException, PacketDecryptionFailureException {
+		byte[] splitter = keySplitter.getBytes(StandardCharsets.UTF_8);
+		byte[] buffer = new byte[MAX_WRAPPED_KEY_LENGTH + splitter.length];
+		int length = 0;
+		int b;
+		while (length < buffer.length && (b = in.read()) != -1) {
+			buffer[length++] = (byte) b;
+			if (length >= splitter.length && endsWith(buffer, length, splitter)) {
+				return Arrays.copyOf(buffer, length - splitter.length);
+			}
+		}
+		throw new PacketDecryptionFailureException(
+				PacketDecryptionFailureExceptionConstant.MOSIP_PACKET_DECRYPTION_FAILURE_ERROR_CODE.getErrorCode(),
+				INVALID_PACKET_FORMAT);
+	}
+
+	private static boolean endsWith(byte[] data, int length, byte[] suffix) {
+		int offset = length - suffix.length;
+		for (int i = 0; i < suffix.length; i++) {
+			if (data[offset + i] != suffix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Decrypts the spooled cipher text into a temp file, reading it to the end
+	 * so that the GCM tag is verified, and opens a stream over the decrypted
+	 * packet. The decrypted temp file is deleted when the stream is closed.
+	 */
+	private InputStream decryptToFile(File cipherFile, byte[] sessionKey)
+			throws IOException, PacketDecryptionFailureException {
+		long cipherLength = cipherFile.length() - ivLength;
+		if (cipherLength < tagLength / 8) {
+			throw new PacketDecryptionFailureException(
+					PacketDecryptionFailureExceptionConstant.MOSIP_PACKET_DECRYPTION_FAILURE_ERROR_CODE.getErrorCode(),
+					INVALID_PACKET_FORMAT);
+		}
+		byte[] iv = new byte[ivLength];
+		try (RandomAccessFile file = new RandomAccessFile(cipherFile, "r")) {
+			file.seek(cipherLength);
+			file.readFully(iv);
+		}
+		GCMBlockCipher cipher = new GCMBlockCipher(new AESEngine());
+		try {
+			cipher.init(false, new AEADParameters(new KeyParameter(sessionKey), tagLength, iv));
+		} catch (IllegalArgumentException e) {
+			throw new PacketDecryptionFailureException(
+					PacketDecryptionFailureExceptionConstant.MOSIP_PACKET_DECRYPTION_FAILURE_ERROR_CODE.getErrorCode(),
+					e.getMessage(), e);
+		}
+		File plainFile = File.createTempFile(PLAIN_TEMP_FILE_PREFIX, null, getTempDir());
+		try (InputStream plainText = new CipherInputStream(
+				new BoundedInputStream(new FileInputStream(cipherFile), cipherLength), cipher)) {
+			Files.copy(plainText, plainFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (InvalidCipherTextIOException e) {
+			Files.deleteIfExists(plainFile.toPath());
+			throw new PacketDecryptionFailureException(
+					PacketDecryptionFailureExceptionConstant.MOSIP_PACKET_DECRYPTION_FAILURE_ERROR_CODE.getErrorCode(),
+					TAG_MISMATCH, e);
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(plainFile.toPath());
+			throw e;
+		}
+		return new FilterInputStream(new BufferedInputStream(new FileInputStream(plainFile), BUFFER_SIZE)) {
+			@Override
+			public void close() throws IOException {
+				try {
+					super.close();
+				} finally {
+					Files.deleteIfExists(plainFile.toPath());
+				}
+			}
+		};
+	}
+
+	private File getTempDir() {
+		return tempDir == null || tempDir.isEmpty() ? null : new File(tempDir);
+	}
+
+}
@@ -0,0 +1,16 @@
+package io.mosip.registration.processor.packet.manager.dto;
+
+import io.mosip.kernel.core.http.ResponseWrapper;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Key manager symmetric key decryption response.
+ *
+ * @since 1.0.9
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class KeymanagerResponseDto extends ResponseWrapper<SymmetricKeyResponseDto> {
+
+}
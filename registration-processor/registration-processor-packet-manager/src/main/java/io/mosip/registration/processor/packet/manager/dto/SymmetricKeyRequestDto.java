@@ -0,0 +1,33 @@
+package io.mosip.registration.processor.packet.manager.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request to the key manager to decrypt a packet session key.
+ *
+ * @since 1.0.9
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SymmetricKeyRequestDto {
+
+	/** Application id of decrypting module. */
+	private String applicationId;
+
+	/** Timestamp of the key used to encrypt. */
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+	private LocalDateTime timeStamp;
+
+	/** Refrence Id. */
+	private String referenceId;
+
+	/** Encrypted session key in BASE64 encoding. */
+	private String encryptedSymmetricKey;
+}
@@ -0,0 +1,15 @@
+package io.mosip.registration.processor.packet.manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SymmetricKeyResponseDto {
+
+	/** Decrypted session key in BASE64 encoding. */
+	private String symmetricKey;
+
+}
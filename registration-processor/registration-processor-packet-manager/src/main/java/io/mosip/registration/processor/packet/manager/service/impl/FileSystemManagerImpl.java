@@ -17,6 +17,7 @@ import io.mosip.registration.processor.packet.manager.decryptor.Decryptor;
 import io.mosip.registration.processor.core.spi.filesystem.manager.PacketManager;
 import io.mosip.registration.processor.packet.manager.exception.FileNotFoundInDestinationException;
 import io.mosip.registration.processor.packet.manager.exception.PacketDecryptionFailureExceptionConstant;
+import io.mosip.registration.processor.packet.manager.session.PacketSessionCache;
 import io.mosip.registration.processor.packet.manager.utils.ZipUtils;
 
 /**
@@ -35,6 +36,9 @@ public class FileSystemManagerImpl implements PacketManager {
 	@Autowired
 	private Decryptor decryptor;
 
+	@Autowired(required = false)
+	private PacketSessionCache packetSessionCache;
+
 	private static Logger regProcLogger = RegProcessorLogger.getLogger(FileSystemManagerImpl.class);
 
 	private static final String PACKET_NOTAVAILABLE_ERROR_DESC = "the requested file {} in the destination is not found";
@@ -51,6 +55,9 @@ public class FileSystemManagerImpl implements PacketManager {
 			throws PacketDecryptionFailureException, ApisResourceAccessException, IOException {
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(), id,
 				"HdfsFileSystemManagerImpl::checkFileExistence()::entry");
+		if (isSessionCached(id)) {
+			return packetSessionCache.read(id, this::getFile, session -> session.containsFile(fileName));
+		}
 		InputStream decryptedData = getFile(id);
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(), id,
 				"HdfsFileSystemManagerImpl::checkFileExistence()::extractZip");
@@ -69,6 +76,9 @@ public class FileSystemManagerImpl implements PacketManager {
 			PacketDecryptionFailureException, io.mosip.kernel.core.exception.IOException {
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(), id,
 				"HdfsFileSystemManagerImpl::getPacket()::entry");
+		if (isSessionCached(id)) {
+			return packetSessionCache.read(id, this::getFile, session -> session.getPacket());
+		}
 		return getFile(id);
 	}
 
@@ -84,6 +94,9 @@ public class FileSystemManagerImpl implements PacketManager {
 			throws PacketDecryptionFailureException, ApisResourceAccessException, IOException {
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(), id,
 				"HdfsFileSystemManagerImpl::getFile()::entry");
+		if (isSessionCached(id)) {
+			return packetSessionCache.read(id, this::getFile, session -> session.getFile(fileName));
+		}
 		InputStream decryptedData = getFile(id);
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(), id,
 				"HdfsFileSystemManagerImpl::getFile()::extractZip");
@@ -158,4 +171,32 @@ public class FileSystemManagerImpl implements PacketManager {
 		return fileSystemAdapter.isPacketPresent(id);
 	}
 
+	/* (non-Javadoc)
+	 * @see io.mosip.registration.processor.core.spi.filesystem.manager.PacketManager#holdPacket(java.lang.String)
+	 */
+	@Override
+	public void holdPacket(String id) {
+		if (packetSessionCache != null) {
+			packetSessionCache.hold(id);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see io.mosip.registration.processor.core.spi.filesystem.manager.PacketManager#releasePacket(java.lang.String)
+	 */
+	@Override
+	public void releasePacket(String id) {
+		if (packetSessionCache != null) {
+			packetSessionCache.release(id);
+		}
+	}
+
+	/**
+	 * Reads of an id that is not held stream the packet straight from the store,
+	 * as there is no later read to share the decrypted copy with.
+	 */
+	private boolean isSessionCached(String id) {
+		return packetSessionCache != null && packetSessionCache.isEnabled() && packetSessionCache.isHeld(id);
+	}
+
 }
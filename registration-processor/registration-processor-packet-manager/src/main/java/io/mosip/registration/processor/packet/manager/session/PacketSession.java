@@ -0,0 +1,174 @@
+package io.mosip.registration.processor.packet.manager.session;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import io.mosip.registration.processor.packet.manager.utils.PacketZipReader;
+
+/**
+ * Decrypted copy of a single packet, spilled to a temp file so that it does
+ * not occupy the heap. On first access the file is memory mapped and its zip
+ * central directory is read once by {@link PacketZipReader}, so each file is
+ * served straight from the mapping without scanning the other entries.
+ *
+ * @since 1.0.9
+ */
+public class PacketSession implements Closeable {
+
+	private static final String TEMP_FILE_PREFIX = "packet-session-";
+
+	private static final String TEMP_FILE_SUFFIX = ".zip";
+
+	/** The registration id. */
+	private final String id;
+
+	/** The temp file holding the decrypted packet. */
+	private final File packetFile;
+
+	/** The size of the decrypted packet in bytes. */
+	private final long size;
+
+	/** The creation time in millis. */
+	private final long createdTime;
+
+	/** The zip reader over the memory mapped packet, opened lazily. */
+	private PacketZipReader zipReader;
+
+	/** Whether the session is held by the cache. */
+	private boolean cached;
+
+	/** Whether the session is closed. */
+	private boolean closed;
+
+	private PacketSession(String id, File packetFile) {
+		this.id = id;
+		this.packetFile = packetFile;
+		this.size = packetFile.length();
+		this.createdTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Copies the decrypted packet to a temp file and returns a session on it.
+	 *
+	 * @param id
+	 *            the registration id
+	 * @param decryptedPacket
+	 *            the decrypted packet, closed by this method
+	 * @param tempDir
+	 *            directory for the temp file, or null for the default one
+	 * @return the packet session
+	 * @throws IOException
+	 *             if the packet could not be written
+	 */
+	public static PacketSession open(String id, InputStream decryptedPacket, File tempDir) throws IOException {
+		File packetFile = File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX, tempDir);
+		try (InputStream in = decryptedPacket) {
+			Files.copy(in, packetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			Files.deleteIfExists(packetFile.toPath());
+			throw e;
+		}
+		return new PacketSession(id, packetFile);
+	}
+
+	/**
+	 * Gets the file inside the packet. The stream reads lazily from the mapped
+	 * packet and stays readable after the session is closed.
+	 *
+	 * @param fileName
+	 *            the file name without extension
+	 * @return the file content, or null if the packet does not contain it
+	 * @throws IOException
+	 *             if the packet could not be read
+	 */
+	public synchronized InputStream getFile(String fileName) throws IOException {
+		return getZipReader().getInputStream(fileName);
+	}
+
+	/**
+	 * Checks whether the packet contains the file.
+	 *
+	 * @param fileName
+	 *            the file name without extension
+	 * @return true if found
+	 * @throws IOException
+	 *             if the packet could not be read
+	 */
+	public synchronized boolean containsFile(String fileName) throws IOException {
+		return getZipReader().contains(fileName);
+	}
+
+	/**
+	 * Gets the whole decrypted packet.
+	 *
+	 * @return the decrypted packet
+	 * @throws IOException
+	 *             if the packet could not be read
+	 */
+	public synchronized InputStream getPacket() throws IOException {
+		return getZipReader().getArchiveInputStream();
+	}
+
+	private PacketZipReader getZipReader() throws IOException {
+		if (closed) {
+			throw new IOException("Packet session closed for " + id);
+		}
+		if (zipReader == null) {
+			MappedByteBuffer mappedPacket;
+			try (FileChannel channel = FileChannel.open(packetFile.toPath(), StandardOpenOption.READ)) {
+				mappedPacket = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			}
+			zipReader = PacketZipReader.open(mappedPacket);
+		}
+		return zipReader;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public long getCreatedTime() {
+		return createdTime;
+	}
+
+	synchronized boolean isCached() {
+		return cached;
+	}
+
+	synchronized void setCached(boolean cached) {
+		this.cached = cached;
+	}
+
+	public synchronized boolean isClosed() {
+		return closed;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		// the mapping is released by the garbage collector once the streams
+		// handed out are no longer referenced
+		zipReader = null;
+		Files.deleteIfExists(packetFile.toPath());
+	}
+}
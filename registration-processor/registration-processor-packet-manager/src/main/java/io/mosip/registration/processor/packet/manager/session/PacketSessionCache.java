@@ -0,0 +1,328 @@
+package io.mosip.registration.processor.packet.manager.session;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.exception.PacketDecryptionFailureException;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+
+/**
+ * Bounded cache of decrypted packets keyed by registration id, so that a stage
+ * fetches and decrypts a packet once no matter how many files it reads from
+ * it. A packet is kept only while its id is held, from {@link #hold(String)}
+ * until the matching {@link #release(String)}, which bounds the copy to the
+ * message being processed. Callers read an id that is not held, such as from
+ * the REST services, straight from the store instead, see
+ * {@link #isHeld(String)}. Entries are bounded by total bytes and count,
+ * evicted in LRU order, and expire after a TTL in case a holder never releases
+ * them.
+ *
+ * @since 1.0.9
+ */
+public class PacketSessionCache {
+
+	private static Logger regProcLogger = RegProcessorLogger.getLogger(PacketSessionCache.class);
+
+	/**
+	 * Loads the decrypted packet on a cache miss.
+	 */
+	@FunctionalInterface
+	public interface PacketLoader {
+		InputStream load(String id) throws PacketDecryptionFailureException, ApisResourceAccessException, IOException;
+	}
+
+	/**
+	 * Reads from a packet session while it is guaranteed to stay open.
+	 *
+	 * @param <T>
+	 *            the result type
+	 */
+	@FunctionalInterface
+	public interface SessionReader<T> {
+		T read(PacketSession session) throws IOException;
+	}
+
+	@Value("${registration.processor.packet.session.cache.enabled:true}")
+	private boolean enabled;
+
+	@Value("${registration.processor.packet.session.cache.max-bytes:536870912}")
+	private long maxBytes;
+
+	@Value("${registration.processor.packet.session.cache.max-entries:64}")
+	private int maxEntries;
+
+	@Value("${registration.processor.packet.session.cache.ttl-seconds:600}")
+	private long ttlSeconds;
+
+	@Value("${registration.processor.packet.session.cache.temp-dir:}")
+	private String tempDir;
+
+	/** Sessions in access order, guarded by itself. */
+	private final LinkedHashMap<String, PacketSession> sessions = new LinkedHashMap<>(16, 0.75f, true);
+
+	/** Per id locks so that concurrent misses decrypt the packet only once. */
+	private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+	/** Total bytes held, guarded by sessions. */
+	private long currentBytes;
+
+	/** Number of holds by id, guarded by sessions. */
+	private final Map<String, Integer> holds = new HashMap<>();
+
+	public PacketSessionCache() {
+	}
+
+	public PacketSessionCache(long maxBytes, int maxEntries, long ttlSeconds, String tempDir) {
+		this.enabled = true;
+		this.maxBytes = maxBytes;
+		this.maxEntries = maxEntries;
+		this.ttlSeconds = ttlSeconds;
+		this.tempDir = tempDir;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Runs the reader against the session for the id, loading the packet on a
+	 * miss. Packets larger than the whole cache, or of an id released while
+	 * loading, are read through a throwaway session.
+	 *
+	 * @param id
+	 *            the registration id
+	 * @param loader
+	 *            loads the decrypted packet on a miss
+	 * @param reader
+	 *            the reader
+	 * @return the reader result
+	 * @throws PacketDecryptionFailureException
+	 *             if the packet could not be decrypted
+	 * @throws ApisResourceAccessException
+	 *             if the crypto service could not be reached
+	 * @throws IOException
+	 *             if the packet could not be read
+	 */
+	public <T> T read(String id, PacketLoader loader, SessionReader<T> reader)
+			throws PacketDecryptionFailureException, ApisResourceAccessException, IOException {
+		while (true) {
+			PacketSession session = acquire(id, loader);
+			synchronized (session) {
+				if (session.isClosed()) {
+					// evicted between lookup and read, load it again
+					continue;
+				}
+				try {
+					return reader.read(session);
+				} finally {
+					if (!session.isCached()) {
+						session.close();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Whether the id is held, that is whether reading its packet through the
+	 * cache keeps it for the next read.
+	 *
+	 * @param id
+	 *            the registration id
+	 * @return true if the id is held
+	 */
+	public boolean isHeld(String id) {
+		synchronized (sessions) {
+			return holds.containsKey(id);
+		}
+	}
+
+	/**
+	 * Holds the id, so that its packet is kept once read until the hold is
+	 * released.
+	 *
+	 * @param id
+	 *            the registration id
+	 */
+	public void hold(String id) {
+		synchronized (sessions) {
+			holds.merge(id, 1, Integer::sum);
+		}
+	}
+
+	/**
+	 * Releases a hold of the id, evicting its session once the last hold is
+	 * released.
+	 *
+	 * @param id
+	 *            the registration id
+	 */
+	public void release(String id) {
+		synchronized (sessions) {
+			Integer count = holds.get(id);
+			if (count == null) {
+				return;
+			}
+			if (count > 1) {
+				holds.put(id, count - 1);
+				return;
+			}
+			holds.remove(id);
+		}
+		evict(id);
+	}
+
+	/**
+	 * Evicts the session for the id, deleting its temp file.
+	 *
+	 * @param id
+	 *            the registration id
+	 */
+	public void evict(String id) {
+		PacketSession session;
+		synchronized (sessions) {
+			session = sessions.remove(id);
+			if (session != null) {
+				currentBytes -= session.getSize();
+			}
+		}
+		if (session != null) {
+			closeQuietly(session);
+			regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					id, "PacketSessionCache::evict()::session released");
+		}
+	}
+
+	/**
+	 * Evicts every session.
+	 */
+	@PreDestroy
+	public void clear() {
+		List<PacketSession> evicted;
+		synchronized (sessions) {
+			evicted = new ArrayList<>(sessions.values());
+			sessions.clear();
+			holds.clear();
+			currentBytes = 0;
+		}
+		evicted.forEach(this::closeQuietly);
+	}
+
+	public int size() {
+		synchronized (sessions) {
+			return sessions.size();
+		}
+	}
+
+	public long getCurrentBytes() {
+		synchronized (sessions) {
+			return currentBytes;
+		}
+	}
+
+	private PacketSession acquire(String id, PacketLoader loader)
+			throws PacketDecryptionFailureException, ApisResourceAccessException, IOException {
+		PacketSession session = lookup(id);
+		if (session != null) {
+			return session;
+		}
+		Object lock = loadLocks.computeIfAbsent(id, key -> new Object());
+		synchronized (lock) {
+			try {
+				session = lookup(id);
+				if (session != null) {
+					return session;
+				}
+				regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.REGISTRATIONID.toString(), id,
+						"PacketSessionCache::acquire()::loading packet");
+				session = PacketSession.open(id, loader.load(id), getTempDir());
+				store(session);
+				return session;
+			} finally {
+				loadLocks.remove(id, lock);
+			}
+		}
+	}
+
+	private PacketSession lookup(String id) {
+		PacketSession expired = null;
+		PacketSession session;
+		synchronized (sessions) {
+			session = sessions.get(id);
+			if (session != null && isExpired(session)) {
+				sessions.remove(id);
+				currentBytes -= session.getSize();
+				expired = session;
+				session = null;
+			}
+		}
+		if (expired != null) {
+			closeQuietly(expired);
+		}
+		return session;
+	}
+
+	private void store(PacketSession session) {
+		if (session.getSize() > maxBytes || maxEntries <= 0) {
+			return;
+		}
+		List<PacketSession> evicted = new ArrayList<>();
+		synchronized (sessions) {
+			if (!holds.containsKey(session.getId())) {
+				return;
+			}
+			session.setCached(true);
+			PacketSession previous = sessions.put(session.getId(), session);
+			if (previous != null) {
+				currentBytes -= previous.getSize();
+				evicted.add(previous);
+			}
+			currentBytes += session.getSize();
+			Iterator<PacketSession> eldest = sessions.values().iterator();
+			while ((currentBytes > maxBytes || sessions.size() > maxEntries) && eldest.hasNext()) {
+				PacketSession candidate = eldest.next();
+				if (candidate == session) {
+					continue;
+				}
+				eldest.remove();
+				currentBytes -= candidate.getSize();
+				evicted.add(candidate);
+			}
+		}
+		evicted.forEach(this::closeQuietly);
+	}
+
+	private boolean isExpired(PacketSession session) {
+		return System.currentTimeMillis() - session.getCreatedTime() > TimeUnit.SECONDS.toMillis(ttlSeconds);
+	}
+
+	private File getTempDir() {
+		return tempDir == null || tempDir.isEmpty() ? null : new File(tempDir);
+	}
+
+	private void closeQuietly(PacketSession session) {
+		try {
+			session.close();
+		} catch (IOException e) {
+			regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					session.getId(), "PacketSessionCache::closeQuietly()::" + e.getMessage());
+		}
+	}
+}
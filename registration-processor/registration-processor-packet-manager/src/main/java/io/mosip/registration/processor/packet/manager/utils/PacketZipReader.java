@@ -0,0 +1,308 @@
+package io.mosip.registration.processor.packet.manager.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import org.apache.commons.io.FilenameUtils;
+
+/**
+ * Random access reader for a packet zip held in a {@link ByteBuffer}, typically
+ * a memory mapped file or a direct buffer. The central directory is parsed once
+ * into an index keyed by the case folded entry name without extension, the
+ * same names {@link ZipUtils} matches on, so each lookup seeks straight to the
+ * entry. Stored entries are served as slices of the buffer without copying;
+ * deflated entries are inflated straight from the buffer.
+ *
+ * ZIP64 archives are not supported, packets are far below 4 GB.
+ *
+ * @since 1.0.9
+ */
+public class PacketZipReader {
+
+	private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+	private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+	private static final int END_HEADER_SIGNATURE = 0x06054b50;
+
+	private static final int LOCAL_HEADER_LENGTH = 30;
+	private static final int CENTRAL_HEADER_LENGTH = 46;
+	private static final int END_HEADER_LENGTH = 22;
+	private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+	private static final int STORED = 0;
+	private static final int DEFLATED = 8;
+
+	private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+	/** Little endian view of the whole archive. */
+	private final ByteBuffer archive;
+
+	/** Index of the file entries. */
+	private final Map<String, Entry> entryIndex;
+
+	private PacketZipReader(ByteBuffer archive, Map<String, Entry> entryIndex) {
+		this.archive = archive;
+		this.entryIndex = entryIndex;
+	}
+
+	/**
+	 * Parses the central directory of the archive.
+	 *
+	 * @param buffer
+	 *            the zip archive, from position 0 to its limit
+	 * @return the reader
+	 * @throws ZipException
+	 *             if the buffer is not a supported zip archive
+	 */
+	public static PacketZipReader open(ByteBuffer buffer) throws ZipException {
+		ByteBuffer archive = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		archive.clear();
+		int endOffset = findEndHeader(archive);
+		int entryCount = archive.getShort(endOffset + 10) & 0xFFFF;
+		long centralSize = archive.getInt(endOffset + 12) & ZIP64_MAGIC;
+		long centralOffset = archive.getInt(endOffset + 16) & ZIP64_MAGIC;
+		if (entryCount == 0xFFFF || centralSize == ZIP64_MAGIC || centralOffset == ZIP64_MAGIC) {
+			throw new ZipException("ZIP64 archives are not supported");
+		}
+		if (centralOffset + centralSize > endOffset) {
+			throw new ZipException("Invalid central directory offset");
+		}
+
+		Map<String, Entry> index = new HashMap<>(entryCount * 2);
+		int offset = (int) centralOffset;
+		for (int i = 0; i < entryCount; i++) {
+			if (offset + CENTRAL_HEADER_LENGTH > endOffset
+					|| archive.getInt(offset) != CENTRAL_HEADER_SIGNATURE) {
+				throw new ZipException("Invalid central directory header");
+			}
+			int method = archive.getShort(offset + 10) & 0xFFFF;
+			long compressedSize = archive.getInt(offset + 20) & ZIP64_MAGIC;
+			long size = archive.getInt(offset + 24) & ZIP64_MAGIC;
+			int nameLength = archive.getShort(offset + 28) & 0xFFFF;
+			int extraLength = archive.getShort(offset + 30) & 0xFFFF;
+			int commentLength = archive.getShort(offset + 32) & 0xFFFF;
+			long localHeaderOffset = archive.getInt(offset + 42) & ZIP64_MAGIC;
+			if (compressedSize == ZIP64_MAGIC || size == ZIP64_MAGIC || localHeaderOffset == ZIP64_MAGIC) {
+				throw new ZipException("ZIP64 archives are not supported");
+			}
+			String name = readName(archive, offset + CENTRAL_HEADER_LENGTH, nameLength);
+			if (!name.endsWith("/")) {
+				index.putIfAbsent(indexKey(FilenameUtils.removeExtension(name)),
+						new Entry(name, method, (int) localHeaderOffset, (int) compressedSize, (int) size));
+			}
+			offset += CENTRAL_HEADER_LENGTH + nameLength + extraLength + commentLength;
+		}
+		return new PacketZipReader(archive, index);
+	}
+
+	/**
+	 * Checks whether the archive has the file.
+	 *
+	 * @param fileName
+	 *            the file name without extension, case insensitive
+	 * @return true if found
+	 */
+	public boolean contains(String fileName) {
+		return entryIndex.containsKey(indexKey(fileName));
+	}
+
+	/**
+	 * Gets the file as a buffer. Stored entries are slices of the archive;
+	 * deflated ones are inflated into a new heap buffer.
+	 *
+	 * @param fileName
+	 *            the file name without extension, case insensitive
+	 * @return the file content, or null if not found
+	 * @throws IOException
+	 *             if the entry is corrupt
+	 */
+	public ByteBuffer getBuffer(String fileName) throws IOException {
+		Entry entry = entryIndex.get(indexKey(fileName));
+		if (entry == null) {
+			return null;
+		}
+		ByteBuffer data = slice(entry);
+		if (entry.method == STORED) {
+			return data;
+		}
+		byte[] inflated = new byte[entry.size];
+		try (InputStream in = inflate(data)) {
+			int read = 0;
+			int n;
+			while (read < inflated.length && (n = in.read(inflated, read, inflated.length - read)) != -1) {
+				read += n;
+			}
+			if (read != inflated.length) {
+				throw new ZipException("Truncated entry " + entry.name);
+			}
+		}
+		return ByteBuffer.wrap(inflated);
+	}
+
+	/**
+	 * Gets the file as a stream read straight from the archive.
+	 *
+	 * @param fileName
+	 *            the file name without extension, case insensitive
+	 * @return the file content, or null if not found
+	 * @throws IOException
+	 *             if the entry is corrupt
+	 */
+	public InputStream getInputStream(String fileName) throws IOException {
+		Entry entry = entryIndex.get(indexKey(fileName));
+		if (entry == null) {
+			return null;
+		}
+		ByteBuffer data = slice(entry);
+		return entry.method == STORED ? new ByteBufferInputStream(data) : inflate(data);
+	}
+
+	/**
+	 * Gets the whole archive as a stream read straight from the buffer.
+	 *
+	 * @return the archive content
+	 */
+	public InputStream getArchiveInputStream() {
+		return new ByteBufferInputStream(archive);
+	}
+
+	/**
+	 * Normalizes a file name the way {@link ZipUtils} compares names.
+	 *
+	 * @param name
+	 *            the file name without extension
+	 * @return the index key
+	 */
+	public static String indexKey(String name) {
+		String normalized = FilenameUtils.normalize(name, true);
+		return (normalized != null ? normalized : name).toLowerCase(Locale.ROOT);
+	}
+
+	private ByteBuffer slice(Entry entry) throws ZipException {
+		int offset = entry.localHeaderOffset;
+		if (offset + LOCAL_HEADER_LENGTH > archive.limit() || archive.getInt(offset) != LOCAL_HEADER_SIGNATURE) {
+			throw new ZipException("Invalid local header for " + entry.name);
+		}
+		int nameLength = archive.getShort(offset + 26) & 0xFFFF;
+		int extraLength = archive.getShort(offset + 28) & 0xFFFF;
+		int dataOffset = offset + LOCAL_HEADER_LENGTH + nameLength + extraLength;
+		if (entry.method != STORED && entry.method != DEFLATED) {
+			throw new ZipException("Unsupported compression method " + entry.method + " for " + entry.name);
+		}
+		if (dataOffset + entry.compressedSize > archive.limit()) {
+			throw new ZipException("Truncated entry " + entry.name);
+		}
+		ByteBuffer data = archive.duplicate();
+		data.position(dataOffset);
+		data.limit(dataOffset + entry.compressedSize);
+		return data.slice();
+	}
+
+	private static InputStream inflate(ByteBuffer data) {
+		Inflater inflater = new Inflater(true);
+		// raw inflate needs one trailing dummy byte, as ZipFile supplies
+		InputStream compressed = new SequenceInputStream(new ByteBufferInputStream(data),
+				new ByteArrayInputStream(new byte[1]));
+		return new InflaterInputStream(compressed, inflater) {
+			private boolean closed;
+
+			@Override
+			public void close() throws IOException {
+				if (!closed) {
+					closed = true;
+					super.close();
+					inflater.end();
+				}
+			}
+		};
+	}
+
+	private static int findEndHeader(ByteBuffer archive) throws ZipException {
+		int limit = archive.limit();
+		int lowest = Math.max(0, limit - END_HEADER_LENGTH - MAX_COMMENT_LENGTH);
+		for (int offset = limit - END_HEADER_LENGTH; offset >= lowest; offset--) {
+			if (archive.getInt(offset) == END_HEADER_SIGNATURE) {
+				return offset;
+			}
+		}
+		throw new ZipException("End of central directory not found");
+	}
+
+	private static String readName(ByteBuffer archive, int offset, int length) {
+		byte[] name = new byte[length];
+		ByteBuffer view = archive.duplicate();
+		view.position(offset);
+		view.get(name);
+		return new String(name, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Location of an entry in the archive.
+	 */
+	private static class Entry {
+		private final String name;
+		private final int method;
+		private final int localHeaderOffset;
+		private final int compressedSize;
+		private final int size;
+
+		Entry(String name, int method, int localHeaderOffset, int compressedSize, int size) {
+			this.name = name;
+			this.method = method;
+			this.localHeaderOffset = localHeaderOffset;
+			this.compressedSize = compressedSize;
+			this.size = size;
+		}
+	}
+
+	/**
+	 * Input stream over a buffer, reading through a private view of it.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer.duplicate();
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public long skip(long n) {
+			int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
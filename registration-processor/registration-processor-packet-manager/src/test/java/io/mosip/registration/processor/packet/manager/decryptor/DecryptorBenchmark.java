@@ -0,0 +1,162 @@
+package io.mosip.registration.processor.packet.manager.decryptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.mosip.kernel.core.util.CryptoUtil;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.exception.PacketDecryptionFailureException;
+import io.mosip.registration.processor.packet.manager.dto.CryptomanagerRequestDto;
+import io.mosip.registration.processor.packet.manager.dto.DecryptResponseDto;
+import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
+
+/**
+ * Compares the REST decryption path with {@link StreamingDecryptorImpl} for 1,
+ * 10 and 50 MB packets. The REST path is replayed in process: the request and
+ * response go through Jackson and the crypto manager's work is done locally, so
+ * the numbers cover the payload copies and crypto but not the network hop.
+ * Run with gc profiling to see the allocation difference:
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/test-classes:&lt;test classpath&gt; org.openjdk.jmh.Main DecryptorBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = { "-Xmx1g" })
+public class DecryptorBenchmark {
+
+	private static final String RID = "84071493960000320190110145452";
+
+	private static final String KEY_SPLITTER = "#KEY_SPLITTER#";
+
+	@Param({ "1", "10", "50" })
+	private int packetSizeMb;
+
+	private byte[] encryptedPacket;
+
+	private PrivateKey privateKey;
+
+	private ObjectMapper mapper;
+
+	private StreamingDecryptorImpl streamingDecryptor;
+
+	@Setup(Level.Trial)
+	public void setup() throws GeneralSecurityException {
+		KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+		keyPairGenerator.initialize(2048);
+		KeyPair keyPair = keyPairGenerator.generateKeyPair();
+		privateKey = keyPair.getPrivate();
+		byte[] packet = new byte[packetSizeMb * 1024 * 1024];
+		new SecureRandom().nextBytes(packet);
+		encryptedPacket = StreamingDecryptorImplTest.encrypt(packet, keyPair.getPublic(), false);
+		mapper = new ObjectMapper();
+
+		streamingDecryptor = new StreamingDecryptorImpl();
+		ReflectionTestUtils.setField(streamingDecryptor, "centerIdLength", 5);
+		ReflectionTestUtils.setField(streamingDecryptor, "machineIdSubStringLength", 10);
+		ReflectionTestUtils.setField(streamingDecryptor, "keySplitter", KEY_SPLITTER);
+		ReflectionTestUtils.setField(streamingDecryptor, "tagLength", 128);
+		ReflectionTestUtils.setField(streamingDecryptor, "ivLength", 16);
+		ReflectionTestUtils.setField(streamingDecryptor, "sessionKeyUnwrapper",
+				new KeyStoreSessionKeyUnwrapper(privateKey));
+		ReflectionTestUtils.setField(streamingDecryptor, "auditLogRequestBuilder",
+				Mockito.mock(AuditLogRequestBuilder.class));
+	}
+
+	@Benchmark
+	public long restPath() throws IOException, GeneralSecurityException, PacketDecryptionFailureException {
+		// client: DecryptorImpl builds the JSON request
+		String encryptedPacketString = IOUtils.toString(new ByteArrayInputStream(encryptedPacket), "UTF-8");
+		CryptomanagerRequestDto request = new CryptomanagerRequestDto();
+		request.setApplicationId("REGISTRATION");
+		request.setReferenceId("84071_49396");
+		request.setData(encryptedPacketString);
+		byte[] requestBody = mapper.writeValueAsBytes(request);
+
+		// crypto manager: decrypts and answers with the BASE64 packet
+		CryptomanagerRequestDto received = mapper.readValue(requestBody, CryptomanagerRequestDto.class);
+		byte[] decrypted = decryptInMemory(CryptoUtil.decodeBase64(received.getData()));
+		byte[] responseBody = mapper.writeValueAsBytes(new DecryptResponseDto(CryptoUtil.encodeBase64(decrypted)));
+
+		// client: DecryptorImpl decodes the response
+		DecryptResponseDto response = mapper.readValue(responseBody, DecryptResponseDto.class);
+		return IOUtils.copyLarge(new ByteArrayInputStream(CryptoUtil.decodeBase64(response.getData())),
+				NullOutputStream.NULL_OUTPUT_STREAM);
+	}
+
+	@Benchmark
+	public long streamingPath() throws PacketDecryptionFailureException, ApisResourceAccessException, IOException {
+		try (InputStream decrypted = streamingDecryptor.decrypt(new ByteArrayInputStream(encryptedPacket), RID)) {
+			return IOUtils.copyLarge(decrypted, NullOutputStream.NULL_OUTPUT_STREAM);
+		}
+	}
+
+	private byte[] decryptInMemory(byte[] combined) throws GeneralSecurityException, PacketDecryptionFailureException {
+		byte[] splitter = KEY_SPLITTER.getBytes(StandardCharsets.UTF_8);
+		int keyLength = indexOf(combined, splitter);
+		byte[] sessionKey = new KeyStoreSessionKeyUnwrapper(privateKey)
+				.unwrap(Arrays.copyOfRange(combined, 0, keyLength), null, null);
+		int dataStart = keyLength + splitter.length;
+		byte[] iv = Arrays.copyOfRange(combined, combined.length - 16, combined.length);
+		Cipher aes = Cipher.getInstance("AES/GCM/NoPadding");
+		aes.init(Cipher.DECRYPT_MODE, new SecretKeySpec(sessionKey, "AES"), new GCMParameterSpec(128, iv));
+		return aes.doFinal(combined, dataStart, combined.length - 16 - dataStart);
+	}
+
+	private static int indexOf(byte[] data, byte[] pattern) {
+		outer: for (int i = 0; i <= data.length - pattern.length; i++) {
+			for (int j = 0; j < pattern.length; j++) {
+				if (data[i + j] != pattern[j]) {
+					continue outer;
+				}
+			}
+			return i;
+		}
+		return -1;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(DecryptorBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,153 @@
+package io.mosip.registration.processor.packet.manager.decryptor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.spec.MGF1ParameterSpec;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.registration.processor.core.code.EventId;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.exception.PacketDecryptionFailureException;
+import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StreamingDecryptorImplTest {
+
+	private static final String RID = "84071493960000320190110145452";
+
+	private static final String KEY_SPLITTER = "#KEY_SPLITTER#";
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	@Mock
+	private AuditLogRequestBuilder auditLogRequestBuilder;
+
+	@InjectMocks
+	private StreamingDecryptorImpl decryptor;
+
+	private KeyPair keyPair;
+
+	private byte[] packet;
+
+	@Before
+	public void setup() throws GeneralSecurityException {
+		KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+		keyPairGenerator.initialize(2048);
+		keyPair = keyPairGenerator.generateKeyPair();
+		packet = new byte[100_000];
+		new SecureRandom().nextBytes(packet);
+
+		ReflectionTestUtils.setField(decryptor, "centerIdLength", 5);
+		ReflectionTestUtils.setField(decryptor, "machineIdSubStringLength", 10);
+		ReflectionTestUtils.setField(decryptor, "keySplitter", KEY_SPLITTER);
+		ReflectionTestUtils.setField(decryptor, "tagLength", 128);
+		ReflectionTestUtils.setField(decryptor, "ivLength", 16);
+		ReflectionTestUtils.setField(decryptor, "tempDir", tempDir.getRoot().getAbsolutePath());
+		ReflectionTestUtils.setField(decryptor, "sessionKeyUnwrapper",
+				new KeyStoreSessionKeyUnwrapper(keyPair.getPrivate()));
+	}
+
+	@Test
+	public void decryptTest() throws GeneralSecurityException, PacketDecryptionFailureException,
+			ApisResourceAccessException, IOException {
+		InputStream encrypted = new ByteArrayInputStream(encrypt(packet, keyPair.getPublic(), false));
+
+		try (InputStream decrypted = decryptor.decrypt(encrypted, RID)) {
+			assertArrayEquals(packet, IOUtils.toByteArray(decrypted));
+		}
+	}
+
+	@Test
+	public void tamperedPacketTest() throws GeneralSecurityException, ApisResourceAccessException {
+		InputStream encrypted = new ByteArrayInputStream(encrypt(packet, keyPair.getPublic(), true));
+
+		try {
+			decryptor.decrypt(encrypted, RID);
+			fail("tampered packet was returned");
+		} catch (PacketDecryptionFailureException e) {
+			Mockito.verify(auditLogRequestBuilder).createAuditRequestBuilder(Matchers.anyString(),
+					Matchers.eq(EventId.RPR_405.toString()), Matchers.anyString(), Matchers.anyString(),
+					Matchers.anyString(), Matchers.anyString(), Matchers.eq(RID));
+			assertArrayEquals(new String[0], tempDir.getRoot().list());
+		}
+	}
+
+	@Test(expected = PacketDecryptionFailureException.class)
+	public void missingKeySplitterTest() throws PacketDecryptionFailureException, ApisResourceAccessException {
+		InputStream encrypted = new ByteArrayInputStream(
+				Base64.encodeBase64URLSafe("not a packet".getBytes(StandardCharsets.UTF_8)));
+
+		decryptor.decrypt(encrypted, RID);
+	}
+
+	@Test(expected = PacketDecryptionFailureException.class)
+	public void invalidRegistrationIdTest() throws GeneralSecurityException, PacketDecryptionFailureException,
+			ApisResourceAccessException {
+		InputStream encrypted = new ByteArrayInputStream(encrypt(packet, keyPair.getPublic(), false));
+
+		decryptor.decrypt(encrypted, "8407149396");
+	}
+
+	/**
+	 * Encrypts the packet the way the registration client does.
+	 */
+	static byte[] encrypt(byte[] data, PublicKey publicKey, boolean tamper) throws GeneralSecurityException {
+		KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+		keyGenerator.init(256);
+		SecretKey sessionKey = keyGenerator.generateKey();
+		byte[] iv = new byte[16];
+		new SecureRandom().nextBytes(iv);
+
+		Cipher aes = Cipher.getInstance("AES/GCM/NoPadding");
+		aes.init(Cipher.ENCRYPT_MODE, sessionKey, new GCMParameterSpec(128, iv));
+		byte[] cipherText = aes.doFinal(data);
+		if (tamper) {
+			cipherText[cipherText.length / 2] ^= 1;
+		}
+
+		Cipher rsa = Cipher.getInstance("RSA/ECB/OAEPWithSHA-256AndMGF1Padding");
+		rsa.init(Cipher.ENCRYPT_MODE, publicKey,
+				new OAEPParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, PSource.PSpecified.DEFAULT));
+		byte[] wrappedKey = rsa.doFinal(sessionKey.getEncoded());
+
+		byte[] splitter = KEY_SPLITTER.getBytes(StandardCharsets.UTF_8);
+		byte[] combined = new byte[wrappedKey.length + splitter.length + cipherText.length + iv.length];
+		System.arraycopy(wrappedKey, 0, combined, 0, wrappedKey.length);
+		System.arraycopy(splitter, 0, combined, wrappedKey.length, splitter.length);
+		System.arraycopy(cipherText, 0, combined, wrappedKey.length + splitter.length, cipherText.length);
+		System.arraycopy(iv, 0, combined, wrappedKey.length + splitter.length + cipherText.length, iv.length);
+		return Base64.encodeBase64URLSafe(combined);
+	}
+
+}
@@ -1,5 +1,6 @@
 package io.mosip.registration.processor.packet.manager.service.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
@@ -20,6 +21,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import io.mosip.kernel.core.fsadapter.exception.FSAdapterException;
 import io.mosip.kernel.core.fsadapter.spi.FileSystemAdapter;
@@ -28,6 +30,7 @@ import io.mosip.registration.processor.core.exception.PacketDecryptionFailureExc
 import io.mosip.registration.processor.packet.manager.decryptor.Decryptor;
 import io.mosip.registration.processor.packet.manager.exception.FileNotFoundInDestinationException;
 import io.mosip.registration.processor.packet.manager.service.impl.FileSystemManagerImpl;
+import io.mosip.registration.processor.packet.manager.session.PacketSessionCache;
 
 /**
  * FileSystemManagerImpl test
@@ -91,6 +94,39 @@ public class FileSystemManagerImplTest {
 
 	}
 
+	@Test
+	public void getFileOfHeldPacketDecryptedOnce() throws IOException, PacketDecryptionFailureException,
+			ApisResourceAccessException {
+		String id = "10006100060000320190524042803";
+		PacketSessionCache cache = new PacketSessionCache(1024 * 1024, 4, 600, tempFolder.getRoot().getAbsolutePath());
+		ReflectionTestUtils.setField(packetManager, "packetSessionCache", cache);
+		when(fsAdapter.getPacket(Mockito.anyString())).thenReturn(IOUtils.toInputStream("DATA", "UTF-8"));
+		when(decryptorImpl.decrypt(any(), anyString())).thenReturn(zipFile);
+
+		packetManager.holdPacket(id);
+		assertNotNull(packetManager.getFile(id, id + "/DEMOGRAPHIC/ID"));
+		assertTrue(packetManager.checkFileExistence(id, id + "/packet_meta_info"));
+		packetManager.releasePacket(id);
+
+		Mockito.verify(decryptorImpl, Mockito.times(1)).decrypt(any(), anyString());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void getFileOfPacketNotHeldReadDirectly() throws IOException, PacketDecryptionFailureException,
+			ApisResourceAccessException {
+		String id = "10006100060000320190524042803";
+		PacketSessionCache cache = Mockito.mock(PacketSessionCache.class);
+		when(cache.isEnabled()).thenReturn(true);
+		ReflectionTestUtils.setField(packetManager, "packetSessionCache", cache);
+		when(fsAdapter.getPacket(Mockito.anyString())).thenReturn(IOUtils.toInputStream("DATA", "UTF-8"));
+		when(decryptorImpl.decrypt(any(), anyString())).thenReturn(zipFile);
+
+		assertNotNull(packetManager.getFile(id, id + "/DEMOGRAPHIC/ID"));
+
+		Mockito.verify(cache, Mockito.never()).read(anyString(), any(), any());
+	}
+
 	@Test
 	public void isFileExistSuccess() throws IOException, PacketDecryptionFailureException, ApisResourceAccessException,
 			io.mosip.kernel.core.exception.IOException {
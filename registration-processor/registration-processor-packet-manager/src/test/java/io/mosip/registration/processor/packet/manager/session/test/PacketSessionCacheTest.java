@@ -0,0 +1,144 @@
+package io.mosip.registration.processor.packet.manager.session.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.exception.PacketDecryptionFailureException;
+import io.mosip.registration.processor.packet.manager.session.PacketSessionCache;
+import io.mosip.registration.processor.packet.manager.session.PacketSessionCache.PacketLoader;
+
+/**
+ * PacketSessionCache test
+ *
+ * @since 1.0.9
+ */
+public class PacketSessionCacheTest {
+
+	private static final String RID = "10006100060000320190524042803";
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private PacketSessionCache cache;
+
+	private AtomicInteger loads;
+
+	private PacketLoader loader;
+
+	@Before
+	public void setUp() throws IOException {
+		cache = new PacketSessionCache(1024 * 1024, 4, 600, tempFolder.getRoot().getAbsolutePath());
+		cache.hold(RID);
+		loads = new AtomicInteger();
+		loader = id -> {
+			loads.incrementAndGet();
+			return this.getClass().getClassLoader().getResourceAsStream(RID + ".zip");
+		};
+	}
+
+	@Test
+	public void testPacketDecryptedOnce()
+			throws PacketDecryptionFailureException, ApisResourceAccessException, IOException {
+		InputStream id = cache.read(RID, loader, session -> session.getFile(RID + "/DEMOGRAPHIC/ID"));
+		boolean metaInfo = cache.read(RID, loader, session -> session.containsFile(RID + "/packet_meta_info"));
+		InputStream cbeff = cache.read(RID, loader,
+				session -> session.getFile(RID + "/biometric/applicant_bio_CBEFF"));
+
+		assertNotNull(id);
+		assertTrue(metaInfo);
+		assertNotNull(cbeff);
+		assertEquals(1, loads.get());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testMissingFile() throws PacketDecryptionFailureException, ApisResourceAccessException, IOException {
+		assertNull(cache.read(RID, loader, session -> session.getFile(RID + "/DEMOGRAPHIC/UNKNOWN")));
+		assertFalse(cache.read(RID, loader, session -> session.containsFile(RID + "/UNKNOWN")));
+	}
+
+	@Test
+	public void testEvictDeletesSession()
+			throws PacketDecryptionFailureException, ApisResourceAccessException, IOException {
+		cache.read(RID, loader, session -> session.containsFile(RID + "/packet_meta_info"));
+		cache.evict(RID);
+
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getCurrentBytes());
+		assertEquals(0, tempFolder.getRoot().listFiles().length);
+
+		cache.read(RID, loader, session -> session.containsFile(RID + "/packet_meta_info"));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testPacketLargerThanCacheNotKept()
+			throws PacketDecryptionFailureException, ApisResourceAccessException, IOException {
+		cache = new PacketSessionCache(1024, 4, 600, tempFolder.getRoot().getAbsolutePath());
+		cache.hold(RID);
+		assertTrue(cache.read(RID, loader, session -> session.containsFile(RID + "/packet_meta_info")));
+
+		assertEquals(0, cache.size());
+		assertEquals(0, tempFolder.getRoot().listFiles().length);
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEvicted()
+			throws PacketDecryptionFailureException, ApisResourceAccessException, IOException {
+		cache = new PacketSessionCache(1024 * 1024, 2, 600, tempFolder.getRoot().getAbsolutePath());
+		cache.hold("1");
+		cache.hold("2");
+		cache.hold("3");
+		cache.read("1", loader, session -> session.getSize());
+		cache.read("2", loader, session -> session.getSize());
+		cache.read("1", loader, session -> session.getSize());
+		cache.read("3", loader, session -> session.getSize());
+		cache.read("1", loader, session -> session.getSize());
+
+		assertEquals(2, cache.size());
+		assertEquals(3, loads.get());
+	}
+
+	@Test
+	public void testPacketNotHeldNotKept()
+			throws PacketDecryptionFailureException, ApisResourceAccessException, IOException {
+		cache.release(RID);
+		assertNotNull(cache.read(RID, loader, session -> session.getFile(RID + "/DEMOGRAPHIC/ID")));
+		assertTrue(cache.read(RID, loader, session -> session.containsFile(RID + "/packet_meta_info")));
+
+		assertEquals(2, loads.get());
+		assertEquals(0, cache.size());
+		assertEquals(0, tempFolder.getRoot().listFiles().length);
+	}
+
+	@Test
+	public void testPacketKeptUntilLastHoldReleased()
+			throws PacketDecryptionFailureException, ApisResourceAccessException, IOException {
+		cache.hold(RID);
+		cache.read(RID, loader, session -> session.containsFile(RID + "/packet_meta_info"));
+
+		cache.release(RID);
+		cache.read(RID, loader, session -> session.containsFile(RID + "/packet_meta_info"));
+		assertEquals(1, loads.get());
+		assertEquals(1, cache.size());
+
+		cache.release(RID);
+		assertEquals(0, cache.size());
+		assertEquals(0, tempFolder.getRoot().listFiles().length);
+		// releasing an id that is not held does nothing
+		cache.release(RID);
+	}
+}
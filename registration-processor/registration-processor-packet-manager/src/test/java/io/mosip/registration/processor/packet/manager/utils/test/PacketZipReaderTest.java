@@ -0,0 +1,121 @@
+package io.mosip.registration.processor.packet.manager.utils.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.mosip.registration.processor.packet.manager.utils.PacketZipReader;
+import io.mosip.registration.processor.packet.manager.utils.ZipUtils;
+
+/**
+ * PacketZipReader test
+ *
+ * @since 1.0.9
+ */
+public class PacketZipReaderTest {
+
+	private static final String RID = "10006100060000320190524042803";
+
+	private byte[] packet;
+
+	@Before
+	public void setUp() throws IOException {
+		try (InputStream in = this.getClass().getClassLoader().getResourceAsStream(RID + ".zip")) {
+			packet = IOUtils.toByteArray(in);
+		}
+	}
+
+	@Test
+	public void testEveryEntryMatchesZipUtils() throws IOException {
+		ByteBuffer direct = ByteBuffer.allocateDirect(packet.length);
+		direct.put(packet).flip();
+		PacketZipReader reader = PacketZipReader.open(direct);
+
+		List<String> names = new ArrayList<>();
+		try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(packet))) {
+			ZipEntry entry;
+			while ((entry = zis.getNextEntry()) != null) {
+				if (!entry.isDirectory()) {
+					names.add(FilenameUtils.removeExtension(entry.getName()));
+				}
+			}
+		}
+		assertFalse(names.isEmpty());
+
+		for (String name : names) {
+			byte[] expected = IOUtils.toByteArray(ZipUtils.unzipAndGetFile(new ByteArrayInputStream(packet), name));
+			assertTrue(reader.contains(name.toUpperCase()));
+			try (InputStream in = reader.getInputStream(name.toUpperCase())) {
+				assertArrayEquals(expected, IOUtils.toByteArray(in));
+			}
+			ByteBuffer buffer = reader.getBuffer(name);
+			byte[] actual = new byte[buffer.remaining()];
+			buffer.get(actual);
+			assertArrayEquals(expected, actual);
+		}
+	}
+
+	@Test
+	public void testStoredEntryIsSliceOfArchive() throws IOException {
+		byte[] content = "{\"identity\":{}}".getBytes(StandardCharsets.UTF_8);
+		ByteBuffer archive = ByteBuffer.allocateDirect(1024);
+		archive.put(storedZip("DEMOGRAPHIC/ID.json", content)).flip();
+		PacketZipReader reader = PacketZipReader.open(archive);
+
+		ByteBuffer buffer = reader.getBuffer("demographic/id");
+		assertTrue(buffer.isDirect());
+		byte[] actual = new byte[buffer.remaining()];
+		buffer.get(actual);
+		assertArrayEquals(content, actual);
+	}
+
+	@Test
+	public void testMissingEntry() throws IOException {
+		PacketZipReader reader = PacketZipReader.open(ByteBuffer.wrap(packet));
+
+		assertFalse(reader.contains(RID + "/UNKNOWN"));
+		assertNull(reader.getInputStream(RID + "/UNKNOWN"));
+		assertNull(reader.getBuffer(RID + "/UNKNOWN"));
+	}
+
+	@Test(expected = ZipException.class)
+	public void testNotAZip() throws IOException {
+		PacketZipReader.open(ByteBuffer.wrap("not a packet".getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static byte[] storedZip(String name, byte[] content) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ZipOutputStream zos = new ZipOutputStream(out)) {
+			ZipEntry entry = new ZipEntry(name);
+			CRC32 crc = new CRC32();
+			crc.update(content);
+			entry.setMethod(ZipEntry.STORED);
+			entry.setSize(content.length);
+			entry.setCrc(crc.getValue());
+			zos.putNextEntry(entry);
+			zos.write(content);
+			zos.closeEntry();
+		}
+		return out.toByteArray();
+	}
+}
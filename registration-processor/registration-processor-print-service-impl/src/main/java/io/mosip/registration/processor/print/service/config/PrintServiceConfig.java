@@ -7,6 +7,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -21,13 +22,13 @@ import io.mosip.kernel.cbeffutil.impl.CbeffImpl;
 import io.mosip.kernel.core.cbeffutil.spi.CbeffUtil;
 import io.mosip.kernel.core.pdfgenerator.spi.PDFGenerator;
 import io.mosip.kernel.core.qrcodegenerator.spi.QrCodeGenerator;
-import io.mosip.kernel.pdfgenerator.itext.impl.PDFGeneratorImpl;
 import io.mosip.kernel.qrcode.generator.zxing.QrcodeGeneratorImpl;
 import io.mosip.kernel.qrcode.generator.zxing.constant.QrVersion;
 import io.mosip.registration.processor.core.spi.print.service.PrintService;
 import io.mosip.registration.processor.core.spi.uincardgenerator.UinCardGenerator;
 import io.mosip.registration.processor.print.service.impl.PrintPostServiceImpl;
 import io.mosip.registration.processor.print.service.impl.PrintServiceImpl;
+import io.mosip.registration.processor.print.service.utility.PooledPDFGenerator;
 import io.mosip.registration.processor.print.service.utility.UinCardGeneratorImpl;
 
 /**
@@ -106,12 +107,14 @@ public class PrintServiceConfig {
 	/**
 	 * Gets the PDF generator.
 	 *
+	 * @param renderers
+	 *            the number of cards converted at once, 0 for one per processor
 	 * @return the PDF generator
 	 */
 	@Bean
 	@Primary
-	public PDFGenerator getPDFGenerator() {
-		return new PDFGeneratorImpl();
+	public PDFGenerator getPDFGenerator(@Value("${registration.processor.print.pdf-renderers:0}") int renderers) {
+		return new PooledPDFGenerator(renderers);
 	}
 
 	/**
@@ -3,19 +3,21 @@
  */
 package io.mosip.registration.processor.print.service.impl;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.ObjectInputStream;
+import java.io.InputStream;
 import java.io.OutputStream;
 import javax.jms.BytesMessage;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.json.simple.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import io.mosip.kernel.core.fsadapter.spi.FileSystemAdapter;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.registration.processor.core.constant.LoggerFileConstant;
 import io.mosip.registration.processor.core.exception.util.PlatformErrorMessages;
@@ -23,7 +25,7 @@ import io.mosip.registration.processor.core.logger.RegProcessorLogger;
 import io.mosip.registration.processor.core.queue.factory.MosipQueue;
 import io.mosip.registration.processor.core.queue.factory.QueueListener;
 import io.mosip.registration.processor.core.spi.queue.MosipQueueManager;
-import io.mosip.registration.processor.print.service.dto.PrintQueueDTO;
+import io.mosip.registration.processor.print.service.utility.PrintJobEnvelope;
 
 /**
  * @author Ranjitha Siddegowda
@@ -55,6 +57,10 @@ public class PrintPostServiceImpl {
 	@Value("${registration.processor.PRINT_POSTAL_SERVICE}")
 	private String printPostServiceDirectory;
 
+	/** The packet store holding the card pdf of a claim check. */
+	@Autowired
+	private FileSystemAdapter fileSystemAdapter;
+
 	/** The reg proc logger. */
 	private static Logger regProcLogger = RegProcessorLogger.getLogger(PrintPostServiceImpl.class);
 
@@ -86,7 +92,7 @@ public class PrintPostServiceImpl {
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"PrintPostServiceImpl::consumeLogic()::entry");
 
-		PrintQueueDTO printQueueDTO = new PrintQueueDTO();
+		String regId = null;
 		try {
 			JSONObject response;
 			BytesMessage bytesMessage = (BytesMessage) message;
@@ -94,43 +100,40 @@ public class PrintPostServiceImpl {
 			byte[] data = new byte[(int) bytesMessage.getBodyLength()];
 			bytesMessage.readBytes(data);
 
-			ByteArrayInputStream in = new ByteArrayInputStream(data);
-
-			ObjectInputStream is = new ObjectInputStream(in);
+			PrintJobEnvelope printJob = PrintJobEnvelope.read(data);
+			regId = printJob.getRegId();
 
-			printQueueDTO = (PrintQueueDTO) is.readObject();
-
-			if (!printQueueDTO.getRegId().isEmpty()) {
+			if (!regId.isEmpty()) {
 				response = new JSONObject();
-				response.put("RegId", printQueueDTO.getRegId());
+				response.put("RegId", regId);
 				response.put("Status", "Success");
 			} else {
 				response = new JSONObject();
-				response.put("RegId", printQueueDTO.getRegId());
+				response.put("RegId", regId);
 				response.put("Status", "Resend");
 			}
 
 			isPdfAddedtoQueue = mosipQueueManager.send(queue, response.toString().getBytes("UTF-8"),
 					printPostalAddress);
-			File dirPathObj = FileUtils.getFile(printPostServiceDirectory + seperator + printQueueDTO.getRegId());
+			File dirPathObj = FileUtils.getFile(printPostServiceDirectory + seperator + regId);
 
 			// Path dirPathObj = Paths.get(printPostServiceDirectory + seperator +
 			// printQueueDTO.getUin()).normalize();;
 			boolean dirExists = dirPathObj.exists();// exists(dirPathObj);
 			if (dirExists) {
-				printConsumedFileFromQueue(dirPathObj, printQueueDTO);
+				printConsumedFileFromQueue(dirPathObj, printJob);
 
 			} else {
 				// Creating The New Directory Structure
 				boolean created=dirPathObj.mkdirs();//createDirectories();
 				if(created) {
-				printConsumedFileFromQueue(dirPathObj, printQueueDTO);
+				printConsumedFileFromQueue(dirPathObj, printJob);
 				}
 			}
 
-		} catch (IOException | JMSException | ClassNotFoundException e) {
+		} catch (IOException | JMSException e) {
 			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.UIN.toString(),
-					printQueueDTO.getRegId(), PlatformErrorMessages.RPR_PRT_PRINT_POST_ACK_FAILED.name()
+					regId, PlatformErrorMessages.RPR_PRT_PRINT_POST_ACK_FAILED.name()
 							+ e.getMessage() + ExceptionUtils.getStackTrace(e));
 		}
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
@@ -139,18 +142,32 @@ public class PrintPostServiceImpl {
 		return isPdfAddedtoQueue;
 	}
 
-	private void printConsumedFileFromQueue(File dirPathObj, PrintQueueDTO printQueueDTO) throws IOException {
+	private void printConsumedFileFromQueue(File dirPathObj, PrintJobEnvelope printJob) throws IOException {
 
 		try (OutputStream out = FileUtils
-				.openOutputStream(FileUtils.getFile(dirPathObj + seperator + printQueueDTO.getRegId() + ".pdf"));) {
-			out.write(printQueueDTO.getPdfBytes());
+				.openOutputStream(FileUtils.getFile(dirPathObj + seperator + printJob.getRegId() + ".pdf"));) {
+			if (printJob.isClaimCheck()) {
+				try (InputStream pdf = fileSystemAdapter.getFile(printJob.getRegId(), printJob.getPdfReference())) {
+					IOUtils.copy(pdf, out);
+				}
+			} else {
+				printJob.writePdf(out);
+			}
 		}
 
 		try (OutputStream out1 = FileUtils
-				.openOutputStream(FileUtils.getFile(dirPathObj + seperator + printQueueDTO.getRegId() + ".txt"));) {
-			out1.write(printQueueDTO.getTextBytes());
+				.openOutputStream(FileUtils.getFile(dirPathObj + seperator + printJob.getRegId() + ".txt"));) {
+			printJob.writeText(out1);
 		}
 
+		// the card pdf of a claim check is read once, so it is not kept in the packet store
+		if (printJob.isClaimCheck()
+				&& !fileSystemAdapter.deleteFile(printJob.getRegId(), printJob.getPdfReference())) {
+			regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					printJob.getRegId(),
+					"PrintPostServiceImpl::printConsumedFileFromQueue():: unable to delete "
+							+ printJob.getPdfReference());
+		}
 	}
 
 }
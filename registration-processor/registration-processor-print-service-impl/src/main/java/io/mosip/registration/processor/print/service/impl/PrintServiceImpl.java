@@ -5,6 +5,9 @@ import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -15,7 +18,16 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
 import javax.xml.bind.DatatypeConverter;
 
 import org.apache.commons.io.IOUtils;
@@ -86,6 +98,10 @@ import io.mosip.registration.processor.status.service.RegistrationStatusService;
 /**
  * The Class PrintServiceImpl.
  * 
+ * The signed QR code of a card is generated on the render pool while the card
+ * template is rendered, and spliced into the rendered template. The pool is
+ * bounded, a card is rendered on the calling thread when the pool is busy.
+ * 
  * @author M1048358 Alok
  * @author Girish Yarru
  */
@@ -137,6 +153,9 @@ public class PrintServiceImpl implements PrintService<Map<String, byte[]>> {
 	/** The Constant QRCODE. */
 	private static final String QRCODE = "QrCode";
 
+	/** The Constant QRCODE_PLACEHOLDER, rendered in place of the qr code while it is generated. */
+	private static final String QRCODE_PLACEHOLDER = "@@QrCode-" + UUID.randomUUID() + "@@";
+
 	/** The Constant UINCARDPASSWORD. */
 	private static final String UINCARDPASSWORD = "mosip.registration.processor.print.service.uincard.password";
 
@@ -198,6 +217,17 @@ public class PrintServiceImpl implements PrintService<Map<String, byte[]>> {
 	@Autowired
 	private DigitalSignatureUtility digitalSignatureUtility;
 
+	/** The render threads, 0 for one per processor. */
+	@Value("${registration.processor.print.render-threads:0}")
+	private int renderThreads;
+
+	/** The directory the documents of a card are spooled to. */
+	@Value("${registration.processor.print.spool-directory:${java.io.tmpdir}/print-spool}")
+	private String spoolDirectory;
+
+	/** The render pool, created on first use. */
+	private volatile ExecutorService renderExecutor;
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -256,12 +286,9 @@ public class PrintServiceImpl implements PrintService<Map<String, byte[]>> {
 			byte[] textFileByte = createTextFile(jsonString);
 			byteMap.put(UIN_TEXT_FILE, textFileByte);
 
-			boolean isQRcodeSet = setQrCode(textFileByte, attributes);
-			if (!isQRcodeSet) {
-				regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(),
-						LoggerFileConstant.REGISTRATIONID.toString(), uin,
-						PlatformErrorMessages.RPR_PRT_QRCODE_NOT_SET.name());
-			}
+			CompletableFuture<String> qrCode = CompletableFuture.supplyAsync(() -> generateQrCode(textFileByte),
+					getRenderExecutor());
+			attributes.put(QRCODE, QRCODE_PLACEHOLDER);
 
 			template = setTemplateForMaskedUIN(cardType, uin, vid, attributes, template);
 
@@ -280,6 +307,14 @@ public class PrintServiceImpl implements PrintService<Map<String, byte[]>> {
 				password = getPassword(uin);
 			}
 
+			String qrCodeImage = getQrCode(qrCode);
+			if (qrCodeImage == null) {
+				regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.REGISTRATIONID.toString(), uin,
+						PlatformErrorMessages.RPR_PRT_QRCODE_NOT_SET.name());
+			}
+			uinArtifact = setQrCode(uinArtifact, qrCodeImage);
+
 			// generating pdf
 			byte[] pdfbytes = uinCardGenerator.generateUinCard(uinArtifact, UinCardType.PDF, password);
 		
@@ -398,6 +433,91 @@ public class PrintServiceImpl implements PrintService<Map<String, byte[]>> {
 		return byteMap;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.mosip.registration.processor.core.spi.print.service.PrintService#
+	 * spoolDocuments(io.mosip.registration.processor.core.constant.IdType,
+	 * java.lang.String, java.lang.String, boolean)
+	 */
+	@Override
+	public Map<String, Path> spoolDocuments(IdType idType, String idValue, String cardType,
+			boolean isPasswordProtected) throws IOException {
+		Map<String, byte[]> documents = getDocuments(idType, idValue, cardType, isPasswordProtected);
+		Path directory = Files.createDirectories(Paths.get(spoolDirectory));
+		String prefix = UUID.randomUUID().toString();
+		Map<String, Path> spooledDocuments = new HashMap<>();
+		try {
+			for (Map.Entry<String, byte[]> document : documents.entrySet()) {
+				Path file = directory.resolve(prefix + "_" + document.getKey());
+				Files.write(file, document.getValue());
+				spooledDocuments.put(document.getKey(), file);
+			}
+		} catch (IOException e) {
+			deleteSpooledDocuments(spooledDocuments);
+			throw e;
+		}
+		return spooledDocuments;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.mosip.registration.processor.core.spi.print.service.PrintService#
+	 * deleteSpooledDocuments(java.util.Map)
+	 */
+	@Override
+	public void deleteSpooledDocuments(Map<String, Path> spooledDocuments) {
+		for (Path file : spooledDocuments.values()) {
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException e) {
+				regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.REGISTRATIONID.toString(), "",
+						"PrintServiceImpl::deleteSpooledDocuments():: unable to delete " + file + " : "
+								+ e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Shuts the render pool down.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		if (renderExecutor != null) {
+			renderExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Gets the render pool, a card is rendered on the calling thread when all
+	 * the threads are busy and the queue is full.
+	 *
+	 * @return the render executor
+	 */
+	private ExecutorService getRenderExecutor() {
+		ExecutorService executor = renderExecutor;
+		if (executor == null) {
+			synchronized (this) {
+				executor = renderExecutor;
+				if (executor == null) {
+					int threads = renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+					AtomicInteger threadCount = new AtomicInteger();
+					executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+							new ArrayBlockingQueue<>(threads), runnable -> {
+								Thread thread = new Thread(runnable,
+										"print-card-render-" + threadCount.incrementAndGet());
+								thread.setDaemon(true);
+								return thread;
+							}, new ThreadPoolExecutor.CallerRunsPolicy());
+					renderExecutor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+
 	private String setTemplateForMaskedUIN(String cardType, String uin, String vid, Map<String, Object> attributes,
 			String template) throws ApisResourceAccessException, VidCreationException, IOException {
 		if (cardType.equalsIgnoreCase(CardType.MASKED_UIN.toString())) {
@@ -499,22 +619,77 @@ public class PrintServiceImpl implements PrintService<Map<String, byte[]>> {
 	}
 
 	/**
-	 * Sets the qr code.
+	 * Generates the qr code on the render pool.
 	 *
 	 * @param textFileByte
 	 *            the text file byte
-	 * @param attributes
-	 *            the attributes
-	 * @return true, if successful
+	 * @return the qr code image, null if none was generated
+	 */
+	private String generateQrCode(byte[] textFileByte) {
+		try {
+			return createQrCode(textFileByte);
+		} catch (QrcodeGenerationException | IOException e) {
+			throw new CompletionException(e);
+		}
+	}
+
+	/**
+	 * Waits for the qr code.
+	 *
+	 * @param qrCode
+	 *            the qr code being generated
+	 * @return the qr code image, null if none was generated
 	 * @throws QrcodeGenerationException
 	 *             the qrcode generation exception
 	 * @throws IOException
 	 *             Signals that an I/O exception has occurred.
 	 */
-	private boolean setQrCode(byte[] textFileByte, Map<String, Object> attributes)
-			throws QrcodeGenerationException, IOException {
+	private String getQrCode(CompletableFuture<String> qrCode) throws QrcodeGenerationException, IOException {
+		try {
+			return qrCode.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof QrcodeGenerationException) {
+				throw (QrcodeGenerationException) cause;
+			} else if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Sets the qr code in the rendered template, in place of its placeholder.
+	 *
+	 * @param uinArtifact
+	 *            the rendered template
+	 * @param qrCodeImage
+	 *            the qr code image, null to leave it out
+	 * @return the rendered template with the qr code
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	private InputStream setQrCode(InputStream uinArtifact, String qrCodeImage) throws IOException {
+		String artifact = new String(IOUtils.toByteArray(uinArtifact));
+		return new ByteArrayInputStream(
+				artifact.replace(QRCODE_PLACEHOLDER, qrCodeImage != null ? qrCodeImage : "").getBytes());
+	}
+
+	/**
+	 * Creates the qr code.
+	 *
+	 * @param textFileByte
+	 *            the text file byte
+	 * @return the qr code image, null if none was generated
+	 * @throws QrcodeGenerationException
+	 *             the qrcode generation exception
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	private String createQrCode(byte[] textFileByte) throws QrcodeGenerationException, IOException {
 		String qrString = new String(textFileByte);
-		boolean isQRCodeSet = false;
 		String digitalSignaturedQrData = digitalSignatureUtility.getDigitalSignature(qrString);
 		JSONObject textFileJson = JsonUtil.objectMapperReadValue(qrString, JSONObject.class);
 		textFileJson.put("digitalSignature", digitalSignaturedQrData);
@@ -523,13 +698,10 @@ public class PrintServiceImpl implements PrintService<Map<String, byte[]>> {
 		String printTextFileString = gson.toJson(textFileJson);
 
 		byte[] qrCodeBytes = qrCodeGenerator.generateQrCode(printTextFileString, QrVersion.V30);
-		if (qrCodeBytes != null) {
-			String imageString = CryptoUtil.encodeBase64String(qrCodeBytes);
-			attributes.put(QRCODE, "data:image/png;base64," + imageString);
-			isQRCodeSet = true;
+		if (qrCodeBytes == null) {
+			return null;
 		}
-
-		return isQRCodeSet;
+		return "data:image/png;base64," + CryptoUtil.encodeBase64String(qrCodeBytes);
 	}
 
 	/**
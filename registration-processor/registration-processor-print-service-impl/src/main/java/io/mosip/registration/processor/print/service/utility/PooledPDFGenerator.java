@@ -0,0 +1,135 @@
+package io.mosip.registration.processor.print.service.utility;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.HtmlConverter;
+import com.itextpdf.html2pdf.resolver.font.DefaultFontProvider;
+
+import io.mosip.kernel.core.keymanager.model.CertificateEntry;
+import io.mosip.kernel.core.pdfgenerator.exception.PDFGeneratorException;
+import io.mosip.kernel.core.pdfgenerator.model.Rectangle;
+import io.mosip.kernel.core.pdfgenerator.spi.PDFGenerator;
+import io.mosip.kernel.pdfgenerator.itext.constant.PDFGeneratorExceptionCodeConstant;
+import io.mosip.kernel.pdfgenerator.itext.impl.PDFGeneratorImpl;
+
+/**
+ * Generates the UIN card pdf with a pool of html renderers.
+ *
+ * The kernel generator loads the fonts of html2pdf again for every card. A
+ * renderer here keeps its converter properties and their font provider, which
+ * is not thread safe, so each renderer converts one card at a time and at most
+ * the pool size of cards are converted at once. The other operations are left
+ * to the kernel generator.
+ *
+ * @since 1.0.9
+ */
+public class PooledPDFGenerator implements PDFGenerator {
+
+	private final PDFGenerator delegate;
+
+	private final Semaphore renderers;
+
+	private final Queue<ConverterProperties> idleRenderers = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Instantiates a new pooled PDF generator.
+	 *
+	 * @param poolSize
+	 *            the number of renderers, 0 or less for one per processor
+	 */
+	public PooledPDFGenerator(int poolSize) {
+		this.delegate = new PDFGeneratorImpl();
+		this.renderers = new Semaphore(poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors());
+	}
+
+	@Override
+	public OutputStream generate(InputStream is) throws IOException {
+		if (is == null) {
+			throw new PDFGeneratorException(
+					PDFGeneratorExceptionCodeConstant.INPUTSTREAM_NULL_EMPTY_EXCEPTION.getErrorCode(),
+					PDFGeneratorExceptionCodeConstant.INPUTSTREAM_NULL_EMPTY_EXCEPTION.getErrorMessage());
+		}
+		ConverterProperties renderer = acquire();
+		try {
+			ByteArrayOutputStream os = new ByteArrayOutputStream();
+			HtmlConverter.convertToPdf(is, os, renderer);
+			return os;
+		} catch (Exception e) {
+			throw new PDFGeneratorException(PDFGeneratorExceptionCodeConstant.PDF_EXCEPTION.getErrorCode(),
+					e.getMessage());
+		} finally {
+			release(renderer);
+		}
+	}
+
+	@Override
+	public OutputStream generate(String template) throws IOException {
+		return delegate.generate(template);
+	}
+
+	@Override
+	public void generate(String templatePath, String outputFilePath, String outputFileName) throws IOException {
+		delegate.generate(templatePath, outputFilePath, outputFileName);
+	}
+
+	@Override
+	public OutputStream generate(InputStream is, String resourceLoc) throws IOException {
+		return delegate.generate(is, resourceLoc);
+	}
+
+	@Override
+	public byte[] asPDF(List<BufferedImage> bufferedImages) throws IOException {
+		return delegate.asPDF(bufferedImages);
+	}
+
+	@Override
+	public byte[] mergePDF(List<URL> pdfFiles) throws IOException {
+		return delegate.mergePDF(pdfFiles);
+	}
+
+	@Override
+	public OutputStream signAndEncryptPDF(byte[] pdf, Rectangle rectangle, String reason, int pageNumber,
+			Provider provider, CertificateEntry<X509Certificate, PrivateKey> certificateEntry, String password)
+			throws IOException, GeneralSecurityException {
+		return delegate.signAndEncryptPDF(pdf, rectangle, reason, pageNumber, provider, certificateEntry, password);
+	}
+
+	/**
+	 * Takes an idle renderer, creating it on first use, waiting while all the
+	 * renderers are converting.
+	 *
+	 * @return the renderer
+	 */
+	private ConverterProperties acquire() {
+		renderers.acquireUninterruptibly();
+		ConverterProperties renderer = idleRenderers.poll();
+		if (renderer == null) {
+			try {
+				renderer = new ConverterProperties().setFontProvider(new DefaultFontProvider());
+			} catch (RuntimeException e) {
+				renderers.release();
+				throw e;
+			}
+		}
+		return renderer;
+	}
+
+	private void release(ConverterProperties renderer) {
+		idleRenderers.offer(renderer);
+		renderers.release();
+	}
+}
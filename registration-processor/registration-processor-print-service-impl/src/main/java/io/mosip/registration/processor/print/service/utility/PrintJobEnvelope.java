@@ -0,0 +1,268 @@
+package io.mosip.registration.processor.print.service.utility;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A print job as sent to the print and postal service provider over the queue.
+ *
+ * The envelope is binary and length prefixed, in network byte order:
+ *
+ * <pre>
+ * int    magic, "RPJE"
+ * byte   version
+ * byte   flags, 1 when the card pdf is a claim check
+ * short  registration id length, then its UTF-8 bytes
+ * int    text file length, then its bytes
+ * int    card pdf length, then its bytes
+ *   or, for a claim check
+ * short  card pdf reference length, then its UTF-8 bytes
+ * </pre>
+ *
+ * A claim check carries the name of the card pdf in the packet store, under
+ * the registration id, instead of the pdf. An envelope is written in one array
+ * of its exact size, straight from the spooled files, and read in place from
+ * the message bytes.
+ *
+ * @since 1.0.9
+ */
+public final class PrintJobEnvelope {
+
+	/** The magic number, "RPJE". */
+	private static final int MAGIC = 0x52504A45;
+
+	/** The version written. */
+	public static final byte VERSION = 1;
+
+	private static final byte CLAIM_CHECK = 1;
+
+	private static final int HEADER_LENGTH = Integer.BYTES + 2;
+
+	private final byte[] data;
+
+	private final String regId;
+
+	private final int textOffset;
+
+	private final int textLength;
+
+	private final int pdfOffset;
+
+	private final int pdfLength;
+
+	private final String pdfReference;
+
+	private PrintJobEnvelope(byte[] data, String regId, int textOffset, int textLength, int pdfOffset,
+			int pdfLength, String pdfReference) {
+		this.data = data;
+		this.regId = regId;
+		this.textOffset = textOffset;
+		this.textLength = textLength;
+		this.pdfOffset = pdfOffset;
+		this.pdfLength = pdfLength;
+		this.pdfReference = pdfReference;
+	}
+
+	/**
+	 * Writes the envelope of a print job carrying the card pdf.
+	 *
+	 * @param regId
+	 *            the registration id
+	 * @param textFile
+	 *            the spooled text file
+	 * @param pdfFile
+	 *            the spooled card pdf
+	 * @return the envelope
+	 * @throws IOException
+	 *             if a file can not be read
+	 */
+	public static byte[] write(String regId, Path textFile, Path pdfFile) throws IOException {
+		byte[] regIdBytes = toUtf8(regId);
+		try (FileChannel text = FileChannel.open(textFile, StandardOpenOption.READ);
+				FileChannel pdf = FileChannel.open(pdfFile, StandardOpenOption.READ)) {
+			ByteBuffer buffer = allocate((long) HEADER_LENGTH + Short.BYTES + regIdBytes.length + Integer.BYTES
+					+ text.size() + Integer.BYTES + pdf.size());
+			writeHeader(buffer, (byte) 0, regIdBytes);
+			writeFile(buffer, text);
+			writeFile(buffer, pdf);
+			return buffer.array();
+		}
+	}
+
+	/**
+	 * Writes the envelope of a print job whose card pdf is in the packet store.
+	 *
+	 * @param regId
+	 *            the registration id
+	 * @param textFile
+	 *            the spooled text file
+	 * @param pdfReference
+	 *            the name of the card pdf in the packet store
+	 * @return the envelope
+	 * @throws IOException
+	 *             if the text file can not be read
+	 */
+	public static byte[] writeClaimCheck(String regId, Path textFile, String pdfReference) throws IOException {
+		byte[] regIdBytes = toUtf8(regId);
+		byte[] pdfReferenceBytes = toUtf8(pdfReference);
+		try (FileChannel text = FileChannel.open(textFile, StandardOpenOption.READ)) {
+			ByteBuffer buffer = allocate((long) HEADER_LENGTH + Short.BYTES + regIdBytes.length + Integer.BYTES
+					+ text.size() + Short.BYTES + pdfReferenceBytes.length);
+			writeHeader(buffer, CLAIM_CHECK, regIdBytes);
+			writeFile(buffer, text);
+			buffer.putShort((short) pdfReferenceBytes.length).put(pdfReferenceBytes);
+			return buffer.array();
+		}
+	}
+
+	/**
+	 * Reads an envelope, its files are left in the message bytes.
+	 *
+	 * @param data
+	 *            the message bytes
+	 * @return the print job
+	 * @throws IOException
+	 *             if the bytes are not an envelope of a known version
+	 */
+	public static PrintJobEnvelope read(byte[] data) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(data);
+		try {
+			if (buffer.getInt() != MAGIC) {
+				throw new IOException("not a print job envelope");
+			}
+			byte version = buffer.get();
+			if (version != VERSION) {
+				throw new IOException("unsupported print job envelope version " + version);
+			}
+			byte flags = buffer.get();
+			String regId = readString(buffer);
+			int textLength = readLength(buffer);
+			int textOffset = skip(buffer, textLength);
+			if ((flags & CLAIM_CHECK) != 0) {
+				return new PrintJobEnvelope(data, regId, textOffset, textLength, -1, 0, readString(buffer));
+			}
+			int pdfLength = readLength(buffer);
+			int pdfOffset = skip(buffer, pdfLength);
+			return new PrintJobEnvelope(data, regId, textOffset, textLength, pdfOffset, pdfLength, null);
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			throw new IOException("truncated print job envelope", e);
+		}
+	}
+
+	/**
+	 * Gets the registration id.
+	 *
+	 * @return the registration id
+	 */
+	public String getRegId() {
+		return regId;
+	}
+
+	/**
+	 * Checks if the card pdf is in the packet store.
+	 *
+	 * @return true, if the envelope is a claim check
+	 */
+	public boolean isClaimCheck() {
+		return pdfReference != null;
+	}
+
+	/**
+	 * Gets the name of the card pdf in the packet store.
+	 *
+	 * @return the pdf reference, null if the envelope carries the pdf
+	 */
+	public String getPdfReference() {
+		return pdfReference;
+	}
+
+	/**
+	 * Writes the text file.
+	 *
+	 * @param out
+	 *            the output stream
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public void writeText(OutputStream out) throws IOException {
+		out.write(data, textOffset, textLength);
+	}
+
+	/**
+	 * Writes the card pdf carried by the envelope.
+	 *
+	 * @param out
+	 *            the output stream
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public void writePdf(OutputStream out) throws IOException {
+		if (isClaimCheck()) {
+			throw new IllegalStateException("the card pdf of " + regId + " is in the packet store");
+		}
+		out.write(data, pdfOffset, pdfLength);
+	}
+
+	private static ByteBuffer allocate(long length) throws IOException {
+		if (length > Integer.MAX_VALUE - 8) {
+			throw new IOException("print job of " + length + " bytes is too large");
+		}
+		return ByteBuffer.allocate((int) length);
+	}
+
+	private static void writeHeader(ByteBuffer buffer, byte flags, byte[] regIdBytes) {
+		buffer.putInt(MAGIC).put(VERSION).put(flags);
+		buffer.putShort((short) regIdBytes.length).put(regIdBytes);
+	}
+
+	private static void writeFile(ByteBuffer buffer, FileChannel file) throws IOException {
+		int length = (int) file.size();
+		buffer.putInt(length);
+		int end = buffer.position() + length;
+		ByteBuffer content = (ByteBuffer) buffer.slice().limit(length);
+		while (content.hasRemaining()) {
+			if (file.read(content) < 0) {
+				throw new IOException("spooled file shrank while it was read");
+			}
+		}
+		buffer.position(end);
+	}
+
+	private static byte[] toUtf8(String value) {
+		byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("value of " + bytes.length + " bytes is too long");
+		}
+		return bytes;
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getShort();
+		if (length < 0 || length > buffer.remaining()) {
+			throw new IllegalArgumentException("string length " + length);
+		}
+		String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return value;
+	}
+
+	private static int readLength(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0 || length > buffer.remaining()) {
+			throw new IllegalArgumentException("file length " + length);
+		}
+		return length;
+	}
+
+	private static int skip(ByteBuffer buffer, int length) {
+		int offset = buffer.position();
+		buffer.position(offset + length);
+		return offset;
+	}
+}
@@ -0,0 +1,115 @@
+package io.mosip.registration.processor.print.service.Impl.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.jms.BytesMessage;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.kernel.core.fsadapter.spi.FileSystemAdapter;
+import io.mosip.registration.processor.core.queue.factory.MosipQueue;
+import io.mosip.registration.processor.core.queue.factory.QueueListener;
+import io.mosip.registration.processor.core.spi.queue.MosipQueueManager;
+import io.mosip.registration.processor.print.service.impl.PrintPostServiceImpl;
+import io.mosip.registration.processor.print.service.utility.PrintJobEnvelope;
+
+/**
+ * PrintPostServiceImpl test
+ *
+ * @since 1.0.9
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PrintPostServiceImplTest {
+
+	private static final String REG_ID = "1234567890987654321";
+
+	private static final String PDF_REFERENCE = "UIN_CARD.pdf";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Mock
+	private FileSystemAdapter fileSystemAdapter;
+
+	@Mock
+	private MosipQueueManager<MosipQueue, byte[]> mosipQueueManager;
+
+	@Mock
+	private MosipQueue queue;
+
+	@InjectMocks
+	private PrintPostServiceImpl printPostService;
+
+	private Path textFile;
+
+	private Path pdfFile;
+
+	@Before
+	public void setUp() throws Exception {
+		ReflectionTestUtils.setField(printPostService, "printPostServiceDirectory",
+				folder.newFolder("print").getAbsolutePath());
+		ReflectionTestUtils.setField(printPostService, "address", "print-queue");
+		ReflectionTestUtils.setField(printPostService, "printPostalAddress", "print-postal-queue");
+		Mockito.when(mosipQueueManager.send(Matchers.any(), Matchers.any(), Matchers.anyString())).thenReturn(true);
+		textFile = Files.write(folder.newFile().toPath(), "Text File".getBytes(StandardCharsets.UTF_8));
+		pdfFile = Files.write(folder.newFile().toPath(), "UIN Card pdf".getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testClaimCheckDeletedOnceConsumed() throws Exception {
+		Mockito.when(fileSystemAdapter.getFile(REG_ID, PDF_REFERENCE))
+				.thenReturn(new ByteArrayInputStream("UIN Card pdf".getBytes(StandardCharsets.UTF_8)));
+		Mockito.when(fileSystemAdapter.deleteFile(REG_ID, PDF_REFERENCE)).thenReturn(true);
+
+		consume(PrintJobEnvelope.writeClaimCheck(REG_ID, textFile, PDF_REFERENCE));
+
+		assertEquals("UIN Card pdf", new String(Files.readAllBytes(printedFile(".pdf")), StandardCharsets.UTF_8));
+		assertEquals("Text File", new String(Files.readAllBytes(printedFile(".txt")), StandardCharsets.UTF_8));
+		Mockito.verify(fileSystemAdapter).deleteFile(REG_ID, PDF_REFERENCE);
+	}
+
+	@Test
+	public void testInlinePdfNotDeleted() throws Exception {
+		consume(PrintJobEnvelope.write(REG_ID, textFile, pdfFile));
+
+		assertEquals("UIN Card pdf", new String(Files.readAllBytes(printedFile(".pdf")), StandardCharsets.UTF_8));
+		Mockito.verifyZeroInteractions(fileSystemAdapter);
+	}
+
+	private void consume(byte[] printJob) throws Exception {
+		printPostService.generatePrintandPostal(REG_ID, queue, mosipQueueManager);
+		ArgumentCaptor<QueueListener> listener = ArgumentCaptor.forClass(QueueListener.class);
+		Mockito.verify(mosipQueueManager).consume(Matchers.eq(queue), Matchers.eq("print-queue"), listener.capture());
+
+		BytesMessage message = Mockito.mock(BytesMessage.class);
+		Mockito.when(message.getBodyLength()).thenReturn((long) printJob.length);
+		Mockito.when(message.readBytes(Matchers.any(byte[].class))).thenAnswer(invocation -> {
+			byte[] data = (byte[]) invocation.getArguments()[0];
+			System.arraycopy(printJob, 0, data, 0, printJob.length);
+			return printJob.length;
+		});
+		listener.getValue().setListener(message);
+	}
+
+	private Path printedFile(String extension) {
+		String directory = (String) ReflectionTestUtils.getField(printPostService, "printPostServiceDirectory");
+		return new File(directory + File.separator + REG_ID, REG_ID + extension).toPath();
+	}
+}
@@ -1,6 +1,9 @@
 package io.mosip.registration.processor.print.service.Impl.test;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.when;
@@ -11,6 +14,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -19,9 +24,13 @@ import java.util.Map;
 
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
+import org.apache.commons.io.IOUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -120,6 +129,9 @@ public class PrintServiceImplTest {
 	@Mock
 	private DigitalSignatureUtility digitalSignatureUtility;
 
+	@Rule
+	public TemporaryFolder spoolFolder = new TemporaryFolder();
+
 	/**
 	 * Setup.
 	 *
@@ -510,4 +522,38 @@ public class PrintServiceImplTest {
 		printService.getDocuments(IdType.UIN, uinList.get(0), CardType.UIN.toString(), false);
 	}
 
+	@Test
+	public void testQrCodeSetInRenderedTemplate() throws Exception {
+		PowerMockito.when(CryptoUtil.class, "encodeBase64String", any()).thenReturn("UVJDT0RF");
+		Mockito.when(templateGenerator.getTemplate(any(), any(), anyString())).thenAnswer(invocation -> {
+			Map<String, Object> attributes = invocation.getArgumentAt(1, Map.class);
+			return new ByteArrayInputStream(("<img src=\"" + attributes.get("QrCode") + "\"/>").getBytes());
+		});
+
+		printService.getDocuments(IdType.UIN, "2046958192", CardType.UIN.toString(), false);
+
+		ArgumentCaptor<InputStream> uinArtifact = ArgumentCaptor.forClass(InputStream.class);
+		Mockito.verify(uinCardGenerator).generateUinCard(uinArtifact.capture(), any(), any());
+		assertEquals("<img src=\"data:image/png;base64,UVJDT0RF\"/>",
+				IOUtils.toString(uinArtifact.getValue(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testDocumentsSpooled() throws IOException {
+		ReflectionTestUtils.setField(printService, "spoolDirectory", spoolFolder.getRoot().getPath());
+		PrintServiceImpl printServiceImpl = (PrintServiceImpl) printService;
+
+		Map<String, Path> spooledDocuments = printServiceImpl.spoolDocuments(IdType.UIN, "2046958192",
+				CardType.UIN.toString(), false);
+
+		assertArrayEquals(outputStream.toByteArray(), Files.readAllBytes(spooledDocuments.get("uinPdf")));
+		assertArrayEquals("2046958192".getBytes(), Files.readAllBytes(spooledDocuments.get("UIN")));
+		assertTrue(Files.exists(spooledDocuments.get("textFile")));
+
+		printServiceImpl.deleteSpooledDocuments(spooledDocuments);
+		for (Path file : spooledDocuments.values()) {
+			assertFalse(Files.exists(file));
+		}
+	}
+
 }
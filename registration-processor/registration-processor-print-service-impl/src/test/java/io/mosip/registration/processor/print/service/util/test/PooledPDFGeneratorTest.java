@@ -0,0 +1,61 @@
+package io.mosip.registration.processor.print.service.util.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import io.mosip.kernel.core.pdfgenerator.exception.PDFGeneratorException;
+import io.mosip.registration.processor.print.service.utility.PooledPDFGenerator;
+
+public class PooledPDFGeneratorTest {
+
+	private static final String CARD = "<html><body><table><tr><td>UIN</td><td>%d</td></tr></table></body></html>";
+
+	private PooledPDFGenerator pdfGenerator = new PooledPDFGenerator(2);
+
+	@Test
+	public void testCardsConvertedConcurrently() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<ByteArrayOutputStream>> cards = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				String card = String.format(CARD, i);
+				cards.add(executor.submit(
+						() -> (ByteArrayOutputStream) pdfGenerator.generate(new ByteArrayInputStream(card.getBytes()))));
+			}
+			for (Future<ByteArrayOutputStream> card : cards) {
+				assertEquals("%PDF-", new String(card.get().toByteArray(), 0, 5));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(expected = PDFGeneratorException.class)
+	public void testNullInputStream() throws Exception {
+		pdfGenerator.generate((InputStream) null);
+	}
+
+	@Test
+	public void testRendererReleasedOnFailure() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			try {
+				pdfGenerator.generate(new ByteArrayInputStream(new byte[0]));
+			} catch (PDFGeneratorException e) {
+				// an empty document has no page, the renderer is released all the same
+			}
+		}
+		ByteArrayOutputStream card = (ByteArrayOutputStream) pdfGenerator
+				.generate(new ByteArrayInputStream(String.format(CARD, 1).getBytes()));
+		assertEquals("%PDF-", new String(card.toByteArray(), 0, 5));
+	}
+}
@@ -0,0 +1,94 @@
+package io.mosip.registration.processor.print.service.util.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.mosip.registration.processor.print.service.utility.PrintJobEnvelope;
+
+public class PrintJobEnvelopeTest {
+
+	private static final String REG_ID = "10031100110005020190313110030";
+
+	@Rule
+	public TemporaryFolder spoolFolder = new TemporaryFolder();
+
+	private Path textFile;
+
+	private Path pdfFile;
+
+	@Before
+	public void setup() throws IOException {
+		textFile = Files.write(spoolFolder.newFile().toPath(), "{\"UIN\" : \"2046958192\"}".getBytes());
+		pdfFile = Files.write(spoolFolder.newFile().toPath(), "%PDF-1.7 card".getBytes());
+	}
+
+	@Test
+	public void testPdfCarried() throws IOException {
+		PrintJobEnvelope printJob = PrintJobEnvelope.read(PrintJobEnvelope.write(REG_ID, textFile, pdfFile));
+
+		assertEquals(REG_ID, printJob.getRegId());
+		assertFalse(printJob.isClaimCheck());
+		assertNull(printJob.getPdfReference());
+		assertEquals("%PDF-1.7 card", pdf(printJob));
+		assertEquals("{\"UIN\" : \"2046958192\"}", text(printJob));
+	}
+
+	@Test
+	public void testClaimCheck() throws IOException {
+		PrintJobEnvelope printJob = PrintJobEnvelope
+				.read(PrintJobEnvelope.writeClaimCheck(REG_ID, textFile, "UIN_CARD.pdf"));
+
+		assertEquals(REG_ID, printJob.getRegId());
+		assertTrue(printJob.isClaimCheck());
+		assertEquals("UIN_CARD.pdf", printJob.getPdfReference());
+		assertEquals("{\"UIN\" : \"2046958192\"}", text(printJob));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testClaimCheckCarriesNoPdf() throws IOException {
+		pdf(PrintJobEnvelope.read(PrintJobEnvelope.writeClaimCheck(REG_ID, textFile, "UIN_CARD.pdf")));
+	}
+
+	@Test(expected = IOException.class)
+	public void testJavaSerializationRejected() throws IOException {
+		PrintJobEnvelope.read(new byte[] { (byte) 0xAC, (byte) 0xED, 0x00, 0x05, 0x73, 0x72 });
+	}
+
+	@Test(expected = IOException.class)
+	public void testUnknownVersionRejected() throws IOException {
+		byte[] envelope = PrintJobEnvelope.write(REG_ID, textFile, pdfFile);
+		envelope[4] = PrintJobEnvelope.VERSION + 1;
+		PrintJobEnvelope.read(envelope);
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncatedEnvelopeRejected() throws IOException {
+		byte[] envelope = PrintJobEnvelope.write(REG_ID, textFile, pdfFile);
+		PrintJobEnvelope.read(Arrays.copyOf(envelope, envelope.length - 1));
+	}
+
+	private static String pdf(PrintJobEnvelope printJob) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		printJob.writePdf(out);
+		return out.toString();
+	}
+
+	private static String text(PrintJobEnvelope printJob) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		printJob.writeText(out);
+		return out.toString();
+	}
+}
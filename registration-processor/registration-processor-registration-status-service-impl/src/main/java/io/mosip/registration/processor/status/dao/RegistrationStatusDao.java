@@ -1,11 +1,23 @@
 package io.mosip.registration.processor.status.dao;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
 import io.mosip.registration.processor.status.entity.RegistrationStatusEntity;
@@ -24,6 +36,18 @@ public class RegistrationStatusDao {
 	@Autowired
 	RegistrationRepositary<RegistrationStatusEntity, String> registrationStatusRepositary;
 
+	/** The entity manager. */
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Whether pages of unprocessed packets are claimed with FOR UPDATE SKIP
+	 * LOCKED (PostgreSQL). false locks them with the dialect's plain FOR UPDATE,
+	 * for databases without SKIP LOCKED.
+	 */
+	@Value("${registration.processor.reprocess.claim.skip-locked:true}")
+	private boolean skipLocked = true;
+
 	/** The Constant AND. */
 	public static final String AND = "AND";
 
@@ -60,6 +84,27 @@ public class RegistrationStatusDao {
 
 	public static final String CREATED_DATE_TIME = "createDateTime";
 
+	/** The key the first page of unprocessed packets starts after. */
+	private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+	/** Updates a status row if it still has the version before the update. */
+	static final String UPDATE_IF_VERSION_MATCHES = "UPDATE regprc.registration SET reg_type=?, ref_reg_id=?, "
+			+ "applicant_type=?, status_code=?, lang_code=?, status_comment=?, latest_trn_id=?, "
+			+ "latest_trn_type_code=?, latest_trn_status_code=?, latest_trn_dtimes=?, reg_process_retry_count=?, "
+			+ "reg_stage_name=?, trn_retry_count=?, is_active=?, upd_by=?, upd_dtimes=?, is_deleted=?, del_dtimes=?, "
+			+ "upd_version=? WHERE id=? AND upd_version=?";
+
+	/**
+	 * Locks the next page of unprocessed packets after a (latest_trn_dtimes, id)
+	 * key, skipping rows locked by other reprocessors. Native, as the configured
+	 * PostgreSQLDialect renders a pessimistic lock as a plain FOR UPDATE.
+	 */
+	static final String CLAIM_UNPROCESSED_PACKETS = "SELECT * FROM regprc.registration "
+			+ "WHERE latest_trn_status_code IN (:status) AND reg_process_retry_count <= :reprocessCount "
+			+ "AND latest_trn_dtimes < :timeDifference AND (latest_trn_dtimes > :lastTransactionTimes "
+			+ "OR (latest_trn_dtimes = :lastTransactionTimes AND id > :lastRegId)) "
+			+ "ORDER BY latest_trn_dtimes, id LIMIT :limit FOR UPDATE SKIP LOCKED";
+
 	/**
 	 * Save.
 	 *
@@ -84,6 +129,133 @@ public class RegistrationStatusDao {
 		return registrationStatusRepositary.save(registrationStatusEntity);
 	}
 
+	/**
+	 * Update all.
+	 *
+	 * @param registrationStatusEntities
+	 *            the registration status entities
+	 * @return the registration status entities
+	 */
+	public List<RegistrationStatusEntity> updateAll(List<RegistrationStatusEntity> registrationStatusEntities) {
+
+		return registrationStatusRepositary.saveAll(registrationStatusEntities);
+	}
+
+	/**
+	 * Updates the status rows in one JDBC batch. Each row is only updated if its
+	 * version is still the one before the update, that is one less than the
+	 * version of the entity; nothing is read first.
+	 *
+	 * @param registrationStatusEntities
+	 *            the registration status entities
+	 * @return the ids of the rows whose version had changed, or that do not
+	 *         exist
+	 */
+	public List<String> updateIfVersionMatches(List<RegistrationStatusEntity> registrationStatusEntities) {
+
+		return entityManager.unwrap(Session.class)
+				.doReturningWork(connection -> updateIfVersionMatches(connection, registrationStatusEntities));
+	}
+
+	/**
+	 * Updates the status rows in one JDBC batch. Each row is only updated if its
+	 * version is still the expected one; the row is written with the version of
+	 * the entity, which is more than one ahead when updates were coalesced.
+	 *
+	 * @param registrationStatusEntities
+	 *            the registration status entities
+	 * @param expectedVersions
+	 *            the version each row is expected to have, in the same order
+	 * @return the ids of the rows whose version had changed, or that do not
+	 *         exist
+	 */
+	public List<String> updateIfVersionMatches(List<RegistrationStatusEntity> registrationStatusEntities,
+			List<Integer> expectedVersions) {
+
+		return entityManager.unwrap(Session.class).doReturningWork(
+				connection -> updateIfVersionMatches(connection, registrationStatusEntities, expectedVersions));
+	}
+
+	/**
+	 * Updates the status rows in one JDBC batch on the given connection.
+	 *
+	 * @param connection
+	 *            the connection
+	 * @param registrationStatusEntities
+	 *            the registration status entities
+	 * @return the ids of the rows that were not updated
+	 * @throws SQLException
+	 *             if the batch failed
+	 */
+	static List<String> updateIfVersionMatches(Connection connection,
+			List<RegistrationStatusEntity> registrationStatusEntities) throws SQLException {
+		List<Integer> expectedVersions = new ArrayList<>(registrationStatusEntities.size());
+		for (RegistrationStatusEntity entity : registrationStatusEntities) {
+			expectedVersions.add(entity.getVersion() - 1);
+		}
+		return updateIfVersionMatches(connection, registrationStatusEntities, expectedVersions);
+	}
+
+	/**
+	 * Updates the status rows in one JDBC batch on the given connection.
+	 *
+	 * @param connection
+	 *            the connection
+	 * @param registrationStatusEntities
+	 *            the registration status entities
+	 * @param expectedVersions
+	 *            the version each row is expected to have, in the same order
+	 * @return the ids of the rows that were not updated
+	 * @throws SQLException
+	 *             if the batch failed
+	 */
+	static List<String> updateIfVersionMatches(Connection connection,
+			List<RegistrationStatusEntity> registrationStatusEntities, List<Integer> expectedVersions)
+			throws SQLException {
+		List<String> notUpdated = new ArrayList<>();
+		if (registrationStatusEntities.isEmpty()) {
+			return notUpdated;
+		}
+		try (PreparedStatement statement = connection.prepareStatement(UPDATE_IF_VERSION_MATCHES)) {
+			for (int i = 0; i < registrationStatusEntities.size(); i++) {
+				RegistrationStatusEntity entity = registrationStatusEntities.get(i);
+				statement.setString(1, entity.getRegistrationType());
+				statement.setString(2, entity.getReferenceRegistrationId());
+				statement.setString(3, entity.getApplicantType());
+				statement.setString(4, entity.getStatusCode());
+				statement.setString(5, entity.getLangCode());
+				statement.setString(6, entity.getStatusComment());
+				statement.setString(7, entity.getLatestRegistrationTransactionId());
+				statement.setString(8, entity.getLatestTransactionTypeCode());
+				statement.setString(9, entity.getLatestTransactionStatusCode());
+				statement.setTimestamp(10, toTimestamp(entity.getLatestTransactionTimes()));
+				statement.setObject(11, entity.getRegProcessRetryCount(), Types.INTEGER);
+				statement.setString(12, entity.getRegistrationStageName());
+				statement.setObject(13, entity.getRetryCount(), Types.INTEGER);
+				statement.setObject(14, entity.isActive(), Types.BOOLEAN);
+				statement.setString(15, entity.getUpdatedBy());
+				statement.setTimestamp(16, toTimestamp(entity.getUpdateDateTime()));
+				statement.setObject(17, entity.isDeleted(), Types.BOOLEAN);
+				statement.setTimestamp(18, toTimestamp(entity.getDeletedDateTime()));
+				statement.setInt(19, entity.getVersion());
+				statement.setString(20, entity.getId());
+				statement.setInt(21, expectedVersions.get(i));
+				statement.addBatch();
+			}
+			int[] updateCounts = statement.executeBatch();
+			for (int i = 0; i < updateCounts.length; i++) {
+				if (updateCounts[i] == 0) {
+					notUpdated.add(registrationStatusEntities.get(i).getId());
+				}
+			}
+		}
+		return notUpdated;
+	}
+
+	private static Timestamp toTimestamp(LocalDateTime dateTime) {
+		return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+	}
+
 	/**
 	 * Find by id.
 	 *
@@ -193,24 +365,52 @@ public class RegistrationStatusDao {
 
 	public Integer getUnProcessedPacketsCount(long elapseTime, Integer reprocessCount, List<String> status) {
 
-		Map<String, Object> params = new HashMap<>();
-		String className = RegistrationStatusEntity.class.getSimpleName();
-		String alias = RegistrationStatusEntity.class.getName().toLowerCase().substring(0, 1);
 		LocalDateTime timeDifference = LocalDateTime.now().minusSeconds(elapseTime);
 
-		String queryStr = SELECT_DISTINCT + alias + FROM + className + EMPTY_STRING + alias + WHERE + alias
-				+ ".latestTransactionStatusCode IN :status" + EMPTY_STRING + AND + EMPTY_STRING + alias
-				+ ".regProcessRetryCount<=" + ":reprocessCount" + EMPTY_STRING + AND + EMPTY_STRING + alias
-				+ ".latestTransactionTimes<" + ":timeDifference";
+		return Math.toIntExact(
+				registrationStatusRepositary.countUnProcessedPackets(status, reprocessCount, timeDifference));
 
-		params.put("status", status);
-		params.put("reprocessCount", reprocessCount);
-		params.put("timeDifference", timeDifference);
-		List<RegistrationStatusEntity> unprocessedPackets = registrationStatusRepositary.createQuerySelect(queryStr,
-				params);
+	}
 
-		return unprocessedPackets.size();
+	/**
+	 * Locks the next page of unprocessed packets after the given key, skipping
+	 * rows locked by other reprocessors. Must be called in a transaction.
+	 *
+	 * @param fetchSize
+	 *            the fetch size
+	 * @param elapseTime
+	 *            the elapse time
+	 * @param reprocessCount
+	 *            the reprocess count
+	 * @param status
+	 *            the status
+	 * @param lastTransactionTimes
+	 *            the latest transaction time of the last packet of the previous
+	 *            page, null for the first page
+	 * @param lastRegId
+	 *            the registration id of the last packet of the previous page,
+	 *            null for the first page
+	 * @return the unprocessed packets
+	 */
+	public List<RegistrationStatusEntity> claimUnProcessedPackets(Integer fetchSize, long elapseTime,
+			Integer reprocessCount, List<String> status, LocalDateTime lastTransactionTimes, String lastRegId) {
+
+		LocalDateTime timeDifference = LocalDateTime.now().minusSeconds(elapseTime);
+		LocalDateTime lastTimes = lastTransactionTimes != null ? lastTransactionTimes : KEYSET_START;
+		String lastId = lastRegId != null ? lastRegId : "";
 
+		if (!skipLocked) {
+			return registrationStatusRepositary.claimUnProcessedPackets(status, reprocessCount, timeDifference,
+					lastTimes, lastId, PageRequest.of(0, fetchSize));
+		}
+		@SuppressWarnings("unchecked")
+		List<RegistrationStatusEntity> claimed = entityManager
+				.createNativeQuery(CLAIM_UNPROCESSED_PACKETS, RegistrationStatusEntity.class)
+				.setParameter("status", status).setParameter("reprocessCount", reprocessCount)
+				.setParameter("timeDifference", Timestamp.valueOf(timeDifference))
+				.setParameter("lastTransactionTimes", Timestamp.valueOf(lastTimes))
+				.setParameter("lastRegId", lastId).setParameter("limit", fetchSize).getResultList();
+		return claimed;
 	}
 
 	public Boolean checkUinAvailabilityForRid(String rid) {
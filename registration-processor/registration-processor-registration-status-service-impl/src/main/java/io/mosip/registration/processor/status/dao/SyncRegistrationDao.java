@@ -1,13 +1,27 @@
 package io.mosip.registration.processor.status.dao;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
+import io.mosip.kernel.core.dataaccess.exception.DataAccessLayerException;
+import io.mosip.kernel.dataaccess.hibernate.constant.HibernateErrorCode;
 import io.mosip.registration.processor.status.entity.SyncRegistrationEntity;
 import io.mosip.registration.processor.status.repositary.RegistrationRepositary;
 
@@ -23,6 +37,10 @@ public class SyncRegistrationDao {
 	@Autowired
 	RegistrationRepositary<SyncRegistrationEntity, String> syncRegistrationRepository;
 
+	/** The entity manager. */
+	@PersistenceContext
+	private EntityManager entityManager;
+
 	/** The Constant AND. */
 	public static final String AND = "AND";
 
@@ -50,6 +68,18 @@ public class SyncRegistrationDao {
 	/** The Constant ISDELETED_COLON. */
 	public static final String ISDELETED_COLON = ".isDeleted=:";
 
+	/** Inserts a sync row, or updates it if a row with the id exists. */
+	static final String UPSERT = "INSERT INTO regprc.registration_list(id, reg_id, reg_type, packet_checksum, "
+			+ "packet_size, client_status_code, client_status_comment, additional_info, status_code, status_comment, "
+			+ "lang_code, cr_by, cr_dtimes, upd_by, upd_dtimes, is_deleted, del_dtimes) "
+			+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (id) DO UPDATE SET "
+			+ "reg_id=EXCLUDED.reg_id, reg_type=EXCLUDED.reg_type, packet_checksum=EXCLUDED.packet_checksum, "
+			+ "packet_size=EXCLUDED.packet_size, client_status_code=EXCLUDED.client_status_code, "
+			+ "client_status_comment=EXCLUDED.client_status_comment, additional_info=EXCLUDED.additional_info, "
+			+ "status_code=EXCLUDED.status_code, status_comment=EXCLUDED.status_comment, "
+			+ "lang_code=EXCLUDED.lang_code, upd_by=EXCLUDED.upd_by, upd_dtimes=EXCLUDED.upd_dtimes, "
+			+ "is_deleted=EXCLUDED.is_deleted, del_dtimes=EXCLUDED.del_dtimes";
+
 	/**
 	 * Save.
 	 *
@@ -121,4 +151,86 @@ public class SyncRegistrationDao {
 		return syncRegistrationRepository.createQuerySelect(queryStr, params);
 	}
 
+	/**
+	 * Gets the rows of the registration ids, with one query per chunk of ids.
+	 *
+	 * @param ids
+	 *            the registration ids
+	 * @param chunkSize
+	 *            the ids per query
+	 * @return the rows
+	 */
+	public List<SyncRegistrationEntity> getByIds(List<String> ids, int chunkSize) {
+		List<SyncRegistrationEntity> syncRegistrationEntityList = new ArrayList<>();
+		for (int from = 0; from < ids.size(); from += chunkSize) {
+			List<SyncRegistrationEntity> chunk = getByIds(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+			if (chunk != null) {
+				syncRegistrationEntityList.addAll(chunk);
+			}
+		}
+		return syncRegistrationEntityList;
+	}
+
+	/**
+	 * Inserts or updates the rows by id in one JDBC batch. Has to run in a
+	 * transaction.
+	 *
+	 * @param syncRegistrationEntities
+	 *            the sync registration entities
+	 */
+	public void upsertAll(List<SyncRegistrationEntity> syncRegistrationEntities) {
+		try {
+			entityManager.unwrap(Session.class).doWork(connection -> upsertAll(connection, syncRegistrationEntities));
+		} catch (HibernateException e) {
+			throw new DataAccessLayerException(HibernateErrorCode.HIBERNATE_EXCEPTION.getErrorCode(), e.getMessage(),
+					e);
+		}
+	}
+
+	/**
+	 * Inserts or updates the rows by id in one JDBC batch on the given
+	 * connection.
+	 *
+	 * @param connection
+	 *            the connection
+	 * @param syncRegistrationEntities
+	 *            the sync registration entities
+	 * @throws SQLException
+	 *             if the batch failed
+	 */
+	static void upsertAll(Connection connection, List<SyncRegistrationEntity> syncRegistrationEntities)
+			throws SQLException {
+		if (syncRegistrationEntities.isEmpty()) {
+			return;
+		}
+		try (PreparedStatement statement = connection.prepareStatement(UPSERT)) {
+			for (SyncRegistrationEntity entity : syncRegistrationEntities) {
+				statement.setString(1, entity.getId());
+				statement.setString(2, entity.getRegistrationId());
+				statement.setString(3, entity.getRegistrationType());
+				statement.setString(4, entity.getPacketHashValue());
+				statement.setObject(5, entity.getPacketSize() != null ? entity.getPacketSize().longValue() : null,
+						Types.BIGINT);
+				statement.setString(6, entity.getSupervisorStatus());
+				statement.setString(7, entity.getSupervisorComment());
+				statement.setBytes(8, entity.getOptionalValues());
+				statement.setString(9, entity.getStatusCode());
+				statement.setString(10, entity.getStatusComment());
+				statement.setString(11, entity.getLangCode());
+				statement.setString(12, entity.getCreatedBy());
+				statement.setTimestamp(13, toTimestamp(entity.getCreateDateTime()));
+				statement.setString(14, entity.getUpdatedBy());
+				statement.setTimestamp(15, toTimestamp(entity.getUpdateDateTime()));
+				statement.setObject(16, entity.getIsDeleted(), Types.BOOLEAN);
+				statement.setTimestamp(17, toTimestamp(entity.getDeletedDateTime()));
+				statement.addBatch();
+			}
+			statement.executeBatch();
+		}
+	}
+
+	private static Timestamp toTimestamp(LocalDateTime dateTime) {
+		return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+	}
+
 }
\ No newline at end of file
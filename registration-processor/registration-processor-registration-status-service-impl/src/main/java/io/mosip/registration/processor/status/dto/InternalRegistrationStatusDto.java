@@ -77,6 +77,9 @@ public class InternalRegistrationStatusDto implements Serializable {
 	/** the subStatusCode */
 	private String subStatusCode;
 
+	/** The version of the status row this dto was read from. */
+	private Integer version;
+
 	/**
 	 * Instantiates a new registration status dto.
 	 */
@@ -496,6 +499,25 @@ public class InternalRegistrationStatusDto implements Serializable {
 		this.subStatusCode = subStatusCode;
 	}
 
+	/**
+	 * Gets the version.
+	 *
+	 * @return the version
+	 */
+	public Integer getVersion() {
+		return version;
+	}
+
+	/**
+	 * Sets the version.
+	 *
+	 * @param version
+	 *            the new version
+	 */
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
+
 	@Override
 	public String toString() {
 		return "InternalRegistrationStatusDto [registrationId=" + registrationId + ", registrationType="
@@ -508,7 +530,7 @@ public class InternalRegistrationStatusDto implements Serializable {
 				+ ", latestTransactionTypeCode=" + latestTransactionTypeCode + ", latestTransactionStatusCode="
 				+ latestTransactionStatusCode + ", latestTransactionTimes=" + latestTransactionTimes
 				+ ", registrationStageName=" + registrationStageName + ", reProcessRetryCount=" + reProcessRetryCount
-				+ ", subStatusCode=" + subStatusCode + "]";
+				+ ", subStatusCode=" + subStatusCode + ", version=" + version + "]";
 	}
 
 	
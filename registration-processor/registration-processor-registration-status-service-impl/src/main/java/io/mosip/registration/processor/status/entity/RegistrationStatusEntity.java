@@ -94,6 +94,10 @@ public class RegistrationStatusEntity extends BaseRegistrationEntity {
 	@Column(name = "reg_process_retry_count")
 	private Integer regProcessRetryCount;
 
+	/** The version, incremented on every update. */
+	@Column(name = "upd_version")
+	private Integer version;
+
 	/**
 	 * Instantiates a new registration status entity.
 	 */
@@ -482,4 +486,23 @@ public class RegistrationStatusEntity extends BaseRegistrationEntity {
 		this.regProcessRetryCount = regProcessRetryCount;
 	}
 
+	/**
+	 * Gets the version.
+	 *
+	 * @return the version
+	 */
+	public Integer getVersion() {
+		return version;
+	}
+
+	/**
+	 * Sets the version.
+	 *
+	 * @param version
+	 *            the new version
+	 */
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
+
 }
@@ -3,14 +3,23 @@
  */
 package io.mosip.registration.processor.status.repositary;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import io.mosip.kernel.core.dataaccess.spi.repository.BaseRepository;
 import io.mosip.registration.processor.status.entity.BaseRegistrationEntity;
+import io.mosip.registration.processor.status.entity.RegistrationStatusEntity;
 import io.mosip.registration.processor.status.entity.SyncRegistrationEntity;
 
 /**
@@ -34,9 +43,34 @@ public interface RegistrationRepositary<T extends BaseRegistrationEntity, E> ext
 	@Query("SELECT registration.id FROM RegistrationStatusEntity registration WHERE registration.id in :regIds and registration.latestTransactionStatusCode =:statusCode")
 	public List<String> getProcessedOrProcessingRegIds(@Param("regIds") List<String> regIds,
 			@Param("statusCode") String statusCode);
+
+	@Query("SELECT registration.id FROM RegistrationStatusEntity registration WHERE registration.id in :regIds and registration.statusCode =:statusCode")
+	public List<String> getRegIdsByStatusCode(@Param("regIds") Collection<String> regIds,
+			@Param("statusCode") String statusCode);
 	
 	@Query("SELECT registrationList FROM SyncRegistrationEntity registrationList WHERE registrationList.registrationId =:regId and registrationList.registrationType =:regType")
 	public List<SyncRegistrationEntity> getSyncRecordsByRegIdAndRegType(@Param("regId") String regId,
 			@Param("regType") String regType);
 
+	@Query("SELECT COUNT(registration) FROM RegistrationStatusEntity registration WHERE registration.latestTransactionStatusCode IN :status and registration.regProcessRetryCount <= :reprocessCount and registration.latestTransactionTimes < :timeDifference")
+	public long countUnProcessedPackets(@Param("status") List<String> status,
+			@Param("reprocessCount") Integer reprocessCount, @Param("timeDifference") LocalDateTime timeDifference);
+
+	/**
+	 * Locks the next page of packets due for reprocessing, ordered by latest
+	 * transaction time and registration id and starting after the given key.
+	 * Must be called in a transaction. Rows locked by another reprocessor are
+	 * skipped only on dialects that render lock timeout -2 as SKIP LOCKED
+	 * (PostgreSQL95Dialect, not PostgreSQLDialect); elsewhere the claim waits
+	 * for them. RegistrationStatusDao uses a native SKIP LOCKED query instead
+	 * unless registration.processor.reprocess.claim.skip-locked is false.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+	@Query("SELECT registration FROM RegistrationStatusEntity registration WHERE registration.latestTransactionStatusCode IN :status and registration.regProcessRetryCount <= :reprocessCount and registration.latestTransactionTimes < :timeDifference and (registration.latestTransactionTimes > :lastTransactionTimes or (registration.latestTransactionTimes = :lastTransactionTimes and registration.id > :lastRegId)) ORDER BY registration.latestTransactionTimes, registration.id")
+	public List<RegistrationStatusEntity> claimUnProcessedPackets(@Param("status") List<String> status,
+			@Param("reprocessCount") Integer reprocessCount, @Param("timeDifference") LocalDateTime timeDifference,
+			@Param("lastTransactionTimes") LocalDateTime lastTransactionTimes, @Param("lastRegId") String lastRegId,
+			Pageable pageable);
+
 }
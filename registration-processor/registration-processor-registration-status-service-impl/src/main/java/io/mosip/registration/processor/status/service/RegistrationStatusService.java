@@ -1,6 +1,7 @@
 package io.mosip.registration.processor.status.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.springframework.stereotype.Service;
 
@@ -105,6 +106,29 @@ public interface RegistrationStatusService<T, U, D> {
 	 */
 	public Integer getUnProcessedPacketsCount(long elapseTime, Integer reprocessCount, List<String> status);
 
+	/**
+	 * Claims the next page of unprocessed packets after the last packet of the
+	 * previous page, applies the updater to each and saves them with their
+	 * transactions in one database transaction. Packets being claimed by another
+	 * reprocessor at the same time are skipped.
+	 *
+	 * @param fetchSize
+	 *            the fetch size
+	 * @param elapseTime
+	 *            the elapse time
+	 * @param reprocessCount
+	 *            the reprocess count
+	 * @param status
+	 *            the status
+	 * @param lastClaimed
+	 *            the last packet of the previous page, null for the first page
+	 * @param updater
+	 *            updates the status of each claimed packet
+	 * @return the claimed packets
+	 */
+	public List<U> claimUnProcessedPackets(Integer fetchSize, long elapseTime, Integer reprocessCount,
+			List<String> status, U lastClaimed, Consumer<U> updater);
+
 	/**
 	 * Check Rid if uin is available.
 	 *
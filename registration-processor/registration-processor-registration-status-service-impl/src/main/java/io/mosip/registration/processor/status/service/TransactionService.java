@@ -27,6 +27,15 @@ public interface TransactionService<U> {
 	 */
 	public TransactionEntity addRegistrationTransaction(U registrationStatusDto);
 
+	/**
+	 * Adds the registration transactions in one batch.
+	 *
+	 * @param registrationStatusDtos
+	 *            the registration status dtos
+	 * @return the transaction entities
+	 */
+	public List<TransactionEntity> addRegistrationTransactions(List<U> registrationStatusDtos);
+
 	/**
 	 * Gets the transaction by reg id and status code.
 	 *
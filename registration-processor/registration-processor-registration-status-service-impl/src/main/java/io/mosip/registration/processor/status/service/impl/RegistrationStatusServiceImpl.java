@@ -5,10 +5,15 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+
+import javax.persistence.PersistenceException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
 
 import io.mosip.kernel.core.dataaccess.exception.DataAccessLayerException;
 import io.mosip.kernel.core.exception.ExceptionUtils;
@@ -56,6 +61,10 @@ public class RegistrationStatusServiceImpl
 	@Autowired
 	private RegistrationExternalStatusUtility regexternalstatusUtil;
 
+	/** The registration status writer. */
+	@Autowired
+	private RegistrationStatusWriter registrationStatusWriter;
+
 	/** The reg proc logger. */
 	private static Logger regProcLogger = RegProcessorLogger.getLogger(RegistrationStatusServiceImpl.class);
 
@@ -72,7 +81,10 @@ public class RegistrationStatusServiceImpl
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
 				registrationId, "RegistrationStatusServiceImpl::getRegistrationStatus()::entry");
 		try {
-			RegistrationStatusEntity entity = registrationStatusDao.findById(registrationId);
+			RegistrationStatusEntity entity = registrationStatusWriter.getPending(registrationId);
+			if (entity == null) {
+				entity = registrationStatusDao.findById(registrationId);
+			}
 
 			regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
 					registrationId, "RegistrationStatusServiceImpl::getRegistrationStatus()::exit");
@@ -159,26 +171,31 @@ public class RegistrationStatusServiceImpl
 		boolean isTransactionSuccessful = false;
 		LogDescription description = new LogDescription();
 		String transactionId = generateId();
-		String latestTransactionId = getLatestTransactionId(registrationStatusDto.getRegistrationId());
+		// the version and latest transaction the dto was read with stand in for
+		// reading the current row, the writer falls back to that on a mismatch
+		Integer expectedVersion = registrationStatusDto.getVersion();
 		TransactionDto transactionDto = new TransactionDto(transactionId, registrationStatusDto.getRegistrationId(),
-				latestTransactionId, registrationStatusDto.getLatestTransactionTypeCode(),
-				"updated registration status record", registrationStatusDto.getLatestTransactionStatusCode(),
-				registrationStatusDto.getStatusComment(), registrationStatusDto.getSubStatusCode());
+				registrationStatusDto.getLatestRegistrationTransactionId(),
+				registrationStatusDto.getLatestTransactionTypeCode(), "updated registration status record",
+				registrationStatusDto.getLatestTransactionStatusCode(), registrationStatusDto.getStatusComment(),
+				registrationStatusDto.getSubStatusCode());
 		transactionDto.setReferenceId(registrationStatusDto.getRegistrationId());
 		transactionDto.setReferenceIdType("updated registration record");
-		transcationStatusService.addRegistrationTransaction(transactionDto);
 
 		registrationStatusDto.setLatestRegistrationTransactionId(transactionId);
 		try {
-			InternalRegistrationStatusDto dto = getRegistrationStatus(registrationStatusDto.getRegistrationId());
-			if (dto != null) {
-				dto.setUpdateDateTime(LocalDateTime.now(ZoneId.of("UTC")));
-				RegistrationStatusEntity entity = convertDtoToEntity(registrationStatusDto);
-				registrationStatusDao.save(entity);
+			RegistrationStatusEntity entity = convertDtoToEntity(registrationStatusDto);
+			if (registrationStatusWriter.isWriteBehind()) {
+				registrationStatusWriter.submit(entity, expectedVersion, transactionDto);
 				isTransactionSuccessful = true;
+			} else {
+				isTransactionSuccessful = registrationStatusWriter.write(entity, expectedVersion, transactionDto);
+			}
+			if (isTransactionSuccessful) {
+				registrationStatusDto.setVersion(entity.getVersion());
 				description.setMessage("Updated registration status successfully");
 			}
-		} catch (DataAccessException | DataAccessLayerException e) {
+		} catch (DataAccessException | DataAccessLayerException | PersistenceException | TransactionException e) {
 			description.setMessage("DataAccessLayerException while Updating registration status for registration Id"
 					+ registrationStatusDto.getRegistrationId() + "::" + e.getMessage());
 
@@ -361,6 +378,8 @@ public class RegistrationStatusServiceImpl
 		registrationStatusDto.setLatestTransactionTypeCode(entity.getLatestTransactionTypeCode());
 		registrationStatusDto.setRegistrationStageName(entity.getRegistrationStageName());
 		registrationStatusDto.setUpdateDateTime(entity.getUpdateDateTime());
+		registrationStatusDto.setLatestTransactionTimes(entity.getLatestTransactionTimes());
+		registrationStatusDto.setVersion(entity.getVersion());
 		return registrationStatusDto;
 	}
 
@@ -404,22 +423,10 @@ public class RegistrationStatusServiceImpl
 		registrationStatusEntity.setLatestTransactionTypeCode(dto.getLatestTransactionTypeCode());
 		registrationStatusEntity.setRegistrationStageName(dto.getRegistrationStageName());
 		registrationStatusEntity.setLatestTransactionTimes(LocalDateTime.now(ZoneId.of("UTC")));
+		registrationStatusEntity.setVersion(dto.getVersion() != null ? dto.getVersion() + 1 : 0);
 		return registrationStatusEntity;
 	}
 
-	/**
-	 * Gets the latest transaction id.
-	 *
-	 * @param registrationId
-	 *            the registration id
-	 * @return the latest transaction id
-	 */
-	private String getLatestTransactionId(String registrationId) {
-		RegistrationStatusEntity entity = registrationStatusDao.findById(registrationId);
-		return entity != null ? entity.getLatestRegistrationTransactionId() : null;
-
-	}
-
 	/**
 	 * Generate id.
 	 *
@@ -494,6 +501,61 @@ public class RegistrationStatusServiceImpl
 		}
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * io.mosip.registration.processor.status.service.RegistrationStatusService#
+	 * claimUnProcessedPackets(java.lang.Integer, long, java.lang.Integer,
+	 * java.util.List, java.lang.Object, java.util.function.Consumer)
+	 */
+	@Override
+	@Transactional
+	public List<InternalRegistrationStatusDto> claimUnProcessedPackets(Integer fetchSize, long elapseTime,
+			Integer reprocessCount, List<String> status, InternalRegistrationStatusDto lastClaimed,
+			Consumer<InternalRegistrationStatusDto> updater) {
+
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"RegistrationStatusServiceImpl::claimUnProcessedPackets()::entry");
+		try {
+			List<InternalRegistrationStatusDto> dtoList = convertEntityListToDtoList(
+					registrationStatusDao.claimUnProcessedPackets(fetchSize, elapseTime, reprocessCount, status,
+							lastClaimed != null ? lastClaimed.getLatestTransactionTimes() : null,
+							lastClaimed != null ? lastClaimed.getRegistrationId() : null));
+
+			List<TransactionDto> transactionDtos = new ArrayList<>(dtoList.size());
+			List<RegistrationStatusEntity> entities = new ArrayList<>(dtoList.size());
+			for (InternalRegistrationStatusDto registrationStatusDto : dtoList) {
+				String latestTransactionId = registrationStatusDto.getLatestRegistrationTransactionId();
+				updater.accept(registrationStatusDto);
+				String transactionId = generateId();
+				TransactionDto transactionDto = new TransactionDto(transactionId,
+						registrationStatusDto.getRegistrationId(), latestTransactionId,
+						registrationStatusDto.getLatestTransactionTypeCode(), "updated registration status record",
+						registrationStatusDto.getLatestTransactionStatusCode(),
+						registrationStatusDto.getStatusComment(), registrationStatusDto.getSubStatusCode());
+				transactionDto.setReferenceId(registrationStatusDto.getRegistrationId());
+				transactionDto.setReferenceIdType("updated registration record");
+				transactionDtos.add(transactionDto);
+				registrationStatusDto.setLatestRegistrationTransactionId(transactionId);
+				entities.add(convertDtoToEntity(registrationStatusDto));
+			}
+			transcationStatusService.addRegistrationTransactions(transactionDtos);
+			registrationStatusDao.updateAll(entities);
+
+			regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+					"RegistrationStatusServiceImpl::claimUnProcessedPackets()::exit");
+			return dtoList;
+
+		} catch (DataAccessException | DataAccessLayerException e) {
+
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					"", e.getMessage() + ExceptionUtils.getStackTrace(e));
+			throw new TablenotAccessibleException(
+					PlatformErrorMessages.RPR_RGS_REGISTRATION_TABLE_NOT_ACCESSIBLE.getMessage(), e);
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -0,0 +1,494 @@
+package io.mosip.registration.processor.status.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.kernel.core.exception.ExceptionUtils;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.status.dao.RegistrationStatusDao;
+import io.mosip.registration.processor.status.dto.TransactionDto;
+import io.mosip.registration.processor.status.entity.RegistrationStatusEntity;
+import io.mosip.registration.processor.status.service.TransactionService;
+
+/**
+ * Writes registration status updates together with their transaction rows.
+ * The status row is updated only if it still has the version the caller read
+ * it with, so the current row does not have to be read first, and the status
+ * and transaction rows of a flush go to the database as one JDBC batch each in
+ * one transaction.
+ *
+ * By default every update is written before the caller returns. With
+ * write-behind enabled updates are queued and flushed by a background thread
+ * when a batch is full or the flush interval has passed. Updates of the same
+ * registration are coalesced into one status row write, all of their
+ * transaction rows are kept. Queued updates are visible to
+ * {@link #getPending(String)}, so reads in this stage see them; other stages
+ * only see them once flushed, so stages whose next stage reads the status must
+ * stay in the default sync mode.
+ *
+ * When the version does not match, a sync update overwrites the current row as
+ * before. A write-behind update is dropped together with its transaction rows,
+ * since the row was updated by a later step of the packet while the update was
+ * queued and the transaction history has to stay the one of that row.
+ *
+ * @since 1.0.9
+ */
+public class RegistrationStatusWriter {
+
+	private static final Logger regProcLogger = RegProcessorLogger.getLogger(RegistrationStatusWriter.class);
+
+	private static final String METRIC_PREFIX = "regproc.status.writer.";
+
+	/** Whether updates are queued and written in the background. */
+	@Value("${registration.processor.status.write-behind.enabled:false}")
+	private boolean writeBehind;
+
+	/** The most updates queued before callers wait. */
+	@Value("${registration.processor.status.write-behind.capacity:10000}")
+	private int capacity;
+
+	/** The most registrations written in one flush. */
+	@Value("${registration.processor.status.write-behind.batch-size:200}")
+	private int batchSize;
+
+	/** The longest time an update stays queued. */
+	@Value("${registration.processor.status.write-behind.flush-interval-ms:200}")
+	private long flushIntervalMillis;
+
+	/** The registration status dao. */
+	@Autowired
+	private RegistrationStatusDao registrationStatusDao;
+
+	/** The transaction service. */
+	@Autowired
+	private TransactionService<TransactionDto> transactionService;
+
+	/** The transaction manager. */
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	/** The meter registry, if metrics are enabled. */
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition notFull = lock.newCondition();
+
+	private final Condition flushDue = lock.newCondition();
+
+	/** Queued updates by registration id, in the order they were made. */
+	private Map<String, List<StatusUpdate>> pending = new LinkedHashMap<>();
+
+	/** Updates being flushed. */
+	private Map<String, List<StatusUpdate>> inFlight = Collections.emptyMap();
+
+	private int pendingCount;
+
+	private final AtomicLong writtenCount = new AtomicLong();
+
+	private final AtomicLong conflictCount = new AtomicLong();
+
+	private final AtomicLong failedCount = new AtomicLong();
+
+	private volatile Timer flushTimer;
+
+	private TransactionTemplate transactionTemplate;
+
+	private Thread flusher;
+
+	private volatile boolean running;
+
+	/**
+	 * Starts the background flusher if write-behind is enabled.
+	 */
+	@PostConstruct
+	public void start() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		if (meterRegistry != null) {
+			bindTo(meterRegistry);
+		}
+		if (!writeBehind) {
+			return;
+		}
+		running = true;
+		flusher = new Thread(this::flushLoop, "status-writer");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	/**
+	 * Stops the background flusher and writes the updates still queued.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for the flusher
+	 */
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		if (!running) {
+			return;
+		}
+		running = false;
+		flusher.interrupt();
+		flusher.join(TimeUnit.SECONDS.toMillis(30));
+		Map<String, List<StatusUpdate>> batch;
+		while (!(batch = takeBatch()).isEmpty()) {
+			try {
+				flush(batch);
+			} catch (RuntimeException e) {
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+						LoggerFileConstant.APPLICATIONID.toString(), "RegistrationStatusWriter::stop()::lost "
+								+ count(batch) + " status updates " + e.getMessage() + ExceptionUtils.getStackTrace(e));
+			}
+		}
+	}
+
+	/**
+	 * Whether updates are queued instead of written before the caller returns.
+	 *
+	 * @return true if write-behind is running
+	 */
+	public boolean isWriteBehind() {
+		return running;
+	}
+
+	/**
+	 * Writes a status update and its transaction in one transaction.
+	 *
+	 * @param entity
+	 *            the new status row, its version is set to the written version
+	 * @param expectedVersion
+	 *            the version the status was read with, null if unknown
+	 * @param transactionDto
+	 *            the transaction of the update
+	 * @return false if there is no status row for the registration
+	 */
+	public boolean write(RegistrationStatusEntity entity, Integer expectedVersion, TransactionDto transactionDto) {
+		List<StatusUpdate> updates = new ArrayList<>(1);
+		updates.add(new StatusUpdate(entity, expectedVersion, transactionDto));
+		return flush(Collections.singletonMap(entity.getId(), updates), false).isEmpty();
+	}
+
+	/**
+	 * Queues a status update and its transaction, waiting while the queue is
+	 * full. Written before returning if write-behind is not running.
+	 *
+	 * @param entity
+	 *            the new status row, not to be changed after this call
+	 * @param expectedVersion
+	 *            the version the status was read with, null if unknown
+	 * @param transactionDto
+	 *            the transaction of the update
+	 */
+	public void submit(RegistrationStatusEntity entity, Integer expectedVersion, TransactionDto transactionDto) {
+		lock.lock();
+		try {
+			while (running && pendingCount >= capacity) {
+				notFull.await();
+			}
+			if (running) {
+				pending.computeIfAbsent(entity.getId(), id -> new ArrayList<>())
+						.add(new StatusUpdate(entity, expectedVersion, transactionDto));
+				if (++pendingCount >= batchSize) {
+					flushDue.signal();
+				}
+				return;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			lock.unlock();
+		}
+		write(entity, expectedVersion, transactionDto);
+	}
+
+	/**
+	 * Gets the latest queued status of a registration.
+	 *
+	 * @param registrationId
+	 *            the registration id
+	 * @return the status row to be written, null if none is queued
+	 */
+	public RegistrationStatusEntity getPending(String registrationId) {
+		if (!running) {
+			return null;
+		}
+		lock.lock();
+		try {
+			List<StatusUpdate> updates = pending.get(registrationId);
+			if (updates == null) {
+				updates = inFlight.get(registrationId);
+			}
+			return updates != null ? updates.get(updates.size() - 1).entity : null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int getPendingCount() {
+		lock.lock();
+		try {
+			return pendingCount;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public long getWrittenCount() {
+		return writtenCount.get();
+	}
+
+	public long getConflictCount() {
+		return conflictCount.get();
+	}
+
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+
+	/**
+	 * Registers the queue gauge, the update counters and the flush timer.
+	 *
+	 * @param registry
+	 *            the meter registry
+	 */
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder(METRIC_PREFIX + "pending", this, RegistrationStatusWriter::getPendingCount)
+				.description("Status updates queued").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + "updates", writtenCount, AtomicLong::doubleValue)
+				.tag("result", "written").description("Status updates written").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + "updates", conflictCount, AtomicLong::doubleValue)
+				.tag("result", "conflict").description("Status updates whose row had a newer version")
+				.register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + "updates", failedCount, AtomicLong::doubleValue)
+				.tag("result", "failed").description("Status updates whose flush failed").register(registry);
+		flushTimer = Timer.builder(METRIC_PREFIX + "flush").description("Status write time").register(registry);
+	}
+
+	private void flushLoop() {
+		while (running) {
+			Map<String, List<StatusUpdate>> batch;
+			try {
+				batch = awaitBatch();
+			} catch (InterruptedException e) {
+				// stop() writes what is still queued
+				return;
+			}
+			if (batch.isEmpty()) {
+				continue;
+			}
+			try {
+				flush(batch);
+			} catch (RuntimeException e) {
+				failedCount.addAndGet(count(batch));
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+						LoggerFileConstant.APPLICATIONID.toString(),
+						"RegistrationStatusWriter::flushLoop()::retrying " + count(batch) + " status updates "
+								+ e.getMessage() + ExceptionUtils.getStackTrace(e));
+				requeue(batch);
+				try {
+					Thread.sleep(flushIntervalMillis);
+				} catch (InterruptedException ie) {
+					return;
+				}
+			} finally {
+				lock.lock();
+				try {
+					inFlight = Collections.emptyMap();
+				} finally {
+					lock.unlock();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Waits until a batch is full or the flush interval has passed, then takes
+	 * the batch.
+	 */
+	private Map<String, List<StatusUpdate>> awaitBatch() throws InterruptedException {
+		lock.lock();
+		try {
+			long remaining = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+			while (pendingCount < batchSize && remaining > 0) {
+				remaining = flushDue.awaitNanos(remaining);
+			}
+			inFlight = takeBatch();
+			return inFlight;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Takes the updates of up to a batch of registrations off the queue.
+	 */
+	private Map<String, List<StatusUpdate>> takeBatch() {
+		lock.lock();
+		try {
+			Map<String, List<StatusUpdate>> batch = new LinkedHashMap<>();
+			Iterator<Map.Entry<String, List<StatusUpdate>>> iterator = pending.entrySet().iterator();
+			while (iterator.hasNext() && batch.size() < batchSize) {
+				Map.Entry<String, List<StatusUpdate>> entry = iterator.next();
+				batch.put(entry.getKey(), entry.getValue());
+				pendingCount -= entry.getValue().size();
+				iterator.remove();
+			}
+			notFull.signalAll();
+			return batch;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Puts a failed batch back in front of the updates queued since.
+	 */
+	private void requeue(Map<String, List<StatusUpdate>> batch) {
+		lock.lock();
+		try {
+			Map<String, List<StatusUpdate>> requeued = new LinkedHashMap<>(batch);
+			pending.forEach((id, updates) -> requeued.merge(id, updates, (failed, queued) -> {
+				failed.addAll(queued);
+				return failed;
+			}));
+			pending = requeued;
+			pendingCount += count(batch);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes the updates of each registration in one transaction.
+	 *
+	 * @return the ids of the registrations without a status row
+	 */
+	private List<String> flush(Map<String, List<StatusUpdate>> batch) {
+		return flush(batch, true);
+	}
+
+	private List<String> flush(Map<String, List<StatusUpdate>> batch, boolean keepNewerRows) {
+		long start = System.nanoTime();
+		try {
+			List<String> missing = transactionTemplate.execute(status -> writeBatch(batch, keepNewerRows));
+			writtenCount.addAndGet(count(batch));
+			return missing;
+		} finally {
+			Timer timer = flushTimer;
+			if (timer != null) {
+				timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			}
+		}
+	}
+
+	private List<String> writeBatch(Map<String, List<StatusUpdate>> batch, boolean keepNewerRows) {
+		List<RegistrationStatusEntity> versioned = new ArrayList<>(batch.size());
+		List<Integer> expectedVersions = new ArrayList<>(batch.size());
+		List<String> unversioned = new ArrayList<>();
+		for (Map.Entry<String, List<StatusUpdate>> entry : batch.entrySet()) {
+			List<StatusUpdate> updates = entry.getValue();
+			// coalesced updates chain their transactions and write the last status
+			for (int i = 1; i < updates.size(); i++) {
+				updates.get(i).transactionDto.setParentid(updates.get(i - 1).transactionDto.getTransactionId());
+			}
+			Integer expectedVersion = updates.get(0).expectedVersion;
+			if (expectedVersion != null) {
+				// later updates were made on the queued status and expect its version
+				Integer lastVersion = updates.get(updates.size() - 1).expectedVersion;
+				RegistrationStatusEntity entity = updates.get(updates.size() - 1).entity;
+				entity.setVersion((lastVersion != null ? Math.max(lastVersion, expectedVersion) : expectedVersion) + 1);
+				versioned.add(entity);
+				expectedVersions.add(expectedVersion);
+			} else {
+				unversioned.add(entry.getKey());
+			}
+		}
+
+		List<String> missing = new ArrayList<>();
+		Set<String> dropped = new HashSet<>();
+		for (String registrationId : registrationStatusDao.updateIfVersionMatches(versioned, expectedVersions)) {
+			if (keepNewerRows) {
+				conflictCount.addAndGet(batch.get(registrationId).size());
+				dropped.add(registrationId);
+				regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+						registrationId, "RegistrationStatusWriter::writeBatch()::status row changed while queued, "
+								+ batch.get(registrationId).size() + " updates dropped");
+			} else {
+				unversioned.add(registrationId);
+			}
+		}
+		for (String registrationId : unversioned) {
+			List<StatusUpdate> updates = batch.get(registrationId);
+			RegistrationStatusEntity current = registrationStatusDao.findById(registrationId);
+			if (current == null) {
+				missing.add(registrationId);
+				continue;
+			}
+			if (updates.get(0).expectedVersion != null) {
+				conflictCount.incrementAndGet();
+			}
+			updates.get(0).transactionDto.setParentid(current.getLatestRegistrationTransactionId());
+			RegistrationStatusEntity entity = updates.get(updates.size() - 1).entity;
+			entity.setVersion(current.getVersion() != null ? current.getVersion() + 1 : 1);
+			registrationStatusDao.update(entity);
+		}
+		List<TransactionDto> transactions = new ArrayList<>();
+		for (Map.Entry<String, List<StatusUpdate>> entry : batch.entrySet()) {
+			if (!dropped.contains(entry.getKey())) {
+				for (StatusUpdate update : entry.getValue()) {
+					transactions.add(update.transactionDto);
+				}
+			}
+		}
+		transactionService.addRegistrationTransactions(transactions);
+		return missing;
+	}
+
+	private static int count(Map<String, List<StatusUpdate>> batch) {
+		int count = 0;
+		for (List<StatusUpdate> updates : batch.values()) {
+			count += updates.size();
+		}
+		return count;
+	}
+
+	/**
+	 * A status update and its transaction.
+	 */
+	private static class StatusUpdate {
+		private final RegistrationStatusEntity entity;
+		private final Integer expectedVersion;
+		private final TransactionDto transactionDto;
+
+		StatusUpdate(RegistrationStatusEntity entity, Integer expectedVersion, TransactionDto transactionDto) {
+			this.entity = entity;
+			this.expectedVersion = expectedVersion;
+			this.transactionDto = transactionDto;
+		}
+	}
+}
@@ -6,10 +6,17 @@ package io.mosip.registration.processor.status.service.impl;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import io.mosip.kernel.core.dataaccess.exception.DataAccessLayerException;
 import io.mosip.kernel.core.exception.ExceptionUtils;
@@ -97,6 +104,23 @@ public class SyncRegistrationServiceImpl implements SyncRegistrationService<Sync
 	@Autowired
 	private Decryptor decryptor;
 
+	/** The transaction manager. */
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	/**
+	 * Whether the valid registrations of a sync are written with one batched
+	 * upsert, false to read and save them one by one.
+	 */
+	@Value("${registration.processor.sync.bulk.enabled:true}")
+	private boolean bulkEnabled;
+
+	/** The registration ids read per query. */
+	@Value("${registration.processor.sync.bulk.chunk-size:500}")
+	private int chunkSize;
+
+	private TransactionTemplate transactionTemplate;
+
 	/**
 	 * Instantiates a new sync registration service impl.
 	 */
@@ -104,6 +128,14 @@ public class SyncRegistrationServiceImpl implements SyncRegistrationService<Sync
 		super();
 	}
 
+	/**
+	 * Creates the transaction template of the batched upsert.
+	 */
+	@PostConstruct
+	public void init() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -118,8 +150,12 @@ public class SyncRegistrationServiceImpl implements SyncRegistrationService<Sync
 		LogDescription description = new LogDescription();
 		boolean isTransactionSuccessful = false;
 		try {
-			for (SyncRegistrationDto registrationDto : resgistrationDtos) {
-				synchResponseList = validateSync(registrationDto, synchResponseList);
+			if (bulkEnabled) {
+				synchResponseList = syncInBatch(resgistrationDtos, synchResponseList);
+			} else {
+				for (SyncRegistrationDto registrationDto : resgistrationDtos) {
+					synchResponseList = validateSync(registrationDto, synchResponseList);
+				}
 			}
 			isTransactionSuccessful = true;
 			description.setMessage("Registartion Id's are successfully synched in Sync Registration table");
@@ -173,6 +209,98 @@ public class SyncRegistrationServiceImpl implements SyncRegistrationService<Sync
 	 */
 	private List<SyncResponseDto> validateSync(SyncRegistrationDto registrationDto,
 			List<SyncResponseDto> syncResponseList) {
+		if (isValid(registrationDto, syncResponseList)) {
+			syncResponseList = validateRegId(registrationDto, syncResponseList);
+		}
+		return syncResponseList;
+	}
+
+	/**
+	 * Validates the registrations in memory, then reads the existing rows with
+	 * one query per chunk of registration ids and writes the valid registrations
+	 * with one batched upsert, in one transaction.
+	 *
+	 * @param registrationDtos
+	 *            the registration dtos
+	 * @param syncResponseList
+	 *            the sync response list
+	 * @return the list
+	 */
+	private List<SyncResponseDto> syncInBatch(List<SyncRegistrationDto> registrationDtos,
+			List<SyncResponseDto> syncResponseList) {
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"SyncRegistrationServiceImpl::syncInBatch()::entry");
+		List<SyncRegistrationDto> validDtos = new ArrayList<>();
+		for (SyncRegistrationDto registrationDto : registrationDtos) {
+			if (isValid(registrationDto, syncResponseList)) {
+				validDtos.add(registrationDto);
+				SyncResponseSuccessDto syncResponseDto = new SyncResponseSuccessDto();
+				syncResponseDto.setRegistrationId(registrationDto.getRegistrationId());
+				syncResponseDto.setStatus(ResponseStatusCode.SUCCESS.toString());
+				syncResponseList.add(syncResponseDto);
+			}
+		}
+		if (!validDtos.isEmpty()) {
+			transactionTemplate.execute(status -> upsert(validDtos));
+		}
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"SyncRegistrationServiceImpl::syncInBatch()::exit");
+		return syncResponseList;
+	}
+
+	/**
+	 * Writes the registrations, keeping the id and creation time of the existing
+	 * row of a registration id. A registration id synced twice in the batch
+	 * updates the row written for the first one.
+	 *
+	 * @param registrationDtos
+	 *            the valid registration dtos
+	 * @return the written rows
+	 */
+	private List<SyncRegistrationEntity> upsert(List<SyncRegistrationDto> registrationDtos) {
+		List<String> registrationIds = new ArrayList<>(registrationDtos.size());
+		for (SyncRegistrationDto registrationDto : registrationDtos) {
+			registrationIds.add(registrationDto.getRegistrationId().trim());
+		}
+		Map<String, SyncRegistrationEntity> existingSyncRegistrations = new HashMap<>();
+		for (SyncRegistrationEntity entity : syncRegistrationDao.getByIds(registrationIds, chunkSize)) {
+			existingSyncRegistrations.putIfAbsent(entity.getRegistrationId(), entity);
+		}
+
+		List<SyncRegistrationEntity> syncRegistrations = new ArrayList<>(registrationDtos.size());
+		for (SyncRegistrationDto registrationDto : registrationDtos) {
+			SyncRegistrationEntity syncRegistration = convertDtoToEntity(registrationDto);
+			SyncRegistrationEntity existingSyncRegistration = existingSyncRegistrations
+					.get(syncRegistration.getRegistrationId());
+			if (existingSyncRegistration != null) {
+				syncRegistration.setId(existingSyncRegistration.getId());
+				syncRegistration.setCreateDateTime(existingSyncRegistration.getCreateDateTime());
+				eventId = EventId.RPR_402.toString();
+			} else {
+				syncRegistration.setId(RegistrationUtility.generateId());
+				syncRegistration.setCreateDateTime(LocalDateTime.now(ZoneId.of("UTC")));
+				eventId = EventId.RPR_407.toString();
+			}
+			if (!syncRegistration.getIsDeleted()) {
+				existingSyncRegistrations.put(syncRegistration.getRegistrationId(), syncRegistration);
+			}
+			syncRegistrations.add(syncRegistration);
+		}
+		syncRegistrationDao.upsertAll(syncRegistrations);
+		return syncRegistrations;
+	}
+
+	/**
+	 * Validates the registration without reading the database.
+	 *
+	 * @param registrationDto
+	 *            the registration dto
+	 * @param syncResponseList
+	 *            the sync response list, a failure response is added to it if
+	 *            the registration is invalid
+	 * @return true, if valid
+	 */
+	private boolean isValid(SyncRegistrationDto registrationDto, List<SyncResponseDto> syncResponseList) {
 		if (validateLanguageCode(registrationDto, syncResponseList)
 				&& validateRegistrationType(registrationDto, syncResponseList)
 				&& validateHashValue(registrationDto, syncResponseList)
@@ -180,11 +308,7 @@ public class SyncRegistrationServiceImpl implements SyncRegistrationService<Sync
 			if (validateRegistrationID(registrationDto, syncResponseList)) {
 				SyncResponseFailureDto syncResponseFailureDto = new SyncResponseFailureDto();
 				try {
-					if (ridValidator.validateId(registrationDto.getRegistrationId())) {
-
-						syncResponseList = validateRegId(registrationDto, syncResponseList);
-
-					}
+					return ridValidator.validateId(registrationDto.getRegistrationId());
 				} catch (InvalidIDException e) {
 					syncResponseFailureDto.setRegistrationId(registrationDto.getRegistrationId());
 
@@ -209,7 +333,7 @@ public class SyncRegistrationServiceImpl implements SyncRegistrationService<Sync
 				}
 			}
 		}
-		return syncResponseList;
+		return false;
 	}
 
 	/**
@@ -71,6 +71,26 @@ public class TransactionServiceImpl implements TransactionService<TransactionDto
 
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.mosip.registration.processor.status.service.TransactionService#
+	 * addRegistrationTransactions(java.util.List)
+	 */
+	@Override
+	public List<TransactionEntity> addRegistrationTransactions(List<TransactionDto> transactionStatusDtos) {
+		try {
+			List<TransactionEntity> entities = new ArrayList<>(transactionStatusDtos.size());
+			for (TransactionDto transactionStatusDto : transactionStatusDtos) {
+				entities.add(convertDtoToEntity(transactionStatusDto));
+			}
+			return transactionRepositary.saveAll(entities);
+		} catch (DataAccessLayerException e) {
+			throw new TransactionTableNotAccessibleException(
+					PlatformErrorMessages.RPR_RGS_TRANSACTION_TABLE_NOT_ACCESSIBLE.getMessage(), e);
+		}
+	}
+
 	/**
 	 * Convert dto to entity.
 	 *
@@ -1,10 +1,23 @@
 package io.mosip.registration.processor.status.dao;
 
 import static org.junit.Assert.assertEquals;
-
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -13,6 +26,8 @@ import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import io.mosip.registration.processor.status.code.RegistrationStatusCode;
 import io.mosip.registration.processor.status.entity.RegistrationStatusEntity;
@@ -29,6 +44,10 @@ public class RegistrationStatusDaoTest {
 	RegistrationStatusDao registrationStatusDao = new RegistrationStatusDao();
 	@Mock
 	RegistrationRepositary<RegistrationStatusEntity, String> registrationStatusRepositary;
+	@Mock
+	EntityManager entityManager;
+	@Mock
+	Query query;
 
 	@Before
 	public void setup() {
@@ -92,11 +111,104 @@ public class RegistrationStatusDaoTest {
 	public void testgetUnProcessedPacketCount() {
 		List<String> statusList = new ArrayList<>();
 		statusList.add("SUCCESS");
-		int entityCount = list.size();
-		Mockito.when(registrationStatusRepositary.createQuerySelect(Matchers.anyString(), Matchers.anyMap()))
-				.thenReturn(list);
+		Mockito.when(registrationStatusRepositary.countUnProcessedPackets(Matchers.anyList(), Matchers.anyInt(),
+				Matchers.any())).thenReturn(5L);
 		int count = registrationStatusDao.getUnProcessedPacketsCount(6000, 4, statusList);
-		assertEquals(count, entityCount);
+		assertEquals(5, count);
+	}
+
+	@Test
+	public void testClaimUnProcessedPackets() {
+		ReflectionTestUtils.setField(registrationStatusDao, "skipLocked", false);
+		List<String> statusList = new ArrayList<>();
+		statusList.add("SUCCESS");
+		Mockito.when(registrationStatusRepositary.claimUnProcessedPackets(Matchers.anyList(), Matchers.anyInt(),
+				Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any())).thenReturn(list);
+		List<RegistrationStatusEntity> rEntityList = registrationStatusDao.claimUnProcessedPackets(2, 60000, 4,
+				statusList, null, null);
+		assertEquals(list, rEntityList);
+		Mockito.verify(registrationStatusRepositary).claimUnProcessedPackets(Matchers.eq(statusList),
+				Matchers.eq(4), Matchers.any(), Matchers.any(LocalDateTime.class), Matchers.eq(""),
+				Matchers.eq(PageRequest.of(0, 2)));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testClaimUnProcessedPacketsSkipLocked() {
+		List<String> statusList = new ArrayList<>();
+		statusList.add("SUCCESS");
+		Mockito.when(entityManager.createNativeQuery(Matchers.anyString(), Matchers.eq(RegistrationStatusEntity.class)))
+				.thenReturn(query);
+		Mockito.when(query.setParameter(Matchers.anyString(), Matchers.any())).thenReturn(query);
+		Mockito.when(query.getResultList()).thenReturn(list);
+
+		List<RegistrationStatusEntity> rEntityList = registrationStatusDao.claimUnProcessedPackets(2, 60000, 4,
+				statusList, null, null);
+
+		assertEquals(list, rEntityList);
+		assertTrue(RegistrationStatusDao.CLAIM_UNPROCESSED_PACKETS
+				.endsWith("ORDER BY latest_trn_dtimes, id LIMIT :limit FOR UPDATE SKIP LOCKED"));
+		Mockito.verify(entityManager).createNativeQuery(RegistrationStatusDao.CLAIM_UNPROCESSED_PACKETS,
+				RegistrationStatusEntity.class);
+		Mockito.verify(query).setParameter("status", statusList);
+		Mockito.verify(query).setParameter("reprocessCount", 4);
+		Mockito.verify(query).setParameter("lastTransactionTimes",
+				Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0)));
+		Mockito.verify(query).setParameter("lastRegId", "");
+		Mockito.verify(query).setParameter("limit", 2);
+		Mockito.verify(registrationStatusRepositary, Mockito.never()).claimUnProcessedPackets(Matchers.anyList(),
+				Matchers.anyInt(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any());
+	}
+
+	@Test
+	public void updateIfVersionMatchesTest() throws SQLException {
+		try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:regprc;MODE=PostgreSQL");
+				Statement statement = connection.createStatement()) {
+			statement.execute("CREATE SCHEMA regprc");
+			statement.execute("CREATE TABLE regprc.registration(id varchar(39) PRIMARY KEY, reg_type varchar(36), "
+					+ "ref_reg_id varchar(39), applicant_type varchar(36), status_code varchar(36), "
+					+ "lang_code varchar(3), status_comment varchar(256), latest_trn_id varchar(36), "
+					+ "latest_trn_type_code varchar(36), latest_trn_status_code varchar(36), latest_trn_dtimes timestamp, "
+					+ "reg_process_retry_count smallint, reg_stage_name varchar(36), trn_retry_count smallint, "
+					+ "is_active boolean, upd_by varchar(256), upd_dtimes timestamp, is_deleted boolean, "
+					+ "del_dtimes timestamp, upd_version integer NOT NULL DEFAULT 0)");
+			statement.execute("INSERT INTO regprc.registration(id, status_code, upd_version) VALUES ('1000', 'A', 0)");
+			statement.execute("INSERT INTO regprc.registration(id, status_code, upd_version) VALUES ('1001', 'A', 3)");
+
+			List<String> notUpdated = RegistrationStatusDao.updateIfVersionMatches(connection,
+					Arrays.asList(entity("1000", 1), entity("1001", 1), entity("1002", 1)));
+
+			assertEquals(Arrays.asList("1001", "1002"), notUpdated);
+			try (ResultSet resultSet = statement
+					.executeQuery("SELECT id, status_code, upd_version FROM regprc.registration ORDER BY id")) {
+				resultSet.next();
+				assertEquals("PROCESSED", resultSet.getString(2));
+				assertEquals(1, resultSet.getInt(3));
+				resultSet.next();
+				assertEquals("A", resultSet.getString(2));
+				assertEquals(3, resultSet.getInt(3));
+			}
+
+			// coalesced updates write a version more than one ahead of the expected one
+			assertEquals(Collections.emptyList(), RegistrationStatusDao.updateIfVersionMatches(connection,
+					Collections.singletonList(entity("1001", 5)), Collections.singletonList(3)));
+			try (ResultSet resultSet = statement
+					.executeQuery("SELECT upd_version FROM regprc.registration WHERE id = '1001'")) {
+				resultSet.next();
+				assertEquals(5, resultSet.getInt(1));
+			}
+			statement.execute("DROP SCHEMA regprc CASCADE");
+		}
+	}
+
+	private static RegistrationStatusEntity entity(String id, int version) {
+		RegistrationStatusEntity entity = new RegistrationStatusEntity();
+		entity.setId(id);
+		entity.setStatusCode("PROCESSED");
+		entity.setIsActive(true);
+		entity.setLatestTransactionTimes(LocalDateTime.now());
+		entity.setVersion(version);
+		return entity;
 	}
 
 	@Test
@@ -0,0 +1,234 @@
+package io.mosip.registration.processor.status.dao;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.mosip.registration.processor.status.entity.RegistrationStatusEntity;
+
+/**
+ * Compares status updates per second of the statements one update used to run
+ * (read the latest transaction, insert the transaction, read the status, read
+ * and update it on merge, each repository call committing on its own) with a
+ * flush of {@link RegistrationStatusDao#updateIfVersionMatches} and one batch
+ * insert of the transactions in one transaction. Runs on in-memory H2, so
+ * {@code roundTripMicros} adds a simulated network round trip per statement,
+ * batch and commit.
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/test-classes:&lt;test classpath&gt; org.openjdk.jmh.Main RegistrationStatusWriteBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RegistrationStatusWriteBenchmark {
+
+	private static final int UPDATES = 200;
+
+	private static final String INSERT_TRANSACTION = "INSERT INTO regprc.registration_transaction(id, reg_id, "
+			+ "trn_type_code, parent_regtrn_id, status_code, cr_by, cr_dtimes) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+	@Param({ "0", "500" })
+	private long roundTripMicros;
+
+	private Connection connection;
+
+	private List<RegistrationStatusEntity> entities;
+
+	private int version;
+
+	@Setup(Level.Trial)
+	public void setup() throws SQLException {
+		connection = DriverManager.getConnection("jdbc:h2:mem:benchmark;MODE=PostgreSQL");
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("CREATE SCHEMA regprc");
+			statement.execute("CREATE TABLE regprc.registration(id varchar(39) PRIMARY KEY, reg_type varchar(36), "
+					+ "ref_reg_id varchar(39), applicant_type varchar(36), status_code varchar(36), "
+					+ "lang_code varchar(3), status_comment varchar(256), latest_trn_id varchar(36), "
+					+ "latest_trn_type_code varchar(36), latest_trn_status_code varchar(36), latest_trn_dtimes timestamp, "
+					+ "reg_process_retry_count smallint, reg_stage_name varchar(36), trn_retry_count smallint, "
+					+ "is_active boolean, upd_by varchar(256), upd_dtimes timestamp, is_deleted boolean, "
+					+ "del_dtimes timestamp, upd_version integer NOT NULL DEFAULT 0)");
+			statement.execute("CREATE TABLE regprc.registration_transaction(id varchar(36) PRIMARY KEY, "
+					+ "reg_id varchar(39), trn_type_code varchar(64), parent_regtrn_id varchar(36), "
+					+ "status_code varchar(36), cr_by varchar(256), cr_dtimes timestamp)");
+		}
+		entities = new ArrayList<>(UPDATES);
+		try (PreparedStatement insert = connection
+				.prepareStatement("INSERT INTO regprc.registration(id, status_code, upd_version) VALUES (?, ?, 0)")) {
+			for (int i = 0; i < UPDATES; i++) {
+				RegistrationStatusEntity entity = new RegistrationStatusEntity();
+				entity.setId("1000" + i);
+				entity.setRegistrationType("NEW");
+				entity.setStatusCode("PROCESSING");
+				entity.setLangCode("eng");
+				entity.setLatestTransactionTypeCode("PACKET_RECEIVER");
+				entity.setLatestTransactionStatusCode("SUCCESS");
+				entity.setRegistrationStageName("PacketValidatorStage");
+				entity.setIsActive(true);
+				entity.setIsDeleted(false);
+				entities.add(entity);
+				insert.setString(1, entity.getId());
+				insert.setString(2, entity.getStatusCode());
+				insert.addBatch();
+			}
+			insert.executeBatch();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		connection.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(UPDATES)
+	public void readThenWrite() throws SQLException {
+		connection.setAutoCommit(true);
+		for (RegistrationStatusEntity entity : entities) {
+			String parentId = selectLatestTransactionId(entity.getId());
+			String transactionId = UUID.randomUUID().toString();
+			try (PreparedStatement insert = connection.prepareStatement(INSERT_TRANSACTION)) {
+				bindTransaction(insert, transactionId, entity.getId(), parentId);
+				insert.executeUpdate();
+				roundTrip();
+			}
+			// the commit of addRegistrationTransaction
+			roundTrip();
+			// getRegistrationStatus, then the select merge runs before its update
+			selectLatestTransactionId(entity.getId());
+			connection.setAutoCommit(false);
+			selectLatestTransactionId(entity.getId());
+			entity.setLatestRegistrationTransactionId(transactionId);
+			entity.setLatestTransactionTimes(LocalDateTime.now());
+			try (PreparedStatement update = connection.prepareStatement(RegistrationStatusDao.UPDATE_IF_VERSION_MATCHES
+					.replace(" AND upd_version=?", ""))) {
+				bindWithoutVersionCheck(update, entity);
+				update.executeUpdate();
+				roundTrip();
+			}
+			connection.commit();
+			roundTrip();
+			connection.setAutoCommit(true);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(UPDATES)
+	public List<String> versionedBatch() throws SQLException {
+		connection.setAutoCommit(false);
+		List<String> transactionIds = new ArrayList<>(UPDATES);
+		for (RegistrationStatusEntity entity : entities) {
+			String transactionId = UUID.randomUUID().toString();
+			transactionIds.add(transactionId);
+			entity.setLatestRegistrationTransactionId(transactionId);
+			entity.setLatestTransactionTimes(LocalDateTime.now());
+			entity.setVersion(version + 1);
+		}
+		List<String> notUpdated = RegistrationStatusDao.updateIfVersionMatches(connection, entities);
+		roundTrip();
+		try (PreparedStatement insert = connection.prepareStatement(INSERT_TRANSACTION)) {
+			for (int i = 0; i < UPDATES; i++) {
+				bindTransaction(insert, transactionIds.get(i), entities.get(i).getId(), null);
+				insert.addBatch();
+			}
+			insert.executeBatch();
+			roundTrip();
+		}
+		connection.commit();
+		roundTrip();
+		version++;
+		return notUpdated;
+	}
+
+	private String selectLatestTransactionId(String registrationId) throws SQLException {
+		try (PreparedStatement select = connection
+				.prepareStatement("SELECT latest_trn_id, upd_version FROM regprc.registration WHERE id=?")) {
+			select.setString(1, registrationId);
+			try (ResultSet resultSet = select.executeQuery()) {
+				roundTrip();
+				return resultSet.next() ? resultSet.getString(1) : null;
+			}
+		}
+	}
+
+	private static void bindTransaction(PreparedStatement insert, String transactionId, String registrationId,
+			String parentId) throws SQLException {
+		insert.setString(1, transactionId);
+		insert.setString(2, registrationId);
+		insert.setString(3, "PACKET_VALIDATOR");
+		insert.setString(4, parentId);
+		insert.setString(5, "SUCCESS");
+		insert.setString(6, "MOSIP_SYSTEM");
+		insert.setTimestamp(7, Timestamp.valueOf(LocalDateTime.now()));
+	}
+
+	private void bindWithoutVersionCheck(PreparedStatement update, RegistrationStatusEntity entity)
+			throws SQLException {
+		// same columns as the versioned update, the row's version is kept
+		update.setString(1, entity.getRegistrationType());
+		update.setString(2, entity.getReferenceRegistrationId());
+		update.setString(3, entity.getApplicantType());
+		update.setString(4, entity.getStatusCode());
+		update.setString(5, entity.getLangCode());
+		update.setString(6, entity.getStatusComment());
+		update.setString(7, entity.getLatestRegistrationTransactionId());
+		update.setString(8, entity.getLatestTransactionTypeCode());
+		update.setString(9, entity.getLatestTransactionStatusCode());
+		update.setTimestamp(10, Timestamp.valueOf(entity.getLatestTransactionTimes()));
+		update.setObject(11, null, java.sql.Types.INTEGER);
+		update.setString(12, entity.getRegistrationStageName());
+		update.setObject(13, null, java.sql.Types.INTEGER);
+		update.setBoolean(14, true);
+		update.setString(15, "MOSIP_SYSTEM");
+		update.setTimestamp(16, Timestamp.valueOf(LocalDateTime.now()));
+		update.setBoolean(17, false);
+		update.setTimestamp(18, null);
+		update.setInt(19, version);
+		update.setString(20, entity.getId());
+	}
+
+	private void roundTrip() {
+		if (roundTripMicros > 0) {
+			LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(RegistrationStatusWriteBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,330 @@
+package io.mosip.registration.processor.status.dao;
+
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.mosip.registration.processor.status.entity.SyncRegistrationEntity;
+
+/**
+ * Registration ids synced per second (the {@code rids} counter) for a sync
+ * request of {@code batchSize} registrations, half of them already synced.
+ * Compares the statements the per registration path runs (read by registration
+ * id, then a repository save that reads the row by id and inserts or updates
+ * it in its own transaction) with the bulk path (one read per chunk of 500
+ * registration ids and {@link SyncRegistrationDao#upsertAll} in one
+ * transaction).
+ *
+ * Needs the mosip_regprc database on PostgreSQL 9.5 or later with the 1.0.9
+ * scripts applied. The benchmark writes to {@code regprc.registration_list};
+ * its rows are created by {@code SYNC_BENCHMARK} and deleted afterwards:
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/test-classes:&lt;test classpath&gt; org.openjdk.jmh.Main SyncRegistrationBenchmark -p url=jdbc:postgresql://localhost:5432/mosip_regprc -p user=sysadmin -p password=...
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SyncRegistrationBenchmark {
+
+	private static final String CREATED_BY = "SYNC_BENCHMARK";
+
+	private static final int CHUNK_SIZE = 500;
+
+	private static final String FIND_BY_REGISTRATION_ID = "SELECT id, reg_id, cr_dtimes FROM regprc.registration_list "
+			+ "WHERE reg_id=? AND is_deleted=false";
+
+	private static final String FIND_BY_ID = "SELECT id FROM regprc.registration_list WHERE id=?";
+
+	private static final String INSERT = "INSERT INTO regprc.registration_list(id, reg_id, reg_type, "
+			+ "packet_checksum, packet_size, client_status_code, lang_code, cr_by, cr_dtimes, upd_by, upd_dtimes, "
+			+ "is_deleted) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private static final String UPDATE = "UPDATE regprc.registration_list SET reg_id=?, reg_type=?, "
+			+ "packet_checksum=?, packet_size=?, client_status_code=?, lang_code=?, upd_by=?, upd_dtimes=?, "
+			+ "is_deleted=? WHERE id=?";
+
+	private static final AtomicLong NEXT_REGISTRATION = new AtomicLong();
+
+	@Param({ "jdbc:postgresql://localhost:5432/mosip_regprc" })
+	private String url;
+
+	@Param({ "postgres" })
+	private String user;
+
+	@Param({ "" })
+	private String password;
+
+	@Param({ "1", "100", "1000" })
+	private int batchSize;
+
+	@Param({ "100000" })
+	private int existingRows;
+
+	private List<String> existingRegistrationIds;
+
+	/**
+	 * Registration ids synced by a thread.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Synced {
+
+		public long rids;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			rids = 0;
+		}
+	}
+
+	/**
+	 * Connection of a thread.
+	 */
+	@State(Scope.Thread)
+	public static class Client {
+
+		private Connection connection;
+
+		@Setup(Level.Trial)
+		public void connect(SyncRegistrationBenchmark benchmark) throws SQLException {
+			connection = benchmark.connect();
+		}
+
+		@TearDown(Level.Trial)
+		public void close() throws SQLException {
+			connection.close();
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setup() throws SQLException {
+		existingRegistrationIds = new ArrayList<>(existingRows);
+		List<SyncRegistrationEntity> entities = new ArrayList<>(existingRows);
+		for (int i = 0; i < existingRows; i++) {
+			SyncRegistrationEntity entity = entity(nextRegistrationId());
+			entity.setId(UUID.randomUUID().toString());
+			existingRegistrationIds.add(entity.getRegistrationId());
+			entities.add(entity);
+		}
+		try (Connection connection = connect()) {
+			connection.setAutoCommit(false);
+			deleteRows(connection);
+			for (int from = 0; from < entities.size(); from += CHUNK_SIZE) {
+				SyncRegistrationDao.upsertAll(connection,
+						entities.subList(from, Math.min(from + CHUNK_SIZE, entities.size())));
+			}
+			connection.commit();
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("ANALYZE regprc.registration_list");
+			}
+			connection.commit();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		try (Connection connection = connect()) {
+			deleteRows(connection);
+		}
+	}
+
+	@Benchmark
+	public int perRegistration(Client client, Synced synced) throws SQLException {
+		Connection connection = client.connection;
+		int written = 0;
+		for (SyncRegistrationEntity entity : nextBatch()) {
+			connection.setAutoCommit(true);
+			SyncRegistrationEntity existing = null;
+			try (PreparedStatement find = connection.prepareStatement(FIND_BY_REGISTRATION_ID)) {
+				find.setString(1, entity.getRegistrationId());
+				try (ResultSet resultSet = find.executeQuery()) {
+					if (resultSet.next()) {
+						existing = row(resultSet);
+					}
+				}
+			}
+			connection.setAutoCommit(false);
+			entity.setId(existing != null ? existing.getId() : UUID.randomUUID().toString());
+			// the merge of the repository save reads the row before writing it
+			try (PreparedStatement find = connection.prepareStatement(FIND_BY_ID)) {
+				find.setString(1, entity.getId());
+				find.executeQuery().close();
+			}
+			if (existing != null) {
+				try (PreparedStatement update = connection.prepareStatement(UPDATE)) {
+					update.setString(1, entity.getRegistrationId());
+					update.setString(2, entity.getRegistrationType());
+					update.setString(3, entity.getPacketHashValue());
+					update.setLong(4, entity.getPacketSize().longValue());
+					update.setString(5, entity.getSupervisorStatus());
+					update.setString(6, entity.getLangCode());
+					update.setString(7, entity.getUpdatedBy());
+					update.setTimestamp(8, Timestamp.valueOf(entity.getUpdateDateTime()));
+					update.setBoolean(9, entity.getIsDeleted());
+					update.setString(10, entity.getId());
+					written += update.executeUpdate();
+				}
+			} else {
+				try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+					insert.setString(1, entity.getId());
+					insert.setString(2, entity.getRegistrationId());
+					insert.setString(3, entity.getRegistrationType());
+					insert.setString(4, entity.getPacketHashValue());
+					insert.setLong(5, entity.getPacketSize().longValue());
+					insert.setString(6, entity.getSupervisorStatus());
+					insert.setString(7, entity.getLangCode());
+					insert.setString(8, entity.getCreatedBy());
+					insert.setTimestamp(9, Timestamp.valueOf(entity.getCreateDateTime()));
+					insert.setString(10, entity.getUpdatedBy());
+					insert.setTimestamp(11, Timestamp.valueOf(entity.getUpdateDateTime()));
+					insert.setBoolean(12, entity.getIsDeleted());
+					written += insert.executeUpdate();
+				}
+			}
+			connection.commit();
+		}
+		synced.rids += batchSize;
+		return written;
+	}
+
+	@Benchmark
+	public int bulkUpsert(Client client, Synced synced) throws SQLException {
+		Connection connection = client.connection;
+		connection.setAutoCommit(false);
+		List<SyncRegistrationEntity> entities = nextBatch();
+		List<String> registrationIds = new ArrayList<>(entities.size());
+		for (SyncRegistrationEntity entity : entities) {
+			registrationIds.add(entity.getRegistrationId());
+		}
+		Map<String, SyncRegistrationEntity> existing = new HashMap<>();
+		for (int from = 0; from < registrationIds.size(); from += CHUNK_SIZE) {
+			List<String> chunk = registrationIds.subList(from, Math.min(from + CHUNK_SIZE, registrationIds.size()));
+			try (PreparedStatement find = connection.prepareStatement("SELECT id, reg_id, cr_dtimes FROM "
+					+ "regprc.registration_list WHERE reg_id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?"))
+					+ ") AND is_deleted=false")) {
+				for (int i = 0; i < chunk.size(); i++) {
+					find.setString(i + 1, chunk.get(i));
+				}
+				try (ResultSet resultSet = find.executeQuery()) {
+					while (resultSet.next()) {
+						SyncRegistrationEntity row = row(resultSet);
+						existing.putIfAbsent(row.getRegistrationId(), row);
+					}
+				}
+			}
+		}
+		for (SyncRegistrationEntity entity : entities) {
+			SyncRegistrationEntity row = existing.get(entity.getRegistrationId());
+			entity.setId(row != null ? row.getId() : UUID.randomUUID().toString());
+			if (row != null) {
+				entity.setCreateDateTime(row.getCreateDateTime());
+			}
+		}
+		SyncRegistrationDao.upsertAll(connection, entities);
+		connection.commit();
+		synced.rids += batchSize;
+		return existing.size();
+	}
+
+	/**
+	 * A sync request, half of it registrations synced before.
+	 */
+	private List<SyncRegistrationEntity> nextBatch() {
+		List<SyncRegistrationEntity> entities = new ArrayList<>(batchSize);
+		for (int i = 0; i < batchSize; i++) {
+			String registrationId = i % 2 == 0
+					? existingRegistrationIds.get(ThreadLocalRandom.current().nextInt(existingRegistrationIds.size()))
+					: nextRegistrationId();
+			entities.add(entity(registrationId));
+		}
+		return entities;
+	}
+
+	private static SyncRegistrationEntity entity(String registrationId) {
+		SyncRegistrationEntity entity = new SyncRegistrationEntity();
+		LocalDateTime now = LocalDateTime.now();
+		entity.setRegistrationId(registrationId);
+		entity.setRegistrationType("NEW");
+		entity.setPacketHashValue("ab123");
+		entity.setPacketSize(BigInteger.valueOf(1024));
+		entity.setSupervisorStatus("APPROVED");
+		entity.setLangCode("eng");
+		entity.setCreatedBy(CREATED_BY);
+		entity.setCreateDateTime(now);
+		entity.setUpdatedBy(CREATED_BY);
+		entity.setUpdateDateTime(now);
+		entity.setIsDeleted(false);
+		return entity;
+	}
+
+	private static SyncRegistrationEntity row(ResultSet resultSet) throws SQLException {
+		SyncRegistrationEntity row = new SyncRegistrationEntity();
+		row.setId(resultSet.getString(1));
+		row.setRegistrationId(resultSet.getString(2));
+		row.setCreateDateTime(resultSet.getTimestamp(3).toLocalDateTime());
+		return row;
+	}
+
+	private static String nextRegistrationId() {
+		return String.format("9%028d", NEXT_REGISTRATION.incrementAndGet());
+	}
+
+	private static void deleteRows(Connection connection) throws SQLException {
+		try (PreparedStatement delete = connection
+				.prepareStatement("DELETE FROM regprc.registration_list WHERE cr_by=?")) {
+			delete.setString(1, CREATED_BY);
+			delete.executeUpdate();
+		}
+		if (!connection.getAutoCommit()) {
+			connection.commit();
+		}
+	}
+
+	private Connection connect() throws SQLException {
+		return DriverManager.getConnection(url, user, password);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(SyncRegistrationBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
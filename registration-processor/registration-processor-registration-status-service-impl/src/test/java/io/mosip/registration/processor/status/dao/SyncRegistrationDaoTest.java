@@ -3,8 +3,12 @@ package io.mosip.registration.processor.status.dao;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Before;
@@ -115,4 +119,31 @@ public class SyncRegistrationDaoTest {
 		assertEquals(syncRegistrationEntityList, rEntityList);
 	}
 
+	@Test
+	public void getByIdsInChunksTest() {
+		List<SyncRegistrationEntity> rEntityList = syncRegistrationDao
+				.getByIds(Arrays.asList("1001", "1002", "1003", "1004", "1005"), 2);
+
+		assertEquals(3, rEntityList.size());
+		Mockito.verify(syncRegistrationRepository, Mockito.times(3)).createQuerySelect(any(), any());
+	}
+
+	@Test
+	public void upsertAllTest() throws SQLException {
+		Connection connection = Mockito.mock(Connection.class);
+		PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+		Mockito.when(connection.prepareStatement(SyncRegistrationDao.UPSERT)).thenReturn(statement);
+		SyncRegistrationEntity newSyncRegistrationEntity = new SyncRegistrationEntity();
+		newSyncRegistrationEntity.setId("5b8ddbb0-8f7e-4b0a-9c6c-2a4d1f0e6e21");
+		newSyncRegistrationEntity.setRegistrationId("1002");
+
+		SyncRegistrationDao.upsertAll(connection,
+				Arrays.asList(syncRegistrationEntity, newSyncRegistrationEntity));
+
+		Mockito.verify(statement).setString(1, syncRegistrationEntity.getId());
+		Mockito.verify(statement).setString(2, "1002");
+		Mockito.verify(statement, Mockito.times(2)).addBatch();
+		Mockito.verify(statement).executeBatch();
+	}
+
 }
@@ -13,6 +13,7 @@ import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -36,6 +37,7 @@ import io.mosip.registration.processor.status.entity.RegistrationStatusEntity;
 import io.mosip.registration.processor.status.entity.TransactionEntity;
 import io.mosip.registration.processor.status.exception.TablenotAccessibleException;
 import io.mosip.registration.processor.status.service.impl.RegistrationStatusServiceImpl;
+import io.mosip.registration.processor.status.service.impl.RegistrationStatusWriter;
 import io.mosip.registration.processor.status.utilities.RegistrationExternalStatusUtility;;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -62,6 +64,9 @@ public class RegistrationStatusServiceTest {
 	@Mock
 	private RegistrationExternalStatusUtility regexternalstatusUtil;
 
+	@Mock
+	private RegistrationStatusWriter registrationStatusWriter;
+
 	@Mock
 	LogDescription description;
 
@@ -146,12 +151,47 @@ public class RegistrationStatusServiceTest {
 		assertEquals("PACKET_UPLOADED_TO_LANDING_ZONE", dto.getStatusCode());
 	}
 
+	@Test
+	public void testUpdateRegistrationStatusWithoutRead() {
+		registrationStatusDto.setVersion(3);
+		registrationStatusDto.setLatestRegistrationTransactionId("parent");
+		Mockito.when(registrationStatusWriter.write(any(), any(), any())).thenAnswer(invocation -> {
+			RegistrationStatusEntity entity = (RegistrationStatusEntity) invocation.getArguments()[0];
+			entity.setVersion(4);
+			return true;
+		});
+
+		registrationStatusService.updateRegistrationStatus(registrationStatusDto, "", "");
+
+		ArgumentCaptor<TransactionDto> transaction = ArgumentCaptor.forClass(TransactionDto.class);
+		Mockito.verify(registrationStatusWriter).write(any(), Mockito.eq(3), transaction.capture());
+		assertEquals("parent", transaction.getValue().getParentid());
+		assertEquals(transaction.getValue().getTransactionId(),
+				registrationStatusDto.getLatestRegistrationTransactionId());
+		assertEquals(Integer.valueOf(4), registrationStatusDto.getVersion());
+		Mockito.verify(registrationStatusDao, Mockito.never()).findById(any());
+	}
+
+	@Test
+	public void testUpdateRegistrationStatusWriteBehind() {
+		Mockito.when(registrationStatusWriter.isWriteBehind()).thenReturn(true);
+		registrationStatusEntity.setId("1000");
+		registrationStatusEntity.setStatusCode("PROCESSING");
+		Mockito.when(registrationStatusWriter.getPending("1000")).thenReturn(registrationStatusEntity);
+
+		registrationStatusService.updateRegistrationStatus(registrationStatusDto, "", "");
+
+		Mockito.verify(registrationStatusWriter).submit(any(), any(), any());
+		Mockito.verify(registrationStatusWriter, Mockito.never()).write(any(), any(), any());
+		assertEquals("PROCESSING", registrationStatusService.getRegistrationStatus("1000").getStatusCode());
+	}
+
 	@Test(expected = TablenotAccessibleException.class)
 	public void updateRegistrationStatusFailureTest() {
 		DataAccessLayerException exp = new DataAccessLayerException(HibernateErrorCode.ERR_DATABASE.getErrorCode(),
 				"errorMessage", new Exception());
 
-		Mockito.when(registrationStatusDao.save(any())).thenThrow(exp);
+		Mockito.when(registrationStatusWriter.write(any(), any(), any())).thenThrow(exp);
 		registrationStatusService.updateRegistrationStatus(registrationStatusDto, "", "");
 	}
 
@@ -234,6 +274,47 @@ public class RegistrationStatusServiceTest {
 		registrationStatusService.getUnProcessedPacketsCount(21600, 3, statusList);
 	}
 
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void testClaimUnProcessedPackets() {
+		List<String> statusList = new ArrayList<>();
+		statusList.add("SUCCESS");
+		statusList.add("REPROCESS");
+		registrationStatusEntity.setId("1000");
+		registrationStatusEntity.setLatestRegistrationTransactionId("parent");
+		registrationStatusEntity.setLatestTransactionTimes(LocalDateTime.of(2019, 1, 1, 0, 0));
+		Mockito.when(registrationStatusDao.claimUnProcessedPackets(anyInt(), anyLong(), anyInt(), anyList(), any(),
+				any())).thenReturn(entities);
+
+		List<InternalRegistrationStatusDto> dtolist = registrationStatusService.claimUnProcessedPackets(1, 21600, 3,
+				statusList, registrationStatusDto, dto -> dto.setLatestTransactionStatusCode("REPROCESS_FAILED"));
+
+		assertEquals("REPROCESS_FAILED", dtolist.get(0).getLatestTransactionStatusCode());
+		// the key of the next page is the key the packet was claimed with
+		assertEquals(LocalDateTime.of(2019, 1, 1, 0, 0), dtolist.get(0).getLatestTransactionTimes());
+		Mockito.verify(registrationStatusDao).claimUnProcessedPackets(1, 21600, 3, statusList,
+				registrationStatusDto.getLatestTransactionTimes(), "1000");
+		ArgumentCaptor<List> transactions = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(transcationStatusService).addRegistrationTransactions(transactions.capture());
+		TransactionDto transactionDto = (TransactionDto) transactions.getValue().get(0);
+		assertEquals("parent", transactionDto.getParentid());
+		assertEquals("REPROCESS_FAILED", transactionDto.getStatusCode());
+		Mockito.verify(registrationStatusDao).updateAll(any());
+	}
+
+	@Test(expected = TablenotAccessibleException.class)
+	public void claimUnProcessedPacketsFailureTest() {
+		List<String> statusList = new ArrayList<>();
+		statusList.add("SUCCESS");
+		DataAccessLayerException exp = new DataAccessLayerException(HibernateErrorCode.ERR_DATABASE.getErrorCode(),
+				"errorMessage", new Exception());
+		Mockito.when(registrationStatusDao.claimUnProcessedPackets(anyInt(), anyLong(), anyInt(), anyList(), any(),
+				any())).thenThrow(exp);
+
+		registrationStatusService.claimUnProcessedPackets(1, 21600, 3, statusList, null, dto -> {
+		});
+	}
+
 	@Test(expected = TablenotAccessibleException.class)
 	public void getUnProcessedPacketsFailureTest() {
 		List<String> statusList = new ArrayList<>();
@@ -0,0 +1,195 @@
+package io.mosip.registration.processor.status.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.mosip.registration.processor.status.dao.RegistrationStatusDao;
+import io.mosip.registration.processor.status.dto.TransactionDto;
+import io.mosip.registration.processor.status.entity.RegistrationStatusEntity;
+import io.mosip.registration.processor.status.service.impl.RegistrationStatusWriter;
+
+/**
+ * RegistrationStatusWriter test
+ *
+ * @since 1.0.9
+ */
+@SuppressWarnings({ "deprecation", "unchecked", "rawtypes" })
+@RunWith(MockitoJUnitRunner.class)
+public class RegistrationStatusWriterTest {
+
+	@Mock
+	private RegistrationStatusDao registrationStatusDao;
+
+	@Mock
+	private TransactionService<TransactionDto> transactionService;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@InjectMocks
+	private RegistrationStatusWriter writer;
+
+	@Before
+	public void setUp() {
+		ReflectionTestUtils.setField(writer, "capacity", 100);
+		ReflectionTestUtils.setField(writer, "batchSize", 10);
+		ReflectionTestUtils.setField(writer, "flushIntervalMillis", 50L);
+		Mockito.when(registrationStatusDao.updateIfVersionMatches(Matchers.anyList(), Matchers.anyList()))
+				.thenReturn(Collections.emptyList());
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		writer.stop();
+	}
+
+	@Test
+	public void testVersionedWriteWithoutRead() {
+		writer.start();
+		RegistrationStatusEntity entity = entity("1000");
+
+		assertTrue(writer.write(entity, 2, transaction("t1")));
+
+		assertEquals(Integer.valueOf(3), entity.getVersion());
+		Mockito.verify(registrationStatusDao).updateIfVersionMatches(Collections.singletonList(entity),
+				Collections.singletonList(2));
+		Mockito.verify(registrationStatusDao, Mockito.never()).findById(Matchers.any());
+		Mockito.verify(transactionService).addRegistrationTransactions(Matchers.anyList());
+		Mockito.verify(transactionManager).commit(Matchers.any());
+	}
+
+	@Test
+	public void testConflictFallsBackToCurrentRow() {
+		writer.start();
+		RegistrationStatusEntity current = entity("1000");
+		current.setVersion(5);
+		current.setLatestRegistrationTransactionId("t0");
+		Mockito.when(registrationStatusDao.updateIfVersionMatches(Matchers.anyList(), Matchers.anyList()))
+				.thenReturn(Collections.singletonList("1000"));
+		Mockito.when(registrationStatusDao.findById("1000")).thenReturn(current);
+		RegistrationStatusEntity entity = entity("1000");
+		TransactionDto transactionDto = transaction("t1");
+
+		assertTrue(writer.write(entity, 2, transactionDto));
+
+		assertEquals(Integer.valueOf(6), entity.getVersion());
+		assertEquals("t0", transactionDto.getParentid());
+		Mockito.verify(registrationStatusDao).update(entity);
+		assertEquals(1, writer.getConflictCount());
+	}
+
+	@Test
+	public void testMissingRow() {
+		writer.start();
+
+		assertFalse(writer.write(entity("1000"), null, transaction("t1")));
+		Mockito.verify(registrationStatusDao, Mockito.never()).update(Matchers.any());
+	}
+
+	@Test
+	public void testWriteBehindCoalescesUpdates() throws InterruptedException {
+		ReflectionTestUtils.setField(writer, "writeBehind", true);
+		writer.start();
+		assertTrue(writer.isWriteBehind());
+		RegistrationStatusEntity first = entity("1000");
+		RegistrationStatusEntity second = entity("1000");
+		TransactionDto firstTransaction = transaction("t1");
+		TransactionDto secondTransaction = transaction("t2");
+
+		writer.submit(first, 0, firstTransaction);
+		writer.submit(second, 1, secondTransaction);
+		assertTrue(writer.getPending("1000") == second);
+
+		assertTrue(await(() -> writer.getWrittenCount() == 2));
+		ArgumentCaptor<List> rows = ArgumentCaptor.forClass(List.class);
+		ArgumentCaptor<List> expectedVersions = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(registrationStatusDao).updateIfVersionMatches(rows.capture(), expectedVersions.capture());
+		assertEquals(Collections.singletonList(second), rows.getValue());
+		assertEquals(Collections.singletonList(0), expectedVersions.getValue());
+		// the version the second update was made on, as a later read of the row sees it
+		assertEquals(Integer.valueOf(2), second.getVersion());
+		assertEquals("t1", secondTransaction.getParentid());
+		ArgumentCaptor<List> transactions = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(transactionService).addRegistrationTransactions(transactions.capture());
+		assertEquals(2, transactions.getValue().size());
+		assertNull(writer.getPending("1000"));
+	}
+
+	@Test
+	public void testWriteBehindKeepsNewerRow() throws InterruptedException {
+		Mockito.when(registrationStatusDao.updateIfVersionMatches(Matchers.anyList(), Matchers.anyList()))
+				.thenReturn(Collections.singletonList("1000"));
+		ReflectionTestUtils.setField(writer, "writeBehind", true);
+		writer.start();
+
+		writer.submit(entity("1000"), 0, transaction("t1"));
+
+		assertTrue(await(() -> writer.getWrittenCount() == 1));
+		assertEquals(1, writer.getConflictCount());
+		Mockito.verify(registrationStatusDao, Mockito.never()).update(Matchers.any());
+		Mockito.verify(transactionService).addRegistrationTransactions(Collections.emptyList());
+	}
+
+	@Test
+	public void testStopWritesQueuedUpdates() throws InterruptedException {
+		ReflectionTestUtils.setField(writer, "writeBehind", true);
+		ReflectionTestUtils.setField(writer, "flushIntervalMillis", 60_000L);
+		writer.start();
+		List<RegistrationStatusEntity> entities = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			RegistrationStatusEntity entity = entity("100" + i);
+			entities.add(entity);
+			writer.submit(entity, 0, transaction("t" + i));
+		}
+
+		writer.stop();
+
+		assertFalse(writer.isWriteBehind());
+		assertEquals(5, writer.getWrittenCount());
+		Mockito.verify(registrationStatusDao).updateIfVersionMatches(entities, Collections.nCopies(5, 0));
+	}
+
+	private static RegistrationStatusEntity entity(String registrationId) {
+		RegistrationStatusEntity entity = new RegistrationStatusEntity();
+		entity.setId(registrationId);
+		entity.setStatusCode("PROCESSING");
+		return entity;
+	}
+
+	private static TransactionDto transaction(String transactionId) {
+		TransactionDto transactionDto = new TransactionDto();
+		transactionDto.setTransactionId(transactionId);
+		return transactionDto;
+	}
+
+	private static boolean await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				return false;
+			}
+			Thread.sleep(10);
+		}
+		return true;
+	}
+}
@@ -1,15 +1,19 @@
 package io.mosip.registration.processor.status.service;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -18,6 +22,8 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.core.env.Environment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import io.mosip.kernel.core.dataaccess.exception.DataAccessLayerException;
 import io.mosip.kernel.core.exception.IOException;
@@ -106,6 +112,9 @@ public class SyncRegistrationServiceTest {
 	@Mock
 	LogDescription description;
 
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
 	/**
 	 * Setup.
 	 *
@@ -524,4 +533,66 @@ public class SyncRegistrationServiceTest {
 
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testBulkSyncSuccess() {
+		enableBulkSync();
+		Mockito.when(syncRegistrationDao.getByIds(any(), anyInt())).thenReturn(syncRegistrationEntities);
+		SyncRegistrationDto invalidRegistration = syncRegistrationDto("27847657360002520181208183059",
+				SyncTypeDto.NEW.getValue());
+		invalidRegistration.setLangCode("ENGLISH");
+		List<SyncRegistrationDto> registrations = Arrays.asList(
+				syncRegistrationDto(syncRegistrationEntity.getRegistrationId(), SyncTypeDto.UPDATE.getValue()),
+				invalidRegistration, syncRegistrationDto("27847657360002520181208183060", SyncTypeDto.NEW.getValue()),
+				syncRegistrationDto("27847657360002520181208183060", SyncTypeDto.UPDATE.getValue()));
+
+		List<SyncResponseDto> syncResponse = syncRegistrationService.sync(registrations);
+
+		assertEquals(4, syncResponse.size());
+		assertEquals("SUCCESS", syncResponse.get(0).getStatus());
+		assertEquals("FAILURE", syncResponse.get(1).getStatus());
+		ArgumentCaptor<List> upserted = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(syncRegistrationDao).upsertAll(upserted.capture());
+		List<SyncRegistrationEntity> rows = upserted.getValue();
+		assertEquals(3, rows.size());
+		assertEquals(syncRegistrationEntity.getId(), rows.get(0).getId());
+		assertEquals(syncRegistrationEntity.getCreateDateTime(), rows.get(0).getCreateDateTime());
+		assertNotEquals(syncRegistrationEntity.getId(), rows.get(1).getId());
+		assertEquals(rows.get(1).getId(), rows.get(2).getId());
+		Mockito.verify(syncRegistrationDao).getByIds(any(), anyInt());
+		Mockito.verify(syncRegistrationDao, Mockito.never()).findById(any());
+		Mockito.verify(syncRegistrationDao, Mockito.never()).save(any());
+		Mockito.verify(auditLogRequestBuilder).createAuditRequestBuilder(any(), any(), any(), any(), any(), any(),
+				any());
+	}
+
+	@Test(expected = TablenotAccessibleException.class)
+	public void testBulkSyncFailure() {
+		enableBulkSync();
+		DataAccessLayerException exp = new DataAccessLayerException(HibernateErrorCode.ERR_DATABASE.getErrorCode(),
+				"errorMessage", new Exception());
+		Mockito.doThrow(exp).when(syncRegistrationDao).upsertAll(any());
+
+		syncRegistrationService.sync(Arrays
+				.asList(syncRegistrationDto("27847657360002520181208183060", SyncTypeDto.NEW.getValue())));
+	}
+
+	private void enableBulkSync() {
+		ReflectionTestUtils.setField(syncRegistrationService, "bulkEnabled", true);
+		ReflectionTestUtils.setField(syncRegistrationService, "chunkSize", 500);
+		((SyncRegistrationServiceImpl) syncRegistrationService).init();
+	}
+
+	private SyncRegistrationDto syncRegistrationDto(String registrationId, String syncType) {
+		SyncRegistrationDto registrationDto = new SyncRegistrationDto();
+		registrationDto.setRegistrationId(registrationId);
+		registrationDto.setLangCode("eng");
+		registrationDto.setIsActive(true);
+		registrationDto.setIsDeleted(false);
+		registrationDto.setSyncType(syncType);
+		registrationDto.setPacketHashValue("ab123");
+		registrationDto.setSupervisorStatus("APPROVED");
+		return registrationDto;
+	}
+
 }
\ No newline at end of file
@@ -19,6 +19,7 @@ import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessor
 import io.mosip.registration.processor.core.util.ServerUtil;
 import io.mosip.registration.processor.rest.client.audit.dto.AuditRequestDto;
 import io.mosip.registration.processor.rest.client.audit.dto.AuditResponseDto;
+import io.mosip.registration.processor.rest.client.audit.sender.AsyncAuditLogSender;
 
 /**
  * The Class AuditRequestBuilder.
@@ -38,6 +39,10 @@ public class AuditLogRequestBuilder {
 	@Autowired
 	private Environment env;
 
+	/** The async sender, audits are posted inline without it. */
+	@Autowired(required = false)
+	private AsyncAuditLogSender asyncAuditLogSender;
+
 	private static final String AUDIT_SERVICE_ID = "mosip.registration.processor.audit.id";
 	private static final String REG_PROC_APPLICATION_VERSION = "mosip.registration.processor.application.version";
 	private static final String DATETIME_PATTERN = "mosip.registration.processor.datetime.pattern";
@@ -57,7 +62,6 @@ public class AuditLogRequestBuilder {
 	 *            the registration id
 	 * @return the audit response dto
 	 */
-	@SuppressWarnings("unchecked")
 	public ResponseWrapper<AuditResponseDto> createAuditRequestBuilder(String description, String eventId,
 			String eventName, String eventType, String registrationId, ApiName apiname) {
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
@@ -65,36 +69,11 @@ public class AuditLogRequestBuilder {
 				"AuditLogRequestBuilder:: createAuditRequestBuilder(String description, String eventId, String eventName, String eventType,\r\n"
 						+ "			String registrationId, ApiName apiname)::entry");
 
-		AuditRequestDto auditRequestDto = new AuditRequestDto();
-		RequestWrapper<AuditRequestDto> requestWrapper = new RequestWrapper<>();
 		ResponseWrapper<AuditResponseDto> responseWrapper = new ResponseWrapper<>();
 		try {
-			auditRequestDto.setDescription(description);
-			auditRequestDto.setActionTimeStamp(DateUtils.getUTCCurrentDateTimeString());
-			auditRequestDto.setApplicationId(AuditLogConstant.MOSIP_4.toString());
-			auditRequestDto.setApplicationName(AuditLogConstant.REGISTRATION_PROCESSOR.toString());
-			auditRequestDto.setCreatedBy(AuditLogConstant.SYSTEM.toString());
-			auditRequestDto.setEventId(eventId);
-			auditRequestDto.setEventName(eventName);
-			auditRequestDto.setEventType(eventType);
-			auditRequestDto.setHostIp(ServerUtil.getServerUtilInstance().getServerIp());
-			auditRequestDto.setHostName(ServerUtil.getServerUtilInstance().getServerName());
-			auditRequestDto.setId(registrationId);
-			auditRequestDto.setIdType(AuditLogConstant.REGISTRATION_ID.toString());
-			auditRequestDto.setModuleId(null);
-			auditRequestDto.setModuleName(null);
-			auditRequestDto.setSessionUserId(AuditLogConstant.SYSTEM.toString());
-			auditRequestDto.setSessionUserName(null);
-			requestWrapper.setId(env.getProperty(AUDIT_SERVICE_ID));
-			requestWrapper.setMetadata(null);
-			requestWrapper.setRequest(auditRequestDto);
-			DateTimeFormatter format = DateTimeFormatter.ofPattern(env.getProperty(DATETIME_PATTERN));
-			LocalDateTime localdatetime = LocalDateTime
-					.parse(DateUtils.getUTCCurrentDateTimeString(env.getProperty(DATETIME_PATTERN)), format);
-			requestWrapper.setRequesttime(localdatetime);
-			requestWrapper.setVersion(env.getProperty(REG_PROC_APPLICATION_VERSION));
-			responseWrapper = (ResponseWrapper<AuditResponseDto>) registrationProcessorRestService.postApi(apiname, "",
-					"", requestWrapper, ResponseWrapper.class);
+			RequestWrapper<AuditRequestDto> requestWrapper = buildAuditRequest(description, eventId, eventName,
+					eventType, null, null, registrationId);
+			responseWrapper = send(apiname, requestWrapper);
 		} catch (ApisResourceAccessException arae) {
 
 			regProcLogger.error(arae.getMessage());
@@ -108,7 +87,6 @@ public class AuditLogRequestBuilder {
 		return responseWrapper;
 	}
 
-	@SuppressWarnings("unchecked")
 	public ResponseWrapper<AuditResponseDto> createAuditRequestBuilder(String description, String eventId,
 			String eventName, String eventType, String moduleId, String moduleName, String registrationId) {
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
@@ -116,40 +94,12 @@ public class AuditLogRequestBuilder {
 				"AuditLogRequestBuilder:: createAuditRequestBuilder(String description, String eventId, String eventName, String eventType,String moduleId,String moduleName,\r\n"
 						+ "			String registrationId)::entry");
 
-		AuditRequestDto auditRequestDto;
-		RequestWrapper<AuditRequestDto> requestWrapper = new RequestWrapper<>();
 		ResponseWrapper<AuditResponseDto> responseWrapper = new ResponseWrapper<>();
 
 		try {
-
-			auditRequestDto = new AuditRequestDto();
-			auditRequestDto.setDescription(description);
-			auditRequestDto.setActionTimeStamp(DateUtils.getUTCCurrentDateTimeString());
-			auditRequestDto.setApplicationId(AuditLogConstant.MOSIP_4.toString());
-			auditRequestDto.setApplicationName(AuditLogConstant.REGISTRATION_PROCESSOR.toString());
-			auditRequestDto.setCreatedBy(AuditLogConstant.SYSTEM.toString());
-			auditRequestDto.setEventId(eventId);
-			auditRequestDto.setEventName(eventName);
-			auditRequestDto.setEventType(eventType);
-			auditRequestDto.setHostIp(ServerUtil.getServerUtilInstance().getServerIp());
-			auditRequestDto.setHostName(ServerUtil.getServerUtilInstance().getServerName());
-			auditRequestDto.setId(registrationId);
-			auditRequestDto.setIdType(AuditLogConstant.REGISTRATION_ID.toString());
-			auditRequestDto.setModuleId(moduleId);
-			auditRequestDto.setModuleName(moduleName);
-			auditRequestDto.setSessionUserId(AuditLogConstant.SYSTEM.toString());
-			auditRequestDto.setSessionUserName(null);
-			requestWrapper.setId(env.getProperty(AUDIT_SERVICE_ID));
-			requestWrapper.setMetadata(null);
-			requestWrapper.setRequest(auditRequestDto);
-			DateTimeFormatter format = DateTimeFormatter.ofPattern(env.getProperty(DATETIME_PATTERN));
-			LocalDateTime localdatetime = LocalDateTime
-					.parse(DateUtils.getUTCCurrentDateTimeString(env.getProperty(DATETIME_PATTERN)), format);
-			requestWrapper.setRequesttime(localdatetime);
-			requestWrapper.setVersion(env.getProperty(REG_PROC_APPLICATION_VERSION));
-			responseWrapper = (ResponseWrapper<AuditResponseDto>) registrationProcessorRestService
-					.postApi(ApiName.AUDIT, "", "", requestWrapper, ResponseWrapper.class);
-
+			RequestWrapper<AuditRequestDto> requestWrapper = buildAuditRequest(description, eventId, eventName,
+					eventType, moduleId, moduleName, registrationId);
+			responseWrapper = send(ApiName.AUDIT, requestWrapper);
 		} catch (ApisResourceAccessException arae) {
 
 			regProcLogger.error(arae.getMessage());
@@ -163,4 +113,50 @@ public class AuditLogRequestBuilder {
 		return responseWrapper;
 	}
 
+	/**
+	 * Hands the request to the async sender when it is running, otherwise
+	 * posts it. Queued requests get an empty response, like failed ones.
+	 */
+	@SuppressWarnings("unchecked")
+	private ResponseWrapper<AuditResponseDto> send(ApiName apiname, RequestWrapper<AuditRequestDto> requestWrapper)
+			throws ApisResourceAccessException {
+		if (asyncAuditLogSender != null && asyncAuditLogSender.isEnabled()) {
+			asyncAuditLogSender.submit(apiname, requestWrapper);
+			return new ResponseWrapper<>();
+		}
+		return (ResponseWrapper<AuditResponseDto>) registrationProcessorRestService.postApi(apiname, "", "",
+				requestWrapper, ResponseWrapper.class);
+	}
+
+	private RequestWrapper<AuditRequestDto> buildAuditRequest(String description, String eventId, String eventName,
+			String eventType, String moduleId, String moduleName, String registrationId) {
+		AuditRequestDto auditRequestDto = new AuditRequestDto();
+		auditRequestDto.setDescription(description);
+		auditRequestDto.setActionTimeStamp(DateUtils.getUTCCurrentDateTimeString());
+		auditRequestDto.setApplicationId(AuditLogConstant.MOSIP_4.toString());
+		auditRequestDto.setApplicationName(AuditLogConstant.REGISTRATION_PROCESSOR.toString());
+		auditRequestDto.setCreatedBy(AuditLogConstant.SYSTEM.toString());
+		auditRequestDto.setEventId(eventId);
+		auditRequestDto.setEventName(eventName);
+		auditRequestDto.setEventType(eventType);
+		auditRequestDto.setHostIp(ServerUtil.getServerUtilInstance().getServerIp());
+		auditRequestDto.setHostName(ServerUtil.getServerUtilInstance().getServerName());
+		auditRequestDto.setId(registrationId);
+		auditRequestDto.setIdType(AuditLogConstant.REGISTRATION_ID.toString());
+		auditRequestDto.setModuleId(moduleId);
+		auditRequestDto.setModuleName(moduleName);
+		auditRequestDto.setSessionUserId(AuditLogConstant.SYSTEM.toString());
+		auditRequestDto.setSessionUserName(null);
+		RequestWrapper<AuditRequestDto> requestWrapper = new RequestWrapper<>();
+		requestWrapper.setId(env.getProperty(AUDIT_SERVICE_ID));
+		requestWrapper.setMetadata(null);
+		requestWrapper.setRequest(auditRequestDto);
+		DateTimeFormatter format = DateTimeFormatter.ofPattern(env.getProperty(DATETIME_PATTERN));
+		LocalDateTime localdatetime = LocalDateTime
+				.parse(DateUtils.getUTCCurrentDateTimeString(env.getProperty(DATETIME_PATTERN)), format);
+		requestWrapper.setRequesttime(localdatetime);
+		requestWrapper.setVersion(env.getProperty(REG_PROC_APPLICATION_VERSION));
+		return requestWrapper;
+	}
+
 }
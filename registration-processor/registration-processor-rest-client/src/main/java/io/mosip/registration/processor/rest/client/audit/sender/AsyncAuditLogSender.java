@@ -0,0 +1,556 @@
+package io.mosip.registration.processor.rest.client.audit.sender;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.code.ApiName;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.http.RequestWrapper;
+import io.mosip.registration.processor.core.http.ResponseWrapper;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+import io.mosip.registration.processor.rest.client.audit.dto.AuditRequestDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sends audit events in the background so that the caller does not wait for
+ * the audit service. Events go into a bounded queue drained by a single sender
+ * thread. The sender flushes when a batch is full or the flush interval has
+ * passed since the first event of the batch. The audit api takes one event per
+ * request, so a batch is posted back to back over the pooled connection.
+ *
+ * When the queue is full the overflow policy applies: SPILL appends the event
+ * to a journal file, BLOCK waits up to the block timeout and then drops,
+ * DROP_NEWEST drops the event and DROP_OLDEST drops the oldest queued one.
+ * Events whose send fails, and events still queued at shutdown, go to the
+ * journal too. The journal is replayed once the queue has room again,
+ * including after a restart. An event whose send has failed max-attempts times
+ * is moved to the dead letter file next to the journal instead, which is never
+ * replayed, so that an event the audit service cannot take does not circle
+ * through the journal forever.
+ *
+ * Each application has its own journal in the journal directory, and a
+ * process holds a file lock on the journal it uses for as long as it runs.
+ * A second process of the same application on the host takes the next free
+ * journal instead, so processes never write or replay each other's entries.
+ *
+ * @since 1.0.9
+ */
+public class AsyncAuditLogSender {
+
+	/** The reg proc logger. */
+	private static final Logger regProcLogger = RegProcessorLogger.getLogger(AsyncAuditLogSender.class);
+
+	private static final String JOURNAL_FILE_PREFIX = "audit-journal-";
+
+	private static final String DEAD_LETTER_FILE_PREFIX = "audit-dead-letter-";
+
+	private static final String JOURNAL_FILE_SUFFIX = ".jsonl";
+
+	/** Journals of one application tried before giving up. */
+	private static final int MAX_JOURNALS = 64;
+
+	private static final String METRIC_PREFIX = "regproc.audit.";
+
+	/**
+	 * What to do with an event when the queue is full.
+	 */
+	public enum OverflowPolicy {
+		SPILL, BLOCK, DROP_NEWEST, DROP_OLDEST
+	}
+
+	/** The registration processor rest service. */
+	@Autowired
+	private RegistrationProcessorRestClientService<Object> registrationProcessorRestService;
+
+	/** The meter registry. */
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	@Value("${registration.processor.audit.async.enabled:true}")
+	private boolean enabled;
+
+	@Value("${registration.processor.audit.async.capacity:10000}")
+	private int capacity;
+
+	@Value("${registration.processor.audit.async.batch-size:100}")
+	private int batchSize;
+
+	@Value("${registration.processor.audit.async.flush-interval-ms:1000}")
+	private long flushIntervalMillis;
+
+	@Value("${registration.processor.audit.async.overflow-policy:SPILL}")
+	private String overflowPolicyName;
+
+	@Value("${registration.processor.audit.async.block-timeout-ms:100}")
+	private long blockTimeoutMillis;
+
+	/** Failed sends of an event before it goes to the dead letter file. */
+	@Value("${registration.processor.audit.async.max-attempts:10}")
+	private int maxAttempts;
+
+	/** Defaults to regproc-audit under java.io.tmpdir. */
+	@Value("${registration.processor.audit.async.journal-dir:}")
+	private String journalDir;
+
+	@Value("${spring.application.name:registration-processor}")
+	private String applicationName = "registration-processor";
+
+	private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+	private final AtomicLong sentCount = new AtomicLong();
+
+	private final AtomicLong failedCount = new AtomicLong();
+
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	private final AtomicLong spilledCount = new AtomicLong();
+
+	private final AtomicLong deadLetteredCount = new AtomicLong();
+
+	/** Events in the journal. */
+	private final AtomicLong journalSize = new AtomicLong();
+
+	private final Object journalLock = new Object();
+
+	private OverflowPolicy overflowPolicy;
+
+	private BlockingQueue<AuditEvent> queue;
+
+	private Path journal;
+
+	private Path deadLetters;
+
+	private FileChannel journalLockChannel;
+
+	private FileLock journalFileLock;
+
+	private Timer sendTimer;
+
+	private Thread senderThread;
+
+	private volatile boolean running;
+
+	/**
+	 * Starts the sender thread, if enabled.
+	 *
+	 * @throws IOException
+	 *             if no journal could be opened and locked
+	 */
+	@PostConstruct
+	public void start() throws IOException {
+		if (!enabled) {
+			return;
+		}
+		overflowPolicy = OverflowPolicy.valueOf(overflowPolicyName.trim().toUpperCase(Locale.ROOT));
+		queue = new ArrayBlockingQueue<>(capacity);
+		Path dir = journalDir == null || journalDir.isEmpty()
+				? Paths.get(System.getProperty("java.io.tmpdir"), "regproc-audit")
+				: Paths.get(journalDir);
+		Files.createDirectories(dir);
+		journal = lockJournal(dir);
+		deadLetters = journal.resolveSibling(
+				DEAD_LETTER_FILE_PREFIX + journal.getFileName().toString().substring(JOURNAL_FILE_PREFIX.length()));
+		if (Files.exists(journal)) {
+			try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+				journalSize.set(reader.lines().filter(line -> !line.isEmpty()).count());
+			}
+		}
+		if (meterRegistry != null) {
+			bindTo(meterRegistry);
+		}
+		running = true;
+		senderThread = new Thread(this::run, "audit-sender");
+		senderThread.setDaemon(true);
+		senderThread.start();
+	}
+
+	/**
+	 * Stops the sender thread. Events still queued are written to the journal.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for the sender
+	 */
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		if (!running) {
+			return;
+		}
+		running = false;
+		senderThread.interrupt();
+		senderThread.join(TimeUnit.SECONDS.toMillis(10));
+		List<AuditEvent> remaining = new ArrayList<>();
+		queue.drainTo(remaining);
+		spill(remaining);
+		try {
+			journalFileLock.release();
+			journalLockChannel.close();
+		} catch (IOException e) {
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					LoggerFileConstant.APPLICATIONID.toString(),
+					"AsyncAuditLogSender::stop()::journal unlock failed " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Whether events are sent in the background.
+	 *
+	 * @return true if started
+	 */
+	public boolean isEnabled() {
+		return running;
+	}
+
+	/**
+	 * Queues the event. Never blocks longer than the block timeout.
+	 *
+	 * @param apiName
+	 *            the audit api
+	 * @param auditRequest
+	 *            the audit request
+	 * @return false if the event was dropped
+	 */
+	public boolean submit(ApiName apiName, RequestWrapper<AuditRequestDto> auditRequest) {
+		AuditEvent event = new AuditEvent(apiName, auditRequest, 0);
+		if (queue.offer(event)) {
+			return true;
+		}
+		switch (overflowPolicy) {
+		case SPILL:
+			List<AuditEvent> events = new ArrayList<>(1);
+			events.add(event);
+			return spill(events);
+		case BLOCK:
+			try {
+				if (queue.offer(event, blockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+					return true;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			break;
+		case DROP_OLDEST:
+			while (!queue.offer(event)) {
+				if (queue.poll() != null) {
+					droppedCount.incrementAndGet();
+				}
+			}
+			return true;
+		default:
+			break;
+		}
+		droppedCount.incrementAndGet();
+		return false;
+	}
+
+	public int getQueueDepth() {
+		return queue == null ? 0 : queue.size();
+	}
+
+	public long getJournalSize() {
+		return journalSize.get();
+	}
+
+	public long getSentCount() {
+		return sentCount.get();
+	}
+
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	public long getSpilledCount() {
+		return spilledCount.get();
+	}
+
+	public long getDeadLetteredCount() {
+		return deadLetteredCount.get();
+	}
+
+	/**
+	 * Locks the first journal of this application that no other process holds.
+	 * A journal left behind by a process that has exited is unlocked, so it is
+	 * picked up and replayed by the next process that starts.
+	 */
+	private Path lockJournal(Path dir) throws IOException {
+		String name = applicationName.split(",")[0].trim().replaceAll("[^A-Za-z0-9._-]", "_");
+		for (int i = 0; i < MAX_JOURNALS; i++) {
+			String fileName = JOURNAL_FILE_PREFIX + name + (i == 0 ? "" : "-" + i) + JOURNAL_FILE_SUFFIX;
+			FileChannel channel = FileChannel.open(dir.resolve(fileName + ".lock"), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE);
+			FileLock lock = null;
+			try {
+				lock = channel.tryLock();
+			} catch (OverlappingFileLockException e) {
+				// held by another sender in this JVM
+			}
+			if (lock != null) {
+				journalLockChannel = channel;
+				journalFileLock = lock;
+				return dir.resolve(fileName);
+			}
+			channel.close();
+		}
+		throw new IOException("No free audit journal in " + dir);
+	}
+
+	private void bindTo(MeterRegistry registry) {
+		Gauge.builder(METRIC_PREFIX + "queue.depth", this, AsyncAuditLogSender::getQueueDepth)
+				.description("Audit events waiting to be sent").register(registry);
+		Gauge.builder(METRIC_PREFIX + "journal.size", journalSize, AtomicLong::doubleValue)
+				.description("Audit events spilled to the journal").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + "events", sentCount, AtomicLong::doubleValue).tag("result", "sent")
+				.register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + "events", failedCount, AtomicLong::doubleValue)
+				.tag("result", "failed").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + "events", droppedCount, AtomicLong::doubleValue)
+				.tag("result", "dropped").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + "events", spilledCount, AtomicLong::doubleValue)
+				.tag("result", "spilled").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + "events", deadLetteredCount, AtomicLong::doubleValue)
+				.tag("result", "dead-lettered").register(registry);
+		sendTimer = Timer.builder(METRIC_PREFIX + "send.latency").description("Audit service response time")
+				.register(registry);
+	}
+
+	private void run() {
+		List<AuditEvent> batch = new ArrayList<>(batchSize);
+		while (running) {
+			try {
+				collect(batch);
+				if (batch.size() < batchSize && journalSize.get() > 0
+						&& queue.remainingCapacity() > capacity / 2) {
+					batch.addAll(replay(batchSize - batch.size()));
+				}
+				if (!batch.isEmpty()) {
+					send(batch);
+				}
+			} catch (InterruptedException e) {
+				// woken up by stop(), the loop condition ends the thread
+			} catch (RuntimeException e) {
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+						LoggerFileConstant.APPLICATIONID.toString(),
+						"AsyncAuditLogSender::run()::" + e.getMessage() + ExceptionUtils.getStackTrace(e));
+			} finally {
+				if (!batch.isEmpty()) {
+					// interrupted or failed mid batch
+					spill(batch);
+					batch.clear();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Waits for the first event, then collects until the batch is full or the
+	 * flush interval has passed.
+	 */
+	private void collect(List<AuditEvent> batch) throws InterruptedException {
+		AuditEvent first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+		if (first == null) {
+			return;
+		}
+		batch.add(first);
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+		while (batch.size() < batchSize) {
+			if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+				continue;
+			}
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				return;
+			}
+			AuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+			if (next == null) {
+				return;
+			}
+			batch.add(next);
+		}
+	}
+
+	/**
+	 * Posts the batch. On failure the rest of the batch stays in it, and is
+	 * spilled by the caller, and the sender backs off for a flush interval. The
+	 * failed event goes to the dead letter file once it has used its attempts.
+	 */
+	@SuppressWarnings("unchecked")
+	private void send(List<AuditEvent> batch) throws InterruptedException {
+		while (!batch.isEmpty()) {
+			AuditEvent event = batch.get(0);
+			long start = System.nanoTime();
+			try {
+				ResponseWrapper<Object> response = (ResponseWrapper<Object>) registrationProcessorRestService
+						.postApi(event.getApiName(), "", "", event.getRequest(), ResponseWrapper.class);
+				if (response != null && response.getErrors() != null && !response.getErrors().isEmpty()) {
+					regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
+							LoggerFileConstant.REGISTRATIONID.toString(), event.getRequest().getRequest().getId(),
+							"AsyncAuditLogSender::send()::audit rejected " + response.getErrors());
+				}
+			} catch (ApisResourceAccessException e) {
+				failedCount.incrementAndGet();
+				event.setAttempts(event.getAttempts() + 1);
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.REGISTRATIONID.toString(), event.getRequest().getRequest().getId(),
+						"AsyncAuditLogSender::send()::attempt " + event.getAttempts() + " failed " + e.getMessage());
+				if (event.getAttempts() >= maxAttempts) {
+					batch.remove(0);
+					deadLetter(event);
+				}
+				Thread.sleep(flushIntervalMillis);
+				return;
+			} finally {
+				if (sendTimer != null) {
+					sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				}
+			}
+			batch.remove(0);
+			sentCount.incrementAndGet();
+		}
+	}
+
+	private boolean spill(List<AuditEvent> events) {
+		if (events.isEmpty()) {
+			return true;
+		}
+		synchronized (journalLock) {
+			if (!append(journal, events)) {
+				droppedCount.addAndGet(events.size());
+				return false;
+			}
+			journalSize.addAndGet(events.size());
+			spilledCount.addAndGet(events.size());
+			return true;
+		}
+	}
+
+	/**
+	 * Moves an event that has used its attempts out of the way of the others.
+	 */
+	private void deadLetter(AuditEvent event) {
+		List<AuditEvent> events = new ArrayList<>(1);
+		events.add(event);
+		synchronized (journalLock) {
+			if (append(deadLetters, events)) {
+				deadLetteredCount.incrementAndGet();
+			} else {
+				droppedCount.incrementAndGet();
+			}
+		}
+	}
+
+	private boolean append(Path file, List<AuditEvent> events) {
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND)) {
+			for (AuditEvent event : events) {
+				writer.write(mapper.writeValueAsString(event));
+				writer.newLine();
+			}
+			return true;
+		} catch (IOException e) {
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					LoggerFileConstant.APPLICATIONID.toString(),
+					"AsyncAuditLogSender::append()::" + file.getFileName() + " write failed " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Takes up to max events off the head of the journal.
+	 */
+	private List<AuditEvent> replay(int max) {
+		List<AuditEvent> events = new ArrayList<>(max);
+		synchronized (journalLock) {
+			Path rest = journal.resolveSibling(journal.getFileName() + ".tmp");
+			long kept = 0;
+			try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8);
+					BufferedWriter writer = Files.newBufferedWriter(rest, StandardCharsets.UTF_8)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (line.isEmpty()) {
+						continue;
+					}
+					if (events.size() < max) {
+						try {
+							events.add(mapper.readValue(line, AuditEvent.class));
+						} catch (IOException e) {
+							droppedCount.incrementAndGet();
+							regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
+									LoggerFileConstant.APPLICATIONID.toString(),
+									LoggerFileConstant.APPLICATIONID.toString(),
+									"AsyncAuditLogSender::replay()::unreadable journal entry dropped " + e.getMessage());
+						}
+					} else {
+						writer.write(line);
+						writer.newLine();
+						kept++;
+					}
+				}
+			} catch (IOException e) {
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+						LoggerFileConstant.APPLICATIONID.toString(),
+						"AsyncAuditLogSender::replay()::journal read failed " + e.getMessage());
+				return new ArrayList<>();
+			}
+			try {
+				Files.move(rest, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+						LoggerFileConstant.APPLICATIONID.toString(),
+						"AsyncAuditLogSender::replay()::journal rewrite failed " + e.getMessage());
+				return new ArrayList<>();
+			}
+			journalSize.set(kept);
+		}
+		return events;
+	}
+
+	/**
+	 * A queued audit request, the api it goes to and its failed sends.
+	 */
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class AuditEvent {
+		private ApiName apiName;
+		private RequestWrapper<AuditRequestDto> request;
+		private int attempts;
+	}
+}
@@ -0,0 +1,370 @@
+package io.mosip.registration.processor.rest.client.cache;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.code.ApiName;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.http.ResponseWrapper;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+
+/**
+ * Bounded cache of master data lookups, keyed by api, path segments, query
+ * parameter and response type, so that the validator stages call master data
+ * once for the centers, machines, devices and attribute values that every
+ * packet repeats. A response is mapped to its type once, when it is loaded,
+ * and is shared by every caller afterwards, so callers must not modify it.
+ *
+ * Responses carrying errors, and client errors (4xx) of the api, are cached as
+ * negative results with their own, shorter TTL. Other failures are not cached.
+ * Concurrent misses for a key load it once, entries are evicted in LRU order.
+ *
+ * Properties, all optional:
+ *
+ * <pre>
+ * registration.processor.masterdata.cache.enabled                     (true)
+ * registration.processor.masterdata.cache.max-entries                 (10000)
+ * registration.processor.masterdata.cache.ttl-seconds                 (300)
+ * registration.processor.masterdata.cache.negative-ttl-seconds        (30)
+ * registration.processor.masterdata.cache.&lt;ApiName&gt;.ttl-seconds           0 to not cache the api
+ * registration.processor.masterdata.cache.&lt;ApiName&gt;.negative-ttl-seconds
+ * </pre>
+ *
+ * @since 1.0.9
+ */
+public class MasterDataCache {
+
+	private static Logger regProcLogger = RegProcessorLogger.getLogger(MasterDataCache.class);
+
+	private static final String PROPERTY_PREFIX = "registration.processor.masterdata.cache.";
+
+	private static final String METRIC_PREFIX = "regproc.masterdata.cache.";
+
+	@Autowired
+	private RegistrationProcessorRestClientService<Object> registrationProcessorRestService;
+
+	@Autowired
+	private Environment env;
+
+	/** The meter registry. */
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	@Value("${registration.processor.masterdata.cache.enabled:true}")
+	private boolean enabled;
+
+	@Value("${registration.processor.masterdata.cache.max-entries:10000}")
+	private int maxEntries;
+
+	@Value("${registration.processor.masterdata.cache.ttl-seconds:300}")
+	private long ttlSeconds;
+
+	@Value("${registration.processor.masterdata.cache.negative-ttl-seconds:30}")
+	private long negativeTtlSeconds;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	/** Entries in access order, guarded by itself. */
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/** Per key locks so that concurrent misses call master data only once. */
+	private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+	private final Map<ApiName, ApiStats> apiStats = new ConcurrentHashMap<>();
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	private volatile MeterRegistry registry;
+
+	public MasterDataCache() {
+	}
+
+	public MasterDataCache(RegistrationProcessorRestClientService<Object> registrationProcessorRestService,
+			Environment env, int maxEntries, long ttlSeconds, long negativeTtlSeconds) {
+		this.registrationProcessorRestService = registrationProcessorRestService;
+		this.env = env;
+		this.enabled = true;
+		this.maxEntries = maxEntries;
+		this.ttlSeconds = ttlSeconds;
+		this.negativeTtlSeconds = negativeTtlSeconds;
+	}
+
+	/**
+	 * Registers the meters, if there is a registry.
+	 */
+	@PostConstruct
+	public void init() {
+		if (meterRegistry != null) {
+			bindTo(meterRegistry);
+		}
+	}
+
+	/**
+	 * Gets the master data response of the api, from the cache or by calling
+	 * the api on a miss.
+	 *
+	 * @param apiName
+	 *            the api name
+	 * @param pathSegments
+	 *            the path segments
+	 * @param queryParamName
+	 *            the query param name
+	 * @param queryParam
+	 *            the query param
+	 * @param responseType
+	 *            the type the response is mapped to
+	 * @return the response wrapper, shared with the other callers
+	 * @throws ApisResourceAccessException
+	 *             if the api could not be called, or answered with a client
+	 *             error
+	 * @throws IOException
+	 *             if the response could not be mapped to its type
+	 */
+	public <T> ResponseWrapper<T> getApi(ApiName apiName, List<String> pathSegments, String queryParamName,
+			String queryParam, Class<T> responseType) throws ApisResourceAccessException, IOException {
+		ApiStats stats = getApiStats(apiName);
+		if (!enabled || maxEntries <= 0 || stats.ttlMillis <= 0) {
+			return load(apiName, pathSegments, queryParamName, queryParam, responseType, stats).get(responseType);
+		}
+		String key = key(apiName, pathSegments, queryParamName, queryParam, responseType);
+		Entry entry = lookup(key);
+		if (entry == null) {
+			Object lock = loadLocks.computeIfAbsent(key, k -> new Object());
+			synchronized (lock) {
+				try {
+					entry = lookup(key);
+					if (entry == null) {
+						stats.missCount.incrementAndGet();
+						entry = load(apiName, pathSegments, queryParamName, queryParam, responseType, stats);
+						store(key, entry);
+						return entry.get(responseType);
+					}
+				} finally {
+					loadLocks.remove(key, lock);
+				}
+			}
+		}
+		stats.hitCount.incrementAndGet();
+		return entry.get(responseType);
+	}
+
+	/**
+	 * Evicts every entry.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public long getHitCount(ApiName apiName) {
+		return getApiStats(apiName).hitCount.get();
+	}
+
+	public long getMissCount(ApiName apiName) {
+		return getApiStats(apiName).missCount.get();
+	}
+
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	/**
+	 * Registers the size gauge, the eviction counter and, per api, the hit and
+	 * miss counters.
+	 *
+	 * @param registry
+	 *            the meter registry
+	 */
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder(METRIC_PREFIX + "size", this, MasterDataCache::size)
+				.description("Master data responses cached").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + "evictions", evictionCount, AtomicLong::doubleValue)
+				.description("Master data responses evicted before they expired").register(registry);
+		this.registry = registry;
+		apiStats.forEach((apiName, stats) -> stats.bindTo(apiName, registry));
+	}
+
+	private ApiStats getApiStats(ApiName apiName) {
+		return apiStats.computeIfAbsent(apiName, this::createApiStats);
+	}
+
+	private ApiStats createApiStats(ApiName apiName) {
+		String apiPrefix = PROPERTY_PREFIX + apiName.name() + ".";
+		long apiTtlSeconds = env.getProperty(apiPrefix + "ttl-seconds", Long.class, ttlSeconds);
+		long apiNegativeTtlSeconds = env.getProperty(apiPrefix + "negative-ttl-seconds", Long.class,
+				Math.min(negativeTtlSeconds, apiTtlSeconds));
+		ApiStats stats = new ApiStats(TimeUnit.SECONDS.toMillis(apiTtlSeconds),
+				TimeUnit.SECONDS.toMillis(apiNegativeTtlSeconds));
+		MeterRegistry meters = registry;
+		if (meters != null) {
+			stats.bindTo(apiName, meters);
+		}
+		return stats;
+	}
+
+	private <T> Entry load(ApiName apiName, List<String> pathSegments, String queryParamName, String queryParam,
+			Class<T> responseType, ApiStats stats) throws ApisResourceAccessException, IOException {
+		ResponseWrapper<?> responseWrapper;
+		try {
+			responseWrapper = (ResponseWrapper<?>) registrationProcessorRestService.getApi(apiName, pathSegments,
+					queryParamName, queryParam, ResponseWrapper.class);
+		} catch (ApisResourceAccessException e) {
+			if (e.getCause() instanceof HttpClientErrorException) {
+				regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+						apiName.name(), "MasterDataCache::load()::client error cached " + e.getMessage());
+				return new Entry(null, e, stats.negativeTtlMillis);
+			}
+			throw e;
+		}
+		if (responseWrapper == null) {
+			return new Entry(null, null, 0);
+		}
+		ResponseWrapper<T> typed = new ResponseWrapper<>();
+		typed.setId(responseWrapper.getId());
+		typed.setVersion(responseWrapper.getVersion());
+		typed.setStr(responseWrapper.getStr());
+		typed.setResponsetime(responseWrapper.getResponsetime());
+		typed.setMetadata(responseWrapper.getMetadata());
+		typed.setErrors(responseWrapper.getErrors());
+		typed.setResponse(convert(responseWrapper.getResponse(), responseType));
+		boolean negative = typed.getErrors() != null && !typed.getErrors().isEmpty();
+		return new Entry(typed, null, negative ? stats.negativeTtlMillis : stats.ttlMillis);
+	}
+
+	private <T> T convert(Object response, Class<T> responseType) throws IOException {
+		try {
+			return mapper.convertValue(response, responseType);
+		} catch (IllegalArgumentException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+
+	private Entry lookup(String key) {
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null && entry.isExpired()) {
+				entries.remove(key);
+				entry = null;
+			}
+			return entry;
+		}
+	}
+
+	private void store(String key, Entry entry) {
+		if (entry.isExpired()) {
+			return;
+		}
+		synchronized (entries) {
+			entries.put(key, entry);
+			Iterator<Entry> eldest = entries.values().iterator();
+			while (entries.size() > maxEntries && eldest.hasNext()) {
+				Entry candidate = eldest.next();
+				eldest.remove();
+				if (!candidate.isExpired()) {
+					evictionCount.incrementAndGet();
+				}
+			}
+		}
+	}
+
+	private static String key(ApiName apiName, List<String> pathSegments, String queryParamName, String queryParam,
+			Class<?> responseType) {
+		StringBuilder key = new StringBuilder(apiName.name());
+		if (pathSegments != null) {
+			for (String pathSegment : pathSegments) {
+				key.append('/').append(pathSegment);
+			}
+		}
+		return key.append('?').append(queryParamName).append('=').append(queryParam).append('#')
+				.append(responseType.getName()).toString();
+	}
+
+	/**
+	 * A cached response, or the client error of the api.
+	 */
+	private static final class Entry {
+
+		private final ResponseWrapper<?> response;
+
+		private final ApisResourceAccessException failure;
+
+		private final long expiryTime;
+
+		Entry(ResponseWrapper<?> response, ApisResourceAccessException failure, long ttlMillis) {
+			this.response = response;
+			this.failure = failure;
+			this.expiryTime = System.currentTimeMillis() + ttlMillis;
+		}
+
+		boolean isExpired() {
+			return System.currentTimeMillis() >= expiryTime;
+		}
+
+		@SuppressWarnings("unchecked")
+		<T> ResponseWrapper<T> get(Class<T> responseType) throws ApisResourceAccessException {
+			if (failure != null) {
+				throw new ApisResourceAccessException(failure.getErrorText(), failure.getCause());
+			}
+			return (ResponseWrapper<T>) response;
+		}
+	}
+
+	/**
+	 * The TTLs and the hit and miss counts of an api.
+	 */
+	private static final class ApiStats {
+
+		private final long ttlMillis;
+
+		private final long negativeTtlMillis;
+
+		private final AtomicLong hitCount = new AtomicLong();
+
+		private final AtomicLong missCount = new AtomicLong();
+
+		ApiStats(long ttlMillis, long negativeTtlMillis) {
+			this.ttlMillis = ttlMillis;
+			this.negativeTtlMillis = negativeTtlMillis;
+		}
+
+		void bindTo(ApiName apiName, MeterRegistry registry) {
+			FunctionCounter.builder(METRIC_PREFIX + "requests", hitCount, AtomicLong::doubleValue)
+					.tag("api", apiName.name()).tag("result", "hit").description("Master data lookups")
+					.register(registry);
+			FunctionCounter.builder(METRIC_PREFIX + "requests", missCount, AtomicLong::doubleValue)
+					.tag("api", apiName.name()).tag("result", "miss").description("Master data lookups")
+					.register(registry);
+		}
+	}
+}
@@ -6,6 +6,7 @@ import org.springframework.context.annotation.Configuration;
 
 import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
 import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
+import io.mosip.registration.processor.rest.client.audit.sender.AsyncAuditLogSender;
 import io.mosip.registration.processor.rest.client.service.impl.RegistrationProcessorRestClientServiceImpl;
 import io.mosip.registration.processor.rest.client.utils.RestApiClient;
 
@@ -26,6 +27,11 @@ public class RestConfigBean {
 	public AuditLogRequestBuilder getAuditLogRequestBuilder() {
 		return new AuditLogRequestBuilder();
 	}
+
+	@Bean
+	public AsyncAuditLogSender getAsyncAuditLogSender() {
+		return new AsyncAuditLogSender();
+	}
 	
 	@Bean
 	public RestTemplateBuilder getRestTemplateBuilder() {
@@ -0,0 +1,324 @@
+package io.mosip.registration.processor.rest.client.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+
+/**
+ * Keeps the auth token of the stage in memory. The expiry is read from the
+ * token once when it is fetched, so callers only compare a timestamp. A single
+ * thread fetches a new token when it is due; the others keep using the current
+ * one while it is still valid, or wait for the fetch when it is not. When
+ * background refresh is on, the token is fetched ahead of its expiry so request
+ * threads normally never wait for the auth server.
+ *
+ * A fetched token that the validator rejects is returned to the caller but not
+ * kept, so the next call fetches again. A token the server rejects is dropped
+ * with {@link #invalidate(String)}.
+ *
+ * @since 1.0.9
+ */
+public class AuthTokenManager implements Closeable {
+
+	private static final Logger regProcLogger = RegProcessorLogger.getLogger(AuthTokenManager.class);
+
+	private static final String METRIC_PREFIX = "regproc.auth.token.";
+
+	/** Delay before the background refresh retries a failed fetch. */
+	private static final long RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+	/**
+	 * Fetches a new token from the auth server.
+	 */
+	@FunctionalInterface
+	public interface TokenFetcher {
+
+		/**
+		 * Fetches a new token.
+		 *
+		 * @return the token
+		 * @throws IOException
+		 *             if the auth server could not be reached
+		 */
+		String fetch() throws IOException;
+	}
+
+	/** The token fetcher. */
+	private final TokenFetcher tokenFetcher;
+
+	/** Whether a fetched token may be kept. */
+	private final Predicate<String> tokenValidator;
+
+	/** How long before expiry the token is refreshed. */
+	private final long refreshBeforeMillis;
+
+	/** Lifetime assumed for tokens without an expiry. */
+	private final long defaultTtlMillis;
+
+	/** The background refresh scheduler, null if disabled. */
+	private final ScheduledExecutorService scheduler;
+
+	/** Only one thread fetches at a time. */
+	private final ReentrantLock refreshLock = new ReentrantLock();
+
+	/** The current token. */
+	private volatile CachedToken currentToken;
+
+	private final AtomicLong refreshCount = new AtomicLong();
+
+	private final AtomicLong refreshFailureCount = new AtomicLong();
+
+	/** The auth latency timer, set once metrics are bound. */
+	private volatile Timer latencyTimer;
+
+	/**
+	 * Instantiates a new token manager.
+	 *
+	 * @param tokenFetcher
+	 *            fetches new tokens
+	 * @param refreshBeforeSeconds
+	 *            how long before expiry the token is refreshed
+	 * @param defaultTtlSeconds
+	 *            lifetime assumed for tokens without an expiry
+	 * @param backgroundRefresh
+	 *            whether to refresh ahead of expiry on a background thread
+	 */
+	public AuthTokenManager(TokenFetcher tokenFetcher, long refreshBeforeSeconds, long defaultTtlSeconds,
+			boolean backgroundRefresh) {
+		this(tokenFetcher, token -> true, refreshBeforeSeconds, defaultTtlSeconds, backgroundRefresh);
+	}
+
+	/**
+	 * Instantiates a new token manager that keeps only the tokens the validator
+	 * accepts.
+	 *
+	 * @param tokenFetcher
+	 *            fetches new tokens
+	 * @param tokenValidator
+	 *            whether a fetched token may be kept
+	 * @param refreshBeforeSeconds
+	 *            how long before expiry the token is refreshed
+	 * @param defaultTtlSeconds
+	 *            lifetime assumed for tokens without an expiry
+	 * @param backgroundRefresh
+	 *            whether to refresh ahead of expiry on a background thread
+	 */
+	public AuthTokenManager(TokenFetcher tokenFetcher, Predicate<String> tokenValidator, long refreshBeforeSeconds,
+			long defaultTtlSeconds, boolean backgroundRefresh) {
+		this.tokenFetcher = tokenFetcher;
+		this.tokenValidator = tokenValidator;
+		this.refreshBeforeMillis = TimeUnit.SECONDS.toMillis(refreshBeforeSeconds);
+		this.defaultTtlMillis = TimeUnit.SECONDS.toMillis(defaultTtlSeconds);
+		this.scheduler = backgroundRefresh ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "auth-token-refresh");
+			thread.setDaemon(true);
+			return thread;
+		}) : null;
+	}
+
+	/**
+	 * Gets a valid token, fetching a new one if the current one is due.
+	 *
+	 * @return the token
+	 * @throws IOException
+	 *             if no valid token is held and the auth server could not be
+	 *             reached
+	 */
+	public String getToken() throws IOException {
+		CachedToken token = currentToken;
+		long now = System.currentTimeMillis();
+		if (token != null && !token.isDue(now)) {
+			return token.value;
+		}
+		if (token != null && !token.isExpired(now)) {
+			// still valid: refresh unless another thread already is
+			if (!refreshLock.tryLock()) {
+				return token.value;
+			}
+		} else {
+			refreshLock.lock();
+		}
+		try {
+			return refresh().value;
+		} finally {
+			refreshLock.unlock();
+		}
+	}
+
+	/**
+	 * Drops the token if it is still the current one, so the next call fetches
+	 * a new one. A token fetched since by another caller is kept.
+	 *
+	 * @param token
+	 *            the token the server rejected
+	 */
+	public void invalidate(String token) {
+		refreshLock.lock();
+		try {
+			CachedToken cached = currentToken;
+			if (cached != null && cached.value.equals(token)) {
+				currentToken = null;
+			}
+		} finally {
+			refreshLock.unlock();
+		}
+	}
+
+	public long getRefreshCount() {
+		return refreshCount.get();
+	}
+
+	public long getRefreshFailureCount() {
+		return refreshFailureCount.get();
+	}
+
+	/**
+	 * Registers the refresh counters and the auth latency timer.
+	 *
+	 * @param registry
+	 *            the meter registry
+	 */
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder(METRIC_PREFIX + "refresh", refreshCount, AtomicLong::doubleValue)
+				.tag("result", "success").description("Auth tokens fetched").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + "refresh", refreshFailureCount, AtomicLong::doubleValue)
+				.tag("result", "failure").description("Auth token fetches that failed").register(registry);
+		latencyTimer = Timer.builder(METRIC_PREFIX + "latency").description("Auth server response time")
+				.register(registry);
+	}
+
+	/**
+	 * Fetches a new token unless another thread did while this one waited.
+	 * Must be called with the refresh lock held.
+	 */
+	private CachedToken refresh() throws IOException {
+		CachedToken token = currentToken;
+		long now = System.currentTimeMillis();
+		if (token != null && !token.isDue(now)) {
+			return token;
+		}
+		long start = System.nanoTime();
+		String value;
+		try {
+			value = tokenFetcher.fetch();
+		} catch (IOException | RuntimeException e) {
+			refreshFailureCount.incrementAndGet();
+			if (token != null && !token.isExpired(System.currentTimeMillis())) {
+				regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+						LoggerFileConstant.APPLICATIONID.toString(),
+						"AuthTokenManager::refresh()::keeping current token, fetch failed " + e.getMessage());
+				return token;
+			}
+			throw e;
+		} finally {
+			Timer timer = latencyTimer;
+			if (timer != null) {
+				timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			}
+		}
+		refreshCount.incrementAndGet();
+		now = System.currentTimeMillis();
+		if (!tokenValidator.test(value)) {
+			regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					LoggerFileConstant.APPLICATIONID.toString(),
+					"AuthTokenManager::refresh()::token failed validation, not kept");
+			return new CachedToken(value, now, now);
+		}
+		long expiresAt = expiryOf(value, now);
+		// refresh at half the lifetime of short lived tokens
+		long refreshAt = expiresAt - Math.min(refreshBeforeMillis, (expiresAt - now) / 2);
+		token = new CachedToken(value, refreshAt, expiresAt);
+		currentToken = token;
+		scheduleRefresh(refreshAt - now);
+		return token;
+	}
+
+	private void scheduleRefresh(long delayMillis) {
+		if (scheduler == null || scheduler.isShutdown()) {
+			return;
+		}
+		scheduler.schedule(this::backgroundRefresh, Math.max(delayMillis, TimeUnit.SECONDS.toMillis(1)),
+				TimeUnit.MILLISECONDS);
+	}
+
+	private void backgroundRefresh() {
+		refreshLock.lock();
+		try {
+			// a no-op if a request thread already refreshed and scheduled the next one
+			refresh();
+		} catch (IOException | RuntimeException e) {
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					LoggerFileConstant.APPLICATIONID.toString(), e.getMessage() + ExceptionUtils.getStackTrace(e));
+			scheduleRefresh(RETRY_DELAY_MILLIS);
+		} finally {
+			refreshLock.unlock();
+		}
+	}
+
+	private long expiryOf(String token, long now) {
+		try {
+			Date expiresAt = JWT.decode(token).getExpiresAt();
+			if (expiresAt != null) {
+				return expiresAt.getTime();
+			}
+		} catch (JWTDecodeException e) {
+			regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					LoggerFileConstant.APPLICATIONID.toString(),
+					"AuthTokenManager::expiryOf()::token is not a JWT, assuming default lifetime");
+		}
+		return now + defaultTtlMillis;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	/**
+	 * A token, when to refresh it and its expiry.
+	 */
+	private static class CachedToken {
+		private final String value;
+		private final long refreshAt;
+		private final long expiresAt;
+
+		CachedToken(String value, long refreshAt, long expiresAt) {
+			this.value = value;
+			this.refreshAt = refreshAt;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isDue(long now) {
+			return now >= refreshAt;
+		}
+
+		boolean isExpired(long now) {
+			return now >= expiresAt;
+		}
+	}
+}
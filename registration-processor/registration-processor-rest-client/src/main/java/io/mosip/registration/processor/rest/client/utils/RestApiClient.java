@@ -5,23 +5,21 @@ import java.net.URI;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
-import java.security.cert.X509Certificate;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Predicate;
 
-import javax.net.ssl.SSLContext;
+import javax.annotation.PreDestroy;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.http.Header;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.ssl.TrustStrategy;
 import org.apache.http.util.EntityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -29,20 +27,22 @@ import org.springframework.core.env.Environment;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import com.google.gson.Gson;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.kernel.core.util.DateUtils;
-import io.mosip.kernel.core.util.StringUtils;
 import io.mosip.kernel.core.util.TokenHandlerUtil;
+import io.mosip.registration.processor.core.code.ApiName;
 import io.mosip.registration.processor.core.constant.LoggerFileConstant;
 import io.mosip.registration.processor.core.logger.RegProcessorLogger;
 import io.mosip.registration.processor.rest.client.audit.dto.Metadata;
@@ -69,8 +69,25 @@ public class RestApiClient {
 	@Autowired
 	Environment environment;
 
+	/** The meter registry for the connection pool gauges. */
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	/** The connection pool, created on first use. */
+	private volatile RestClientConnectionPool connectionPool;
+
+	/** The auth token manager of this client's credentials, taken on first use. */
+	private volatile SharedTokenManager sharedTokenManager;
+
+	/** Token managers by credential set, shared by the clients using it. */
+	private static final Map<String, SharedTokenManager> TOKEN_MANAGERS = new HashMap<>();
+
+	private static final Gson GSON = new Gson();
+
 	private static final String AUTHORIZATION = "Authorization=";
 
+	private static final String TOKEN_PROPERTY_PREFIX = "registration.processor.rest.client.token.";
+
 
 	/**
 	 * Gets the api. *
@@ -86,9 +103,9 @@ public class RestApiClient {
 		RestTemplate restTemplate;
 		T result = null;
 		try {
-			restTemplate = getRestTemplate();
-			result = (T) restTemplate.exchange(uri, HttpMethod.GET, setRequestHeader(null, null), responseType)
-					.getBody();
+			restTemplate = getRestTemplate(uri.toString());
+			result = (T) withTokenRetry(token -> restTemplate
+					.exchange(uri, HttpMethod.GET, setRequestHeader(null, null, token), responseType).getBody());
 		} catch (Exception e) {
 			logger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
 					LoggerFileConstant.APPLICATIONID.toString(), e.getMessage() + ExceptionUtils.getStackTrace(e));
@@ -116,10 +133,11 @@ public class RestApiClient {
 		RestTemplate restTemplate;
 		T result = null;
 		try {
-			restTemplate = getRestTemplate();
+			restTemplate = getRestTemplate(uri);
 			logger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
 					LoggerFileConstant.APPLICATIONID.toString(), uri);
-			result = (T) restTemplate.postForObject(uri, setRequestHeader(requestType, mediaType), responseClass);
+			result = (T) withTokenRetry(
+					token -> restTemplate.postForObject(uri, setRequestHeader(requestType, mediaType, token), responseClass));
 
 		} catch (Exception e) {
 			logger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
@@ -150,10 +168,11 @@ public class RestApiClient {
 		RestTemplate restTemplate;
 		T result = null;
 		try {
-			restTemplate = getRestTemplate();
+			restTemplate = getRestTemplate(uri);
 			logger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
 					LoggerFileConstant.APPLICATIONID.toString(), uri);
-			result = (T) restTemplate.patchForObject(uri, setRequestHeader(requestType, mediaType), responseClass);
+			result = (T) withTokenRetry(token -> restTemplate.patchForObject(uri,
+					setRequestHeader(requestType, mediaType, token), responseClass));
 
 		} catch (Exception e) {
 
@@ -190,14 +209,13 @@ public class RestApiClient {
 
 		RestTemplate restTemplate;
 		T result = null;
-		ResponseEntity<T> response = null;
 		try {
-			restTemplate = getRestTemplate();
+			restTemplate = getRestTemplate(uri);
 			logger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
 					LoggerFileConstant.APPLICATIONID.toString(), uri);
 
-			response = (ResponseEntity<T>) restTemplate.exchange(uri, HttpMethod.PUT,
-					setRequestHeader(requestType.toString(), mediaType), responseClass);
+			ResponseEntity<T> response = withTokenRetry(token -> (ResponseEntity<T>) restTemplate.exchange(uri,
+					HttpMethod.PUT, setRequestHeader(requestType.toString(), mediaType, token), responseClass));
 			result = response.getBody();
 		} catch (Exception e) {
 
@@ -209,30 +227,121 @@ public class RestApiClient {
 		return result;
 	}
 
+	/**
+	 * Gets the rest template with the default timeouts, backed by the shared
+	 * connection pool.
+	 *
+	 * @return the rest template
+	 * @throws KeyManagementException
+	 * @throws NoSuchAlgorithmException
+	 * @throws KeyStoreException
+	 */
 	public RestTemplate getRestTemplate() throws KeyManagementException, NoSuchAlgorithmException, KeyStoreException {
-		logger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
-				LoggerFileConstant.APPLICATIONID.toString(), Arrays.asList(environment.getActiveProfiles()).toString());
-		if (Arrays.stream(environment.getActiveProfiles()).anyMatch("dev-k8"::equals)) {
-			logger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
-					LoggerFileConstant.APPLICATIONID.toString(),
-					Arrays.asList(environment.getActiveProfiles()).toString());
-			return new RestTemplate();
-		} else {
-			TrustStrategy acceptingTrustStrategy = (X509Certificate[] chain, String authType) -> true;
-
-			SSLContext sslContext = org.apache.http.ssl.SSLContexts.custom()
-					.loadTrustMaterial(null, acceptingTrustStrategy).build();
+		return getConnectionPool().getRestTemplate((ApiName) null);
+	}
 
-			SSLConnectionSocketFactory csf = new SSLConnectionSocketFactory(sslContext);
+	/**
+	 * Gets the rest template with the timeouts of the api the url belongs to,
+	 * backed by the shared connection pool.
+	 *
+	 * @param uri
+	 *            the request url
+	 * @return the rest template
+	 * @throws KeyManagementException
+	 * @throws NoSuchAlgorithmException
+	 * @throws KeyStoreException
+	 */
+	public RestTemplate getRestTemplate(String uri)
+			throws KeyManagementException, NoSuchAlgorithmException, KeyStoreException {
+		return getConnectionPool().getRestTemplate(uri);
+	}
 
-			CloseableHttpClient httpClient = HttpClients.custom().setSSLSocketFactory(csf).build();
+	/**
+	 * Gets the connection pool, creating it on first use. Certificates are
+	 * trusted blindly outside the dev-k8 profile, as before.
+	 *
+	 * @return the connection pool
+	 * @throws KeyManagementException
+	 * @throws NoSuchAlgorithmException
+	 * @throws KeyStoreException
+	 */
+	public RestClientConnectionPool getConnectionPool()
+			throws KeyManagementException, NoSuchAlgorithmException, KeyStoreException {
+		RestClientConnectionPool pool = connectionPool;
+		if (pool == null) {
+			synchronized (this) {
+				pool = connectionPool;
+				if (pool == null) {
+					logger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+							LoggerFileConstant.APPLICATIONID.toString(),
+							Arrays.asList(environment.getActiveProfiles()).toString());
+					boolean trustAllCertificates = Arrays.stream(environment.getActiveProfiles())
+							.noneMatch("dev-k8"::equals);
+					pool = new RestClientConnectionPool(environment, trustAllCertificates);
+					if (meterRegistry != null) {
+						pool.bindTo(meterRegistry);
+					}
+					connectionPool = pool;
+				}
+			}
+		}
+		return pool;
+	}
 
-			HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
+	/**
+	 * Stops the token refresh and closes the pooled connections.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		SharedTokenManager shared = sharedTokenManager;
+		if (shared != null) {
+			sharedTokenManager = null;
+			release(shared);
+		}
+		RestClientConnectionPool pool = connectionPool;
+		if (pool != null) {
+			try {
+				pool.close();
+			} catch (IOException e) {
+				logger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+						LoggerFileConstant.APPLICATIONID.toString(), e.getMessage() + ExceptionUtils.getStackTrace(e));
+			}
+		}
+	}
 
-			requestFactory.setHttpClient(httpClient);
-			return new RestTemplate(requestFactory);
+	/**
+	 * Makes the call with the current token. If the server rejects the token
+	 * with a 401, the token is dropped and the call is made once more with a new
+	 * one.
+	 *
+	 * @param call
+	 *            the call, given the token
+	 * @return the result of the call
+	 * @throws Exception
+	 */
+	private <T> T withTokenRetry(AuthenticatedCall<T> call) throws Exception {
+		AuthTokenManager manager = getTokenManager();
+		String token = manager.getToken();
+		try {
+			return call.execute(token);
+		} catch (HttpClientErrorException e) {
+			if (e.getStatusCode() != HttpStatus.UNAUTHORIZED) {
+				throw e;
+			}
+			logger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					LoggerFileConstant.APPLICATIONID.toString(),
+					"RestApiClient::withTokenRetry()::token rejected, retrying with a new token");
+			manager.invalidate(token);
+			return call.execute(manager.getToken());
 		}
+	}
 
+	/**
+	 * A call authenticated with the given token.
+	 */
+	@FunctionalInterface
+	private interface AuthenticatedCall<T> {
+		T execute(String token) throws Exception;
 	}
 
 	/**
@@ -240,13 +349,13 @@ public class RestApiClient {
 	 *
 	 * @param requestType
 	 * @param mediaType
+	 * @param token
 	 * @return
-	 * @throws IOException
 	 */
 	@SuppressWarnings("unchecked")
-	private HttpEntity<Object> setRequestHeader(Object requestType, MediaType mediaType) throws IOException {
+	private HttpEntity<Object> setRequestHeader(Object requestType, MediaType mediaType, String token) {
 		MultiValueMap<String, String> headers = new LinkedMultiValueMap<String, String>();
-		headers.add("Cookie", getToken());
+		headers.add("Cookie", AUTHORIZATION + token);
 		if (mediaType != null) {
 			headers.add("Content-Type", mediaType.toString());
 		}
@@ -275,17 +384,109 @@ public class RestApiClient {
 	 * @throws IOException
 	 */
 	public String getToken() throws IOException {
-		String token = System.getProperty("token");
-		boolean isValid = false;
+		return AUTHORIZATION + getTokenManager().getToken();
+	}
 
-		if (StringUtils.isNotEmpty(token)) {
+	/**
+	 * Gets the token manager of this client's credentials. Clients with the same
+	 * auth url, app id, client id and secret key share one manager, and so one
+	 * token and one refresh thread, which is closed when the last of them shuts
+	 * down.
+	 *
+	 * Properties, all optional:
+	 * registration.processor.rest.client.token.refresh-before-seconds (60),
+	 * registration.processor.rest.client.token.default-ttl-seconds (300) for
+	 * tokens without an expiry, and
+	 * registration.processor.rest.client.token.background-refresh (true).
+	 * When token.request.issuerUrl is set, a fetched token is kept only if its
+	 * issuer and client id match token.request.issuerUrl and
+	 * token.request.clientId.
+	 *
+	 * @return the token manager
+	 */
+	public AuthTokenManager getTokenManager() {
+		SharedTokenManager shared = sharedTokenManager;
+		if (shared == null) {
+			synchronized (this) {
+				shared = sharedTokenManager;
+				if (shared == null) {
+					shared = acquire();
+					sharedTokenManager = shared;
+				}
+			}
+		}
+		return shared.manager;
+	}
 
-			isValid = TokenHandlerUtil.isValidBearerToken(token, environment.getProperty("token.request.issuerUrl"),
-					environment.getProperty("token.request.clientId"));
+	private SharedTokenManager acquire() {
+		String issuerUrl = environment.getProperty("token.request.issuerUrl");
+		String clientId = environment.getProperty("token.request.clientId");
+		String key = String.join("|", environment.getProperty("KEYBASEDTOKENAPI"),
+				environment.getProperty("token.request.appid"), clientId,
+				environment.getProperty("token.request.secretKey"));
+		synchronized (TOKEN_MANAGERS) {
+			SharedTokenManager shared = TOKEN_MANAGERS.get(key);
+			if (shared == null) {
+				CloseableHttpClient httpClient = HttpClientBuilder.create().build();
+				Predicate<String> tokenValidator = issuerUrl == null ? token -> true
+						: token -> TokenHandlerUtil.isValidBearerToken(token, issuerUrl, clientId);
+				AuthTokenManager manager = new AuthTokenManager(() -> requestToken(httpClient), tokenValidator,
+						environment.getProperty(TOKEN_PROPERTY_PREFIX + "refresh-before-seconds", Long.class, 60L),
+						environment.getProperty(TOKEN_PROPERTY_PREFIX + "default-ttl-seconds", Long.class, 300L),
+						environment.getProperty(TOKEN_PROPERTY_PREFIX + "background-refresh", Boolean.class, true));
+				if (meterRegistry != null) {
+					manager.bindTo(meterRegistry);
+				}
+				shared = new SharedTokenManager(key, manager, httpClient);
+				TOKEN_MANAGERS.put(key, shared);
+			}
+			shared.references++;
+			return shared;
+		}
+	}
 
+	private void release(SharedTokenManager shared) {
+		synchronized (TOKEN_MANAGERS) {
+			if (--shared.references > 0) {
+				return;
+			}
+			TOKEN_MANAGERS.remove(shared.key);
+		}
+		shared.manager.close();
+		try {
+			shared.httpClient.close();
+		} catch (IOException e) {
+			logger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					LoggerFileConstant.APPLICATIONID.toString(), e.getMessage() + ExceptionUtils.getStackTrace(e));
+		}
+	}
 
+	/**
+	 * A token manager, the http client it fetches with and the number of
+	 * clients using it.
+	 */
+	private static class SharedTokenManager {
+		private final String key;
+		private final AuthTokenManager manager;
+		private final CloseableHttpClient httpClient;
+		private int references;
+
+		SharedTokenManager(String key, AuthTokenManager manager, CloseableHttpClient httpClient) {
+			this.key = key;
+			this.manager = manager;
+			this.httpClient = httpClient;
 		}
-		if (!isValid) {
+	}
+
+	/**
+	 * Requests a new token from the auth server.
+	 *
+	 * @param httpClient
+	 *            the http client of the auth server calls
+	 * @return the token
+	 * @throws IOException
+	 */
+	private String requestToken(CloseableHttpClient httpClient) throws IOException {
 		TokenRequestDTO<SecretKeyRequest> tokenRequestDTO = new TokenRequestDTO<SecretKeyRequest>();
 		tokenRequestDTO.setId(environment.getProperty("token.request.id"));
 		tokenRequestDTO.setMetadata(new Metadata());
@@ -295,16 +496,13 @@ public class RestApiClient {
 		tokenRequestDTO.setRequest(setSecretKeyRequestDTO());
 		tokenRequestDTO.setVersion(environment.getProperty("token.request.version"));
 
-		Gson gson = new Gson();
-		HttpClient httpClient = HttpClientBuilder.create().build();
 		// HttpPost post = new
 		// HttpPost(environment.getProperty("PASSWORDBASEDTOKENAPI"));
 		HttpPost post = new HttpPost(environment.getProperty("KEYBASEDTOKENAPI"));
-		try {
-			StringEntity postingString = new StringEntity(gson.toJson(tokenRequestDTO));
-			post.setEntity(postingString);
-			post.setHeader("Content-type", "application/json");
-			HttpResponse response = httpClient.execute(post);
+		StringEntity postingString = new StringEntity(GSON.toJson(tokenRequestDTO));
+		post.setEntity(postingString);
+		post.setHeader("Content-type", "application/json");
+		try (CloseableHttpResponse response = httpClient.execute(post)) {
 			org.apache.http.HttpEntity entity = response.getEntity();
 			String responseBody = EntityUtils.toString(entity, "UTF-8");
 			logger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
@@ -312,18 +510,18 @@ public class RestApiClient {
 			Header[] cookie = response.getHeaders("Set-Cookie");
 			if (cookie.length == 0)
 				throw new TokenGenerationFailedException();
-			token = response.getHeaders("Set-Cookie")[0].getValue();
+			String token = cookie[0].getValue();
 			logger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
 					LoggerFileConstant.APPLICATIONID.toString(), "Cookie => " + cookie[0]);
-				System.setProperty("token", token.substring(14, token.indexOf(';')));
-			return token.substring(0, token.indexOf(';'));
+			token = token.substring(AUTHORIZATION.length(), token.indexOf(';'));
+			// kept for readers of the token outside this client
+			System.setProperty("token", token);
+			return token;
 		} catch (IOException e) {
 			logger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
 					LoggerFileConstant.APPLICATIONID.toString(), e.getMessage() + ExceptionUtils.getStackTrace(e));
 			throw e;
-			}
 		}
-		return AUTHORIZATION + token;
 	}
 
 	private SecretKeyRequest setSecretKeyRequestDTO() {
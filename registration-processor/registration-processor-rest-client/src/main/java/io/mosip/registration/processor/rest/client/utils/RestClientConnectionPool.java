@@ -0,0 +1,286 @@
+package io.mosip.registration.processor.rest.client.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.X509Certificate;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpHost;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.ssl.TrustStrategy;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.code.ApiName;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+
+/**
+ * Connection pooled, keep-alive http client shared by all the rest calls of a
+ * stage. One {@link RestTemplate} is kept per {@link ApiName} so that each api
+ * can have its own connect and read timeouts, all of them leasing connections
+ * from the same pool. The api of a call is found from its url, by the longest
+ * api base url configured in the environment that prefixes it.
+ *
+ * Properties, all optional:
+ *
+ * <pre>
+ * registration.processor.rest.client.max-total             max connections in the pool (200)
+ * registration.processor.rest.client.max-per-route         max connections per host (50)
+ * registration.processor.rest.client.keep-alive-seconds    keep-alive when the server sends none (30)
+ * registration.processor.rest.client.idle-timeout-seconds  idle connections are evicted after this (60)
+ * registration.processor.rest.client.connect-timeout-ms    connect timeout, 0 for none (0)
+ * registration.processor.rest.client.read-timeout-ms       read timeout, 0 for none (0)
+ * registration.processor.rest.client.&lt;ApiName&gt;.connect-timeout-ms
+ * registration.processor.rest.client.&lt;ApiName&gt;.read-timeout-ms
+ * registration.processor.rest.client.&lt;ApiName&gt;.max-connections
+ * </pre>
+ *
+ * Connections are pooled per host, so max-connections limits the host of the
+ * api url and is shared with the other apis on that host. Where apis of one
+ * host set different values, the largest applies.
+ *
+ * @since 1.0.9
+ */
+public class RestClientConnectionPool implements Closeable {
+
+	private static final Logger regProcLogger = RegProcessorLogger.getLogger(RestClientConnectionPool.class);
+
+	private static final String PROPERTY_PREFIX = "registration.processor.rest.client.";
+
+	private static final String METRIC_PREFIX = "regproc.rest.client.pool.";
+
+	private static final String DEFAULT_TEMPLATE = "DEFAULT";
+
+	/** The environment. */
+	private final Environment env;
+
+	/** The connection manager. */
+	private final PoolingHttpClientConnectionManager connectionManager;
+
+	/** The pooled http client. */
+	private final CloseableHttpClient httpClient;
+
+	/** The rest templates by api name. */
+	private final Map<String, RestTemplate> restTemplates = new ConcurrentHashMap<>();
+
+	/** The api base urls, longest first. */
+	private final List<Map.Entry<String, ApiName>> apiBaseUrls;
+
+	/**
+	 * Instantiates a new pool.
+	 *
+	 * @param env
+	 *            the environment
+	 * @param trustAllCertificates
+	 *            whether to accept any server certificate, as the stages did
+	 *            outside kubernetes
+	 * @throws KeyManagementException
+	 * @throws NoSuchAlgorithmException
+	 * @throws KeyStoreException
+	 */
+	public RestClientConnectionPool(Environment env, boolean trustAllCertificates)
+			throws KeyManagementException, NoSuchAlgorithmException, KeyStoreException {
+		this.env = env;
+		SSLConnectionSocketFactory sslSocketFactory;
+		if (trustAllCertificates) {
+			TrustStrategy acceptingTrustStrategy = (X509Certificate[] chain, String authType) -> true;
+			SSLContext sslContext = org.apache.http.ssl.SSLContexts.custom()
+					.loadTrustMaterial(null, acceptingTrustStrategy).build();
+			sslSocketFactory = new SSLConnectionSocketFactory(sslContext);
+		} else {
+			sslSocketFactory = SSLConnectionSocketFactory.getSocketFactory();
+		}
+		Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+				.register("http", PlainConnectionSocketFactory.getSocketFactory()).register("https", sslSocketFactory)
+				.build();
+
+		connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+		connectionManager.setMaxTotal(env.getProperty(PROPERTY_PREFIX + "max-total", Integer.class, 200));
+		connectionManager.setDefaultMaxPerRoute(env.getProperty(PROPERTY_PREFIX + "max-per-route", Integer.class, 50));
+		connectionManager.setValidateAfterInactivity(2000);
+
+		apiBaseUrls = new ArrayList<>();
+		Map<HttpRoute, Integer> maxPerRoute = new HashMap<>();
+		for (ApiName apiName : ApiName.values()) {
+			String baseUrl = env.getProperty(apiName.name());
+			if (baseUrl == null || baseUrl.isEmpty()) {
+				continue;
+			}
+			apiBaseUrls.add(new SimpleImmutableEntry<>(baseUrl, apiName));
+			Integer maxConnections = env.getProperty(PROPERTY_PREFIX + apiName.name() + ".max-connections",
+					Integer.class);
+			HttpRoute route = maxConnections != null ? toRoute(baseUrl) : null;
+			if (route != null) {
+				Integer other = maxPerRoute.get(route);
+				if (other != null && !other.equals(maxConnections)) {
+					regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(),
+							LoggerFileConstant.APPLICATIONID.toString(), baseUrl,
+							"RestClientConnectionPool::max-connections of " + apiName.name() + " differs from "
+									+ other + " of another api on the host, the largest applies");
+				}
+				maxPerRoute.merge(route, maxConnections, Math::max);
+			}
+		}
+		maxPerRoute.forEach(connectionManager::setMaxPerRoute);
+		apiBaseUrls.sort(Comparator.comparingInt((Map.Entry<String, ApiName> e) -> e.getKey().length()).reversed());
+
+		long keepAliveMillis = TimeUnit.SECONDS
+				.toMillis(env.getProperty(PROPERTY_PREFIX + "keep-alive-seconds", Long.class, 30L));
+		long idleTimeoutSeconds = env.getProperty(PROPERTY_PREFIX + "idle-timeout-seconds", Long.class, 60L);
+		httpClient = HttpClients.custom().setConnectionManager(connectionManager)
+				.setKeepAliveStrategy(keepAliveStrategy(keepAliveMillis)).evictExpiredConnections()
+				.evictIdleConnections(idleTimeoutSeconds, TimeUnit.SECONDS).build();
+	}
+
+	/**
+	 * Gets the rest template for the api the url belongs to.
+	 *
+	 * @param uri
+	 *            the request url
+	 * @return the rest template
+	 */
+	public RestTemplate getRestTemplate(String uri) {
+		return getRestTemplate(resolveApiName(uri));
+	}
+
+	/**
+	 * Gets the rest template for the api.
+	 *
+	 * @param apiName
+	 *            the api name, or null for the default timeouts
+	 * @return the rest template
+	 */
+	public RestTemplate getRestTemplate(ApiName apiName) {
+		String key = apiName != null ? apiName.name() : DEFAULT_TEMPLATE;
+		return restTemplates.computeIfAbsent(key, this::createRestTemplate);
+	}
+
+	/**
+	 * Finds the api whose configured base url is the longest prefix of the url.
+	 *
+	 * @param uri
+	 *            the request url
+	 * @return the api name, or null if none matches
+	 */
+	public ApiName resolveApiName(String uri) {
+		if (uri == null) {
+			return null;
+		}
+		for (Map.Entry<String, ApiName> apiBaseUrl : apiBaseUrls) {
+			if (uri.startsWith(apiBaseUrl.getKey())) {
+				return apiBaseUrl.getValue();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the pool statistics across all routes.
+	 *
+	 * @return the pool statistics
+	 */
+	public PoolStats getTotalStats() {
+		return connectionManager.getTotalStats();
+	}
+
+	/**
+	 * Registers the leased, pending, available and max pool gauges.
+	 *
+	 * @param registry
+	 *            the meter registry
+	 */
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder(METRIC_PREFIX + "leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+				.description("Connections leased from the rest client pool").register(registry);
+		Gauge.builder(METRIC_PREFIX + "pending", connectionManager, cm -> cm.getTotalStats().getPending())
+				.description("Requests waiting for a rest client connection").register(registry);
+		Gauge.builder(METRIC_PREFIX + "available", connectionManager, cm -> cm.getTotalStats().getAvailable())
+				.description("Idle connections in the rest client pool").register(registry);
+		Gauge.builder(METRIC_PREFIX + "max", connectionManager, cm -> cm.getTotalStats().getMax())
+				.description("Maximum connections of the rest client pool").register(registry);
+	}
+
+	private RestTemplate createRestTemplate(String key) {
+		String apiPrefix = DEFAULT_TEMPLATE.equals(key) ? PROPERTY_PREFIX : PROPERTY_PREFIX + key + ".";
+		int defaultConnectTimeout = env.getProperty(PROPERTY_PREFIX + "connect-timeout-ms", Integer.class, 0);
+		int defaultReadTimeout = env.getProperty(PROPERTY_PREFIX + "read-timeout-ms", Integer.class, 0);
+
+		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+		requestFactory.setConnectTimeout(
+				env.getProperty(apiPrefix + "connect-timeout-ms", Integer.class, defaultConnectTimeout));
+		requestFactory.setReadTimeout(env.getProperty(apiPrefix + "read-timeout-ms", Integer.class, defaultReadTimeout));
+		return new RestTemplate(requestFactory);
+	}
+
+	private static HttpRoute toRoute(String baseUrl) {
+		try {
+			URI uri = URI.create(baseUrl);
+			boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+			int port = uri.getPort() != -1 ? uri.getPort() : (secure ? 443 : 80);
+			return new HttpRoute(new HttpHost(uri.getHost(), port, uri.getScheme()), null, secure);
+		} catch (IllegalArgumentException e) {
+			regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					baseUrl, "RestClientConnectionPool::toRoute()::invalid api url " + e.getMessage());
+			return null;
+		}
+	}
+
+	private static ConnectionKeepAliveStrategy keepAliveStrategy(long defaultKeepAliveMillis) {
+		return (response, context) -> {
+			BasicHeaderElementIterator it = new BasicHeaderElementIterator(
+					response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+			while (it.hasNext()) {
+				HeaderElement element = it.nextElement();
+				if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+					try {
+						return TimeUnit.SECONDS.toMillis(Long.parseLong(element.getValue()));
+					} catch (NumberFormatException e) {
+						break;
+					}
+				}
+			}
+			return defaultKeepAliveMillis;
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		httpClient.close();
+	}
+}
@@ -0,0 +1,230 @@
+package io.mosip.registration.processor.rest.client.audit.sender;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.registration.processor.core.code.ApiName;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.http.RequestWrapper;
+import io.mosip.registration.processor.core.http.ResponseWrapper;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+import io.mosip.registration.processor.rest.client.audit.dto.AuditRequestDto;
+
+/**
+ * AsyncAuditLogSender test
+ *
+ * @since 1.0.9
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncAuditLogSenderTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Mock
+	private RegistrationProcessorRestClientService<Object> registrationProcessorRestService;
+
+	@InjectMocks
+	private AsyncAuditLogSender sender;
+
+	@Before
+	public void setUp() {
+		configure(sender);
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		sender.stop();
+	}
+
+	@Test
+	public void testEventsSentInBackground() throws Exception {
+		Mockito.when(registrationProcessorRestService.postApi(any(), any(), any(), any(), any()))
+				.thenReturn(new ResponseWrapper<>());
+		sender.start();
+
+		for (int i = 0; i < 5; i++) {
+			assertTrue(sender.submit(ApiName.AUDIT, auditRequest("1000" + i)));
+		}
+
+		assertTrue(await(() -> sender.getSentCount() == 5));
+		Mockito.verify(registrationProcessorRestService, Mockito.times(5)).postApi(Mockito.eq(ApiName.AUDIT), any(),
+				any(), any(), any());
+	}
+
+	@Test
+	public void testFailedEventsJournaledAndRetried() throws Exception {
+		Mockito.when(registrationProcessorRestService.postApi(any(), any(), any(), any(), any()))
+				.thenThrow(new ApisResourceAccessException("audit down")).thenReturn(new ResponseWrapper<>());
+		sender.start();
+
+		sender.submit(ApiName.AUDIT, auditRequest("10001"));
+		sender.submit(ApiName.AUDIT, auditRequest("10002"));
+
+		assertTrue(await(() -> sender.getSentCount() == 2));
+		assertEquals(1, sender.getFailedCount());
+		assertEquals(0, sender.getJournalSize());
+	}
+
+	@Test
+	public void testEventsDeadLetteredAfterMaxAttempts() throws Exception {
+		Mockito.when(registrationProcessorRestService.postApi(any(), any(), any(), any(), any()))
+				.thenThrow(new ApisResourceAccessException("audit rejects the event"));
+		ReflectionTestUtils.setField(sender, "maxAttempts", 2);
+		sender.start();
+
+		sender.submit(ApiName.AUDIT, auditRequest("10001"));
+
+		assertTrue(await(() -> sender.getDeadLetteredCount() == 1));
+		assertEquals(2, sender.getFailedCount());
+		assertEquals(0, sender.getJournalSize());
+		Path deadLetters = tempFolder.getRoot().toPath().resolve("audit-dead-letter-registration-processor.jsonl");
+		assertEquals(1, Files.readAllLines(deadLetters, StandardCharsets.UTF_8).size());
+		assertTrue(Files.readAllLines(deadLetters, StandardCharsets.UTF_8).get(0).contains("10001"));
+	}
+
+	@Test
+	public void testDropNewestWhenFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Mockito.when(registrationProcessorRestService.postApi(any(), any(), any(), any(), any())).thenAnswer(i -> {
+			release.await(5, TimeUnit.SECONDS);
+			return new ResponseWrapper<>();
+		});
+		ReflectionTestUtils.setField(sender, "capacity", 2);
+		ReflectionTestUtils.setField(sender, "overflowPolicyName", "DROP_NEWEST");
+		sender.start();
+
+		boolean dropped = false;
+		for (int i = 0; i < 10; i++) {
+			dropped |= !sender.submit(ApiName.AUDIT, auditRequest("1000" + i));
+		}
+		release.countDown();
+
+		assertTrue(await(() -> sender.getSentCount() > 0));
+		assertTrue(dropped);
+		assertTrue(sender.getDroppedCount() > 0);
+		assertEquals(0, sender.getSpilledCount());
+	}
+
+	@Test
+	public void testQueuedEventsSurviveRestart() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Mockito.when(registrationProcessorRestService.postApi(any(), any(), any(), any(), any())).thenAnswer(i -> {
+			release.await(5, TimeUnit.SECONDS);
+			return new ResponseWrapper<>();
+		});
+		sender.start();
+		for (int i = 0; i < 3; i++) {
+			sender.submit(ApiName.AUDIT, auditRequest("1000" + i));
+		}
+		// stop while the first event is in flight
+		assertTrue(await(() -> sender.getQueueDepth() < 3));
+		sender.stop();
+		release.countDown();
+		assertTrue(sender.getJournalSize() >= 2);
+
+		Mockito.reset(registrationProcessorRestService);
+		Mockito.when(registrationProcessorRestService.postApi(any(), any(), any(), any(), any()))
+				.thenReturn(new ResponseWrapper<>());
+		AsyncAuditLogSender restarted = new AsyncAuditLogSender();
+		configure(restarted);
+		ReflectionTestUtils.setField(restarted, "registrationProcessorRestService", registrationProcessorRestService);
+		restarted.start();
+		try {
+			assertTrue(await(() -> restarted.getSentCount() == 3));
+			assertEquals(0, restarted.getJournalSize());
+		} finally {
+			restarted.stop();
+		}
+	}
+
+	@Test
+	public void testProcessesOnOneHostUseSeparateJournals() throws Exception {
+		Mockito.when(registrationProcessorRestService.postApi(any(), any(), any(), any(), any()))
+				.thenThrow(new ApisResourceAccessException("audit down"));
+		sender.start();
+		AsyncAuditLogSender other = new AsyncAuditLogSender();
+		configure(other);
+		ReflectionTestUtils.setField(other, "registrationProcessorRestService", registrationProcessorRestService);
+		other.start();
+		try {
+			sender.submit(ApiName.AUDIT, auditRequest("10001"));
+			other.submit(ApiName.AUDIT, auditRequest("10002"));
+			assertTrue(await(() -> sender.getJournalSize() == 1 && other.getJournalSize() == 1));
+		} finally {
+			other.stop();
+		}
+		sender.stop();
+
+		Path journal = tempFolder.getRoot().toPath().resolve("audit-journal-registration-processor.jsonl");
+		Path otherJournal = tempFolder.getRoot().toPath().resolve("audit-journal-registration-processor-1.jsonl");
+		assertEquals(1, Files.readAllLines(journal, StandardCharsets.UTF_8).size());
+		assertEquals(1, Files.readAllLines(otherJournal, StandardCharsets.UTF_8).size());
+		assertTrue(Files.readAllLines(journal, StandardCharsets.UTF_8).get(0).contains("10001"));
+		assertTrue(Files.readAllLines(otherJournal, StandardCharsets.UTF_8).get(0).contains("10002"));
+	}
+
+	@Test
+	public void testDisabled() throws IOException {
+		ReflectionTestUtils.setField(sender, "enabled", false);
+		sender.start();
+
+		assertFalse(sender.isEnabled());
+	}
+
+	private void configure(AsyncAuditLogSender auditLogSender) {
+		ReflectionTestUtils.setField(auditLogSender, "enabled", true);
+		ReflectionTestUtils.setField(auditLogSender, "capacity", 100);
+		ReflectionTestUtils.setField(auditLogSender, "batchSize", 10);
+		ReflectionTestUtils.setField(auditLogSender, "flushIntervalMillis", 50L);
+		ReflectionTestUtils.setField(auditLogSender, "overflowPolicyName", "SPILL");
+		ReflectionTestUtils.setField(auditLogSender, "blockTimeoutMillis", 10L);
+		ReflectionTestUtils.setField(auditLogSender, "maxAttempts", 10);
+		ReflectionTestUtils.setField(auditLogSender, "journalDir", tempFolder.getRoot().getAbsolutePath());
+	}
+
+	private static RequestWrapper<AuditRequestDto> auditRequest(String registrationId) {
+		AuditRequestDto auditRequestDto = new AuditRequestDto();
+		auditRequestDto.setId(registrationId);
+		auditRequestDto.setEventId("RPR_405");
+		RequestWrapper<AuditRequestDto> requestWrapper = new RequestWrapper<>();
+		requestWrapper.setId("mosip.registration.processor.audit");
+		requestWrapper.setRequesttime(LocalDateTime.now());
+		requestWrapper.setRequest(auditRequestDto);
+		return requestWrapper;
+	}
+
+	private static boolean await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				return false;
+			}
+			Thread.sleep(10);
+		}
+		return true;
+	}
+}
@@ -0,0 +1,214 @@
+package io.mosip.registration.processor.rest.client.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.HttpClientErrorException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.registration.processor.core.code.ApiName;
+import io.mosip.registration.processor.core.common.rest.dto.ErrorDTO;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.http.ResponseWrapper;
+import io.mosip.registration.processor.core.packet.dto.masterdata.StatusResponseDto;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+
+/**
+ * MasterDataCache test
+ *
+ * @since 1.0.9
+ */
+public class MasterDataCacheTest {
+
+	private RegistrationProcessorRestClientService<Object> restClientService;
+
+	private MockEnvironment env;
+
+	private MasterDataCache cache;
+
+	@SuppressWarnings("unchecked")
+	@Before
+	public void setUp() throws ApisResourceAccessException {
+		restClientService = Mockito.mock(RegistrationProcessorRestClientService.class);
+		Mockito.when(restClientService.getApi(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any())).thenReturn(valid());
+		env = new MockEnvironment();
+		cache = new MasterDataCache(restClientService, env, 2, 300, 30);
+	}
+
+	@Test
+	public void testResponseMappedOnceAndShared() throws Exception {
+		ResponseWrapper<StatusResponseDto> first = cache.getApi(ApiName.GENDER, segments("MLE"), "", "",
+				StatusResponseDto.class);
+		ResponseWrapper<StatusResponseDto> second = cache.getApi(ApiName.GENDER, segments("MLE"), "", "",
+				StatusResponseDto.class);
+
+		assertEquals("Valid", first.getResponse().getStatus());
+		assertSame(first, second);
+		assertEquals(1, cache.getMissCount(ApiName.GENDER));
+		assertEquals(1, cache.getHitCount(ApiName.GENDER));
+		Mockito.verify(restClientService, Mockito.times(1)).getApi(Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	public void testClientErrorCached() throws Exception {
+		Mockito.when(restClientService.getApi(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any())).thenThrow(new ApisResourceAccessException("gender not found",
+						new HttpClientErrorException(HttpStatus.NOT_FOUND)));
+
+		for (int i = 0; i < 2; i++) {
+			try {
+				cache.getApi(ApiName.GENDER, segments("XYZ"), "", "", StatusResponseDto.class);
+				fail("client error expected");
+			} catch (ApisResourceAccessException e) {
+				assertTrue(e.getCause() instanceof HttpClientErrorException);
+				assertEquals("gender not found", e.getErrorText());
+			}
+		}
+		assertEquals(1, cache.getHitCount(ApiName.GENDER));
+		Mockito.verify(restClientService, Mockito.times(1)).getApi(Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	public void testServerErrorNotCached() throws Exception {
+		Mockito.when(restClientService.getApi(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any())).thenThrow(new ApisResourceAccessException("master data unavailable"));
+
+		for (int i = 0; i < 2; i++) {
+			try {
+				cache.getApi(ApiName.GENDER, segments("MLE"), "", "", StatusResponseDto.class);
+				fail("failure expected");
+			} catch (ApisResourceAccessException e) {
+				assertEquals("master data unavailable", e.getErrorText());
+			}
+		}
+		assertEquals(0, cache.size());
+		Mockito.verify(restClientService, Mockito.times(2)).getApi(Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	public void testErrorResponseExpiresWithNegativeTtl() throws Exception {
+		ResponseWrapper<Object> error = new ResponseWrapper<>();
+		error.setErrors(Collections.singletonList(new ErrorDTO("KER-MSD-042", "center not found")));
+		Mockito.when(restClientService.getApi(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any())).thenReturn(error);
+		cache = new MasterDataCache(restClientService, env, 2, 300, 0);
+
+		ResponseWrapper<StatusResponseDto> response = cache.getApi(ApiName.CENTERHISTORY, segments("10001"), "", "",
+				StatusResponseDto.class);
+
+		assertEquals("center not found", response.getErrors().get(0).getMessage());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testApiNotCachedWithZeroTtl() throws Exception {
+		env.setProperty("registration.processor.masterdata.cache.GENDER.ttl-seconds", "0");
+
+		cache.getApi(ApiName.GENDER, segments("MLE"), "", "", StatusResponseDto.class);
+		cache.getApi(ApiName.GENDER, segments("MLE"), "", "", StatusResponseDto.class);
+		cache.getApi(ApiName.CITY, segments("KNT"), "", "", StatusResponseDto.class);
+		cache.getApi(ApiName.CITY, segments("KNT"), "", "", StatusResponseDto.class);
+
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.getHitCount(ApiName.CITY));
+		Mockito.verify(restClientService, Mockito.times(3)).getApi(Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEvicted() throws Exception {
+		cache.getApi(ApiName.GENDER, segments("MLE"), "", "", StatusResponseDto.class);
+		cache.getApi(ApiName.GENDER, segments("FLE"), "", "", StatusResponseDto.class);
+		cache.getApi(ApiName.GENDER, segments("MLE"), "", "", StatusResponseDto.class);
+		cache.getApi(ApiName.GENDER, segments("OTH"), "", "", StatusResponseDto.class);
+		cache.getApi(ApiName.GENDER, segments("MLE"), "", "", StatusResponseDto.class);
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(2, cache.getHitCount(ApiName.GENDER));
+	}
+
+	@Test
+	public void testConcurrentMissesCoalesced() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		Mockito.when(restClientService.getApi(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any())).thenAnswer(invocation -> {
+					calls.incrementAndGet();
+					loading.countDown();
+					release.await(5, TimeUnit.SECONDS);
+					return valid();
+				});
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<ResponseWrapper<StatusResponseDto>>> lookups = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				lookups.add(executor.submit(() -> cache.getApi(ApiName.GENDER, segments("MLE"), "", "",
+						StatusResponseDto.class)));
+			}
+			assertTrue(loading.await(5, TimeUnit.SECONDS));
+			release.countDown();
+			for (Future<ResponseWrapper<StatusResponseDto>> lookup : lookups) {
+				assertEquals("Valid", lookup.get(5, TimeUnit.SECONDS).getResponse().getStatus());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, calls.get());
+		assertEquals(3, cache.getHitCount(ApiName.GENDER));
+	}
+
+	@Test
+	public void testMetrics() throws Exception {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		cache.getApi(ApiName.GENDER, segments("MLE"), "", "", StatusResponseDto.class);
+		cache.bindTo(registry);
+		cache.getApi(ApiName.GENDER, segments("MLE"), "", "", StatusResponseDto.class);
+		cache.getApi(ApiName.CITY, segments("KNT"), "", "", StatusResponseDto.class);
+
+		assertEquals(1.0, registry.get("regproc.masterdata.cache.requests").tag("api", "GENDER")
+				.tag("result", "hit").functionCounter().count(), 0.0);
+		assertEquals(1.0, registry.get("regproc.masterdata.cache.requests").tag("api", "CITY")
+				.tag("result", "miss").functionCounter().count(), 0.0);
+		assertEquals(2.0, registry.get("regproc.masterdata.cache.size").gauge().value(), 0.0);
+	}
+
+	private static List<String> segments(String... segments) {
+		return new ArrayList<>(Arrays.asList(segments));
+	}
+
+	private static ResponseWrapper<Object> valid() {
+		Map<String, Object> status = new LinkedHashMap<>();
+		status.put("status", "Valid");
+		ResponseWrapper<Object> responseWrapper = new ResponseWrapper<>();
+		responseWrapper.setResponse(status);
+		responseWrapper.setErrors(null);
+		return responseWrapper;
+	}
+}
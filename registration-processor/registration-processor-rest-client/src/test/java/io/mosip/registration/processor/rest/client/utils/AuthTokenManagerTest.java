@@ -0,0 +1,174 @@
+package io.mosip.registration.processor.rest.client.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * AuthTokenManager test
+ *
+ * @since 1.0.9
+ */
+public class AuthTokenManagerTest {
+
+	private final AtomicInteger fetches = new AtomicInteger();
+
+	private AuthTokenManager tokenManager;
+
+	@After
+	public void tearDown() {
+		if (tokenManager != null) {
+			tokenManager.close();
+		}
+	}
+
+	@Test
+	public void testTokenFetchedOnceWhileValid() throws IOException {
+		String jwt = jwtExpiringIn(3600_000);
+		tokenManager = new AuthTokenManager(() -> {
+			fetches.incrementAndGet();
+			return jwt;
+		}, 60, 300, false);
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(jwt, tokenManager.getToken());
+		}
+		assertEquals(1, fetches.get());
+	}
+
+	@Test
+	public void testConcurrentCallersShareOneFetch() throws Exception {
+		String jwt = jwtExpiringIn(3600_000);
+		tokenManager = new AuthTokenManager(() -> {
+			fetches.incrementAndGet();
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return jwt;
+		}, 60, 300, false);
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<String>> callers = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				callers.add(tokenManager::getToken);
+			}
+			for (Future<String> token : executor.invokeAll(callers)) {
+				assertEquals(jwt, token.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, fetches.get());
+	}
+
+	@Test
+	public void testExpiredTokenFetchedAgain() throws IOException {
+		tokenManager = new AuthTokenManager(() -> jwtExpiringIn(-1000 * fetches.incrementAndGet()), 60, 300, false);
+
+		tokenManager.getToken();
+		tokenManager.getToken();
+
+		assertEquals(2, fetches.get());
+		assertEquals(2, tokenManager.getRefreshCount());
+	}
+
+	@Test
+	public void testCurrentTokenKeptWhenRefreshFails() throws IOException, InterruptedException {
+		tokenManager = new AuthTokenManager(() -> {
+			if (fetches.incrementAndGet() > 1) {
+				throw new IOException("auth server down");
+			}
+			return "opaque-token";
+		}, 60, 2, false);
+
+		assertEquals("opaque-token", tokenManager.getToken());
+		// due for refresh after half of its 2 second lifetime
+		Thread.sleep(1100);
+		assertEquals("opaque-token", tokenManager.getToken());
+		assertEquals(1, tokenManager.getRefreshFailureCount());
+	}
+
+	@Test(expected = IOException.class)
+	public void testFailureWithoutToken() throws IOException {
+		tokenManager = new AuthTokenManager(() -> {
+			throw new IOException("auth server down");
+		}, 60, 300, false);
+
+		tokenManager.getToken();
+	}
+
+	@Test
+	public void testBackgroundRefresh() throws IOException, InterruptedException {
+		tokenManager = new AuthTokenManager(() -> "token-" + fetches.incrementAndGet(), 60, 2, true);
+
+		assertEquals("token-1", tokenManager.getToken());
+		Thread.sleep(1500);
+		assertEquals("token-2", tokenManager.getToken());
+		assertEquals(2, fetches.get());
+	}
+
+	@Test
+	public void testInvalidatedTokenFetchedAgain() throws IOException {
+		tokenManager = new AuthTokenManager(() -> "token-" + fetches.incrementAndGet(), 60, 300, false);
+
+		String rejected = tokenManager.getToken();
+		tokenManager.invalidate(rejected);
+		String token = tokenManager.getToken();
+		// a caller still holding the rejected token does not drop the new one
+		tokenManager.invalidate(rejected);
+
+		assertEquals("token-2", token);
+		assertEquals("token-2", tokenManager.getToken());
+		assertEquals(2, fetches.get());
+	}
+
+	@Test
+	public void testTokenFailingValidationNotKept() throws IOException {
+		tokenManager = new AuthTokenManager(() -> jwtExpiringIn(3600_000), token -> false, 60, 300, false);
+
+		tokenManager.getToken();
+		tokenManager.getToken();
+
+		assertEquals(2, tokenManager.getRefreshCount());
+	}
+
+	@Test
+	public void testMetrics() throws IOException {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		tokenManager = new AuthTokenManager(() -> jwtExpiringIn(3600_000), 60, 300, false);
+		tokenManager.bindTo(registry);
+
+		tokenManager.getToken();
+
+		assertEquals(1.0, registry.get("regproc.auth.token.refresh").tag("result", "success").functionCounter().count(),
+				0.0);
+		assertEquals(0.0, registry.get("regproc.auth.token.refresh").tag("result", "failure").functionCounter().count(),
+				0.0);
+		assertEquals(1, registry.get("regproc.auth.token.latency").timer().count());
+	}
+
+	private static String jwtExpiringIn(long millis) {
+		return JWT.create().withIssuer("test").withExpiresAt(new Date(System.currentTimeMillis() + millis))
+				.sign(Algorithm.HMAC256("secret"));
+	}
+}
@@ -0,0 +1,120 @@
+package io.mosip.registration.processor.rest.client.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * RestApiClient test
+ *
+ * @since 1.0.9
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RestApiClientTest {
+
+	private static final String URI = "http://localhost/registrationprocessor/v1/registrationstatus";
+
+	private final AtomicInteger fetches = new AtomicInteger();
+
+	@Mock
+	private RestTemplate restTemplate;
+
+	private AuthTokenManager tokenManager;
+
+	private RestApiClient restApiClient;
+
+	@Before
+	public void setUp() throws Exception {
+		tokenManager = new AuthTokenManager(() -> "token-" + fetches.incrementAndGet(), 60, 300, false);
+		restApiClient = Mockito.spy(new RestApiClient());
+		Mockito.doReturn(restTemplate).when(restApiClient).getRestTemplate(anyString());
+		Mockito.doReturn(tokenManager).when(restApiClient).getTokenManager();
+	}
+
+	@After
+	public void tearDown() {
+		tokenManager.close();
+	}
+
+	@Test
+	@SuppressWarnings("rawtypes")
+	public void testRejectedTokenRenewedAndCallRetried() throws Exception {
+		Mockito.when(restTemplate.postForObject(anyString(), any(), any()))
+				.thenThrow(new HttpClientErrorException(HttpStatus.UNAUTHORIZED)).thenReturn("ok");
+
+		String result = restApiClient.postApi(URI, MediaType.APPLICATION_JSON, "{}", String.class);
+
+		ArgumentCaptor<HttpEntity> request = ArgumentCaptor.forClass(HttpEntity.class);
+		Mockito.verify(restTemplate, Mockito.times(2)).postForObject(Mockito.eq(URI), request.capture(),
+				Mockito.eq(String.class));
+		assertEquals("ok", result);
+		assertEquals("Authorization=token-1", request.getAllValues().get(0).getHeaders().getFirst("Cookie"));
+		assertEquals("Authorization=token-2", request.getAllValues().get(1).getHeaders().getFirst("Cookie"));
+	}
+
+	@Test
+	public void testOtherClientErrorsNotRetried() throws Exception {
+		Mockito.when(restTemplate.postForObject(anyString(), any(), any()))
+				.thenThrow(new HttpClientErrorException(HttpStatus.FORBIDDEN));
+
+		try {
+			restApiClient.postApi(URI, MediaType.APPLICATION_JSON, "{}", String.class);
+			fail();
+		} catch (HttpClientErrorException e) {
+			assertEquals(HttpStatus.FORBIDDEN, e.getStatusCode());
+		}
+
+		Mockito.verify(restTemplate, Mockito.times(1)).postForObject(anyString(), any(), any());
+		assertEquals(1, fetches.get());
+	}
+
+	@Test
+	public void testClientsWithSameCredentialsShareTokenManager() {
+		RestApiClient client = client("regproc-client");
+		RestApiClient sameCredentials = client("regproc-client");
+		RestApiClient otherCredentials = client("other-client");
+		RestApiClient later = client("regproc-client");
+		try {
+			assertSame(client.getTokenManager(), sameCredentials.getTokenManager());
+			assertNotSame(client.getTokenManager(), otherCredentials.getTokenManager());
+			client.shutdown();
+			// still held by the other client
+			assertSame(sameCredentials.getTokenManager(), later.getTokenManager());
+		} finally {
+			sameCredentials.shutdown();
+			otherCredentials.shutdown();
+			later.shutdown();
+		}
+	}
+
+	private static RestApiClient client(String clientId) {
+		MockEnvironment environment = new MockEnvironment();
+		environment.setProperty("KEYBASEDTOKENAPI", "http://localhost/v1/authmanager/authenticate/clientidsecretkey");
+		environment.setProperty("token.request.appid", "regproc");
+		environment.setProperty("token.request.clientId", clientId);
+		environment.setProperty("token.request.secretKey", "secret");
+		RestApiClient client = new RestApiClient();
+		client.environment = environment;
+		return client;
+	}
+}
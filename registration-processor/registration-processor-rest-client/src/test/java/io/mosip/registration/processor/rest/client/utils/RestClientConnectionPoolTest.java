@@ -0,0 +1,112 @@
+package io.mosip.registration.processor.rest.client.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.registration.processor.core.code.ApiName;
+
+/**
+ * RestClientConnectionPool test
+ *
+ * @since 1.0.9
+ */
+public class RestClientConnectionPoolTest {
+
+	private RestClientConnectionPool pool;
+
+	@Before
+	public void setUp() throws GeneralSecurityException {
+		MockEnvironment env = new MockEnvironment();
+		env.setProperty(ApiName.AUDIT.name(), "https://kernel/auditmanager/audits");
+		env.setProperty(ApiName.IDREPOSITORY.name(), "https://kernel/idrepository/v1/identity");
+		env.setProperty(ApiName.IDREPOGETIDBYUIN.name(), "https://kernel/idrepository/v1/identity/uin");
+		env.setProperty("registration.processor.rest.client.read-timeout-ms", "30000");
+		env.setProperty("registration.processor.rest.client.AUDIT.read-timeout-ms", "5000");
+		env.setProperty("registration.processor.rest.client.AUDIT.connect-timeout-ms", "1000");
+		env.setProperty("registration.processor.rest.client.AUDIT.max-connections", "4");
+		pool = new RestClientConnectionPool(env, true);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		pool.close();
+	}
+
+	@Test
+	public void testResolveApiNameByLongestPrefix() {
+		assertEquals(ApiName.IDREPOGETIDBYUIN, pool.resolveApiName("https://kernel/idrepository/v1/identity/uin/123"));
+		assertEquals(ApiName.IDREPOSITORY, pool.resolveApiName("https://kernel/idrepository/v1/identity/"));
+		assertEquals(ApiName.AUDIT, pool.resolveApiName("https://kernel/auditmanager/audits?x=y"));
+		assertNull(pool.resolveApiName("https://unknown/api"));
+	}
+
+	@Test
+	public void testTimeoutsPerApi() {
+		RestTemplate audit = pool.getRestTemplate("https://kernel/auditmanager/audits");
+		RestTemplate other = pool.getRestTemplate("https://unknown/api");
+
+		assertSame(audit, pool.getRestTemplate(ApiName.AUDIT));
+		assertNotSame(audit, other);
+		RequestConfig auditConfig = requestConfig(audit);
+		assertEquals(5000, auditConfig.getSocketTimeout());
+		assertEquals(1000, auditConfig.getConnectTimeout());
+		RequestConfig defaultConfig = requestConfig(other);
+		assertEquals(30000, defaultConfig.getSocketTimeout());
+		assertEquals(0, defaultConfig.getConnectTimeout());
+	}
+
+	@Test
+	public void testMaxConnectionsPerHost() throws GeneralSecurityException, IOException {
+		MockEnvironment env = new MockEnvironment();
+		env.setProperty(ApiName.AUDIT.name(), "https://kernel/auditmanager/audits");
+		env.setProperty(ApiName.IDREPOSITORY.name(), "https://kernel/idrepository/v1/identity");
+		env.setProperty(ApiName.IDREPOGETIDBYUIN.name(), "https://kernel/idrepository/v1/identity/uin");
+		env.setProperty("registration.processor.rest.client.AUDIT.max-connections", "4");
+		env.setProperty("registration.processor.rest.client.IDREPOSITORY.max-connections", "10");
+		env.setProperty("registration.processor.rest.client.IDREPOGETIDBYUIN.max-connections", "6");
+
+		try (RestClientConnectionPool hostPool = new RestClientConnectionPool(env, true)) {
+			PoolingHttpClientConnectionManager connectionManager = (PoolingHttpClientConnectionManager) ReflectionTestUtils
+					.getField(hostPool, "connectionManager");
+			// the apis share the host, the largest limit applies whatever their order
+			assertEquals(10, connectionManager
+					.getMaxPerRoute(new HttpRoute(new HttpHost("kernel", 443, "https"), null, true)));
+		}
+	}
+
+	@Test
+	public void testPoolMetrics() {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		pool.bindTo(registry);
+
+		assertEquals(0.0, registry.get("regproc.rest.client.pool.leased").gauge().value(), 0.0);
+		assertEquals(0.0, registry.get("regproc.rest.client.pool.pending").gauge().value(), 0.0);
+		assertEquals(0.0, registry.get("regproc.rest.client.pool.available").gauge().value(), 0.0);
+		assertEquals(200.0, registry.get("regproc.rest.client.pool.max").gauge().value(), 0.0);
+	}
+
+	private static RequestConfig requestConfig(RestTemplate restTemplate) {
+		HttpComponentsClientHttpRequestFactory requestFactory = (HttpComponentsClientHttpRequestFactory) restTemplate
+				.getRequestFactory();
+		return (RequestConfig) ReflectionTestUtils.getField(requestFactory, "requestConfig");
+	}
+}